@@ -2,26 +2,49 @@ package com.demoing.app.core;
 
 import java.awt.Graphics;
 import java.awt.event.KeyEvent;
+import java.nio.file.Path;
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 import javax.swing.JPanel;
 
 import com.demoing.app.core.config.Configuration;
 import com.demoing.app.core.entity.Entity;
+import com.demoing.app.core.entity.MapEntity;
+import com.demoing.app.core.entity.tilemap.TileMap;
 import com.demoing.app.core.gfx.Window;
 import com.demoing.app.core.io.ActionHandler;
+import com.demoing.app.core.io.InputEventQueue;
+import com.demoing.app.core.io.Resources;
+import com.demoing.app.core.io.TileMapStreamer;
+import com.demoing.app.core.math.Vec2d;
+import com.demoing.app.core.service.capture.CaptureService;
 import com.demoing.app.core.service.collision.CollisionDetector;
+import com.demoing.app.core.service.dev.HotReloader;
 import com.demoing.app.core.service.monitor.AppStatus;
+import com.demoing.app.core.service.monitor.AllocationMonitor;
+import com.demoing.app.core.service.monitor.BehaviorStatsWriter;
+import com.demoing.app.core.service.monitor.FlightDataRecorder;
+import com.demoing.app.core.service.monitor.FrameProfiler;
+import com.demoing.app.core.service.monitor.Histogram;
+import com.demoing.app.core.service.monitor.LoadGenerator;
+import com.demoing.app.core.service.monitor.MetricsExporter;
+import com.demoing.app.core.service.monitor.jfr.FrameEvent;
 import com.demoing.app.core.service.physic.PhysicEngine;
 import com.demoing.app.core.service.render.Render;
 import com.demoing.app.core.service.scene.SceneManager;
 import com.demoing.app.core.utils.I18n;
 import com.demoing.app.core.utils.Logger;
+import com.demoing.app.core.utils.Utils;
 
 /**
  * <p>
@@ -87,6 +110,18 @@ public class Application extends JPanel {
      * to proceed to correst collision response, at entity and/or at Scene level.
      */
     private CollisionDetector collisionDetect;
+    /**
+     * The screenshot and frame capture writer, encoding captured frames out of the game loop.
+     */
+    private CaptureService captureService;
+    /**
+     * The consumer of the input events queue (see {@link Application#input()}).
+     */
+    private final InputEventQueue.Consumer inputConsumer = this::onInputEvent;
+    /**
+     * The receiving time of the oldest key press processed during the current frame (0 if none).
+     */
+    private long inputTimestamp = 0;
     /**
      * Some actionListener to manage common application action,
      * like processing a specific global key event request
@@ -98,6 +133,10 @@ public class Application extends JPanel {
      * metrics to be shared with monitoring system.
      */
     private AppStatus appStats;
+    /**
+     * The Prometheus metrics exporter (only if <code>app.metrics.http.port</code> is set).
+     */
+    private MetricsExporter metricsExporter;
 
     /**
      * The real measured FPS; a render and update frame rate.
@@ -108,11 +147,65 @@ public class Application extends JPanel {
      * An internal metric regarding the global one loop cycle duration.
      */
     private long computationTime = 0;
+    /**
+     * The distribution of the frames computation times (input, update and render), in nanoseconds.
+     */
+    private final Histogram frameHistogram = new Histogram("frame");
+    /**
+     * The number of frames since start.
+     */
+    private long frameCount = 0;
+    /**
+     * The per phase and per Behavior frame times recorder, displayed with <kbd>F9</kbd>.
+     */
+    private FrameProfiler profiler;
+    /**
+     * The game thread allocations per frame and per phase, and the garbage collections per frame.
+     */
+    private AllocationMonitor allocationMonitor;
+    /**
+     * The periodic CSV dump of the Behaviors calls and execution times, if <code>app.monitor.behaviors.csv</code> is set.
+     */
+    private BehaviorStatsWriter behaviorStatsWriter;
+    /**
+     * The metrics of the last frames, dumped on a hitch or a crash, if <code>app.monitor.flight.frames</code> is set.
+     */
+    private FlightDataRecorder flightRecorder;
+    /**
+     * The generator of entities ramps, driven through JMX to stress the engine.
+     */
+    private LoadGenerator loadGenerator;
 
     /**
      * Map of entities maintained by the Application.
      */
     private final Map<String, Entity> entities = new ConcurrentHashMap<>();
+    /**
+     * The {@link MapEntity} to be kept up to date with the added and removed entities.
+     */
+    private final List<MapEntity> maps = new CopyOnWriteArrayList<>();
+    /**
+     * The {@link TileMapStreamer}s of the streamed {@link TileMap}s, loading their chunks around the active camera.
+     */
+    private final List<TileMapStreamer> streamers = new CopyOnWriteArrayList<>();
+    /**
+     * The commands submitted by other threads, to be executed on the game thread at the start of the next frame
+     * (see {@link Application#submit(Consumer)}).
+     */
+    private final Queue<Consumer<Application>> commands = new ConcurrentLinkedQueue<>();
+    /**
+     * The resources of the entities removed by a scene switch, released once the next scene is created.
+     */
+    private final List<String> releasedResources = new ArrayList<>();
+    /**
+     * The development service reloading the modified maps and configuration (only if <code>app.dev.hotreload=true</code>).
+     */
+    private HotReloader hotReloader;
+    /**
+     * The CLI arguments and configuration file name, kept to reload the configuration.
+     */
+    private String[] args;
+    private String configFileName;
     /**
      * Some shared attributes than can be accessible
      * from everywhere in the application.
@@ -145,8 +238,17 @@ public class Application extends JPanel {
 
     protected void run() {
         if (start()) {
-            loop();
-            dispose();
+            try {
+                loop();
+            } catch (RuntimeException | Error e) {
+                Logger.log(Logger.ERROR, this.getClass(), "Game loop crashed at frame %d: %s", frameCount, e);
+                dumpFlightData("crash", true);
+                throw e;
+            } finally {
+                // stop the services, writing their pending captures, statistics and dumps.
+                quit();
+                dispose();
+            }
         }
     }
 
@@ -160,8 +262,12 @@ public class Application extends JPanel {
      * @see Configuration
      */
     public void initialize(String[] args, String configFileName) {
+        this.args = args;
+        this.configFileName = configFileName;
         config = new Configuration(configFileName).parseArgs(args);
+        Logger.configure(config);
         I18n.setLanguage(config);
+        Resources.setCacheBudget(config.resourceCacheBudget * 1024L * 1024L);
     }
 
     /**
@@ -201,13 +307,15 @@ public class Application extends JPanel {
      * <li><kbd>D</kbd> Switch debug level from 0 to 4,</li>
      * <li><kbd>ESC</kbd> request to quit application,</li>
      * <li><kbd>K</kbd> Kill player's energy (test quicky),</li>
+     * <li><kbd>F3</kbd> take a screenshot, <kbd>F4</kbd> start/stop a continuous frame capture (see {@link CaptureService}),</li>
+     * <li><kbd>F9</kbd> show/hide the frame profiler overlay (see {@link FrameProfiler}),</li>
      * </ul>
      *
      * @author Frédéric Delorme
      * @since 1.0.4
      */
     private void initDefaultActions() {
-        actionHandler.actionMapping.putAll(Map.of(
+        actionHandler.registerAll(Map.of(
                 // reset the scene
                 KeyEvent.VK_Z, o -> {
                     reset();
@@ -245,12 +353,40 @@ public class Application extends JPanel {
     public void initializeServices() {
 
         // create window.
-        window = new Window(this);
+        if (!config.headless) {
+            window = new Window(this);
+        }
         sceneMgr = new SceneManager(this, config);
+        profiler = new FrameProfiler(config.debugProfilerFrames).setRecording(isProfilerRecording());
+        allocationMonitor = new AllocationMonitor(config.monitorAllocation);
         physicEngine = new PhysicEngine(this, config);
+        captureService = new CaptureService(this, config);
         render = new Render(this, physicEngine.getWorld());
         collisionDetect = new CollisionDetector(this, config, physicEngine.getWorld());
         actionHandler = new ActionHandler(this);
+        if (config.devHotReload) {
+            hotReloader = new HotReloader(this, configFileName, args).start();
+        }
+        if (config.metricsHttpPort > 0) {
+            metricsExporter = new MetricsExporter(this, config.metricsHttpPort).start();
+        }
+        if (!config.monitorBehaviorsCsv.isBlank()) {
+            behaviorStatsWriter = new BehaviorStatsWriter(profiler.getBehaviorStats(),
+                    config.monitorBehaviorsCsv, config.monitorBehaviorsInterval).start();
+        }
+        loadGenerator = new LoadGenerator(config.monitorLoadThreshold);
+        if (config.monitorFlightFrames > 0) {
+            flightRecorder = new FlightDataRecorder(config.monitorFlightFrames, config.monitorFlightHitch,
+                    Path.of(Utils.getJarPath(), "flight"));
+        }
+    }
+
+    /**
+     * The frames and the Behaviors are recorded from the start when requested by the profiler or the
+     * Behaviors monitoring configuration, and else only while the profiler overlay is displayed.
+     */
+    private boolean isProfilerRecording() {
+        return config.debugProfiler || config.monitorBehaviors || !config.monitorBehaviorsCsv.isBlank();
     }
 
     private void createJMXStatus(Application application) {
@@ -259,18 +395,62 @@ public class Application extends JPanel {
     }
 
     public void reset() {
+        List<String> released = clearEntities();
         try {
-            render.clear();
-            entities.clear();
-            Entity.entityIndex = 0;
             sceneMgr.createScene();
         } catch (Exception e) {
             Logger.log(Logger.ERROR, this.getClass(),
                     "ERR: Reset scene issue: ",
                     e.getLocalizedMessage());
+        } finally {
+            released.forEach(Resources::release);
         }
     }
 
+    /**
+     * Remove all the entities of the current scene, and then activate the scene <code>name</code>, created once its
+     * resources are loaded (see {@link SceneManager#activateScene(String)}). Must be called from the game thread.
+     *
+     * @param name the name of the scene to activate (see <code>app.scene.list</code>).
+     */
+    public void switchScene(String name) {
+        releasedResources.addAll(clearEntities());
+        sceneMgr.activateScene(name);
+        releaseResources();
+    }
+
+    /**
+     * Release the resources of the removed entities once the next scene has been created.
+     */
+    private void releaseResources() {
+        if (!sceneMgr.isLoading() && !releasedResources.isEmpty()) {
+            releasedResources.forEach(Resources::release);
+            releasedResources.clear();
+        }
+    }
+
+    /**
+     * Remove all the entities. Their resources references are returned to be released once the next entities are
+     * created, so that the resources they share are not evicted in between.
+     *
+     * @return the paths of the resources referenced by the removed entities.
+     */
+    private List<String> clearEntities() {
+        List<String> released = new ArrayList<>();
+        entities.values().forEach(e -> {
+            released.addAll(e.getResources());
+            profiler.remove(e);
+        });
+        render.clear();
+        collisionDetect.clear();
+        streamers.forEach(TileMapStreamer::dispose);
+        streamers.clear();
+        entities.clear();
+        maps.clear();
+        Entity.entityIndex.set(0);
+        return released;
+    }
+
     public void requestExit() {
         exit = true;
     }
@@ -283,9 +463,7 @@ public class Application extends JPanel {
             long start = System.currentTimeMillis();
             double elapsed = start - previous;
 
-            input();
-            update(elapsed);
-            render.draw(realFps);
+            frame(elapsed);
 
             // wait at least 1ms.
             computationTime = System.currentTimeMillis() - start;
@@ -312,18 +490,151 @@ public class Application extends JPanel {
         }
     }
 
+    /**
+     * Compute one frame: input, commands, update and render, and record its metrics.
+     * <p>
+     * Called by the game loop, or directly by a headless runner stepping the frames with a fixed
+     * <code>elapsed</code> time (see {@link com.demoing.app.core.service.monitor.BenchmarkRunner}).
+     *
+     * @param elapsed the time elapsed since the previous frame, in milliseconds.
+     * @return the frame computation time, in nanoseconds.
+     */
+    public long frame(double elapsed) {
+        long startNanos = System.nanoTime();
+        FrameEvent frameEvent = new FrameEvent();
+        frameEvent.begin();
+        long phaseStart = profiler.startFrame();
+        allocationMonitor.startFrame();
+        input();
+        executeCommands();
+        phaseStart = profiler.phase(FrameProfiler.INPUT, phaseStart);
+        allocationMonitor.phase(FrameProfiler.INPUT);
+        update(elapsed);
+        if (inputTimestamp != 0) {
+            render.setInputTimestamp(inputTimestamp);
+            inputTimestamp = 0;
+        }
+        phaseStart = System.nanoTime();
+        render.draw(realFps);
+        profiler.phase(FrameProfiler.RENDER, phaseStart);
+        allocationMonitor.phase(FrameProfiler.RENDER);
+        allocationMonitor.endFrame();
+        frameCount++;
+        frameEvent.end();
+        if (frameEvent.shouldCommit()) {
+            frameEvent.frame = frameCount;
+            frameEvent.entities = entities.size();
+            frameEvent.fps = realFps;
+            frameEvent.commit();
+        }
+
+        long frameTime = System.nanoTime() - startNanos;
+        frameHistogram.record(frameTime);
+        if (Optional.ofNullable(flightRecorder).isPresent()) {
+            flightRecorder.record(this, frameCount, frameTime);
+        }
+        loadGenerator.update(this, frameTime);
+        return frameTime;
+    }
+
+    /**
+     * Drain all the key events queued since the previous frame, to give a consistent input state
+     * for the whole frame, and then let the active scene process its own input.
+     */
     private void input() {
-        sceneMgr.getActiveScene().input(this);
+        if (Optional.ofNullable(window).isPresent()) {
+            window.getInputQueue().drain(inputConsumer);
+        }
+        if (sceneMgr.isSceneReady()) {
+            sceneMgr.getActiveScene().input(this);
+        }
+    }
+
+    /**
+     * Apply one queued key event to the {@link Window} keys state and the {@link ActionHandler} actions.
+     */
+    private void onInputEvent(int type, int keyCode, int modifiers, long timestamp) {
+        window.applyKeyEvent(type, keyCode, modifiers);
+        actionHandler.applyKeyEvent(type, keyCode, modifiers);
+        // keep the oldest key press of the frame to measure the input-to-photon latency.
+        if (type == InputEventQueue.KEY_PRESSED && (inputTimestamp == 0 || timestamp < inputTimestamp)) {
+            inputTimestamp = timestamp;
+        }
+    }
+
+    /**
+     * Submit a <code>command</code> to be executed on the game thread, at the start of the next frame,
+     * before the entities update. This is the way for other threads to modify the entities and the services.
+     *
+     * @param command the command to be executed.
+     */
+    public void submit(Consumer<Application> command) {
+        commands.add(command);
+    }
+
+    private void executeCommands() {
+        Consumer<Application> command;
+        while (Optional.ofNullable(command = commands.poll()).isPresent()) {
+            try {
+                command.accept(this);
+            } catch (RuntimeException e) {
+                Logger.log(Logger.ERROR, this.getClass(), "ERR: Unable to execute command: %s",
+                        e.getLocalizedMessage());
+            }
+        }
+    }
+
+    /**
+     * Apply the values of a reloaded Configuration to the running Application: the changed values are copied to
+     * the current Configuration (read on each frame by the services), and the world ones are pushed to the
+     * {@link com.demoing.app.core.service.physic.World} shared by the PhysicEngine and the CollisionDetector. Must be called from the game thread.
+     *
+     * @param reloaded the reloaded Configuration.
+     * @return the names of the changed configuration attributes.
+     */
+    public List<String> applyConfiguration(Configuration reloaded) {
+        List<String> changes = config.apply(reloaded);
+        if (changes.contains("worldWidth") || changes.contains("worldHeight")) {
+            physicEngine.getWorld().setArea(config.worldWidth, config.worldHeight);
+        }
+        if (changes.contains("worldGravity")) {
+            physicEngine.getWorld().setGravity(new Vec2d(0.0, config.worldGravity));
+        }
+        if (changes.contains("resourceCacheBudget")) {
+            Resources.setCacheBudget(config.resourceCacheBudget * 1024L * 1024L);
+        }
+        if (changes.contains("defaultLanguage")) {
+            I18n.setLanguage(config);
+        }
+        if (changes.contains("debugProfiler") || changes.contains("monitorBehaviors")) {
+            profiler.setRecording(isProfilerRecording());
+        }
+        if (changes.stream().anyMatch(c -> c.startsWith("log"))) {
+            Logger.configure(config);
+        }
+        Logger.log(Logger.INFO, this.getClass(), "Configuration changes applied: %s", changes);
+        return changes;
     }
 
     private synchronized void update(double elapsed) {
         if (!pause) {
             double maxElapsedTime = Math.min(elapsed, config.frameTime);
+            // the chunks streaming is accounted with the physic phase, as the entities it adds or removes.
+            long phaseStart = System.nanoTime();
+            streamers.forEach(s -> s.update(render.getActiveCamera()));
             physicEngine.update(maxElapsedTime);
+            phaseStart = profiler.phase(FrameProfiler.PHYSIC, phaseStart);
+            allocationMonitor.phase(FrameProfiler.PHYSIC);
             collisionDetect.update(maxElapsedTime);
+            phaseStart = profiler.phase(FrameProfiler.COLLISION, phaseStart);
+            allocationMonitor.phase(FrameProfiler.COLLISION);
+            sceneMgr.update();
+            releaseResources();
             if (sceneMgr.isSceneReady()) {
                 sceneMgr.getActiveScene().update(this, elapsed);
             }
+            profiler.phase(FrameProfiler.SCENE, phaseStart);
+            allocationMonitor.phase(FrameProfiler.SCENE);
         }
     }
 
@@ -342,12 +653,56 @@ public class Application extends JPanel {
     public void quit() {
         render.dispose();
         physicEngine.dispose();
+        captureService.dispose();
+        if (Optional.ofNullable(hotReloader).isPresent()) {
+            hotReloader.dispose();
+        }
+        if (Optional.ofNullable(metricsExporter).isPresent()) {
+            metricsExporter.dispose();
+        }
+        if (Optional.ofNullable(behaviorStatsWriter).isPresent()) {
+            behaviorStatsWriter.dispose();
+        }
+        allocationMonitor.dispose();
+        if (Optional.ofNullable(flightRecorder).isPresent()) {
+            flightRecorder.dispose();
+        }
+    }
+
+    /**
+     * Dump the last frames of the flight data recorder, if enabled. Must be called from the game thread
+     * (see {@link Application#submit(Consumer)}).
+     *
+     * @param reason the reason of the dump, part of the file name.
+     * @param wait   true to wait for the file to be written.
+     * @return true if a dump has been started.
+     */
+    public boolean dumpFlightData(String reason, boolean wait) {
+        return Optional.ofNullable(flightRecorder).isPresent() && flightRecorder.dump(reason, wait);
     }
 
     public void addEntity(Entity entity) {
+        entity.getResources().forEach(Resources::retain);
         render.addToPipeline(entity);
         collisionDetect.add(entity);
         entities.put(entity.name, entity);
+        if (entity instanceof MapEntity me) {
+            maps.add(me);
+            entities.values().forEach(e -> track(me, e));
+        } else {
+            maps.forEach(m -> track(m, entity));
+        }
+        if (entity instanceof TileMap tm && tm.isStreamed()) {
+            streamers.add(tm.getStreamer());
+        }
+    }
+
+    /**
+     * Display the entity and its children (e.g. the objects of a TileMap) on the map, as for the collision detection.
+     */
+    private static void track(MapEntity map, Entity e) {
+        map.track(e);
+        e.getChild().forEach(map::track);
     }
 
     public void removeEntity(String filterValue, int i) {
@@ -366,6 +721,19 @@ public class Application extends JPanel {
         render.remove(e);
         collisionDetect.remove(e);
         entities.remove(name);
+        if (Optional.ofNullable(e).isPresent()) {
+            e.getResources().forEach(Resources::release);
+            profiler.remove(e);
+            maps.remove(e);
+            maps.forEach(m -> {
+                m.untrack(e);
+                e.getChild().forEach(m::untrack);
+            });
+            if (e instanceof TileMap tm && tm.isStreamed()) {
+                streamers.remove(tm.getStreamer());
+                tm.getStreamer().dispose();
+            }
+        }
     }
 
     public List<Entity> filterEntitiesOnName(String filterValue, int i) {
@@ -414,6 +782,10 @@ public class Application extends JPanel {
         return actionHandler;
     }
 
+    public CaptureService getCaptureService() {
+        return captureService;
+    }
+
     public Map<String, Entity> getEntities() {
         return entities;
     }
@@ -426,6 +798,26 @@ public class Application extends JPanel {
         return computationTime;
     }
 
+    public Histogram getFrameHistogram() {
+        return frameHistogram;
+    }
+
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+
+    public AllocationMonitor getAllocationMonitor() {
+        return allocationMonitor;
+    }
+
+    public FlightDataRecorder getFlightRecorder() {
+        return flightRecorder;
+    }
+
+    public LoadGenerator getLoadGenerator() {
+        return loadGenerator;
+    }
+
     public Object getAttribute(String attrName, Object defaultValue) {
         return (this.attributes.getOrDefault(attrName, defaultValue));
     }
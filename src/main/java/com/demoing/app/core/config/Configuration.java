@@ -4,16 +4,36 @@ import com.demoing.app.core.Application;
 import com.demoing.app.core.utils.I18n;
 import com.demoing.app.core.utils.Logger;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * The Configuration class provide default attributes values provision from a <code>app.properties</code> file.
  * Based on a simple {@link Properties} java class, it eases the initialization of the {@link Application}.
  */
 public class Configuration {
+    /**
+     * The attributes read on each frame by the services, or pushed to them by
+     * {@link Application#applyConfiguration(Configuration)}, which can be changed by a reloaded Configuration.
+     * The other ones are read once at start (e.g. the screen size or the services settings) and require a restart.
+     */
+    public static final Set<String> RELOADABLE = Set.of(
+            "debug", "debugObjectFilter",
+            "logLevel", "logEntityFilterMatching", "logFormat", "logFile", "logAsync", "logBufferSize",
+            "fps", "frameTime",
+            "worldWidth", "worldHeight", "worldGravity",
+            "speedMinValue", "speedMaxValue", "accMinValue", "accMaxValue", "colSpeedMinValue", "colSpeedMaxValue",
+            "minimapRefreshRate", "resourceCacheBudget", "debugProfiler", "monitorBehaviors", "defaultLanguage");
+
     Properties appProps = new Properties();
     /**
      * default width of the screen
@@ -65,6 +85,22 @@ public class Configuration {
      * Here only activities on entity's name matching with <code>player</code> and <code>ball</code> will be logged.
      */
     public String logEntityFilterMatching = "";
+    /**
+     * Log output format: <code>text</code> or <code>json</code> (JSON lines).
+     */
+    public String logFormat = "text";
+    /**
+     * Log output file, the console if empty.
+     */
+    public String logFile = "";
+    /**
+     * Write the logs from a background thread.
+     */
+    public boolean logAsync = true;
+    /**
+     * Number of log records waiting to be written by the background thread before dropping the new ones.
+     */
+    public int logBufferSize = 4096;
     public long frameTime = 0;
 
     /**
@@ -86,6 +122,141 @@ public class Configuration {
 
     public int numberOfBuffer = 2;
 
+    /**
+     * Flag to activate the hardware accelerated rendering path (a VolatileImage back buffer).
+     * Set it to false to fall back to the plain BufferedImage back buffer, e.g. to compare draw throughput.
+     */
+    public boolean renderAccelerated = true;
+
+    /**
+     * Run without window nor keyboard input: the frames are only drawn into the back buffer (e.g. for benchmarks).
+     */
+    public boolean headless = false;
+
+    /**
+     * Down-scaling factor of the light map, used to accumulate the lights before compositing
+     * them over the scene (2 for half resolution, 4 for quarter resolution).
+     */
+    public int lightMapScale = 2;
+
+    /**
+     * Refresh rate (in Hz) of the moving entities on the minimap, independent of the frame rate.
+     */
+    public int minimapRefreshRate = 10;
+
+    /**
+     * Scaling mode used to present the rendering buffer to the window: <code>integer</code> (integer scale factor
+     * and letterbox), <code>fit</code> (keep aspect ratio) or <code>stretch</code>.
+     */
+    public String renderScalingMode = "integer";
+
+    /**
+     * Scaling filter used to present the rendering buffer to the window:
+     * <code>nearest</code> (speed), <code>bilinear</code> or <code>bicubic</code> (quality).
+     */
+    public String renderScalingFilter = "nearest";
+
+    /**
+     * Number of pooled images used to capture frames, i.e. the number of frames waiting to be encoded.
+     */
+    public int capturePoolSize = 8;
+    /**
+     * Number of threads encoding the captured frames.
+     */
+    public int captureThreads = 2;
+    /**
+     * Duration of a continuous frame capture, in seconds.
+     */
+    public int captureDuration = 5;
+
+    /**
+     * Memory budget of the resources cache, in megabytes (0 for an unlimited cache).
+     */
+    public int resourceCacheBudget = 128;
+
+    /**
+     * Size of the chunks of a streamed TileMap, in tiles.
+     */
+    public int worldChunkSize = 32;
+    /**
+     * Number of chunks loaded around the camera view for a streamed TileMap.
+     */
+    public int worldChunkMargin = 1;
+
+    /**
+     * Development mode: reload the maps and the configuration as soon as their files are modified.
+     */
+    public boolean devHotReload = false;
+    /**
+     * Comma separated list of the resources directories to be watched for changes in development mode.
+     */
+    public String devHotReloadPaths = "src/main/resources";
+
+    /**
+     * Duration of the frame, update and render times histograms intervals exposed through JMX, in milliseconds.
+     */
+    public int monitorHistogramInterval = 1000;
+    /**
+     * Local HTTP port publishing the metrics in the Prometheus format (0 to disable the exporter).
+     */
+    public int metricsHttpPort = 0;
+    /**
+     * Measure the memory allocated by the game thread per frame and per phase, and the garbage collections per frame.
+     */
+    public boolean monitorAllocation = true;
+    /**
+     * Account the Behaviors calls and execution times per Behavior class and event type (exposed through JMX).
+     */
+    public boolean monitorBehaviors = false;
+    /**
+     * CSV file to periodically append the Behaviors calls and execution times to (empty to disable the dump).
+     */
+    public String monitorBehaviorsCsv = "";
+    /**
+     * Duration between two dumps of the Behaviors calls and execution times to the CSV file, in milliseconds.
+     */
+    public int monitorBehaviorsInterval = 10000;
+    /**
+     * Number of frames kept by the flight data recorder, to be dumped on a hitch or a crash (0 to disable).
+     */
+    public int monitorFlightFrames = 4096;
+    /**
+     * Frame time over which the flight data recorder dumps its frames, in milliseconds (0 to disable).
+     */
+    public int monitorFlightHitch = 100;
+    /**
+     * Mean frame time of a load ramp step stopping the ramp, in milliseconds (0 to never stop).
+     */
+    public int monitorLoadThreshold = 50;
+    /**
+     * Comma separated names of the scenes played by the benchmark runner (see <code>app.scene.list</code>).
+     */
+    public String benchScenes = "bench-physic,bench-collision,bench-render,bench-light,bench-tilemap";
+    /**
+     * Comma separated numbers of entities each benchmark scene is played with.
+     */
+    public String benchCounts = "100,200,400,800,1600";
+    /**
+     * Number of measured frames of each benchmark run.
+     */
+    public int benchFrames = 600;
+    /**
+     * Number of frames played before the measure of each benchmark run.
+     */
+    public int benchWarmup = 120;
+    /**
+     * Directory the benchmark CSV and HTML reports are written to.
+     */
+    public String benchReport = "target/bench";
+    /**
+     * Record the frame profiler samples from the start, even if its overlay (<kbd>F9</kbd>) is not displayed.
+     */
+    public boolean debugProfiler = false;
+    /**
+     * Number of frames kept and displayed by the frame profiler.
+     */
+    public int debugProfilerFrames = 120;
+
     /**
      * Default minimum speed for PhysicEngine. under this value, considere 0.
      */
@@ -145,6 +316,55 @@ public class Configuration {
         }
     }
 
+    /**
+     * Initialize configuration from a properties stream (e.g. a modified configuration file to be reloaded).
+     *
+     * @param is the input stream of the properties to be loaded.
+     * @throws IOException if the properties can not be read.
+     */
+    public Configuration(InputStream is) throws IOException {
+        appProps.load(is);
+        loadConfig();
+    }
+
+    /**
+     * Copy the values from the <code>other</code> Configuration which are different from this one and can be
+     * changed while running (see {@link Configuration#RELOADABLE}). The other changed values are only logged,
+     * as they require a restart.
+     *
+     * @param other the Configuration to copy the changed values from.
+     * @return the names of the changed attributes.
+     */
+    public List<String> apply(Configuration other) {
+        List<String> changes = new ArrayList<>();
+        List<String> restart = new ArrayList<>();
+        for (Field f : Configuration.class.getFields()) {
+            if (Modifier.isStatic(f.getModifiers()) || Modifier.isFinal(f.getModifiers())) {
+                continue;
+            }
+            try {
+                Object value = f.get(other);
+                if (!Objects.equals(f.get(this), value)) {
+                    if (RELOADABLE.contains(f.getName())) {
+                        f.set(this, value);
+                        changes.add(f.getName());
+                    } else {
+                        restart.add(f.getName());
+                    }
+                }
+            } catch (IllegalAccessException e) {
+                Logger.log(Logger.ERROR, this.getClass(), "Unable to apply configuration attribute %s: %s",
+                        f.getName(), e.getMessage());
+            }
+        }
+        if (!restart.isEmpty()) {
+            Logger.log(Logger.INFO, this.getClass(), "Configuration changes not applied, restart required: %s",
+                    restart);
+        }
+        appProps = other.appProps;
+        return changes;
+    }
+
     /**
      * Map Properties attributes values to Configuration attributes.
      */
@@ -154,10 +374,49 @@ public class Configuration {
         logLevel = parseInt(appProps.getProperty("app.logger.level", "0"));
 
         logEntityFilterMatching = appProps.getProperty("app.logger.filter.entity.match", "");
+        logFormat = appProps.getProperty("app.logger.format", "text");
+        logFile = appProps.getProperty("app.logger.file", "");
+        logAsync = parseBoolean(appProps.getProperty("app.logger.async", "true"));
+        logBufferSize = parseInt(appProps.getProperty("app.logger.buffer.size", "4096"));
         screenWidth = parseDouble(appProps.getProperty("app.screen.width", "320.0"));
         screenHeight = parseDouble(appProps.getProperty("app.screen.height", "200.0"));
         displayScale = parseDouble(appProps.getProperty("app.screen.scale", "2.0"));
         numberOfBuffer = parseInt(appProps.getProperty("app.render.buffers", "2"));
+        renderAccelerated = parseBoolean(appProps.getProperty("app.render.accelerated", "true"));
+        headless = parseBoolean(appProps.getProperty("app.headless", "false"));
+        lightMapScale = parseInt(appProps.getProperty("app.render.light.scale", "2"));
+        minimapRefreshRate = parseInt(appProps.getProperty("app.render.minimap.refresh", "10"));
+        renderScalingMode = appProps.getProperty("app.render.scaling.mode", "integer");
+        renderScalingFilter = appProps.getProperty("app.render.scaling.filter", "nearest");
+
+        capturePoolSize = parseInt(appProps.getProperty("app.capture.pool.size", "8"));
+        captureThreads = parseInt(appProps.getProperty("app.capture.threads", "2"));
+        captureDuration = parseInt(appProps.getProperty("app.capture.duration", "5"));
+
+        resourceCacheBudget = parseInt(appProps.getProperty("app.resources.cache.budget", "128"));
+
+        worldChunkSize = parseInt(appProps.getProperty("app.world.chunk.size", "32"));
+        worldChunkMargin = parseInt(appProps.getProperty("app.world.chunk.margin", "1"));
+
+        devHotReload = parseBoolean(appProps.getProperty("app.dev.hotreload", "false"));
+        devHotReloadPaths = appProps.getProperty("app.dev.hotreload.paths", "src/main/resources");
+        monitorHistogramInterval = parseInt(appProps.getProperty("app.monitor.histogram.interval", "1000"));
+        metricsHttpPort = parseInt(appProps.getProperty("app.metrics.http.port", "0"));
+        monitorAllocation = parseBoolean(appProps.getProperty("app.monitor.allocation", "true"));
+        monitorBehaviors = parseBoolean(appProps.getProperty("app.monitor.behaviors", "false"));
+        monitorBehaviorsCsv = appProps.getProperty("app.monitor.behaviors.csv", "");
+        monitorBehaviorsInterval = parseInt(appProps.getProperty("app.monitor.behaviors.interval", "10000"));
+        monitorFlightFrames = parseInt(appProps.getProperty("app.monitor.flight.frames", "4096"));
+        monitorFlightHitch = parseInt(appProps.getProperty("app.monitor.flight.hitch", "100"));
+        monitorLoadThreshold = parseInt(appProps.getProperty("app.monitor.load.threshold", "50"));
+        benchScenes = appProps.getProperty("app.bench.scenes",
+                "bench-physic,bench-collision,bench-render,bench-light,bench-tilemap");
+        benchCounts = appProps.getProperty("app.bench.counts", "100,200,400,800,1600");
+        benchFrames = parseInt(appProps.getProperty("app.bench.frames", "600"));
+        benchWarmup = parseInt(appProps.getProperty("app.bench.warmup", "120"));
+        benchReport = appProps.getProperty("app.bench.report", "target/bench");
+        debugProfiler = parseBoolean(appProps.getProperty("app.debug.profiler", "false"));
+        debugProfilerFrames = parseInt(appProps.getProperty("app.debug.profiler.frames", "120"));
 
         worldWidth = parseDouble(appProps.getProperty("app.world.area.width", "640.0"));
         worldHeight = parseDouble(appProps.getProperty("app.world.area.height", "400.0"));
@@ -191,6 +450,16 @@ public class Configuration {
         return Double.parseDouble(stringValue);
     }
 
+    /**
+     * Parse a String value to a boolean one (see {@link Configuration#convertStringToBoolean(String)} for accepted values).
+     *
+     * @param stringValue the string value to be converted to boolean.
+     * @return
+     */
+    private boolean parseBoolean(String stringValue) {
+        return "on|ON|true|True|TRUE|1".contains(stringValue);
+    }
+
     /**
      * Part s String value to an Integer value.
      *
@@ -219,15 +488,46 @@ public class Configuration {
                     case "h", "height" -> screenHeight = parseDouble(argSplit[1]);
                     case "s", "scale" -> displayScale = parseDouble(argSplit[1]);
                     case "b", "buffers" -> numberOfBuffer = parseInt(argSplit[1]);
+                    case "acc", "accelerated" -> renderAccelerated = parseBoolean(argSplit[1]);
+                    case "hl", "headless" -> headless = parseBoolean(argSplit[1]);
+                    case "ls", "lightscale" -> lightMapScale = parseInt(argSplit[1]);
+                    case "mr", "minimaprefresh" -> minimapRefreshRate = parseInt(argSplit[1]);
+                    case "sm", "scalingmode" -> renderScalingMode = argSplit[1];
+                    case "sf", "scalingfilter" -> renderScalingFilter = argSplit[1];
+                    case "cd", "captureduration" -> captureDuration = parseInt(argSplit[1]);
+                    case "rcb", "resourcecachebudget" -> resourceCacheBudget = parseInt(argSplit[1]);
+                    case "wcs", "chunksize" -> worldChunkSize = parseInt(argSplit[1]);
+                    case "wcm", "chunkmargin" -> worldChunkMargin = parseInt(argSplit[1]);
+                    case "hr", "hotreload" -> devHotReload = parseBoolean(argSplit[1]);
+                    case "mhi", "histograminterval" -> monitorHistogramInterval = parseInt(argSplit[1]);
+                    case "mp", "metricsport" -> metricsHttpPort = parseInt(argSplit[1]);
+                    case "ma", "allocation" -> monitorAllocation = parseBoolean(argSplit[1]);
+                    case "mb", "behaviorstats" -> monitorBehaviors = parseBoolean(argSplit[1]);
+                    case "mbc", "behaviorcsv" -> monitorBehaviorsCsv = argSplit[1];
+                    case "mbi", "behaviorinterval" -> monitorBehaviorsInterval = parseInt(argSplit[1]);
+                    case "mff", "flightframes" -> monitorFlightFrames = parseInt(argSplit[1]);
+                    case "mfh", "flighthitch" -> monitorFlightHitch = parseInt(argSplit[1]);
+                    case "mlt", "loadthreshold" -> monitorLoadThreshold = parseInt(argSplit[1]);
+                    case "bs", "benchscenes" -> benchScenes = argSplit[1];
+                    case "bc", "benchcounts" -> benchCounts = argSplit[1];
+                    case "bf", "benchframes" -> benchFrames = parseInt(argSplit[1]);
+                    case "bw", "benchwarmup" -> benchWarmup = parseInt(argSplit[1]);
+                    case "br", "benchreport" -> benchReport = argSplit[1];
+                    case "prof", "profiler" -> debugProfiler = parseBoolean(argSplit[1]);
+                    case "pf", "profilerframes" -> debugProfilerFrames = parseInt(argSplit[1]);
 
                     case "d", "debug" -> debug = parseInt(argSplit[1]);
-                    case "logFilter" -> logEntityFilterMatching = argSplit[1];
-                    case "of", "objectFilter" -> debugObjectFilter = argSplit[1];
-                    case "ll", "logLevel" -> logLevel = parseInt(argSplit[1]);
+                    case "logfilter" -> logEntityFilterMatching = argSplit[1];
+                    case "of", "objectfilter" -> debugObjectFilter = argSplit[1];
+                    case "ll", "loglevel" -> logLevel = parseInt(argSplit[1]);
+                    case "lfmt", "logformat" -> logFormat = argSplit[1];
+                    case "lfile", "logfile" -> logFile = argSplit[1];
+                    case "la", "logasync" -> logAsync = parseBoolean(argSplit[1]);
+                    case "lbs", "logbuffersize" -> logBufferSize = parseInt(argSplit[1]);
 
-                    case "ww", "worldWidth" -> worldWidth = parseDouble(argSplit[1]);
-                    case "wh", "worldHeight" -> worldHeight = parseDouble(argSplit[1]);
-                    case "wg", "worldGravity" -> worldGravity = parseDouble(argSplit[1]);
+                    case "ww", "worldwidth" -> worldWidth = parseDouble(argSplit[1]);
+                    case "wh", "worldheight" -> worldHeight = parseDouble(argSplit[1]);
+                    case "wg", "worldgravity" -> worldGravity = parseDouble(argSplit[1]);
 
                     case "spmin" -> speedMinValue = parseDouble(argSplit[1]);
                     case "spmax" -> speedMaxValue = parseDouble(argSplit[1]);
@@ -236,7 +536,7 @@ public class Configuration {
                     case "cspmin" -> colSpeedMinValue = parseDouble(argSplit[1]);
                     case "cspmax" -> colSpeedMaxValue = parseDouble(argSplit[1]);
                     case "fps" -> fps = parseDouble(argSplit[1]);
-                    case "f", "fullScreen" -> convertStringToBoolean(argSplit[1]);
+                    case "f", "fullscreen" -> convertStringToBoolean(argSplit[1]);
 
                     case "scene" -> defaultScene = argSplit[1];
 
@@ -14,6 +14,7 @@ import com.demoing.app.core.service.physic.PhysicType;
 import java.awt.*;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.geom.RectangularShape;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,6 +22,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.demoing.app.core.entity.helpers.EntityType.RECTANGLE;
 
@@ -40,12 +42,13 @@ import static com.demoing.app.core.entity.helpers.EntityType.RECTANGLE;
  */
 public class Entity {
     /**
-     * internal counter for entity id.
+     * internal counter for entity id, shared by the game thread and the loader threads
+     * (see {@link com.demoing.app.core.io.TileMapStreamer}).
      */
-    public static long entityIndex = 0;
+    public static final AtomicLong entityIndex = new AtomicLong();
     public boolean collide;
     // id & naming attributes
-    public long id = entityIndex++;
+    public long id = entityIndex.getAndIncrement();
     public String name = "entity_" + id;
 
     public List<Entity> colliders = new CopyOnWriteArrayList<>();
@@ -56,6 +59,11 @@ public class Entity {
     public EntityType type = RECTANGLE;
     public Image image;
     public Animation animations;
+    /**
+     * Paths of the cached resources used by this entity, retained while the entity is in the
+     * {@link com.demoing.app.core.Application} (see {@link com.demoing.app.core.io.Resources#retain(String)}).
+     */
+    private final List<String> resources = new ArrayList<>();
     public Color color = Color.BLUE;
     public boolean stickToCamera;
 
@@ -154,6 +162,23 @@ public class Entity {
         return this;
     }
 
+    /**
+     * Declare a cached resource used by this entity, to be protected from eviction while the entity lives.
+     *
+     * @param path the resource path.
+     * @return this Entity.
+     */
+    public Entity addResource(String path) {
+        if (!resources.contains(path)) {
+            resources.add(path);
+        }
+        return this;
+    }
+
+    public List<String> getResources() {
+        return resources;
+    }
+
     public synchronized boolean isAlive() {
         if (attributes.containsKey("energy")) {
             return ((int) attributes.get("energy")) > 0;
@@ -235,17 +260,40 @@ public class Entity {
             }
         }
         box.setRect(pos.x, pos.y, width, height);
+        // the collision box is moved in place: an update does not allocate,
+        // the offset being read as getBounds() would round it, without creating a Rectangle.
+        double ox, oy, ow, oh;
+        if (offsetbox instanceof RectangularShape o) {
+            ox = Math.floor(o.getMinX());
+            oy = Math.floor(o.getMinY());
+            ow = Math.ceil(o.getMaxX()) - ox;
+            oh = Math.ceil(o.getMaxY()) - oy;
+        } else {
+            Rectangle offset = offsetbox.getBounds();
+            ox = offset.getX();
+            oy = offset.getY();
+            ow = offset.getWidth();
+            oh = offset.getHeight();
+        }
+        double x = box.getX() + ox;
+        double y = box.getY() + oy;
+        double w = box.getWidth() - (ow + ox);
+        double h = box.getHeight() - (oh + oy);
         switch (type) {
-            case RECTANGLE, IMAGE, default -> cbox = new Rectangle2D.Double(
-                    box.getX() + offsetbox.getBounds().getX(),
-                    box.getY() + offsetbox.getBounds().getY(),
-                    box.getWidth() - (offsetbox.getBounds().getWidth() + offsetbox.getBounds().getX()),
-                    box.getHeight() - (offsetbox.getBounds().getHeight() + offsetbox.getBounds().getY()));
-            case ELLIPSE -> cbox = new Ellipse2D.Double(
-                    box.getX() + offsetbox.getBounds().getX(),
-                    box.getY() + offsetbox.getBounds().getY(),
-                    box.getWidth() - (offsetbox.getBounds().getWidth() + offsetbox.getBounds().getX()),
-                    box.getHeight() - (offsetbox.getBounds().getHeight() + offsetbox.getBounds().getY()));
+            case RECTANGLE, IMAGE, default -> {
+                if (cbox instanceof Rectangle2D.Double r) {
+                    r.setRect(x, y, w, h);
+                } else {
+                    cbox = new Rectangle2D.Double(x, y, w, h);
+                }
+            }
+            case ELLIPSE -> {
+                if (cbox instanceof Ellipse2D.Double el) {
+                    el.setFrame(x, y, w, h);
+                } else {
+                    cbox = new Ellipse2D.Double(x, y, w, h);
+                }
+            }
         }
 
         if (Optional.ofNullable(animations).isPresent()) {
@@ -265,7 +313,7 @@ public class Entity {
             this.animations = new Animation();
         }
         this.animations.addAnimationSet(key, pathToImage, x, y, tw, th, durations, loop);
-        return this;
+        return addResource(pathToImage);
     }
 
     public boolean getAnimations() {
@@ -309,7 +357,7 @@ public class Entity {
      * @return
      */
     public static long getEntityIndex() {
-        return entityIndex;
+        return entityIndex.get();
     }
 
     /**
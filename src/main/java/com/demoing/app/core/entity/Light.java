@@ -4,8 +4,6 @@ import com.demoing.app.core.entity.helpers.LightType;
 import com.demoing.app.core.service.physic.PhysicType;
 import com.demoing.app.core.scene.Scene;
 
-import java.awt.*;
-
 import static com.demoing.app.core.entity.helpers.EntityType.NONE;
 
 /**
@@ -20,9 +18,6 @@ import static com.demoing.app.core.entity.helpers.EntityType.NONE;
  * @since 1.0.5
  */
 public class Light extends Entity {
-    public Color[] colors;
-    public float[] dist;
-    public RadialGradientPaint rgp;
     public double energy;
     public LightType lightType;
     private double rotation;
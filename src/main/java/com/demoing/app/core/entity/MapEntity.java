@@ -5,10 +5,13 @@ import com.demoing.app.core.service.physic.PhysicType;
 import com.demoing.app.core.service.physic.World;
 
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * <p>{@link MapEntity} is a displayed map of the all Scene existing active objects.</p>
@@ -23,8 +26,6 @@ import java.util.Map;
  *     "pf_", Color.LIGHT_GRAY,
  *     "floor", Color.GRAY,
  *     "outPlatform", Color.YELLOW))
- *   // define list of entities to be displayed on the map
- *   .setRefEntities(app.entities.values().stream().toList())
  *   // set World reference
  *   .setWorld(app.world)
  *   // define Map display size
@@ -33,17 +34,52 @@ import java.util.Map;
  *   .setPosition(10, app.config.screenHeight - 48);
  * </pre>
  * </p>
+ * <p>The entities to be displayed are maintained live by the {@link com.demoing.app.core.Application}
+ * (see {@link MapEntity#track(Entity)} and {@link MapEntity#untrack(Entity)}), indexed by their category,
+ * i.e. the color mapping key matching their name. The {@link PhysicType#STATIC} ones are rendered once
+ * into the {@link MapEntity#staticLayer} image, and the moving ones are drawn over it at the
+ * {@link com.demoing.app.core.config.Configuration#minimapRefreshRate} rate.</p>
  *
  * @author Frédéric Delorme
  * @see Entity
  * @since 1.0.4
  */
 public class MapEntity extends Entity {
-    public List<Entity> entitiesRef = new ArrayList<>();
+
+    /**
+     * A category of entities, sharing the same display color.
+     */
+    public static class Category {
+        public final String key;
+        public final Color color;
+        public final List<Entity> statics = new CopyOnWriteArrayList<>();
+        public final List<Entity> dynamics = new CopyOnWriteArrayList<>();
+
+        Category(String key, Color color) {
+            this.key = key;
+            this.color = color;
+        }
+    }
+
     public Map<String, Color> colorEntityMapping = new HashMap<>();
     public Color backgroundColor = new Color(0.1f, 0.1f, 0.1f, 0.4f);
     public World world;
 
+    private final List<Category> categories = new ArrayList<>();
+    private final Map<Entity, Category> entityCategory = new HashMap<>();
+
+    /**
+     * The cached rendering of the static entities, to be rebuilt when {@link MapEntity#staticDirty} is set.
+     */
+    public BufferedImage staticLayer;
+    /**
+     * The cached map image (background, static layer and moving entities), refreshed at the
+     * minimap refresh rate.
+     */
+    public BufferedImage mapImage;
+    public boolean staticDirty = true;
+    public long lastRefresh = 0;
+
     public MapEntity(String name) {
         super(name);
         setPhysicType(PhysicType.STATIC);
@@ -52,16 +88,71 @@ public class MapEntity extends Entity {
 
     public MapEntity setWorld(World w) {
         this.world = w;
+        staticDirty = true;
         return this;
     }
 
     public MapEntity setColorMapping(Map<String, Color> mp) {
         this.colorEntityMapping = mp;
+        List<Entity> tracked = new ArrayList<>(entityCategory.keySet());
+        clearEntities();
+        categories.clear();
+        mp.forEach((key, color) -> categories.add(new Category(key, color)));
+        tracked.forEach(this::track);
         return this;
     }
 
-    public MapEntity setRefEntities(List<Entity> le) {
-        this.entitiesRef = le;
-        return this;
+    /**
+     * Add the entity <code>e</code> to the category matching its name, if any.
+     *
+     * @param e the Entity to be displayed on the map.
+     */
+    public synchronized void track(Entity e) {
+        if (e == this || entityCategory.containsKey(e)) {
+            return;
+        }
+        for (Category c : categories) {
+            if (e.name.contains(c.key)) {
+                if (e.physicType == PhysicType.STATIC) {
+                    c.statics.add(e);
+                    staticDirty = true;
+                } else {
+                    c.dynamics.add(e);
+                }
+                entityCategory.put(e, c);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remove the entity <code>e</code> from the map.
+     *
+     * @param e the Entity to be removed from the map.
+     */
+    public synchronized void untrack(Entity e) {
+        Category c = entityCategory.remove(e);
+        if (Optional.ofNullable(c).isPresent()) {
+            if (c.statics.remove(e)) {
+                staticDirty = true;
+            }
+            c.dynamics.remove(e);
+        }
+    }
+
+    /**
+     * Remove all the displayed entities.
+     */
+    public synchronized void clearEntities() {
+        entityCategory.clear();
+        categories.forEach(c -> {
+            c.statics.clear();
+            c.dynamics.clear();
+        });
+        staticDirty = true;
+    }
+
+    public List<Category> getCategories() {
+        return categories;
     }
 }
@@ -1,6 +1,7 @@
 package com.demoing.app.core.entity;
 
 import com.demoing.app.core.service.physic.PhysicType;
+import com.demoing.app.core.utils.TextUtils;
 
 import java.awt.image.BufferedImage;
 
@@ -28,6 +29,18 @@ public class ValueEntity extends Entity {
     public String valueTxt;
     public BufferedImage[] figures;
     private String format = "%d";
+    /**
+     * Width and padding character extracted from an integer format like "%06d" or "%3d".
+     * A width of -1 means the format is not a simple integer one and must be processed by
+     * {@link String#format(String, Object...)}.
+     */
+    private int formatWidth = 0;
+    private char formatPad = ' ';
+    /**
+     * The reused text buffer, and a flag requesting the text to be rebuilt on next update.
+     */
+    private final StringBuilder valueBuffer = new StringBuilder(16);
+    private boolean valueChanged = true;
 
     /**
      * Create a new {@link ValueEntity} with its name.
@@ -41,14 +54,22 @@ public class ValueEntity extends Entity {
 
     /**
      * Value displayed as text must be updated according to the value and its string format.
-     * This is what happened during the update() processing.
+     * This is what happened during the update() processing, only when the value or the format has changed.
      *
      * @param elapsed the elapsed time since previous call.
      */
     @Override
     public void update(double elapsed) {
         super.update(elapsed);
-        valueTxt = String.format(format, value);
+        if (valueChanged) {
+            if (formatWidth < 0) {
+                valueTxt = String.format(format, value);
+            } else {
+                valueBuffer.setLength(0);
+                valueTxt = TextUtils.appendInt(valueBuffer, value, formatWidth, formatPad).toString();
+            }
+            valueChanged = false;
+        }
     }
 
     /**
@@ -58,7 +79,10 @@ public class ValueEntity extends Entity {
      * @return this ValueEntity with its new value.
      */
     public ValueEntity setValue(int value) {
-        this.value = value;
+        if (this.value != value) {
+            this.value = value;
+            valueChanged = true;
+        }
         return this;
     }
 
@@ -85,6 +109,35 @@ public class ValueEntity extends Entity {
      */
     public ValueEntity setFormat(String f) {
         this.format = f;
+        parseFormat(f);
+        valueChanged = true;
         return this;
     }
+
+    /**
+     * Extract the padding character and width from a "%[0][width]d" integer format.
+     * Any other format will be delegated to {@link String#format(String, Object...)}.
+     *
+     * @param f the format to be parsed.
+     */
+    private void parseFormat(String f) {
+        formatWidth = -1;
+        if (f.length() < 2 || f.charAt(0) != '%' || f.charAt(f.length() - 1) != 'd') {
+            return;
+        }
+        char pad = ' ';
+        int width = 0;
+        for (int i = 1; i < f.length() - 1; i++) {
+            char c = f.charAt(i);
+            if (c == '0' && i == 1) {
+                pad = '0';
+            } else if (c >= '0' && c <= '9') {
+                width = width * 10 + (c - '0');
+            } else {
+                return;
+            }
+        }
+        formatPad = pad;
+        formatWidth = width;
+    }
 }
@@ -1,10 +1,13 @@
 package com.demoing.app.core.entity.tilemap;
 
 import com.demoing.app.core.entity.Entity;
+import com.demoing.app.core.io.TileMapStreamer;
 import com.demoing.app.core.service.physic.PhysicType;
 
 import java.awt.*;
+import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Create a new TileMap corresponding to the new decor based on tiles.
@@ -53,10 +56,23 @@ public class TileMap extends Entity {
      */
     public int mapHeight;
     /**
-     * binary data of this TileMap
+     * The path of the map file this TileMap has been loaded from, to be reloaded on changes.
+     */
+    public String source;
+    /**
+     * binary data of this TileMap, null for a streamed TileMap.
      */
     public int[] map;
     private Map<Integer, Map<String, Object>> entities;
+    /**
+     * Size of a chunk in tiles for a streamed TileMap, 0 if the map is fully loaded.
+     */
+    public int chunkSize = 0;
+    /**
+     * The resident chunks of a streamed TileMap, indexed by their {@link TileMapChunk#key(int, int)}.
+     */
+    private final Map<Long, TileMapChunk> chunks = new ConcurrentHashMap<>();
+    private TileMapStreamer streamer;
 
     /**
      * Create a new {@link TileMap} named <code>tilemapName</code>.
@@ -96,12 +112,53 @@ public class TileMap extends Entity {
     }
 
     /**
-     * Return the map array's length.
+     * Return the map array's length (the number of cells of the whole map for a streamed map).
      *
      * @return the length of the map int array.
      */
     public int getMapLength() {
-        return map.length;
+        return isStreamed() ? mapWidth * mapHeight : map.length;
+    }
+
+    /**
+     * Set the chunk size of a streamed {@link TileMap}: its cells are only available through its resident chunks.
+     *
+     * @param chunkSize the size of a chunk in tiles.
+     * @return this updated TileMap.
+     */
+    public TileMap setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+        this.map = null;
+        return this;
+    }
+
+    public TileMap setStreamer(TileMapStreamer streamer) {
+        this.streamer = streamer;
+        return this;
+    }
+
+    public TileMapStreamer getStreamer() {
+        return streamer;
+    }
+
+    public boolean isStreamed() {
+        return chunkSize > 0;
+    }
+
+    public void addChunk(TileMapChunk chunk) {
+        chunks.put(TileMapChunk.key(chunk.cx, chunk.cy), chunk);
+    }
+
+    public TileMapChunk removeChunk(int cx, int cy) {
+        return chunks.remove(TileMapChunk.key(cx, cy));
+    }
+
+    public TileMapChunk getChunk(int cx, int cy) {
+        return chunks.get(TileMapChunk.key(cx, cy));
+    }
+
+    public Collection<TileMapChunk> getChunks() {
+        return chunks.values();
     }
 
     public TileMap addEntities(Map<Integer, Map<String, Object>> entities) {
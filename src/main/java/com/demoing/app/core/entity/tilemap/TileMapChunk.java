@@ -0,0 +1,68 @@
+package com.demoing.app.core.entity.tilemap;
+
+import com.demoing.app.core.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link TileMapChunk} is a square region of a streamed {@link TileMap}: its cells and the object entities
+ * it spawns, loaded when the camera comes near and released when it goes away
+ * (see {@link com.demoing.app.core.io.TileMapStreamer}).
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class TileMapChunk {
+    /**
+     * Position of this chunk into the chunks grid.
+     */
+    public final int cx, cy;
+    /**
+     * Position of the first tile of this chunk into the map, in tiles.
+     */
+    public final int x, y;
+    /**
+     * Size of this chunk, in tiles (smaller than the chunk size on the map right and bottom borders).
+     */
+    public final int width, height;
+    /**
+     * Cells of this chunk, row after row.
+     */
+    public final int[] cells;
+    /**
+     * Object entities spawned by this chunk.
+     */
+    public final List<Entity> entities = new ArrayList<>();
+
+    /**
+     * Create a new chunk.
+     *
+     * @param cx     horizontal position into the chunks grid.
+     * @param cy     vertical position into the chunks grid.
+     * @param x      horizontal position of its first tile.
+     * @param y      vertical position of its first tile.
+     * @param width  width in tiles.
+     * @param height height in tiles.
+     */
+    public TileMapChunk(int cx, int cy, int x, int y, int width, int height) {
+        this.cx = cx;
+        this.cy = cy;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.cells = new int[width * height];
+    }
+
+    /**
+     * Compute the key of a chunk from its grid position.
+     *
+     * @param cx horizontal position into the chunks grid.
+     * @param cy vertical position into the chunks grid.
+     * @return a unique key for the chunk.
+     */
+    public static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+}
@@ -43,11 +43,9 @@ public class Animation {
 
     public Animation addAnimationSet(String key, String imgSrc, int x, int y, int tw, int th, int[] durations, int loop) {
         AnimationSet aSet = new AnimationSet(key).setSize(tw, th);
-        BufferedImage image = Resources.loadImage(imgSrc);
         aSet.frames = new BufferedImage[durations.length];
         for (int i = 0; i < durations.length; i++) {
-            BufferedImage frame = image.getSubimage(x + (i * tw), y, tw, th);
-            aSet.frames[i] = frame;
+            aSet.frames[i] = Resources.loadSubImage(imgSrc, x + (i * tw), y, tw, th);
         }
         aSet.setFramesDuration(durations);
         aSet.setLoop(loop);
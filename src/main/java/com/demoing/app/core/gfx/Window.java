@@ -2,10 +2,12 @@ package com.demoing.app.core.gfx;
 
 import com.demoing.app.core.Application;
 import com.demoing.app.core.config.Configuration;
+import com.demoing.app.core.io.InputEventQueue;
 import com.demoing.app.core.utils.I18n;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.util.Optional;
@@ -13,6 +15,10 @@ import java.util.Optional;
 /**
  * THe Window class is the link between Application, Render and the OS.
  * It will implement the necessary listener for keyboard connectivity or more.
+ * <p>
+ * The key events received on the AWT thread are only queued into the {@link InputEventQueue}, and applied to the
+ * keys state on the game thread when the {@link Application} drains the queue, once per frame
+ * (see {@link Window#applyKeyEvent(int, int, int)}).
  *
  * @author Frédéric Delorme
  * @since 1.0.5
@@ -24,6 +30,10 @@ public class Window extends JPanel implements KeyListener {
     private boolean anyKeyPressed;
     private boolean keyCtrlPressed;
     private boolean keyShiftPressed;
+    /**
+     * The queue of key events, from the AWT thread to the game thread.
+     */
+    private final InputEventQueue inputQueue = new InputEventQueue(256);
 
     /**
      * Display Mode for the application window.
@@ -97,15 +107,6 @@ public class Window extends JPanel implements KeyListener {
         }
     }
 
-    /**
-     * Add a new Key Listener to the Window
-     *
-     * @param kl a KeyListener to be added.
-     */
-    public void addListener(KeyListener kl) {
-        frame.addKeyListener(kl);
-    }
-
     public boolean isCtrlPressed() {
         return keyCtrlPressed;
     }
@@ -121,20 +122,32 @@ public class Window extends JPanel implements KeyListener {
 
     @Override
     public void keyPressed(KeyEvent e) {
-        prevKeys[e.getKeyCode()] = keys[e.getKeyCode()];
-        keys[e.getKeyCode()] = true;
-        anyKeyPressed = true;
-        this.keyCtrlPressed = e.isControlDown();
-        this.keyShiftPressed = e.isShiftDown();
+        inputQueue.offer(InputEventQueue.KEY_PRESSED, e.getKeyCode(), e.getModifiersEx(), System.nanoTime());
     }
 
     @Override
     public void keyReleased(KeyEvent e) {
-        prevKeys[e.getKeyCode()] = keys[e.getKeyCode()];
-        keys[e.getKeyCode()] = false;
-        anyKeyPressed = false;
-        this.keyCtrlPressed = e.isControlDown();
-        this.keyShiftPressed = e.isShiftDown();
+        inputQueue.offer(InputEventQueue.KEY_RELEASED, e.getKeyCode(), e.getModifiersEx(), System.nanoTime());
+    }
+
+    /**
+     * Apply a key event drained from the {@link InputEventQueue} to the keys state.
+     * Must be called from the game thread.
+     *
+     * @param type      the event type ({@link InputEventQueue#KEY_PRESSED} or {@link InputEventQueue#KEY_RELEASED}).
+     * @param keyCode   the key code.
+     * @param modifiers the modifiers state.
+     */
+    public void applyKeyEvent(int type, int keyCode, int modifiers) {
+        prevKeys[keyCode] = keys[keyCode];
+        keys[keyCode] = type == InputEventQueue.KEY_PRESSED;
+        anyKeyPressed = keys[keyCode];
+        this.keyCtrlPressed = (modifiers & InputEvent.CTRL_DOWN_MASK) != 0;
+        this.keyShiftPressed = (modifiers & InputEvent.SHIFT_DOWN_MASK) != 0;
+    }
+
+    public InputEventQueue getInputQueue() {
+        return inputQueue;
     }
 
     public boolean isKeyPressed(int keyCode) {
@@ -2,26 +2,35 @@ package com.demoing.app.core.io;
 
 import com.demoing.app.core.Application;
 
+import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
-import java.awt.event.KeyListener;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 /**
  * A brand-new service to manage action on KeyEvent.
+ * <p>
+ * The key events are not received from the AWT thread anymore, but from the {@link InputEventQueue} drained
+ * by the {@link Application} on the game thread (see {@link ActionHandler#applyKeyEvent(int, int, int)}):
+ * all the actions are executed on the game thread, between two frames.
+ * The actions are indexed by their key code (see {@link ActionHandler#register(int, Function)}).
  *
  * @author Frédéric Delorme
  * @since 1.0.3
  */
-public class ActionHandler implements KeyListener {
+public class ActionHandler {
     private final boolean[] prevKeys = new boolean[65536];
     private final boolean[] keys = new boolean[65536];
     private boolean ctrlState = false, shiftState = false, altState = false;
     private final Application app;
     private boolean anyKeyPressed;
 
-    public Map<Integer, Function> actionMapping = new HashMap<>();
+    /**
+     * The actions to be executed on a key pressed, indexed by the key code.
+     */
+    @SuppressWarnings("unchecked")
+    private final Function<Application, ?>[] actions = (Function<Application, ?>[]) new Function<?, ?>[65536];
 
     /**
      * Initialize the service with ots parent {@link Application}.
@@ -30,43 +39,70 @@ public class ActionHandler implements KeyListener {
      */
     public ActionHandler(Application a) {
         this.app = a;
-        // register this listener to the Window
-        app.getWindow().addListener(this);
         // register the Screenshot action to the Action mapping.
-        this.actionMapping.put(KeyEvent.VK_F3, (e) -> {
+        register(KeyEvent.VK_F3, (e) -> {
             app.getRender().saveScreenshot();
             return this;
         });
+        // register the continuous frame capture start/stop action.
+        register(KeyEvent.VK_F4, (e) -> {
+            app.getCaptureService().toggleRecording();
+            return this;
+        });
+        // register the frame profiler overlay show/hide action.
+        register(KeyEvent.VK_F9, (e) -> {
+            app.getProfiler().toggleVisible();
+            return this;
+        });
     }
 
-
-    @Override
-    public void keyTyped(KeyEvent e) {
-        this.anyKeyPressed = true;
-    }
-
-    @Override
-    public void keyPressed(KeyEvent e) {
-        getAltCtrlShiftStates(e);
-
-        this.keys[e.getKeyCode()] = true;
-        if (actionMapping.containsKey(e.getKeyCode())) {
-            Function f = actionMapping.get(e.getKeyCode());
-            f.apply(e);
-        }
+    /**
+     * Define the action to be executed when the key <code>keyCode</code> is pressed.
+     * The {@link Function} will receive the parent {@link Application} as argument.
+     *
+     * @param keyCode the key code (see {@link KeyEvent}).
+     * @param action  the action to be executed.
+     * @return the updated ActionHandler.
+     */
+    public ActionHandler register(int keyCode, Function<Application, ?> action) {
+        assert (keyCode >= 0 && keyCode < actions.length);
+        actions[keyCode] = action;
+        return this;
     }
 
-    private void getAltCtrlShiftStates(KeyEvent e) {
-        this.ctrlState = e.isControlDown();
-        this.altState = e.isAltDown();
-        this.shiftState = e.isShiftDown();
+    /**
+     * Define a set of actions, mapped by their key code.
+     *
+     * @param mapping the map of actions to be registered.
+     * @return the updated ActionHandler.
+     */
+    public ActionHandler registerAll(Map<Integer, Function<Application, ?>> mapping) {
+        mapping.forEach(this::register);
+        return this;
     }
 
-    @Override
-    public void keyReleased(KeyEvent e) {
-
-        getAltCtrlShiftStates(e);
-        this.keys[e.getKeyCode()] = false;
+    /**
+     * Apply a key event drained from the {@link InputEventQueue}, executing the corresponding action if any.
+     *
+     * @param type      the event type ({@link InputEventQueue#KEY_PRESSED} or {@link InputEventQueue#KEY_RELEASED}).
+     * @param keyCode   the key code.
+     * @param modifiers the modifiers state.
+     */
+    public void applyKeyEvent(int type, int keyCode, int modifiers) {
+        this.ctrlState = (modifiers & InputEvent.CTRL_DOWN_MASK) != 0;
+        this.altState = (modifiers & InputEvent.ALT_DOWN_MASK) != 0;
+        this.shiftState = (modifiers & InputEvent.SHIFT_DOWN_MASK) != 0;
+        prevKeys[keyCode] = keys[keyCode];
+        if (type == InputEventQueue.KEY_PRESSED) {
+            this.keys[keyCode] = true;
+            this.anyKeyPressed = true;
+            Function<Application, ?> f = actions[keyCode];
+            if (Optional.ofNullable(f).isPresent()) {
+                f.apply(app);
+            }
+        } else {
+            this.keys[keyCode] = false;
+        }
     }
 
     public boolean isAnyKeyPressed() {
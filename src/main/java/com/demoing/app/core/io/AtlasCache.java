@@ -0,0 +1,145 @@
+package com.demoing.app.core.io;
+
+import java.awt.image.BufferedImage;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@link AtlasCache} interns the regions extracted from the images atlases (tiles sheets, sprites sheets).
+ * <p>
+ * Each region, identified by its source image path and its rectangle, is extracted and converted to an accelerable
+ * image only once (see {@link Resources#toCompatibleImage(BufferedImage)}), and then shared by all the tiles,
+ * map objects and animation frames using it. The shared images must then never be drawn into.
+ * <p>
+ * The regions are kept in a {@link ResourceCache} as resources derived from their source image, keyed by
+ * <code>path#x,y,w,h</code>: they are charged to the cache budget, protected while their source image is retained,
+ * and dropped when it is released for the last time or evicted (e.g. on a scene switch, see
+ * {@link Resources#releaseAll(ResourceManifest)}).
+ * <p>
+ * The memory size and the number of hits of each region are measured for diagnostics
+ * (see {@link AtlasCache#getRegions()} and the {@link com.demoing.app.core.service.monitor.AppStatusMBean}).
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class AtlasCache {
+
+    /**
+     * A region extracted from an atlas image.
+     */
+    public static class Region {
+        public final String path;
+        public final int x, y, w, h;
+        public final BufferedImage image;
+        public final long bytes;
+        private final AtomicLong hits = new AtomicLong();
+
+        Region(String path, int x, int y, int w, int h, BufferedImage image) {
+            this.path = path;
+            this.x = x;
+            this.y = y;
+            this.w = w;
+            this.h = h;
+            this.image = image;
+            this.bytes = ResourceCache.sizeOf(image);
+        }
+
+        /**
+         * Retrieve the number of times this region has been reused.
+         *
+         * @return the number of hits.
+         */
+        public long getHits() {
+            return hits.get();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[%d,%d,%dx%d] %d bytes, %d hits", path, x, y, w, h, bytes, hits.get());
+        }
+    }
+
+    private final ResourceCache cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create an atlas cache keeping its regions in its own unlimited {@link ResourceCache}.
+     */
+    public AtlasCache() {
+        this(new ResourceCache(0));
+    }
+
+    /**
+     * Create an atlas cache keeping its regions in the <code>cache</code> of their source images.
+     *
+     * @param cache the cache the regions are charged to.
+     */
+    public AtlasCache(ResourceCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Retrieve the region of the image at <code>path</code>, extracting it on its first use.
+     *
+     * @param path path of the source image
+     * @param x    horizontal position of the region in the source image
+     * @param y    vertical position of the region in the source image
+     * @param w    width of the region
+     * @param h    height of the region
+     * @return the shared image of the region.
+     */
+    public BufferedImage get(String path, int x, int y, int w, int h) {
+        String key = path + "#" + x + "," + y + "," + w + "," + h;
+        if (cache.peek(key) instanceof Region region) {
+            region.hits.incrementAndGet();
+            hits.incrementAndGet();
+            return region.image;
+        }
+        return extract(key, path, x, y, w, h).image;
+    }
+
+    private synchronized Region extract(String key, String path, int x, int y, int w, int h) {
+        // another thread may have extracted the region in the meantime.
+        if (cache.peek(key) instanceof Region region) {
+            return region;
+        }
+        Region region = new Region(path, x, y, w, h,
+                Resources.toCompatibleImage(Resources.loadImage(path).getSubimage(x, y, w, h)));
+        misses.incrementAndGet();
+        cache.put(key, region, path);
+        return region;
+    }
+
+    /**
+     * Retrieve all the regions, the most used first.
+     *
+     * @return a snapshot of the regions list.
+     */
+    public List<Region> getRegions() {
+        List<Region> list = cache.getAll(Region.class);
+        list.sort(Comparator.comparingLong(Region::getHits).reversed());
+        return list;
+    }
+
+    public void clear() {
+        cache.removeAll(Region.class);
+    }
+
+    public int size() {
+        return cache.size(Region.class);
+    }
+
+    public long getBytes() {
+        return cache.getBytes(Region.class);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
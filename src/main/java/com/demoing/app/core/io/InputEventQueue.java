@@ -0,0 +1,138 @@
+package com.demoing.app.core.io;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@link InputEventQueue} is a single-producer/single-consumer lock-free ring buffer of input events.
+ * <p>
+ * The producer is the AWT event dispatch thread (through the {@link com.demoing.app.core.gfx.Window} key listener),
+ * and the consumer is the game thread, draining all the pending events once per frame
+ * (see {@link InputEventQueue#drain(Consumer)}).
+ * <p>
+ * The events are stored into preallocated arrays: no object is created to queue or to consume an event.
+ * If the queue is full, the new event is dropped and counted (see {@link InputEventQueue#getDroppedEvents()}).
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class InputEventQueue {
+
+    /**
+     * A key has been pressed.
+     */
+    public static final int KEY_PRESSED = 1;
+    /**
+     * A key has been released.
+     */
+    public static final int KEY_RELEASED = 2;
+
+    /**
+     * The consumer of the queued events.
+     */
+    @FunctionalInterface
+    public interface Consumer {
+        /**
+         * Process one input event.
+         *
+         * @param type      the event type ({@link InputEventQueue#KEY_PRESSED} or {@link InputEventQueue#KEY_RELEASED}).
+         * @param keyCode   the key code of the event.
+         * @param modifiers the modifiers (CTRL, SHIFT, ALT) state, as from {@link java.awt.event.KeyEvent#getModifiersEx()}.
+         * @param timestamp the {@link System#nanoTime()} time the event has been received.
+         */
+        void onEvent(int type, int keyCode, int modifiers, long timestamp);
+    }
+
+    private final int mask;
+    private final int[] types;
+    private final int[] keyCodes;
+    private final int[] modifiers;
+    private final long[] timestamps;
+
+    /**
+     * Index of the next event to be read (written by the consumer only).
+     */
+    private final AtomicLong head = new AtomicLong();
+    /**
+     * Index of the next event to be written (written by the producer only).
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    private long droppedEvents;
+
+    /**
+     * Create a new queue.
+     *
+     * @param capacity the maximum number of pending events, rounded up to the next power of 2.
+     */
+    public InputEventQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.types = new int[size];
+        this.keyCodes = new int[size];
+        this.modifiers = new int[size];
+        this.timestamps = new long[size];
+    }
+
+    /**
+     * Add an event to the queue. Must only be called from the producer thread.
+     *
+     * @param type      the event type.
+     * @param keyCode   the key code of the event.
+     * @param mods      the modifiers state.
+     * @param timestamp the {@link System#nanoTime()} time the event has been received.
+     * @return false if the queue is full and the event has been dropped.
+     */
+    public boolean offer(int type, int keyCode, int mods, long timestamp) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            droppedEvents++;
+            return false;
+        }
+        int i = (int) (t & mask);
+        types[i] = type;
+        keyCodes[i] = keyCode;
+        modifiers[i] = mods;
+        timestamps[i] = timestamp;
+        // publish the event to the consumer.
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Process all the pending events with the <code>consumer</code>. Must only be called from the consumer thread.
+     *
+     * @param consumer the event consumer.
+     * @return the number of processed events.
+     */
+    public int drain(Consumer consumer) {
+        long h = head.get();
+        long t = tail.get();
+        int count = 0;
+        while (h < t) {
+            int i = (int) (h & mask);
+            consumer.onEvent(types[i], keyCodes[i], modifiers[i], timestamps[i]);
+            h++;
+            count++;
+        }
+        // release the slots to the producer.
+        head.lazySet(h);
+        return count;
+    }
+
+    /**
+     * Retrieve the number of pending events.
+     *
+     * @return the number of events waiting to be drained.
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+}
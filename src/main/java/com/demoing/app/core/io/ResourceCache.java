@@ -0,0 +1,340 @@
+package com.demoing.app.core.io;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The {@link ResourceCache} keeps the loaded resources within a memory budget.
+ * <p>
+ * Each resource has an estimated size (the raster size for a {@link BufferedImage}) and a reference count.
+ * A referenced resource (see {@link ResourceCache#retain(String)}) is never evicted. The references are counted
+ * by path, so that a resource retained before being loaded (or put again) is protected as soon as it is cached. When the total size
+ * exceeds the budget, the Least Recently Used unreferenced resources are evicted until the cache fits
+ * into its budget again.
+ * <p>
+ * A resource can be derived from a source resource (e.g. a region extracted from an atlas image, see
+ * {@link AtlasCache}): it is charged to the budget, protected while its source is referenced, and dropped with its
+ * source when the source is released for the last time, evicted or replaced.
+ * <p>
+ * The hits, misses, evictions and cached bytes are measured to be exposed through JMX
+ * (see {@link com.demoing.app.core.service.monitor.AppStatusMBean}).
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class ResourceCache {
+
+    /**
+     * The estimated size of a Font, as its real memory footprint is not available.
+     */
+    private static final long FONT_SIZE_ESTIMATE = 256 * 1024;
+
+    private static class Entry {
+        final Object value;
+        final long bytes;
+        final String source;
+
+        Entry(Object value, long bytes, String source) {
+            this.value = value;
+            this.bytes = bytes;
+            this.source = source;
+        }
+    }
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, Integer> references = new HashMap<>();
+    private long budget;
+    private long bytes;
+    private long hits, misses, evictions;
+
+    /**
+     * Create a new cache.
+     *
+     * @param budget the memory budget in bytes (0 or less for an unlimited cache).
+     */
+    public ResourceCache(long budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Retrieve a cached resource.
+     *
+     * @param path the resource path.
+     * @return the resource, or null if not in the cache.
+     */
+    public synchronized Object get(String path) {
+        Entry e = entries.get(path);
+        if (Optional.ofNullable(e).isPresent()) {
+            hits++;
+            return e.value;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Retrieve a cached resource without measuring a hit or a miss.
+     *
+     * @param path the resource path.
+     * @return the resource, or null if not in the cache.
+     */
+    synchronized Object peek(String path) {
+        Entry e = entries.get(path);
+        return Optional.ofNullable(e).isPresent() ? e.value : null;
+    }
+
+    /**
+     * Add a resource to the cache, evicting the least recently used unreferenced resources if the budget is exceeded.
+     *
+     * @param path  the resource path.
+     * @param value the resource.
+     */
+    public synchronized void put(String path, Object value) {
+        put(path, value, null);
+    }
+
+    /**
+     * Add a resource derived from the <code>source</code> resource. The derived resource is dropped with its source.
+     *
+     * @param path   the resource path.
+     * @param value  the resource.
+     * @param source the path of the source resource (null for a resource which is not derived).
+     */
+    public synchronized void put(String path, Object value, String source) {
+        Entry e = new Entry(value, sizeOf(value), source);
+        Entry previous = entries.put(path, e);
+        if (Optional.ofNullable(previous).isPresent()) {
+            bytes -= previous.bytes;
+            // the resources derived from the replaced one are out of date.
+            dropDerived(path);
+        }
+        bytes += e.bytes;
+        evict();
+    }
+
+    /**
+     * Remove a resource, and the resources derived from it, from the cache.
+     *
+     * @param path the resource path.
+     */
+    public synchronized void remove(String path) {
+        drop(path);
+    }
+
+    /**
+     * Remove all the resources of the <code>type</code> from the cache.
+     *
+     * @param type the class of the resources to be removed.
+     */
+    public synchronized void removeAll(Class<?> type) {
+        for (String path : new ArrayList<>(entries.keySet())) {
+            Entry e = entries.get(path);
+            if (Optional.ofNullable(e).isPresent() && type.isInstance(e.value)) {
+                drop(path);
+            }
+        }
+    }
+
+    /**
+     * Declare a new reference to the resource, preventing it from being evicted.
+     *
+     * @param path the resource path.
+     */
+    public synchronized void retain(String path) {
+        references.merge(path, 1, Integer::sum);
+        // a retained resource is used.
+        entries.get(path);
+    }
+
+    /**
+     * Release a reference to the resource. An unreferenced resource can be evicted.
+     *
+     * @param path the resource path.
+     */
+    public synchronized void release(String path) {
+        Integer count = references.get(path);
+        if (Optional.ofNullable(count).isPresent()) {
+            // a released resource is used for the last time.
+            entries.get(path);
+            if (count > 1) {
+                references.put(path, count - 1);
+            } else {
+                references.remove(path);
+                // the derived resources can be derived again while the source is cached.
+                dropDerived(path);
+                evict();
+            }
+        }
+    }
+
+    private void evict() {
+        if (budget <= 0) {
+            return;
+        }
+        while (bytes > budget) {
+            String evicted = null;
+            for (Map.Entry<String, Entry> me : entries.entrySet()) {
+                if (!isReferenced(me.getKey(), me.getValue())) {
+                    evicted = me.getKey();
+                    break;
+                }
+            }
+            if (Optional.ofNullable(evicted).isEmpty()) {
+                return;
+            }
+            evictions += drop(evicted);
+        }
+    }
+
+    private boolean isReferenced(String path, Entry e) {
+        return references.containsKey(path)
+                || (Optional.ofNullable(e.source).isPresent() && references.containsKey(e.source));
+    }
+
+    private int drop(String path) {
+        Entry e = entries.remove(path);
+        if (Optional.ofNullable(e).isEmpty()) {
+            return 0;
+        }
+        bytes -= e.bytes;
+        return 1 + dropDerived(path);
+    }
+
+    private int dropDerived(String source) {
+        int count = 0;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry e = it.next();
+            if (source.equals(e.source)) {
+                it.remove();
+                bytes -= e.bytes;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Estimate the memory size of a resource.
+     *
+     * @param value the resource.
+     * @return the estimated size in bytes.
+     */
+    static long sizeOf(Object value) {
+        if (value instanceof BufferedImage img) {
+            DataBuffer db = img.getRaster().getDataBuffer();
+            return (long) db.getSize() * db.getNumBanks() * DataBuffer.getDataTypeSize(db.getDataType()) / 8;
+        } else if (value instanceof Font) {
+            return FONT_SIZE_ESTIMATE;
+        } else if (value instanceof AtlasCache.Region r) {
+            return r.bytes;
+        }
+        return 0;
+    }
+
+    /**
+     * Retrieve the number of references to a resource.
+     *
+     * @param path the resource path.
+     * @return the number of references, 0 if the resource can be evicted.
+     */
+    public synchronized int getReferences(String path) {
+        return references.getOrDefault(path, 0);
+    }
+
+    public synchronized boolean contains(String path) {
+        return entries.containsKey(path);
+    }
+
+    /**
+     * Retrieve all the cached resources of the <code>type</code>.
+     *
+     * @param type the class of the resources.
+     * @param <T>  the type of the resources.
+     * @return a snapshot of the resources list.
+     */
+    public synchronized <T> List<T> getAll(Class<T> type) {
+        List<T> list = new ArrayList<>();
+        for (Entry e : entries.values()) {
+            if (type.isInstance(e.value)) {
+                list.add(type.cast(e.value));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Retrieve the number of cached resources of the <code>type</code>.
+     *
+     * @param type the class of the resources.
+     * @return the number of resources.
+     */
+    public synchronized int size(Class<?> type) {
+        int count = 0;
+        for (Entry e : entries.values()) {
+            if (type.isInstance(e.value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Retrieve the estimated memory size of the cached resources of the <code>type</code>.
+     *
+     * @param type the class of the resources.
+     * @return the size in bytes.
+     */
+    public synchronized long getBytes(Class<?> type) {
+        long total = 0;
+        for (Entry e : entries.values()) {
+            if (type.isInstance(e.value)) {
+                total += e.bytes;
+            }
+        }
+        return total;
+    }
+
+    public synchronized void setBudget(long budget) {
+        this.budget = budget;
+        evict();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        references.clear();
+        bytes = 0;
+    }
+
+    public synchronized long getBudget() {
+        return budget;
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+}
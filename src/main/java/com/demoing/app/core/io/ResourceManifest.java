@@ -0,0 +1,62 @@
+package com.demoing.app.core.io;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A {@link ResourceManifest} is the list of the resources (images and fonts) a Scene or a map needs,
+ * to be preloaded in parallel by the {@link Resources#preload(ResourceManifest)} before being used.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class ResourceManifest {
+    private final Set<String> images = new LinkedHashSet<>();
+    private final Set<String> fonts = new LinkedHashSet<>();
+
+    /**
+     * Add an image to be preloaded.
+     *
+     * @param path the path of the image resource.
+     * @return the updated ResourceManifest.
+     */
+    public ResourceManifest addImage(String path) {
+        images.add(path);
+        return this;
+    }
+
+    /**
+     * Add a font to be preloaded.
+     *
+     * @param path the path of the True Type Font resource.
+     * @return the updated ResourceManifest.
+     */
+    public ResourceManifest addFont(String path) {
+        fonts.add(path);
+        return this;
+    }
+
+    /**
+     * Add all the resources from another manifest.
+     *
+     * @param m the manifest to be merged into this one.
+     * @return the updated ResourceManifest.
+     */
+    public ResourceManifest addAll(ResourceManifest m) {
+        images.addAll(m.images);
+        fonts.addAll(m.fonts);
+        return this;
+    }
+
+    public Set<String> getImages() {
+        return images;
+    }
+
+    public Set<String> getFonts() {
+        return fonts;
+    }
+
+    public int size() {
+        return images.size() + fonts.size();
+    }
+}
@@ -0,0 +1,96 @@
+package com.demoing.app.core.io;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@link ResourcePreload} follows the parallel loading of a {@link ResourceManifest} started by
+ * {@link Resources#preload(ResourceManifest, ProgressListener)}, providing the loading progress
+ * (e.g. for a loading screen) and the futures of each loaded resource.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class ResourcePreload {
+
+    /**
+     * A listener notified each time a resource of the manifest has been loaded.
+     * It is called from the loading worker threads.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * A resource has been loaded (or has failed to load).
+         *
+         * @param loaded the number of resources already loaded.
+         * @param total  the total number of resources to be loaded.
+         * @param path   the path of the just loaded resource.
+         */
+        void onProgress(int loaded, int total, String path);
+    }
+
+    private final int total;
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final List<CompletableFuture<?>> futures;
+    private final CompletableFuture<Void> all;
+
+    ResourcePreload(List<CompletableFuture<?>> futures) {
+        this.total = futures.size();
+        this.futures = futures;
+        this.all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    int resourceLoaded() {
+        return loaded.incrementAndGet();
+    }
+
+    /**
+     * Retrieve the loading progress.
+     *
+     * @return a ratio from 0.0 to 1.0.
+     */
+    public double getProgress() {
+        return total == 0 ? 1.0 : (double) loaded.get() / total;
+    }
+
+    public int getLoaded() {
+        return loaded.get();
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public boolean isDone() {
+        return all.isDone();
+    }
+
+    /**
+     * Retrieve the futures of all the loaded resources.
+     *
+     * @return the list of futures, in the manifest order (images then fonts).
+     */
+    public List<CompletableFuture<?>> getFutures() {
+        return futures;
+    }
+
+    /**
+     * Retrieve the future completed when all the resources have been loaded.
+     *
+     * @return a CompletableFuture completed when all resources are loaded, or exceptionally if one has failed.
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return all;
+    }
+
+    /**
+     * Wait for all the resources to be loaded.
+     *
+     * @return this ResourcePreload.
+     */
+    public ResourcePreload await() {
+        all.join();
+        return this;
+    }
+}
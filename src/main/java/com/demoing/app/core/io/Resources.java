@@ -1,47 +1,149 @@
 package com.demoing.app.core.io;
 
 import com.demoing.app.core.Application;
+import com.demoing.app.core.service.monitor.jfr.ResourceDecodeEvent;
+import com.demoing.app.core.utils.Logger;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * A Resource manager to load and buffered all necessary resources.
+ * <p>
+ * The resources can be loaded on first use (see {@link Resources#loadImage(String)} and
+ * {@link Resources#loadFont(String)}), or preloaded in parallel on a pool of worker threads from a
+ * {@link ResourceManifest} (see {@link Resources#preload(ResourceManifest, ResourcePreload.ProgressListener)}).
+ * A resource requested while being preloaded is not decoded twice: the caller waits for the pending load.
  */
 public class Resources {
     /**
-     * THe internal buffer for resources
+     * THe internal buffer for resources, limited by a memory budget (see {@link Resources#setCacheBudget(long)}).
      */
-    static Map<String, Object> resources = new ConcurrentHashMap<>();
+    static final ResourceCache resources = new ResourceCache(0);
+    /**
+     * The shared regions extracted from the atlas images (see {@link Resources#loadSubImage(String, int, int, int, int)}).
+     */
+    private static final AtlasCache atlas = new AtlasCache(resources);
+    /**
+     * The resources being loaded by the worker threads.
+     */
+    private static final Map<String, CompletableFuture<?>> pending = new ConcurrentHashMap<>();
+    /**
+     * The worker threads pool decoding resources.
+     */
+    private static ExecutorService loaders;
 
     /**
-     * Load an image and store it into buffer.
+     * Load an image and store it into buffer. The decoded image is converted once to a
+     * {@link GraphicsConfiguration} compatible image (see {@link Resources#toCompatibleImage(BufferedImage)}).
      *
      * @param path path of the image
      * @return the loaded image.
      */
     public static BufferedImage loadImage(String path) {
-        BufferedImage img = null;
-        if (resources.containsKey(path)) {
-            img = (BufferedImage) resources.get(path);
-        } else {
-            try {
-                InputStream is = Resources.class.getResourceAsStream(path);
-                img = ImageIO.read(Objects.requireNonNull(is));
-                resources.put(path, img);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+        BufferedImage img = (BufferedImage) resources.get(path);
+        if (Optional.ofNullable(img).isEmpty()) {
+            CompletableFuture<?> loading = pending.get(path);
+            img = Optional.ofNullable(loading).isPresent() ? (BufferedImage) loading.join() : decodeImage(path);
         }
         return img;
     }
 
+    private static BufferedImage decodeImage(String path) {
+        ResourceDecodeEvent event = new ResourceDecodeEvent();
+        event.begin();
+        try {
+            InputStream is = Resources.class.getResourceAsStream(path);
+            BufferedImage img = toCompatibleImage(ImageIO.read(Objects.requireNonNull(is)));
+            resources.put(path, img);
+            commit(event, path, "image", img);
+            return img;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void commit(ResourceDecodeEvent event, String path, String type, Object resource) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.type = type;
+            event.bytes = ResourceCache.sizeOf(resource);
+            event.commit();
+        }
+    }
+
+    /**
+     * Extract a sub image from the image at <code>path</code> and convert it to an accelerable image.
+     * Contrary to the {@link BufferedImage#getSubimage(int, int, int, int)} view, the returned image does not
+     * share its raster with the parent image and can be cached by Java2D as a managed image.
+     * <p>
+     * The region is extracted only once and then shared by all the callers (see {@link AtlasCache}):
+     * the returned image must not be drawn into.
+     *
+     * @param path path of the source image
+     * @param x    horizontal position of the region in the source image
+     * @param y    vertical position of the region in the source image
+     * @param w    width of the region
+     * @param h    height of the region
+     * @return the shared compatible image containing the region.
+     */
+    public static BufferedImage loadSubImage(String path, int x, int y, int w, int h) {
+        return atlas.get(path, x, y, w, h);
+    }
+
+    /**
+     * Convert an image to one compatible with the current screen {@link GraphicsConfiguration}, so that
+     * Java2D can keep a copy into video memory. Sub image views are always copied.
+     *
+     * @param img the image to be converted.
+     * @return the compatible image (or <code>img</code> itself if it is already compatible).
+     */
+    public static BufferedImage toCompatibleImage(BufferedImage img) {
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        boolean isSubImage = Optional.ofNullable(img.getRaster().getParent()).isPresent();
+        if (Optional.ofNullable(gc).isPresent()
+                && !isSubImage
+                && img.getColorModel().equals(gc.getColorModel(img.getTransparency()))) {
+            return img;
+        }
+        BufferedImage compatible = Optional.ofNullable(gc).isPresent()
+                ? gc.createCompatibleImage(img.getWidth(), img.getHeight(), img.getTransparency())
+                : new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = compatible.createGraphics();
+        g.drawImage(img, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+
+    /**
+     * Retrieve the default screen {@link GraphicsConfiguration}.
+     *
+     * @return the GraphicsConfiguration of the default screen device, or null on a headless environment.
+     */
+    public static GraphicsConfiguration getGraphicsConfiguration() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return null;
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice()
+                .getDefaultConfiguration();
+    }
+
     /**
      * Load a Font and store it into buffer.
      *
@@ -49,25 +151,192 @@ public class Resources {
      * @return the loaded Font
      */
     public static Font loadFont(String path) {
-        Font f = null;
-        if (resources.containsKey(path)) {
-            f = (Font) resources.get(path);
-        } else {
+        Font f = (Font) resources.get(path);
+        if (Optional.ofNullable(f).isEmpty()) {
+            CompletableFuture<?> loading = pending.get(path);
+            f = Optional.ofNullable(loading).isPresent() ? (Font) loading.join() : decodeFont(path);
+        }
+        return f;
+    }
+
+    private static Font decodeFont(String path) {
+        ResourceDecodeEvent event = new ResourceDecodeEvent();
+        event.begin();
+        try {
+            Font f = Font.createFont(
+                    Font.PLAIN,
+                    Objects.requireNonNull(Resources.class.getResourceAsStream(path)));
+            resources.put(path, f);
+            commit(event, path, "font", f);
+            return f;
+        } catch (FontFormatException | IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Load asynchronously an image on the loader worker threads.
+     *
+     * @param path path of the image
+     * @return a future of the loaded image.
+     */
+    public static CompletableFuture<BufferedImage> loadImageAsync(String path) {
+        return loadAsync(path, Resources::decodeImage);
+    }
+
+    /**
+     * Load asynchronously a font on the loader worker threads.
+     *
+     * @param path path of the Font (True Type Font)
+     * @return a future of the loaded Font.
+     */
+    public static CompletableFuture<Font> loadFontAsync(String path) {
+        return loadAsync(path, Resources::decodeFont);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CompletableFuture<T> loadAsync(String path, Function<String, T> decoder) {
+        Object cached = resources.get(path);
+        if (Optional.ofNullable(cached).isPresent()) {
+            return CompletableFuture.completedFuture((T) cached);
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<?> existing = pending.putIfAbsent(path, future);
+        if (Optional.ofNullable(existing).isPresent()) {
+            return (CompletableFuture<T>) existing;
+        }
+        getLoaders().execute(() -> {
             try {
-                f = Font.createFont(
-                        Font.PLAIN,
-                        Objects.requireNonNull(Resources.class.getResourceAsStream(path)));
-            } catch (FontFormatException | IOException e) {
-                throw new RuntimeException(e);
+                future.complete(decoder.apply(path));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                pending.remove(path, future);
             }
+        });
+        return future;
+    }
+
+    /**
+     * Preload in parallel all the resources of the <code>manifest</code>.
+     *
+     * @param manifest the list of resources to be loaded.
+     * @return the ResourcePreload following the loading progress.
+     */
+    public static ResourcePreload preload(ResourceManifest manifest) {
+        return preload(manifest, null);
+    }
+
+    /**
+     * Preload in parallel all the resources of the <code>manifest</code>, notifying the <code>listener</code>
+     * on each loaded resource.
+     *
+     * @param manifest the list of resources to be loaded.
+     * @param listener the progress listener (can be null).
+     * @return the ResourcePreload following the loading progress.
+     */
+    public static ResourcePreload preload(ResourceManifest manifest, ResourcePreload.ProgressListener listener) {
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        manifest.getImages().forEach(p -> futures.add(loadImageAsync(p)));
+        manifest.getFonts().forEach(p -> futures.add(loadFontAsync(p)));
+        ResourcePreload preload = new ResourcePreload(futures);
+        List<String> paths = new ArrayList<>(manifest.getImages());
+        paths.addAll(manifest.getFonts());
+        for (int i = 0; i < futures.size(); i++) {
+            String path = paths.get(i);
+            futures.get(i).whenComplete((r, e) -> {
+                int loaded = preload.resourceLoaded();
+                if (Optional.ofNullable(e).isPresent()) {
+                    Logger.log(Logger.ERROR, Resources.class, "Unable to load resource %s: %s", path, e.getMessage());
+                }
+                if (Optional.ofNullable(listener).isPresent()) {
+                    listener.onProgress(loaded, preload.getTotal(), path);
+                }
+            });
         }
-        return f;
+        return preload;
+    }
+
+    private static synchronized ExecutorService getLoaders() {
+        if (Optional.ofNullable(loaders).isEmpty()) {
+            AtomicInteger index = new AtomicInteger();
+            loaders = Executors.newFixedThreadPool(
+                    Math.max(2, Runtime.getRuntime().availableProcessors()),
+                    r -> {
+                        Thread t = new Thread(r, "resource-loader-" + index.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+        }
+        return loaders;
+    }
+
+    /**
+     * Define the memory budget of the resources cache. The least recently used resources not retained
+     * (see {@link Resources#retain(String)}) are evicted when the budget is exceeded.
+     *
+     * @param bytes the budget in bytes (0 for an unlimited cache).
+     */
+    public static void setCacheBudget(long bytes) {
+        resources.setBudget(bytes);
+    }
+
+    /**
+     * Declare a reference (from a Scene or an Entity) to a loaded resource, preventing it from being evicted.
+     *
+     * @param path the resource path.
+     */
+    public static void retain(String path) {
+        resources.retain(path);
+    }
+
+    /**
+     * Release a reference to a resource, letting it be evicted if not referenced anymore. The atlas regions
+     * extracted from a resource not referenced anymore are dropped (see {@link AtlasCache}).
+     *
+     * @param path the resource path.
+     */
+    public static void release(String path) {
+        resources.release(path);
+    }
+
+    /**
+     * Retain all the resources of a manifest.
+     *
+     * @param manifest the list of resources to be retained.
+     */
+    public static void retainAll(ResourceManifest manifest) {
+        manifest.getImages().forEach(Resources::retain);
+        manifest.getFonts().forEach(Resources::retain);
+    }
+
+    /**
+     * Release all the resources of a manifest.
+     *
+     * @param manifest the list of resources to be released.
+     */
+    public static void releaseAll(ResourceManifest manifest) {
+        manifest.getImages().forEach(Resources::release);
+        manifest.getFonts().forEach(Resources::release);
+    }
+
+    public static ResourceCache getCache() {
+        return resources;
+    }
+
+    public static AtlasCache getAtlas() {
+        return atlas;
     }
 
     /**
      * Free all loaded resources.
      */
-    public static void dispose() {
+    public static synchronized void dispose() {
         resources.clear();
+        atlas.clear();
+        if (Optional.ofNullable(loaders).isPresent()) {
+            loaders.shutdownNow();
+            loaders = null;
+        }
     }
 }
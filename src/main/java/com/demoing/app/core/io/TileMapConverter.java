@@ -0,0 +1,65 @@
+package com.demoing.app.core.io;
+
+import com.demoing.app.core.utils.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The {@link TileMapConverter} compiles a <code>.properties</code> map into the binary map format
+ * (see {@link TileMapFormat}), to be loaded by the {@link TileMapLoader} without any text parsing.
+ * <p>
+ * Usage:
+ * <pre>
+ * java -cp monoclass2.jar com.demoing.app.core.io.TileMapConverter src/main/resources/maps/map_0_1.properties [target.mc2m]
+ * </pre>
+ * If no target is given, the compiled map is written next to the source one, with the <code>.mc2m</code> extension.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class TileMapConverter {
+
+    private TileMapConverter() {
+    }
+
+    /**
+     * Convert the <code>source</code> properties map file into the <code>target</code> compiled map file.
+     *
+     * @param source the path of the <code>.properties</code> map file.
+     * @param target the path of the <code>.mc2m</code> file to be written.
+     * @throws IOException if the source can not be read or the target can not be written.
+     */
+    public static void convert(Path source, Path target) throws IOException {
+        TileMapData data;
+        try (InputStream is = Files.newInputStream(source)) {
+            data = TileMapLoader.readProperties(is);
+        }
+        try (OutputStream os = Files.newOutputStream(target)) {
+            TileMapFormat.write(data, os);
+        }
+        Logger.log(Logger.INFO, TileMapConverter.class, "Map %s (%dx%d) converted to %s (%d bytes)",
+                source, data.mapWidth, data.mapHeight, target, Files.size(target));
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.printf("usage: TileMapConverter <map.properties> [map%s]%n", TileMapFormat.EXTENSION);
+            System.exit(1);
+        }
+        Path source = Paths.get(args[0]);
+        Path target = args.length > 1
+                ? Paths.get(args[1])
+                : Paths.get(args[0].replaceFirst("\\.properties$", "") + TileMapFormat.EXTENSION);
+        try {
+            convert(source, target);
+        } catch (IOException e) {
+            Logger.log(Logger.ERROR, TileMapConverter.class, "Unable to convert map %s: %s", source, e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.demoing.app.core.io;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The {@link TileMapData} is the raw description of a level, as read from a map file
+ * (a <code>.properties</code> map or a compiled <code>.mc2m</code> binary map, see {@link TileMapFormat}),
+ * before the {@link TileMapLoader} creates the TileMap, its tiles and its objects.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class TileMapData {
+    /**
+     * Name of the TileMap entity.
+     */
+    public String name;
+    /**
+     * Size of the map, in tiles.
+     */
+    public int mapWidth, mapHeight;
+    /**
+     * Size of one tile, in pixels.
+     */
+    public int tileWidth, tileHeight;
+    /**
+     * Resource id of the background image, -1 if no background.
+     */
+    public int background = -1;
+    /**
+     * The resources paths, indexed by their id.
+     */
+    public Map<Integer, String> resources = new LinkedHashMap<>();
+    /**
+     * The tiles attributes, indexed by the tile id.
+     */
+    public Map<Integer, Map<String, Object>> tiles = new LinkedHashMap<>();
+    /**
+     * The objects attributes, indexed by the map cell value creating them.
+     */
+    public Map<Integer, Map<String, Object>> objects = new LinkedHashMap<>();
+    /**
+     * The map cells, row after row. May be null for a compiled map opened to be streamed
+     * (see {@link TileMapFormat#open(String)}), the cells being then read from the mapped file.
+     */
+    public int[] cells;
+
+    private ByteBuffer cellBuffer;
+    private int cellBytes;
+
+    /**
+     * Keep the map cells into the (memory-mapped) <code>buffer</code> instead of the {@link TileMapData#cells} array.
+     *
+     * @param buffer the buffer containing the packed cells, from its position 0.
+     * @param bytes  the size of one cell in bytes (1, 2 or 4).
+     */
+    void setCellBuffer(ByteBuffer buffer, int bytes) {
+        this.cellBuffer = buffer;
+        this.cellBytes = bytes;
+    }
+
+    /**
+     * Read a rectangular region of the map cells into <code>dest</code>, row after row.
+     *
+     * @param x    horizontal position of the region, in tiles.
+     * @param y    vertical position of the region, in tiles.
+     * @param w    width of the region, in tiles.
+     * @param h    height of the region, in tiles.
+     * @param dest the array receiving the <code>w*h</code> cells.
+     */
+    public void readRegion(int x, int y, int w, int h, int[] dest) {
+        for (int iy = 0; iy < h; iy++) {
+            int offset = x + (y + iy) * mapWidth;
+            if (Optional.ofNullable(cells).isPresent()) {
+                System.arraycopy(cells, offset, dest, iy * w, w);
+            } else {
+                for (int ix = 0; ix < w; ix++) {
+                    dest[ix + iy * w] = switch (cellBytes) {
+                        case 1 -> cellBuffer.get(offset + ix) & 0xFF;
+                        case 2 -> cellBuffer.getShort((offset + ix) * 2) & 0xFFFF;
+                        default -> cellBuffer.getInt((offset + ix) * 4);
+                    };
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.demoing.app.core.io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The {@link TileMapFormat} reads and writes the compiled binary map format (<code>.mc2m</code> files).
+ * <p>
+ * All the attributes parsing is done once, when converting a <code>.properties</code> map
+ * (see {@link TileMapConverter}), and the loading of a compiled map only reads typed values.
+ * A map file from the file system is memory-mapped and its cells are read from the mapped buffer,
+ * without any intermediate String or copy. A map packaged into a jar is read into a heap buffer.
+ * A map opened to be streamed (see {@link TileMapFormat#open(String)}) keeps its cells into the mapped buffer,
+ * to be read chunk by chunk by the {@link TileMapStreamer}.
+ * <p>
+ * The file layout (big-endian):
+ * <pre>
+ * header   : magic "MC2M" (int), version (short),
+ *            name (string), mapWidth, mapHeight, tileWidth, tileHeight, background (int),
+ *            resources count (int), then for each: id (int), path (string)
+ * tiles    : count (int), then for each: id (int), attributes (map)
+ * cells    : cell size in bytes (byte: 1, 2 or 4), count (int), then the packed cells
+ * objects  : count (int), then for each: id (int), attributes (map)
+ * </pre>
+ * A string is its UTF-8 bytes length (int) followed by the bytes, a map is its entries count (int) followed by
+ * each key (string) and typed value: a type tag (byte) and the int, double, boolean, string or map value.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class TileMapFormat {
+    /**
+     * The compiled map file extension.
+     */
+    public static final String EXTENSION = ".mc2m";
+
+    private static final int MAGIC = 0x4D43324D;
+    private static final short VERSION = 1;
+
+    private static final byte TYPE_INT = 'I';
+    private static final byte TYPE_DOUBLE = 'D';
+    private static final byte TYPE_BOOLEAN = 'Z';
+    private static final byte TYPE_STRING = 'S';
+    private static final byte TYPE_MAP = 'M';
+
+    private TileMapFormat() {
+    }
+
+    /**
+     * Write the <code>data</code> map as a compiled binary map.
+     *
+     * @param data the map to be written.
+     * @param os   the output stream to write the map to.
+     * @throws IOException if the map can not be written.
+     */
+    public static void write(TileMapData data, OutputStream os) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+        // header
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        writeString(out, Optional.ofNullable(data.name).orElse(""));
+        out.writeInt(data.mapWidth);
+        out.writeInt(data.mapHeight);
+        out.writeInt(data.tileWidth);
+        out.writeInt(data.tileHeight);
+        out.writeInt(data.background);
+        out.writeInt(data.resources.size());
+        for (Map.Entry<Integer, String> r : data.resources.entrySet()) {
+            out.writeInt(r.getKey());
+            writeString(out, r.getValue());
+        }
+        // tiles
+        writeTable(out, data.tiles);
+        // cells, packed on the smallest size able to store all the values.
+        int cellBytes = getCellBytes(data.cells);
+        out.writeByte(cellBytes);
+        out.writeInt(data.cells.length);
+        for (int cell : data.cells) {
+            switch (cellBytes) {
+                case 1 -> out.writeByte(cell);
+                case 2 -> out.writeShort(cell);
+                default -> out.writeInt(cell);
+            }
+        }
+        // objects
+        writeTable(out, data.objects);
+        out.flush();
+    }
+
+    private static int getCellBytes(int[] cells) {
+        int min = 0, max = 0;
+        for (int cell : cells) {
+            min = Math.min(min, cell);
+            max = Math.max(max, cell);
+        }
+        return min < 0 || max > 0xFFFF ? 4 : max > 0xFF ? 2 : 1;
+    }
+
+    private static void writeTable(DataOutputStream out, Map<Integer, Map<String, Object>> table) throws IOException {
+        out.writeInt(table.size());
+        for (Map.Entry<Integer, Map<String, Object>> e : table.entrySet()) {
+            out.writeInt(e.getKey());
+            writeMap(out, e.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeMap(DataOutputStream out, Map<String, Object> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, Object> e : map.entrySet()) {
+            writeString(out, e.getKey());
+            Object value = e.getValue();
+            if (value instanceof Integer i) {
+                out.writeByte(TYPE_INT);
+                out.writeInt(i);
+            } else if (value instanceof Double d) {
+                out.writeByte(TYPE_DOUBLE);
+                out.writeDouble(d);
+            } else if (value instanceof Boolean b) {
+                out.writeByte(TYPE_BOOLEAN);
+                out.writeBoolean(b);
+            } else if (value instanceof Map<?, ?> m) {
+                out.writeByte(TYPE_MAP);
+                writeMap(out, (Map<String, Object>) m);
+            } else {
+                out.writeByte(TYPE_STRING);
+                writeString(out, String.valueOf(value));
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a compiled map from the classpath. A map from the file system is memory-mapped,
+     * a map from a jar is read into memory.
+     *
+     * @param path the path of the map resource.
+     * @return the map data.
+     * @throws IOException if the map can not be found or is not a valid compiled map.
+     */
+    public static TileMapData read(String path) throws IOException {
+        return read(path, false);
+    }
+
+    /**
+     * Open a compiled map from the classpath to be streamed: the cells are not copied to the
+     * {@link TileMapData#cells} array, but read from the (memory-mapped) buffer on demand
+     * (see {@link TileMapData#readRegion(int, int, int, int, int[])}).
+     *
+     * @param path the path of the map resource.
+     * @return the map data.
+     * @throws IOException if the map can not be found or is not a valid compiled map.
+     */
+    public static TileMapData open(String path) throws IOException {
+        return read(path, true);
+    }
+
+    private static TileMapData read(String path, boolean streamCells) throws IOException {
+        URL url = TileMapFormat.class.getResource(path);
+        if (Optional.ofNullable(url).isEmpty()) {
+            throw new FileNotFoundException("Unable to find map " + path);
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return read(Paths.get(url.toURI()), streamCells);
+            } catch (URISyntaxException e) {
+                throw new IOException("Unable to read map " + path, e);
+            }
+        }
+        try (InputStream is = url.openStream()) {
+            return read(ByteBuffer.wrap(is.readAllBytes()), streamCells);
+        }
+    }
+
+    /**
+     * Read a compiled map file by memory-mapping it.
+     *
+     * @param file the path of the map file.
+     * @return the map data.
+     * @throws IOException if the map can not be read or is not a valid compiled map.
+     */
+    public static TileMapData read(Path file) throws IOException {
+        return read(file, false);
+    }
+
+    /**
+     * Open a compiled map file to be streamed, its cells being read from the memory-mapped file on demand.
+     *
+     * @param file the path of the map file.
+     * @return the map data.
+     * @throws IOException if the map can not be read or is not a valid compiled map.
+     */
+    public static TileMapData open(Path file) throws IOException {
+        return read(file, true);
+    }
+
+    private static TileMapData read(Path file, boolean streamCells) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), streamCells);
+        }
+    }
+
+    /**
+     * Read a compiled map from a buffer.
+     *
+     * @param buf the buffer containing the compiled map.
+     * @return the map data.
+     * @throws IOException if the buffer does not contain a valid compiled map.
+     */
+    public static TileMapData read(ByteBuffer buf) throws IOException {
+        return read(buf, false);
+    }
+
+    private static TileMapData read(ByteBuffer buf, boolean streamCells) throws IOException {
+        if (buf.remaining() < 6 || buf.getInt() != MAGIC) {
+            throw new IOException("Not a compiled map");
+        }
+        short version = buf.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported compiled map version " + version);
+        }
+        TileMapData data = new TileMapData();
+        data.name = readString(buf);
+        data.mapWidth = buf.getInt();
+        data.mapHeight = buf.getInt();
+        data.tileWidth = buf.getInt();
+        data.tileHeight = buf.getInt();
+        data.background = buf.getInt();
+        int nbResources = buf.getInt();
+        for (int i = 0; i < nbResources; i++) {
+            int id = buf.getInt();
+            data.resources.put(id, readString(buf));
+        }
+        readTable(buf, data.tiles);
+        int cellBytes = buf.get();
+        int nbCells = buf.getInt();
+        if (streamCells) {
+            // keep the cells into the buffer, and skip them.
+            data.setCellBuffer(buf.slice(buf.position(), nbCells * cellBytes), cellBytes);
+            buf.position(buf.position() + nbCells * cellBytes);
+            readTable(buf, data.objects);
+            return data;
+        }
+        data.cells = new int[nbCells];
+        switch (cellBytes) {
+            case 1 -> {
+                for (int i = 0; i < data.cells.length; i++) {
+                    data.cells[i] = buf.get() & 0xFF;
+                }
+            }
+            case 2 -> {
+                for (int i = 0; i < data.cells.length; i++) {
+                    data.cells[i] = buf.getShort() & 0xFFFF;
+                }
+            }
+            default -> {
+                buf.asIntBuffer().get(data.cells);
+                buf.position(buf.position() + data.cells.length * Integer.BYTES);
+            }
+        }
+        readTable(buf, data.objects);
+        return data;
+    }
+
+    private static void readTable(ByteBuffer buf, Map<Integer, Map<String, Object>> table) throws IOException {
+        int count = buf.getInt();
+        for (int i = 0; i < count; i++) {
+            int id = buf.getInt();
+            table.put(id, readMap(buf));
+        }
+    }
+
+    private static Map<String, Object> readMap(ByteBuffer buf) throws IOException {
+        int count = buf.getInt();
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String key = readString(buf);
+            byte type = buf.get();
+            Object value = switch (type) {
+                case TYPE_INT -> buf.getInt();
+                case TYPE_DOUBLE -> buf.getDouble();
+                case TYPE_BOOLEAN -> buf.get() != 0;
+                case TYPE_STRING -> readString(buf);
+                case TYPE_MAP -> readMap(buf);
+                default -> throw new IOException("Unknown attribute type " + type + " for " + key);
+            };
+            map.put(key, value);
+        }
+        return map;
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getInt()];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -7,71 +7,200 @@ import com.demoing.app.core.entity.helpers.EntityType;
 import com.demoing.app.core.entity.tilemap.Tile;
 import com.demoing.app.core.entity.tilemap.TileMap;
 import com.demoing.app.core.scene.Scene;
+import com.demoing.app.core.service.monitor.jfr.MapLoadEvent;
 import com.demoing.app.core.service.physic.PhysicType;
 import com.demoing.app.core.service.physic.material.Material;
+import com.demoing.app.core.utils.FactoryRegistry;
+import com.demoing.app.core.utils.Logger;
 
 import java.awt.geom.Ellipse2D;
 import java.awt.image.BufferedImage;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+/**
+ * The {@link TileMapLoader} creates a {@link TileMap}, its tiles and its objects from a map file.
+ * <p>
+ * The map file can be a <code>.properties</code> map, or a compiled <code>.mc2m</code> binary map
+ * (see {@link TileMapFormat} and {@link TileMapConverter}), loaded without any text parsing.
+ * <p>
+ * A big level can be streamed (see {@link TileMapLoader#stream(Application, Scene, String)}): only the chunks
+ * around the camera view are loaded, with their objects, by a {@link TileMapStreamer}.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
 public class TileMapLoader {
-    private static int entityIndex = 0;
+    /**
+     * The values parsed as numbers, with the syntax accepted by {@link Integer#parseInt(String)} and
+     * {@link Double#parseDouble(String)}, checked without relying on exceptions.
+     */
+    private static final Pattern INTEGER = Pattern.compile("[+-]?\\d+");
+    private static final Pattern DECIMAL = Pattern.compile("[+-]?(NaN|Infinity|"
+            + "((\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?[fFdD]?)|"
+            + "(0[xX](\\p{XDigit}+\\.?|\\p{XDigit}*\\.\\p{XDigit}+)[pP][+-]?\\d+[fFdD]?))");
+    private static final Set<String> BOOLEANS = Set.of("true", "True", "TRUE", "false", "False", "FALSE");
+    private static final AtomicInteger entityIndex = new AtomicInteger();
+    /**
+     * The attribute keeping the map cell index of the objects created as TileMap children.
+     */
+    private static final String CELL_ATTRIBUTE = "tilemap.cell";
 
     public static TileMap load(Application app, Scene scn, String mapFilepath) {
         TileMap tm;
-        Properties tmProps = new Properties();
-        InputStream is = TileMapLoader.class.getResourceAsStream(mapFilepath);
+        MapLoadEvent event = new MapLoadEvent();
+        event.begin();
         try {
+            TileMapData data = read(mapFilepath);
+
+            // decode all the map resources in parallel before using them.
+            Resources.preload(createManifest(data.resources)).await();
+
+            readBackground(app, data);
+
+            tm = createTileMap(data);
+            tm.source = mapFilepath;
+
+            readAllTiles(tm, data);
+
+            Collection<Entity> entities = createEntitiesAsChild(scn, tm, data);
 
-            tmProps.load(is);
+            Logger.log(Logger.INFO, TileMapLoader.class, "mapEntities size:%d", entities.size());
 
-            Map<Object, Object> resources = retrieveResources(tmProps);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        commit(event, tm, mapFilepath);
+        return tm;
+    }
 
-            readBackGroundFromFile(app, tmProps, resources);
+    /**
+     * Create a streamed {@link TileMap} from the map file at <code>mapFilepath</code>: the map cells and objects are
+     * only loaded chunk by chunk around the camera view, by the {@link TileMapStreamer} attached to the TileMap,
+     * once the TileMap is added to the {@link Application}.
+     * A compiled map is kept memory-mapped, and its cells are read from the mapped file for each chunk.
+     *
+     * @param app         the parent Application.
+     * @param scn         the Scene the map is created for.
+     * @param mapFilepath the path of the map file.
+     * @return the streamed TileMap.
+     */
+    public static TileMap stream(Application app, Scene scn, String mapFilepath) {
+        TileMap tm;
+        MapLoadEvent event = new MapLoadEvent();
+        event.begin();
+        try {
+            TileMapData data = mapFilepath.endsWith(TileMapFormat.EXTENSION)
+                    ? TileMapFormat.open(mapFilepath)
+                    : read(mapFilepath);
 
-            tm = readMapFromStringList(tmProps);
+            Resources.preload(createManifest(data.resources)).await();
 
-            readAllTiles(tm, tmProps, resources);
+            readBackground(app, data);
 
-            Collection<Entity> entities = createEntitiesAsChild(scn, tm, tmProps, resources);
+            tm = createTileMap(data).setChunkSize(app.getConfiguration().worldChunkSize);
+            tm.source = mapFilepath;
 
-            System.out.printf("mapEntities size:%d", entities.size());
+            readAllTiles(tm, data);
 
+            tm.addEntities(data.objects);
+            tm.setStreamer(new TileMapStreamer(app, scn, tm, data));
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        commit(event, tm, mapFilepath);
         return tm;
     }
 
-    private static void readAllTiles(TileMap tm, Properties tmProps, Map<Object, Object> resources) {
+    private static void commit(MapLoadEvent event, TileMap tm, String mapFilepath) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = mapFilepath;
+            event.width = tm.mapWidth;
+            event.height = tm.mapHeight;
+            event.streamed = tm.isStreamed();
+            event.commit();
+        }
+    }
 
-        Map<Integer, Map<String, Object>> mapEntities = new ConcurrentHashMap<>();
+    /**
+     * Read the map file at <code>mapFilepath</code>: a compiled map if its extension
+     * is {@link TileMapFormat#EXTENSION}, a <code>.properties</code> map otherwise.
+     *
+     * @param mapFilepath the path of the map resource.
+     * @return the map data.
+     * @throws IOException if the map can not be read.
+     */
+    public static TileMapData read(String mapFilepath) throws IOException {
+        if (mapFilepath.endsWith(TileMapFormat.EXTENSION)) {
+            return TileMapFormat.read(mapFilepath);
+        }
+        try (InputStream is = TileMapLoader.class.getResourceAsStream(mapFilepath)) {
+            if (Optional.ofNullable(is).isEmpty()) {
+                throw new FileNotFoundException("Unable to find map " + mapFilepath);
+            }
+            return readProperties(is);
+        }
+    }
 
-        List<Object> tilesDefinitions = tmProps.keySet().stream()
+    /**
+     * Parse a <code>.properties</code> map.
+     *
+     * @param is the input stream of the map properties.
+     * @return the map data.
+     * @throws IOException if the map can not be read.
+     */
+    public static TileMapData readProperties(InputStream is) throws IOException {
+        Properties tmProps = new Properties();
+        tmProps.load(is);
+
+        TileMapData data = new TileMapData();
+        data.name = tmProps.getProperty("level.object.name");
+        data.mapWidth = Integer.parseInt(tmProps.getProperty("level.map.width"));
+        data.mapHeight = Integer.parseInt(tmProps.getProperty("level.map.height"));
+        data.tileWidth = Integer.parseInt(tmProps.getProperty("level.map.tile.width"));
+        data.tileHeight = Integer.parseInt(tmProps.getProperty("level.map.tile.height"));
+        if (tmProps.containsKey("level.map.background")) {
+            data.background = Integer.parseInt(tmProps.getProperty("level.map.background").strip());
+        }
+        data.resources = retrieveResources(tmProps);
+        data.tiles = readTilesAttributes(tmProps);
+        data.objects = readObjectsAttributes(tmProps);
+        data.cells = parseCells(tmProps.getProperty("level.map"), data.mapWidth * data.mapHeight);
+        return data;
+    }
+
+    private static Map<Integer, Map<String, Object>> readTilesAttributes(Properties tmProps) {
+        Map<Integer, Map<String, Object>> tiles = new HashMap<>();
+        tmProps.keySet().stream()
                 .filter(k -> k.toString().contains("level.tiles"))
-                .collect(Collectors.toList());
+                .forEach(o -> tiles.put(
+                        Integer.parseInt(o.toString().substring("level.tiles.".length())),
+                        collectAttributesMap((String) tmProps.get(o.toString()), ";", ":")));
+        return tiles;
+    }
 
+    private static void readAllTiles(TileMap tm, TileMapData data) {
         Map<Integer, Tile> tiles = new HashMap<>();
-        for (Object o : tilesDefinitions) {
-            int key = Integer.parseInt(o.toString().substring("level.tiles.".length()));
-
-            Map<String, Object> attributes = collectAttributesMap((String) tmProps.get(o.toString()), ";", ":");
+        for (Map.Entry<Integer, Map<String, Object>> t : data.tiles.entrySet()) {
+            int key = t.getKey();
+            Map<String, Object> attributes = new HashMap<>(t.getValue());
 
             Map<String, Object> tileImageAttributes = (Map<String, Object>) attributes.get("image");
-            attributes.put("image", tileImageAttributes);
-            BufferedImage tilesImgSrc = convertImageAttributeToBufferedImage(resources, tileImageAttributes);
+            BufferedImage tilesImgSrc = convertImageAttributeToBufferedImage(data.resources, tileImageAttributes);
             Tile tile = new Tile(key, tilesImgSrc, attributes);
-            System.out.printf("INFO : TileMapLoader | Tile id %d with %s has been added .%n", tile.id, tile.attributes);
+            Logger.log(Logger.DEBUG, TileMapLoader.class, "Tile id %d with %s has been added", tile.id, tile.attributes);
 
             tiles.put(key, tile);
         }
         if (tiles.size() == 0) {
-            System.out.printf("ERR : TileMapLoader | no tiles has been defined.%n");
+            Logger.log(Logger.ERROR, TileMapLoader.class, "No tiles has been defined");
 
         }
         tm.setAttribute("level.tiles", tiles);
@@ -95,38 +224,31 @@ public class TileMapLoader {
 
 
     private static Object convertAttributeValueAsObject(String attrValue) {
-        Object value = null;
         if (attrValue.startsWith("[") && attrValue.endsWith("]")) {
             // attribute.
-            value = collectAttributesMap(attrValue.substring(1, attrValue.length() - 1), ",", "=");
-            return value;
-        } else {
-            try {
-                // Try to convert to integer (0-~)
-                value = Integer.parseInt(attrValue);
-                return value;
-            } catch (NumberFormatException intE) {
-                try {
-                    // try to convert to Double (0.0)
-                    value = Double.parseDouble(attrValue);
-                    return value;
-                } catch (NumberFormatException doubleE) {
-                    if ("true,True,False,false,TRUE,FALSE".contains(attrValue)) {
-                        // try to convert to boolean (true/false)
-                        value = Boolean.parseBoolean(attrValue);
-                        return value;
-                    } else {
-                        value = attrValue;
-                        return value;
-                    }
+            return collectAttributesMap(attrValue.substring(1, attrValue.length() - 1), ",", "=");
+        }
+        if (INTEGER.matcher(attrValue).matches()) {
+            // integer value (0-~), as Double if out of the int range.
+            int digits = attrValue.length() - (Character.isDigit(attrValue.charAt(0)) ? 0 : 1);
+            if (digits < 19) {
+                long value = Long.parseLong(attrValue);
+                if (value == (int) value) {
+                    return (int) value;
                 }
             }
+            return Double.parseDouble(attrValue);
+        } else if (DECIMAL.matcher(attrValue).matches()) {
+            // decimal value (0.0, 1e5)
+            return Double.parseDouble(attrValue);
+        } else if (BOOLEANS.contains(attrValue)) {
+            return Boolean.parseBoolean(attrValue);
         }
+        return attrValue;
     }
 
-    private static void readBackGroundFromFile(Application app, Properties tmProps, Map<Object, Object> resources) {
-        if (tmProps.containsKey("level.map.background")) {
-            int backGroundResourceId = Integer.parseInt(tmProps.getProperty("level.map.background").strip());
+    private static void readBackground(Application app, TileMapData data) {
+        if (data.background >= 0) {
             Entity background = new Entity("background")
                     .setType(EntityType.IMAGE)
                     .setPhysicType(PhysicType.NONE)
@@ -134,113 +256,222 @@ public class TileMapLoader {
                     .setPriority(10)
                     .setPosition(0.0, 0.0)
                     .setStickToCamera(true)
-                    .setImage(Resources.loadImage((String) resources.get(backGroundResourceId)));
+                    .setImage(Resources.loadImage(data.resources.get(data.background)))
+                    .addResource(data.resources.get(data.background));
             app.addEntity(background);
         }
     }
 
-    private static Collection<Entity> createEntitiesAsChild(Scene scn, TileMap tm, Properties tmProps, Map<Object, Object> resources) {
+    private static Collection<Entity> createEntitiesAsChild(Scene scn, TileMap tm, TileMapData data) {
         Collection<Entity> entities = new ArrayList<>();
-        Map<Integer, Map<String, Object>> mapEntities = readMapEntities(tm, tmProps);
-
-        int mapWidth = Integer.parseInt(tmProps.getProperty("level.map.width"));
-        int mapHeight = Integer.parseInt(tmProps.getProperty("level.map.height"));
-        int tileWidth = Integer.parseInt(tmProps.getProperty("level.map.tile.width"));
-        int tileHeight = Integer.parseInt(tmProps.getProperty("level.map.tile.height"));
-
-        for (int iy = 0; iy < mapHeight; iy++) {
-            for (int ix = 0; ix < mapWidth; ix++) {
-                int tileId = tm.map[ix + (iy * mapWidth)];
-                if (Optional.ofNullable(mapEntities.get(tileId)).isPresent()) {
-                    Entity t = populateEntityWithAttr(scn, mapEntities.get(tileId),
-                            ix * tileWidth, iy * tileHeight,
-                            resources);
+        Map<Integer, Map<String, Object>> mapEntities = data.objects;
+        tm.addEntities(mapEntities);
+
+        for (int iy = 0; iy < data.mapHeight; iy++) {
+            for (int ix = 0; ix < data.mapWidth; ix++) {
+                Entity t = createCellObject(scn, tm, data, ix + (iy * data.mapWidth));
+                if (Optional.ofNullable(t).isPresent()) {
                     entities.add(t);
-                    tm.getChild().add(t);
                 }
             }
         }
         return entities;
     }
 
-    private static Entity populateEntityWithAttr(Scene scn, Map<String, Object> attributes, double x, double y, Map<Object, Object> resources) {
-        String entityName = ((String) attributes.get("name")).replace("#", "" + (entityIndex++));
-        String entityClassName = ((String) attributes.get("class"));
-        Entity obj = null;
-        try {
-            Class<?> entityClass = Class.forName(entityClassName);
-            obj = (Entity) entityClass.getDeclaredConstructor(String.class).newInstance(entityName);
-            obj.setPosition(x, y);
-
-            if (attributes.containsKey("image")) {
-                Map<String, Object> imageAttributes = (Map<String, Object>) attributes.get("image");
-                BufferedImage img = convertImageAttributeToBufferedImage(resources, imageAttributes);
-                obj.setImage(img);
-                obj.setSize(img.getWidth(), img.getHeight());
-            }
+    /**
+     * Create the object defined by the map cell at <code>index</code>, if any, as a child of the TileMap.
+     */
+    private static Entity createCellObject(Scene scn, TileMap tm, TileMapData data, int index) {
+        Map<String, Object> objAttributes = data.objects.get(tm.map[index]);
+        if (Optional.ofNullable(objAttributes).isEmpty()) {
+            return null;
+        }
+        Entity t = populateEntityWithAttr(scn, objAttributes,
+                (index % data.mapWidth) * data.tileWidth, (index / data.mapWidth) * data.tileHeight,
+                data.resources);
+        // keep the cell of the object to replace it when the map is reloaded.
+        t.setAttribute(CELL_ATTRIBUTE, index);
+        tm.getChild().add(t);
+        return t;
+    }
 
-            if (attributes.containsKey("behaviors")) {
-                List<String> behaviorsClass = collectAttributesList(
-                        ((String) attributes.get("behaviors"))
-                                .substring(1,
-                                        ((String) attributes.get("behaviors")).length() - 1),
-                        ",");
-                behaviorsClass.forEach(b -> {
-                    try {
-                        Behavior instanceBehavior = (Behavior) Class.forName(b).getConstructor(Scene.class).newInstance(scn);
-                        System.out.printf("INFO : TileMapLoader|  Behavior %s added%n", b);
-                    } catch (InstantiationException | IllegalAccessException | NoSuchMethodException |
-                             ClassNotFoundException | InvocationTargetException e) {
-                        System.err.printf("ERR : TileMapLoader | Unable to add behavior %s to current Entity %n", b);
-                    }
-                });
+    /**
+     * Apply the changes of a reloaded map to the TileMap <code>tm</code>, without recreating it:
+     * the tiles definitions are updated, only the changed cells are updated, and only the objects of the changed
+     * cells (or of the changed objects definitions) are replaced.
+     * When objects are replaced, the TileMap is removed from the Application and added again, so that the removed
+     * objects are no longer colliding nor displayed on the maps, and the new ones are.
+     * For a streamed TileMap, only the resident chunks containing changes are reloaded
+     * (see {@link TileMapStreamer#reload(TileMapData)}).
+     * <p>
+     * Must be called from the game thread (see {@link Application#submit(java.util.function.Consumer)}),
+     * once the new map resources are loaded.
+     *
+     * @param app  the Application the TileMap has been added to.
+     * @param scn  the Scene the map objects are created for.
+     * @param tm   the TileMap to be updated.
+     * @param data the reloaded map data.
+     * @return the number of changed cells (or of reloaded chunks for a streamed TileMap).
+     */
+    public static int reload(Application app, Scene scn, TileMap tm, TileMapData data) {
+        readAllTiles(tm, data);
+        if (tm.isStreamed()) {
+            tm.mapWidth = data.mapWidth;
+            tm.mapHeight = data.mapHeight;
+            tm.setTileSize(data.tileWidth, data.tileHeight);
+            tm.addEntities(data.objects);
+            return tm.getStreamer().reload(data);
+        }
+        if (data.mapWidth != tm.mapWidth || data.mapHeight != tm.mapHeight
+                || data.tileWidth != tm.tileWidth || data.tileHeight != tm.tileHeight) {
+            // the map geometry has changed: all the cells and objects are replaced.
+            boolean registered = unregister(app, tm);
+            tm.getChild().removeIf(e -> e.attributes.containsKey(CELL_ATTRIBUTE));
+            tm.setMapSize(data.mapWidth, data.mapHeight)
+                    .setTileSize(data.tileWidth, data.tileHeight);
+            tm.map = data.cells;
+            createEntitiesAsChild(scn, tm, data);
+            register(app, tm, registered);
+            return tm.map.length;
+        }
+        Map<Integer, Map<String, Object>> previousObjects = tm.getEntities();
+        List<Integer> objectCells = new ArrayList<>();
+        int changed = 0;
+        for (int i = 0; i < tm.map.length; i++) {
+            int before = tm.map[i];
+            int after = data.cells[i];
+            Map<String, Object> previousObject = previousObjects.get(before);
+            Map<String, Object> object = data.objects.get(after);
+            if (before != after) {
+                tm.map[i] = after;
+                changed++;
+            }
+            if ((Optional.ofNullable(previousObject).isPresent() || Optional.ofNullable(object).isPresent())
+                    && (before != after || !Objects.equals(previousObject, object))) {
+                objectCells.add(i);
             }
+        }
+        if (!objectCells.isEmpty()) {
+            boolean registered = unregister(app, tm);
+            for (int cell : objectCells) {
+                tm.getChild().removeIf(e -> Objects.equals(e.getAttribute(CELL_ATTRIBUTE, -1), cell));
+                createCellObject(scn, tm, data, cell);
+            }
+            register(app, tm, registered);
+        }
+        tm.addEntities(data.objects);
+        return changed;
+    }
+
+    /**
+     * Remove the TileMap and its objects from the Application services, if it has been added to the Application.
+     */
+    private static boolean unregister(Application app, TileMap tm) {
+        if (Optional.ofNullable(app).isPresent() && app.getEntity(tm.name) == tm) {
+            app.removeEntity(tm.name);
+            return true;
+        }
+        return false;
+    }
 
-            // set the GameObject Material based on the material attribute
-            if (attributes.containsKey("material")) {
-                Map<String, Object> matAttributes = (Map<String, Object>) attributes.get("material");
-                Material material = new Material((String) matAttributes.get("name"),
-                        (double) matAttributes.get("elasticity"),
-                        (double) matAttributes.get("density"),
-                        (double) matAttributes.get("friction"));
-                obj.setMaterial(material);
+    private static void register(Application app, TileMap tm, boolean registered) {
+        if (registered) {
+            app.addEntity(tm);
+        }
+    }
+
+    static Entity populateEntityWithAttr(Scene scn, Map<String, Object> attributes, double x, double y, Map<Integer, String> resources) {
+        String entityName = ((String) attributes.get("name")).replace("#", "" + entityIndex.getAndIncrement());
+        String entityClassName = ((String) attributes.get("class"));
+        // the entity class is only resolved once for all the objects of the map (and of the next maps).
+        Entity obj = FactoryRegistry.create(entityClassName, entityName);
+        obj.setPosition(x, y);
+
+        if (attributes.containsKey("image")) {
+            Map<String, Object> imageAttributes = (Map<String, Object>) attributes.get("image");
+            BufferedImage img = convertImageAttributeToBufferedImage(resources, imageAttributes);
+            obj.setImage(img);
+            obj.setSize(img.getWidth(), img.getHeight());
+        }
+
+        if (attributes.containsKey("behaviors")) {
+            List<String> behaviorsClass = collectAttributesList(
+                    ((String) attributes.get("behaviors"))
+                            .substring(1,
+                                    ((String) attributes.get("behaviors")).length() - 1),
+                    ",");
+            for (String b : behaviorsClass) {
+                try {
+                    Behavior instanceBehavior = FactoryRegistry.create(b.strip(), scn);
+                    obj.addBehavior(instanceBehavior);
+                    Logger.log(Logger.DEBUG, TileMapLoader.class, "Behavior %s added", b);
+                } catch (IllegalArgumentException | ClassCastException e) {
+                    Logger.log(Logger.ERROR, TileMapLoader.class, "Unable to add behavior %s to current Entity", b);
+                }
             }
+        }
+
+        // set the GameObject Material based on the material attribute
+        if (attributes.containsKey("material")) {
+            Map<String, Object> matAttributes = (Map<String, Object>) attributes.get("material");
+            Material material = new Material((String) matAttributes.get("name"),
+                    (double) matAttributes.get("elasticity"),
+                    (double) matAttributes.get("density"),
+                    (double) matAttributes.get("friction"));
+            obj.setMaterial(material);
+        }
+
+        convertMapEntriesToEntityAttributes(obj, attributes);
 
-            convertMapEntriesToEntityAttributes(obj, attributes);
+        return obj;
+    }
 
-        } catch (ClassNotFoundException | NoSuchMethodException | InstantiationException | IllegalAccessException |
-                 InvocationTargetException e) {
+    /**
+     * Read the list of resources declared by the map file at <code>mapFilepath</code> (the <code>level.resources.*</code>
+     * entries, or the resources table of a compiled map), e.g. to be merged into a Scene {@link ResourceManifest}.
+     *
+     * @param mapFilepath the path of the map file.
+     * @return the ResourceManifest of the map.
+     */
+    public static ResourceManifest getManifest(String mapFilepath) {
+        try {
+            return createManifest(read(mapFilepath).resources);
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
-        return obj;
     }
 
-    private static Map<Object, Object> retrieveResources(Properties tmProps) {
-        Map<Object, Object> resources = tmProps.entrySet().stream()
+    private static ResourceManifest createManifest(Map<Integer, String> resources) {
+        ResourceManifest manifest = new ResourceManifest();
+        resources.values().forEach(manifest::addImage);
+        return manifest;
+    }
+
+    private static Map<Integer, String> retrieveResources(Properties tmProps) {
+        Map<Integer, String> resources = tmProps.entrySet().stream()
                 .filter(e -> e.getKey().toString().contains("level.resources"))
                 .collect(Collectors.toMap(
                         x -> Integer.parseInt(((String) x.getKey()).substring("level.resources.".length())),
-                        x -> x.getValue()));
+                        x -> (String) x.getValue()));
         resources.entrySet().forEach(
-                e -> System.out.printf("INFO : TileMapLoader | load resource %s as %s%n", e.getKey(), e.getValue()));
+                e -> Logger.log(Logger.DEBUG, TileMapLoader.class, "load resource %s as %s", e.getKey(), e.getValue()));
         if (resources.size() == 0) {
-            System.err.printf("ERR : TileMapLoader | No resource has been defined.%n");
+            Logger.log(Logger.ERROR, TileMapLoader.class, "No resource has been defined");
 
         }
         return resources;
     }
 
     private static BufferedImage convertImageAttributeToBufferedImage(
-            Map<Object, Object> resources,
+            Map<Integer, String> resources,
             Map<String, Object> tileImageAttributes) {
         int resId = (int) tileImageAttributes.get("resource");
-        String value = (String) resources.get(resId);
-        BufferedImage tilesImgSrc = Resources.loadImage(value)
-                .getSubimage(
-                        (int) tileImageAttributes.get("x"),
-                        (int) tileImageAttributes.get("y"),
-                        (int) tileImageAttributes.get("w"),
-                        (int) tileImageAttributes.get("h"));
+        String value = resources.get(resId);
+        BufferedImage tilesImgSrc = Resources.loadSubImage(value,
+                (int) tileImageAttributes.get("x"),
+                (int) tileImageAttributes.get("y"),
+                (int) tileImageAttributes.get("w"),
+                (int) tileImageAttributes.get("h"));
         return tilesImgSrc;
     }
 
@@ -281,14 +512,13 @@ public class TileMapLoader {
         });
     }
 
-    private static Map<Integer, Map<String, Object>> readMapEntities(TileMap tm, Properties tmProps) {
+    private static Map<Integer, Map<String, Object>> readObjectsAttributes(Properties tmProps) {
         List<Object> objects = tmProps.keySet().stream().filter(k -> k.toString().contains("level.objects")).collect(Collectors.toList());
         Map<Integer, Map<String, Object>> mapEntities = new ConcurrentHashMap<>();
         for (Object o : objects) {
             int key = Integer.parseInt(o.toString().substring("level.objects.".length()));
             mapEntities.put(key, collectObjectAttributes((String) tmProps.get(o.toString())));
         }
-        tm.addEntities(mapEntities);
         return mapEntities;
     }
 
@@ -302,28 +532,80 @@ public class TileMapLoader {
         return attributes;
     }
 
-    private static TileMap readMapFromStringList(Properties tmProps) {
-
-        String name = tmProps.getProperty("level.object.name");
-        int mapWidth = Integer.parseInt(tmProps.getProperty("level.map.width"));
-        int mapHeight = Integer.parseInt(tmProps.getProperty("level.map.height"));
-        int tileWidth = Integer.parseInt(tmProps.getProperty("level.map.tile.width"));
-        int tileHeight = Integer.parseInt(tmProps.getProperty("level.map.tile.height"));
-        String map = tmProps.getProperty("level.map");
-
-
-        TileMap tm = new TileMap(name)
-                .setMapSize(mapWidth, mapHeight)
-                .setTileSize(tileWidth, tileHeight);
+    private static TileMap createTileMap(TileMapData data) {
+        TileMap tm = new TileMap(data.name)
+                .setMapSize(data.mapWidth, data.mapHeight)
+                .setTileSize(data.tileWidth, data.tileHeight);
+        tm.map = data.cells;
+        return tm;
+    }
 
-        int[] binMap = new int[mapWidth * mapHeight];
+    /**
+     * Parse the comma separated cells of the <code>level.map</code> property, without splitting the whole string.
+     * Each cell is a signed integer, possibly surrounded by blanks.
+     *
+     * @param map    the map cells values.
+     * @param length the number of cells of the map.
+     * @return the map cells.
+     * @throws IOException if a cell is not an integer, or if there are more cells than the map size.
+     */
+    private static int[] parseCells(String map, int length) throws IOException {
+        int[] cells = new int[length];
+        int index = 0;
+        int start = 0;
+        // the trailing separators are ignored, as String.split() would.
+        int last = map.length();
+        while (last > 0 && (map.charAt(last - 1) == ',' || Character.isWhitespace(map.charAt(last - 1)))) {
+            last--;
+        }
+        while (start <= last) {
+            int end = map.indexOf(',', start);
+            if (end < 0 || end > last) {
+                end = last;
+            }
+            if (index >= length) {
+                throw new IOException(String.format("Too many cells in level.map: more than %d", length));
+            }
+            cells[index] = parseCell(map, start, end, index);
+            index++;
+            start = end + 1;
+        }
+        return cells;
+    }
 
-        String[] lmap = map.split(",");
-        for (int i = 0; i < lmap.length; i++) {
-            binMap[i] = Integer.parseInt(lmap[i]);
+    private static int parseCell(String map, int start, int end, int index) throws IOException {
+        while (start < end && Character.isWhitespace(map.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(map.charAt(end - 1))) {
+            end--;
+        }
+        int i = start;
+        boolean negative = false;
+        if (i < end && (map.charAt(i) == '-' || map.charAt(i) == '+')) {
+            negative = map.charAt(i) == '-';
+            i++;
+        }
+        long value = 0;
+        if (i == end || end - i > 10) {
+            throw invalidCell(map, start, end, index);
         }
-        tm.map = binMap;
+        for (; i < end; i++) {
+            char c = map.charAt(i);
+            if (c < '0' || c > '9') {
+                throw invalidCell(map, start, end, index);
+            }
+            value = value * 10 + (c - '0');
+        }
+        value = negative ? -value : value;
+        if (value != (int) value) {
+            throw invalidCell(map, start, end, index);
+        }
+        return (int) value;
+    }
 
-        return tm;
+    private static IOException invalidCell(String map, int start, int end, int index) {
+        return new IOException(String.format("Invalid cell value '%s' at index %d of level.map",
+                map.substring(start, end), index));
     }
 }
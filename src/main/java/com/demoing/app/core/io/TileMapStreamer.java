@@ -0,0 +1,240 @@
+package com.demoing.app.core.io;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.config.Configuration;
+import com.demoing.app.core.entity.Camera;
+import com.demoing.app.core.entity.Entity;
+import com.demoing.app.core.entity.tilemap.TileMap;
+import com.demoing.app.core.entity.tilemap.TileMapChunk;
+import com.demoing.app.core.scene.Scene;
+import com.demoing.app.core.utils.Logger;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@link TileMapStreamer} loads and releases the chunks of a streamed {@link TileMap} around the camera view.
+ * <p>
+ * On each update, the chunks covering the camera view, plus {@link Configuration#worldChunkMargin} chunks around it,
+ * are requested. A chunk is loaded on a background thread (its cells are read from the map data, its object
+ * entities are created) and then, on the game thread, made resident into the TileMap and its objects added to the
+ * {@link Application} (and so to the PhysicEngine and CollisionDetector). A resident chunk going out of the requested
+ * area by more than one chunk is released and its objects removed from the Application.
+ * <p>
+ * The memory and the per-frame cost of a streamed map are then bounded by the view size, not by the level size.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class TileMapStreamer {
+    private static final AtomicInteger threadIndex = new AtomicInteger();
+
+    private final Application app;
+    private final Configuration config;
+    private final Scene scene;
+    private final TileMap tileMap;
+    private TileMapData data;
+    private final int chunkSize;
+    private final int margin;
+    private int chunksX, chunksY;
+
+    /**
+     * The chunks being loaded, indexed by their {@link TileMapChunk#key(int, int)}. Only used from the game thread.
+     */
+    private final Map<Long, CompletableFuture<TileMapChunk>> loading = new HashMap<>();
+    private final ExecutorService loader;
+
+    private int cx0, cy0, cx1 = -1, cy1 = -1;
+    private int loadedChunks, releasedChunks;
+
+    /**
+     * Create a new streamer for the <code>tileMap</code>.
+     *
+     * @param app     the parent Application the chunks objects are added to.
+     * @param scene   the Scene the chunks objects behaviors are created for.
+     * @param tileMap the streamed TileMap.
+     * @param data    the map data the chunks are read from.
+     */
+    public TileMapStreamer(Application app, Scene scene, TileMap tileMap, TileMapData data) {
+        this.app = app;
+        this.config = app.getConfiguration();
+        this.scene = scene;
+        this.tileMap = tileMap;
+        this.data = data;
+        this.chunkSize = Math.max(1, tileMap.chunkSize);
+        this.margin = Math.max(0, config.worldChunkMargin);
+        this.chunksX = (data.mapWidth + chunkSize - 1) / chunkSize;
+        this.chunksY = (data.mapHeight + chunkSize - 1) / chunkSize;
+        this.loader = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "tilemap-streamer-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Update the resident chunks according to the <code>camera</code> position. Must be called from the game thread.
+     *
+     * @param camera the active camera, or null if the view is not moving.
+     */
+    public void update(Camera camera) {
+        double viewX = 0, viewY = 0;
+        if (Optional.ofNullable(camera).isPresent()) {
+            viewX = camera.pos.x;
+            viewY = camera.pos.y;
+        }
+        double chunkWidth = (double) chunkSize * data.tileWidth;
+        double chunkHeight = (double) chunkSize * data.tileHeight;
+        cx0 = Math.max(0, (int) Math.floor(viewX / chunkWidth) - margin);
+        cy0 = Math.max(0, (int) Math.floor(viewY / chunkHeight) - margin);
+        cx1 = Math.min(chunksX - 1, (int) Math.floor((viewX + config.screenWidth) / chunkWidth) + margin);
+        cy1 = Math.min(chunksY - 1, (int) Math.floor((viewY + config.screenHeight) / chunkHeight) + margin);
+
+        // make the loaded chunks resident, if still needed.
+        Iterator<CompletableFuture<TileMapChunk>> it = loading.values().iterator();
+        while (it.hasNext()) {
+            CompletableFuture<TileMapChunk> future = it.next();
+            if (future.isDone()) {
+                it.remove();
+                try {
+                    TileMapChunk chunk = future.join();
+                    if (isKept(chunk.cx, chunk.cy)) {
+                        activate(chunk);
+                    }
+                } catch (RuntimeException e) {
+                    Logger.log(Logger.ERROR, this.getClass(), "Unable to load a chunk of %s: %s",
+                            tileMap.name, e.getMessage());
+                }
+            }
+        }
+        // release the chunks gone away from the view.
+        for (TileMapChunk chunk : tileMap.getChunks()) {
+            if (!isKept(chunk.cx, chunk.cy)) {
+                release(chunk);
+            }
+        }
+        // request the missing chunks.
+        TileMapData source = data;
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                long key = TileMapChunk.key(cx, cy);
+                if (Optional.ofNullable(tileMap.getChunk(cx, cy)).isEmpty() && !loading.containsKey(key)) {
+                    int chunkX = cx, chunkY = cy;
+                    loading.put(key, CompletableFuture.supplyAsync(() -> load(source, chunkX, chunkY), loader));
+                }
+            }
+        }
+    }
+
+    /**
+     * A chunk is kept resident up to one chunk out of the requested area, to avoid loading and releasing
+     * the same chunks when the camera moves back and forth on a chunk border.
+     */
+    private boolean isKept(int cx, int cy) {
+        return cx >= cx0 - 1 && cx <= cx1 + 1 && cy >= cy0 - 1 && cy <= cy1 + 1;
+    }
+
+    /**
+     * Read the chunk cells and create its objects. Executed on the loader thread.
+     */
+    private TileMapChunk load(TileMapData data, int cx, int cy) {
+        int x = cx * chunkSize;
+        int y = cy * chunkSize;
+        TileMapChunk chunk = new TileMapChunk(cx, cy, x, y,
+                Math.min(chunkSize, data.mapWidth - x),
+                Math.min(chunkSize, data.mapHeight - y));
+        data.readRegion(x, y, chunk.width, chunk.height, chunk.cells);
+        for (int iy = 0; iy < chunk.height; iy++) {
+            for (int ix = 0; ix < chunk.width; ix++) {
+                Map<String, Object> objAttributes = data.objects.get(chunk.cells[ix + iy * chunk.width]);
+                if (Optional.ofNullable(objAttributes).isPresent()) {
+                    chunk.entities.add(TileMapLoader.populateEntityWithAttr(scene, objAttributes,
+                            (x + ix) * data.tileWidth, (y + iy) * data.tileHeight,
+                            data.resources));
+                }
+            }
+        }
+        return chunk;
+    }
+
+    private void activate(TileMapChunk chunk) {
+        tileMap.addChunk(chunk);
+        chunk.entities.forEach(app::addEntity);
+        loadedChunks++;
+    }
+
+    private void release(TileMapChunk chunk) {
+        tileMap.removeChunk(chunk.cx, chunk.cy);
+        for (Entity e : chunk.entities) {
+            app.removeEntity(e.name);
+        }
+        releasedChunks++;
+    }
+
+    /**
+     * Switch to the reloaded map <code>newData</code>: only the resident chunks whose cells or objects definitions
+     * have changed are released, to be loaded again from the new data on the next update.
+     * Must be called from the game thread.
+     *
+     * @param newData the reloaded map data.
+     * @return the number of released chunks.
+     */
+    public int reload(TileMapData newData) {
+        // the pending loads are reading the previous data.
+        loading.values().forEach(f -> f.cancel(false));
+        loading.clear();
+        boolean sameGeometry = newData.mapWidth == data.mapWidth && newData.mapHeight == data.mapHeight
+                && newData.tileWidth == data.tileWidth && newData.tileHeight == data.tileHeight;
+        boolean sameObjects = newData.objects.equals(data.objects);
+        int released = 0;
+        int[] region = new int[chunkSize * chunkSize];
+        for (TileMapChunk chunk : tileMap.getChunks()) {
+            boolean changed = !sameGeometry || !sameObjects;
+            if (!changed) {
+                newData.readRegion(chunk.x, chunk.y, chunk.width, chunk.height, region);
+                changed = !Arrays.equals(region, 0, chunk.cells.length, chunk.cells, 0, chunk.cells.length);
+            }
+            if (changed) {
+                release(chunk);
+                released++;
+            }
+        }
+        this.data = newData;
+        this.chunksX = (data.mapWidth + chunkSize - 1) / chunkSize;
+        this.chunksY = (data.mapHeight + chunkSize - 1) / chunkSize;
+        return released;
+    }
+
+    /**
+     * Release all the resident chunks and stop the loader thread.
+     */
+    public void dispose() {
+        loading.values().forEach(f -> f.cancel(false));
+        loading.clear();
+        tileMap.getChunks().forEach(this::release);
+        loader.shutdownNow();
+    }
+
+    public int getResidentChunks() {
+        return tileMap.getChunks().size();
+    }
+
+    public int getLoadingChunks() {
+        return loading.size();
+    }
+
+    public int getLoadedChunks() {
+        return loadedChunks;
+    }
+
+    public int getReleasedChunks() {
+        return releasedChunks;
+    }
+}
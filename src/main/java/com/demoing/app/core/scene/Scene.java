@@ -3,6 +3,7 @@ package com.demoing.app.core.scene;
 import com.demoing.app.core.Application;
 import com.demoing.app.core.behavior.Behavior;
 import com.demoing.app.core.entity.Light;
+import com.demoing.app.core.io.ResourceManifest;
 
 import java.util.List;
 import java.util.Map;
@@ -10,6 +11,16 @@ import java.util.Map;
 public interface Scene {
     void prepare();
 
+    /**
+     * Retrieve the list of resources (images and fonts) this Scene needs, to be preloaded in parallel
+     * by the {@link com.demoing.app.core.service.scene.SceneManager} before the Scene is prepared and created.
+     *
+     * @return the ResourceManifest of this Scene (empty by default).
+     */
+    default ResourceManifest getManifest() {
+        return new ResourceManifest();
+    }
+
     boolean create(Application app) throws Exception;
 
     /**
@@ -0,0 +1,202 @@
+package com.demoing.app.core.service.capture;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.config.Configuration;
+import com.demoing.app.core.utils.Logger;
+import com.demoing.app.core.utils.Utils;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@link CaptureService} writes screenshots and continuous frame captures without stalling the game loop.
+ * <p>
+ * A screenshot or a recording is only <em>requested</em> from any thread (e.g. the AWT key event thread through
+ * the {@link com.demoing.app.core.io.ActionHandler}). The frame is then copied on the game thread, right after
+ * being rendered, into an image from a fixed-size pool, and encoded to PNG on a background executor.
+ * If no pooled image is available (the encoders are late), the frame is dropped from the capture,
+ * never from the game.
+ * <p>
+ * Configuration:
+ * <ul>
+ *     <li><code>app.capture.pool.size</code> the number of pooled images (and so of frames waiting to be encoded),</li>
+ *     <li><code>app.capture.threads</code> the number of encoding threads,</li>
+ *     <li><code>app.capture.duration</code> the duration of a continuous capture, in seconds.</li>
+ * </ul>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class CaptureService {
+    private final Configuration config;
+    private final BlockingQueue<BufferedImage> pool;
+    private final int poolSize;
+    private int allocatedImages = 0;
+    private final ThreadPoolExecutor encoder;
+
+    private volatile boolean screenshotRequested = false;
+    private volatile boolean recording = false;
+    private long recordingEnd = 0;
+    private Path recordingDir;
+    private int recordingFrame = 0;
+
+    private final AtomicInteger writtenFrames = new AtomicInteger();
+    private final AtomicInteger droppedFrames = new AtomicInteger();
+    private static int screenShotIndex;
+
+    /**
+     * Create the capture service with its image pool and its encoder threads.
+     *
+     * @param app the parent Application.
+     * @param c   the Configuration to read capture parameters from.
+     */
+    public CaptureService(Application app, Configuration c) {
+        this.config = c;
+        this.poolSize = Math.max(1, config.capturePoolSize);
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+        int threads = Math.max(1, config.captureThreads);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.encoder = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize),
+                r -> {
+                    Thread t = new Thread(r, "capture-encoder-" + threadIndex.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.MIN_PRIORITY);
+                    return t;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Request a screenshot of the next rendered frame.
+     */
+    public void requestScreenshot() {
+        screenshotRequested = true;
+    }
+
+    /**
+     * Start or stop a continuous capture of {@link Configuration#captureDuration} seconds.
+     */
+    public void toggleRecording() {
+        if (recording) {
+            recording = false;
+        } else {
+            startRecording(config.captureDuration);
+        }
+    }
+
+    /**
+     * Start a continuous capture writing numbered frames for <code>seconds</code> seconds.
+     *
+     * @param seconds the duration of the capture.
+     */
+    public synchronized void startRecording(int seconds) {
+        recordingDir = Paths.get(getCaptureRootPath(), "captures", Long.toString(System.currentTimeMillis()));
+        recordingFrame = 0;
+        recordingEnd = System.nanoTime() + seconds * 1_000_000_000L;
+        recording = true;
+        Logger.log(Logger.INFO, this.getClass(), "Start capturing frames for %d s to %s", seconds, recordingDir);
+    }
+
+    /**
+     * Capture the just rendered <code>frame</code> if a screenshot or a recording has been requested.
+     * Must be called from the rendering (game) thread.
+     *
+     * @param frame the rendered back buffer.
+     */
+    public void capture(Image frame) {
+        if (!screenshotRequested && !recording) {
+            return;
+        }
+        Path target;
+        if (screenshotRequested) {
+            screenshotRequested = false;
+            target = Paths.get(getCaptureRootPath(), "screenshots",
+                    System.nanoTime() + "-" + (screenShotIndex++) + ".png");
+        } else if (System.nanoTime() > recordingEnd) {
+            recording = false;
+            Logger.log(Logger.INFO, this.getClass(), "End of capture: %d frames to %s", recordingFrame, recordingDir);
+            return;
+        } else {
+            target = recordingDir.resolve(String.format("frame-%05d.png", recordingFrame++));
+        }
+        BufferedImage copy = pool.poll();
+        if (Optional.ofNullable(copy).isEmpty() && allocatedImages < poolSize) {
+            copy = allocate(frame);
+            allocatedImages++;
+        }
+        if (Optional.ofNullable(copy).isEmpty()) {
+            droppedFrames.incrementAndGet();
+            return;
+        }
+        Graphics2D g = copy.createGraphics();
+        g.drawImage(frame, 0, 0, null);
+        g.dispose();
+        BufferedImage image = copy;
+        encoder.execute(() -> write(image, target));
+    }
+
+    private BufferedImage allocate(Image frame) {
+        return new BufferedImage(frame.getWidth(null), frame.getHeight(null), BufferedImage.TYPE_INT_RGB);
+    }
+
+    private void write(BufferedImage image, Path target) {
+        try {
+            Files.createDirectories(target.getParent());
+            File out = target.toFile();
+            ImageIO.write(image, "PNG", out);
+            writtenFrames.incrementAndGet();
+            if (!recording) {
+                Logger.log(Logger.INFO, this.getClass(), "Write capture to %s", target);
+            }
+        } catch (IOException e) {
+            Logger.log(Logger.ERROR, this.getClass(), "Unable to write capture to %s: %s", target, e.getMessage());
+        } finally {
+            pool.offer(image);
+        }
+    }
+
+    private String getCaptureRootPath() {
+        return Utils.getJarPath();
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    public int getWrittenFrames() {
+        return writtenFrames.get();
+    }
+
+    public int getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Stop the encoders, letting the pending captures be written.
+     */
+    public void dispose() {
+        recording = false;
+        encoder.shutdown();
+        try {
+            if (!encoder.awaitTermination(5, TimeUnit.SECONDS)) {
+                encoder.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            encoder.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.demoing.app.core.service.collision;
 
+import java.awt.Shape;
+import java.awt.geom.RectangularShape;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -10,6 +13,9 @@ import com.demoing.app.core.config.Configuration;
 import com.demoing.app.core.entity.Entity;
 import com.demoing.app.core.math.MathUtils;
 import com.demoing.app.core.math.Vec2d;
+import com.demoing.app.core.service.monitor.BehaviorStats;
+import com.demoing.app.core.service.monitor.FrameProfiler;
+import com.demoing.app.core.service.monitor.jfr.CollisionDetectEvent;
 import com.demoing.app.core.service.physic.PhysicType;
 import com.demoing.app.core.service.physic.World;
 import com.demoing.app.core.utils.Logger;
@@ -27,6 +33,15 @@ public class CollisionDetector {
 
     // ToDo! maintain a binTree to 'sub-space' world.
     public Map<String, Entity> colliders = new ConcurrentHashMap<>();
+    /**
+     * Number of entities pairs tested and found colliding during the last update, and since start.
+     * Only written by the game thread.
+     */
+    private volatile long testedPairs, collidingPairs, totalCollidingPairs;
+    /**
+     * The alive or persistent colliders of the current detection, reused from one update to the next.
+     */
+    private final List<Entity> targets = new ArrayList<>();
 
     /**
      * initialization of the CollisionDetector service
@@ -68,6 +83,13 @@ public class CollisionDetector {
         colliders.remove(e.name);
     }
 
+    /**
+     * Remove all the entities from the collision detection service.
+     */
+    public void clear() {
+        colliders.clear();
+    }
+
     /**
      * Step into the detection
      *
@@ -78,30 +100,97 @@ public class CollisionDetector {
     }
 
     private void detect() {
-        List<Entity> targets = colliders.values().stream().filter(e -> e.isAlive() || e.isPersistent()).toList();
+        CollisionDetectEvent event = new CollisionDetectEvent();
+        event.begin();
+        targets.clear();
+        for (Entity e : colliders.values()) {
+            if (e.isAlive() || e.isPersistent()) {
+                targets.add(e);
+            }
+        }
+        long tested = 0, colliding = 0;
         for (Entity e1 : colliders.values()) {
             e1.collide = e1.collide || false;
-            for (Entity e2 : targets) {
+            for (int i = 0; i < targets.size(); i++) {
+                Entity e2 = targets.get(i);
                 e2.collide = e2.collide || false;
                 if (e1.id != e2.id) {
-                    if (e1.cbox.getBounds().intersects(e2.cbox.getBounds())) {
+                    tested++;
+                    if (intersects(e1.cbox, e2.cbox)) {
+                        colliding++;
                         resolve(e1, e2);
                         applyBehaviors(e1, e2);
                     }
                 }
             }
         }
+        testedPairs = tested;
+        collidingPairs = colliding;
+        totalCollidingPairs += colliding;
+        event.end();
+        if (event.shouldCommit()) {
+            event.colliders = colliders.size();
+            event.testedPairs = tested;
+            event.collidingPairs = colliding;
+            event.commit();
+        }
+    }
+
+    /**
+     * Test if the integer bounds of the 2 collision boxes intersect, as
+     * <code>a.getBounds().intersects(b.getBounds())</code> would, but without creating any Rectangle
+     * for the usual {@link RectangularShape} boxes.
+     *
+     * @param a the first collision box
+     * @param b the second collision box
+     * @return true if the bounds intersect.
+     */
+    private static boolean intersects(Shape a, Shape b) {
+        if (a instanceof RectangularShape ra && b instanceof RectangularShape rb) {
+            if (ra.getWidth() < 0 || ra.getHeight() < 0 || rb.getWidth() < 0 || rb.getHeight() < 0) {
+                return false;
+            }
+            double ax0 = Math.floor(ra.getMinX()), ay0 = Math.floor(ra.getMinY());
+            double ax1 = Math.ceil(ra.getMaxX()), ay1 = Math.ceil(ra.getMaxY());
+            double bx0 = Math.floor(rb.getMinX()), by0 = Math.floor(rb.getMinY());
+            double bx1 = Math.ceil(rb.getMaxX()), by1 = Math.ceil(rb.getMaxY());
+            return ax1 > ax0 && ay1 > ay0 && bx1 > bx0 && by1 > by0
+                    && bx0 < ax1 && by0 < ay1 && bx1 > ax0 && by1 > ay0;
+        }
+        return a.getBounds().intersects(b.getBounds());
+    }
+
+    public long getTestedPairs() {
+        return testedPairs;
+    }
+
+    public long getCollidingPairs() {
+        return collidingPairs;
+    }
+
+    public long getTotalCollidingPairs() {
+        return totalCollidingPairs;
     }
 
     private void applyBehaviors(Entity e1, Entity e2) {
-        e1.behaviors.values().stream()
-                .forEach(l -> l.stream()
-                        .filter(b -> b.filterOnEvent()
-                                .contains(Behavior.ON_COLLISION))
-                        .toList()
-                        .forEach(b -> {
-                            b.onCollide(app, e1, e2);
-                        }));
+        FrameProfiler profiler = app.getProfiler();
+        boolean profiling = profiler.isRecording();
+        for (List<Behavior> l : e1.behaviors.values()) {
+            for (int i = 0; i < l.size(); i++) {
+                Behavior b = l.get(i);
+                if (b.filterOnEvent().contains(Behavior.ON_COLLISION)) {
+                    if (profiling) {
+                        long start = System.nanoTime();
+                        b.onCollide(app, e1, e2);
+                        long duration = System.nanoTime() - start;
+                        profiler.behavior(b, BehaviorStats.COLLISION, duration);
+                        profiler.entity(e1, duration);
+                    } else {
+                        b.onCollide(app, e1, e2);
+                    }
+                }
+            }
+        }
     }
 
     /**
@@ -137,8 +226,10 @@ public class CollisionDetector {
             e2.vel.y += MathUtils.ceilMinMaxValue(impulse * e1.mass * e2.material.density * colSpeed * colNorm.y,
                     config.speedMinValue, config.colSpeedMaxValue);
 
-            Logger.log(Logger.DETAILED, this.getClass(), "e1.%s collides e2.%s Vp=%s / dist=%f / norm=%s\n", e1.name,
-                    e2.name, vp, distance, colNorm);
+            if (Logger.isEnabled(Logger.DETAILED)) {
+                Logger.log(Logger.DETAILED, this.getClass(), "e1.%s collides e2.%s Vp=%s / dist=%f / norm=%s\n",
+                        e1.name, e2.name, vp, distance, colNorm);
+            }
 
         } else {
 
@@ -153,7 +244,9 @@ public class CollisionDetector {
                         e1.acc.y = -e1.acc.y * e1.elasticity * e2.material.density;
                         e1.pos.y = e2.pos.y + e2.height;
                     }
-                    Logger.log(Logger.DETAILED, this.getClass(), "e1.%s collides static e2.%s\n", e1.name, e2.name);
+                    if (Logger.isEnabled(Logger.DETAILED)) {
+                        Logger.log(Logger.DETAILED, this.getClass(), "e1.%s collides static e2.%s\n", e1.name, e2.name);
+                    }
                 }
             }
             if (e1.physicType == PhysicType.DYNAMIC && e2.physicType == PhysicType.NONE) {
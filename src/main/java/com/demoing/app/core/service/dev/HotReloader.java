@@ -0,0 +1,238 @@
+package com.demoing.app.core.service.dev;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.config.Configuration;
+import com.demoing.app.core.entity.tilemap.TileMap;
+import com.demoing.app.core.io.ResourceManifest;
+import com.demoing.app.core.io.Resources;
+import com.demoing.app.core.io.TileMapData;
+import com.demoing.app.core.io.TileMapFormat;
+import com.demoing.app.core.io.TileMapLoader;
+import com.demoing.app.core.utils.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * The {@link HotReloader} is a development service reloading the maps and the configuration
+ * as soon as their files are modified, without restarting the application nor resetting the scene.
+ * <p>
+ * The resources directories listed by <code>app.dev.hotreload.paths</code> are watched through a NIO
+ * {@link WatchService}. A modified file is mapped to its classpath resource path (relative to the watched directory)
+ * and only the TileMaps loaded from this path, or the configuration file, are parsed again, on the watcher thread.
+ * The changes are then applied on the game thread (see {@link Application#submit(java.util.function.Consumer)}):
+ * <ul>
+ *     <li>a TileMap only updates its changed cells and replaces the objects of these cells
+ *     (see {@link TileMapLoader#reload(Application, com.demoing.app.core.scene.Scene, TileMap, TileMapData)}),</li>
+ *     <li>the changed configuration values are copied to the live Configuration, and the world ones pushed
+ *     to the PhysicEngine and CollisionDetector (see {@link Application#applyConfiguration(Configuration)}).</li>
+ * </ul>
+ * This service is only started when <code>app.dev.hotreload=true</code>.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class HotReloader implements Runnable {
+    /**
+     * Delay to let the editor finish writing a file and to merge the multiple events of one save.
+     */
+    private static final long DEBOUNCE_DELAY = 50;
+
+    private final Application app;
+    private final String configFileName;
+    private final String[] args;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+    private final Map<WatchKey, Path> roots = new HashMap<>();
+    private WatchService watcher;
+    private Thread thread;
+    private int reloads = 0;
+
+    /**
+     * Create the hot reload service.
+     *
+     * @param app            the parent Application.
+     * @param configFileName the configuration file name (as a classpath resource).
+     * @param args           the CLI arguments, overriding the configuration file values.
+     */
+    public HotReloader(Application app, String configFileName, String[] args) {
+        this.app = app;
+        this.configFileName = configFileName;
+        this.args = args;
+    }
+
+    /**
+     * Start watching the <code>app.dev.hotreload.paths</code> directories.
+     *
+     * @return the started HotReloader.
+     */
+    public HotReloader start() {
+        try {
+            watcher = FileSystems.getDefault().newWatchService();
+            for (String p : app.getConfiguration().devHotReloadPaths.split(",")) {
+                Path root = Paths.get(p.strip()).toAbsolutePath();
+                if (Files.isDirectory(root)) {
+                    registerAll(root, root);
+                    Logger.log(Logger.INFO, this.getClass(), "Watching %s for hot reload", root);
+                } else {
+                    Logger.log(Logger.ERROR, this.getClass(), "Unable to watch %s: not a directory", root);
+                }
+            }
+            thread = new Thread(this, "hot-reloader");
+            thread.setDaemon(true);
+            thread.start();
+        } catch (IOException e) {
+            Logger.log(Logger.ERROR, this.getClass(), "Unable to start hot reload: %s", e.getMessage());
+        }
+        return this;
+    }
+
+    private void registerAll(Path root, Path dir) throws IOException {
+        try (Stream<Path> dirs = Files.walk(dir)) {
+            for (Path d : dirs.filter(Files::isDirectory).toList()) {
+                WatchKey key = d.register(watcher,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                directories.put(key, d);
+                roots.put(key, root);
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watcher.take();
+                Thread.sleep(DEBOUNCE_DELAY);
+                // the changed files, with the watched directory they belong to.
+                Map<Path, Path> changed = new LinkedHashMap<>();
+                do {
+                    collect(key, changed);
+                    key = watcher.poll();
+                } while (Optional.ofNullable(key).isPresent());
+                changed.forEach(this::onChange);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void collect(WatchKey key, Map<Path, Path> changed) {
+        Path dir = directories.get(key);
+        Path root = roots.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                continue;
+            }
+            Path file = dir.resolve((Path) event.context());
+            if (Files.isDirectory(file)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    try {
+                        registerAll(root, file);
+                    } catch (IOException e) {
+                        Logger.log(Logger.ERROR, this.getClass(), "Unable to watch %s: %s", file, e.getMessage());
+                    }
+                }
+            } else {
+                changed.put(file, root);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+            roots.remove(key);
+        }
+    }
+
+    private void onChange(Path file, Path root) {
+        String resource = "/" + root.relativize(file).toString().replace('\\', '/');
+        long start = System.nanoTime();
+        try {
+            if (resource.equals("/" + configFileName)) {
+                reloadConfiguration(file, start);
+            } else if (resource.endsWith(".properties") || resource.endsWith(TileMapFormat.EXTENSION)) {
+                reloadMaps(file, resource, start);
+            }
+        } catch (IOException | RuntimeException e) {
+            Logger.log(Logger.ERROR, this.getClass(), "Unable to reload %s: %s", resource, e.getMessage());
+        }
+    }
+
+    private void reloadConfiguration(Path file, long start) throws IOException {
+        Configuration reloaded;
+        try (InputStream is = Files.newInputStream(file)) {
+            reloaded = new Configuration(is).parseArgs(args);
+        }
+        app.submit(a -> {
+            List<String> changes = a.applyConfiguration(reloaded);
+            reloads++;
+            Logger.log(Logger.INFO, this.getClass(), "Configuration reloaded in %d ms: %s",
+                    (System.nanoTime() - start) / 1_000_000, changes);
+        });
+    }
+
+    private void reloadMaps(Path file, String resource, long start) throws IOException {
+        List<TileMap> maps = app.getEntities().values().stream()
+                .filter(e -> e instanceof TileMap tm && resource.equals(tm.source))
+                .map(e -> (TileMap) e)
+                .toList();
+        if (maps.isEmpty()) {
+            return;
+        }
+        // parse the map and load its resources out of the game thread.
+        TileMapData data;
+        if (resource.endsWith(TileMapFormat.EXTENSION)) {
+            data = maps.get(0).isStreamed() ? TileMapFormat.open(file) : TileMapFormat.read(file);
+        } else {
+            try (InputStream is = Files.newInputStream(file)) {
+                data = TileMapLoader.readProperties(is);
+            }
+        }
+        ResourceManifest manifest = new ResourceManifest();
+        data.resources.values().forEach(manifest::addImage);
+        Resources.preload(manifest).await();
+        app.submit(a -> {
+            for (TileMap tm : maps) {
+                int changes = TileMapLoader.reload(a, a.getSceneManager().getActiveScene(), tm, data);
+                Logger.log(Logger.INFO, this.getClass(), "Map %s reloaded in %d ms: %d %s changed",
+                        resource, (System.nanoTime() - start) / 1_000_000, changes,
+                        tm.isStreamed() ? "chunks" : "cells");
+            }
+            reloads++;
+        });
+    }
+
+    public int getReloads() {
+        return reloads;
+    }
+
+    /**
+     * Stop watching the resources directories.
+     */
+    public void dispose() {
+        if (Optional.ofNullable(thread).isPresent()) {
+            thread.interrupt();
+        }
+        try {
+            if (Optional.ofNullable(watcher).isPresent()) {
+                watcher.close();
+            }
+        } catch (IOException e) {
+            Logger.log(Logger.ERROR, this.getClass(), "Unable to stop hot reload: %s", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.demoing.app.core.service.monitor;
+
+import com.demoing.app.core.utils.Logger;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@link AllocationMonitor} measures the memory allocated by the game thread, per frame and per phase of the
+ * game loop (see the {@link FrameProfiler} phases), with the {@link com.sun.management.ThreadMXBean} allocated bytes
+ * counter of the current thread, and correlates the garbage collections with the frames they occurred during.
+ * <p>
+ * The allocated bytes are read at each phase end: a read is a few tens of nanoseconds, without allocation.
+ * The garbage collections are received as {@link GarbageCollectorMXBean} notifications, on a JMX thread, and
+ * counted: the game thread adds the collections ended since the start of the frame to the frame at its end.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class AllocationMonitor implements NotificationListener {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final boolean enabled;
+    /**
+     * The id of the game thread, running the frames, or -1 before the first frame.
+     */
+    private volatile long threadId = -1;
+    private long mark;
+    private final long[] phaseBytes = new long[FrameProfiler.PHASES];
+    private final long[] lastPhaseBytes = new long[FrameProfiler.PHASES];
+    private final long[] totalPhaseBytes = new long[FrameProfiler.PHASES];
+    private volatile long lastFrameBytes, totalBytes, frames;
+    /**
+     * The distribution of the bytes allocated per frame.
+     */
+    private final Histogram frameBytes = new Histogram("allocation");
+
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final AtomicLong gcCount = new AtomicLong();
+    private final AtomicLong gcPauseTime = new AtomicLong();
+    private long frameGcCount, frameGcPauseTime;
+    private volatile long lastFrameGcCount, lastFrameGcPauseTime, framesWithGc;
+    private volatile String lastGc = "";
+
+    /**
+     * Create the monitor, and listen to the garbage collections if enabled.
+     *
+     * @param enabled true to measure the allocations and the garbage collections (<code>app.monitor.allocation</code>).
+     */
+    public AllocationMonitor(boolean enabled) {
+        this.enabled = enabled && isSupported();
+        if (this.enabled) {
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (gc instanceof NotificationEmitter emitter) {
+                    emitter.addNotificationListener(this, null, null);
+                    emitters.add(emitter);
+                }
+            }
+        }
+    }
+
+    /**
+     * Is the measure of the threads allocated memory supported and enabled by the JVM ?
+     *
+     * @return true if the allocated bytes can be measured.
+     */
+    public static boolean isSupported() {
+        return THREADS instanceof com.sun.management.ThreadMXBean t
+                && t.isThreadAllocatedMemorySupported() && t.isThreadAllocatedMemoryEnabled();
+    }
+
+    /**
+     * Retrieve the number of bytes allocated by the current thread since its start.
+     *
+     * @return the allocated bytes, or 0 if not supported.
+     */
+    public static long getCurrentThreadAllocatedBytes() {
+        return THREADS instanceof com.sun.management.ThreadMXBean t ? t.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /**
+     * Start the measure of a new frame.
+     */
+    public void startFrame() {
+        threadId = Thread.currentThread().getId();
+        if (enabled) {
+            for (int i = 0; i < phaseBytes.length; i++) {
+                phaseBytes[i] = 0;
+            }
+            frameGcCount = gcCount.get();
+            frameGcPauseTime = gcPauseTime.get();
+            mark = getCurrentThreadAllocatedBytes();
+        }
+    }
+
+    /**
+     * Add the bytes allocated since the previous phase end (or the frame start) to the <code>phase</code>.
+     *
+     * @param phase the phase index (see {@link FrameProfiler#INPUT} to {@link FrameProfiler#RENDER}).
+     */
+    public void phase(int phase) {
+        if (enabled) {
+            long now = getCurrentThreadAllocatedBytes();
+            phaseBytes[phase] += now - mark;
+            mark = now;
+        }
+    }
+
+    /**
+     * End the measure of the frame: publish its allocated bytes and garbage collections.
+     */
+    public void endFrame() {
+        if (enabled) {
+            long bytes = 0;
+            for (int i = 0; i < phaseBytes.length; i++) {
+                bytes += phaseBytes[i];
+                lastPhaseBytes[i] = phaseBytes[i];
+                totalPhaseBytes[i] += phaseBytes[i];
+            }
+            frameBytes.record(bytes);
+            lastFrameBytes = bytes;
+            totalBytes += bytes;
+            frames++;
+            lastFrameGcCount = gcCount.get() - frameGcCount;
+            lastFrameGcPauseTime = gcPauseTime.get() - frameGcPauseTime;
+            if (lastFrameGcCount > 0) {
+                framesWithGc++;
+            }
+        }
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from(
+                    (CompositeData) notification.getUserData());
+            long duration = info.getGcInfo().getDuration();
+            gcCount.incrementAndGet();
+            gcPauseTime.addAndGet(duration);
+            lastGc = info.getGcName() + " (" + info.getGcCause() + ") " + duration + " ms at frame " + frames;
+            Logger.log(Logger.DEBUG, this.getClass(), "GC %s", lastGc);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Retrieve the id of the game thread, to read its allocated bytes from another thread.
+     *
+     * @return the id of the thread running the frames, or -1 if no frame has been run yet.
+     */
+    public long getThreadId() {
+        return threadId;
+    }
+
+    public long getLastFrameBytes() {
+        return lastFrameBytes;
+    }
+
+    /**
+     * Retrieve the bytes allocated by each phase during the last frame.
+     *
+     * @return a copy of the bytes allocated per phase.
+     */
+    public long[] getLastPhaseBytes() {
+        return lastPhaseBytes.clone();
+    }
+
+    /**
+     * Retrieve the bytes allocated by a phase since the start.
+     *
+     * @param phase the phase index.
+     * @return the cumulated bytes allocated by this phase.
+     */
+    public long getTotalPhaseBytes(int phase) {
+        return totalPhaseBytes[phase];
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public Histogram getFrameBytesHistogram() {
+        return frameBytes;
+    }
+
+    public long getGcCount() {
+        return gcCount.get();
+    }
+
+    /**
+     * Retrieve the cumulated duration of the garbage collections, as reported by the collectors.
+     *
+     * @return a duration in milliseconds.
+     */
+    public long getGcPauseTime() {
+        return gcPauseTime.get();
+    }
+
+    public long getLastFrameGcCount() {
+        return lastFrameGcCount;
+    }
+
+    public long getLastFrameGcPauseTime() {
+        return lastFrameGcPauseTime;
+    }
+
+    /**
+     * Retrieve the number of frames during which at least one garbage collection ended.
+     *
+     * @return the number of frames.
+     */
+    public long getFramesWithGc() {
+        return framesWithGc;
+    }
+
+    /**
+     * Retrieve the last garbage collection: collector, cause, duration and frame.
+     *
+     * @return a description of the last garbage collection, empty if none.
+     */
+    public String getLastGc() {
+        return lastGc;
+    }
+
+    /**
+     * Stop listening to the garbage collections.
+     */
+    public void dispose() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(this);
+            } catch (ListenerNotFoundException e) {
+                // already removed.
+            }
+        }
+        emitters.clear();
+    }
+}
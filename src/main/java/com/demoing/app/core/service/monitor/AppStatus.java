@@ -1,9 +1,16 @@
 package com.demoing.app.core.service.monitor;
 
 import com.demoing.app.core.Application;
+import com.demoing.app.core.io.AtlasCache;
+import com.demoing.app.core.io.Resources;
 
 import javax.management.*;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.OpenDataException;
 import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Implementation of the JMX service to deliver the AppStatusMBean.
@@ -15,8 +22,13 @@ public class AppStatus implements AppStatusMBean {
     private int debugLevel;
     private int nbEntities, pipelineSize;
     boolean pauseStatus;
-    private long realFPS, timeRendering, timeUpdate, computationTime;
+    private long realFPS, timeRendering, timeRenderingAverage, timePresent, timeUpdate, computationTime;
     private String programName;
+    /**
+     * The last interval snapshots of the frame, update and render times histograms, and the start of this interval.
+     */
+    private final Map<String, Histogram.Snapshot> intervals = new HashMap<>();
+    private long intervalStart = 0;
 
     /**
      * Creating the AppStatus object to full feed all the {@link AppStatusMBean} attributes with the
@@ -62,6 +74,10 @@ public class AppStatus implements AppStatusMBean {
         realFPS = app.getRealFps();
         pipelineSize = app.render.getgPipeline().size();
         timeRendering = app.render.getRenderingTime();
+        timeRenderingAverage = app.render.getRenderedFrames() > 0
+                ? app.render.getTotalRenderingTime() / app.render.getRenderedFrames()
+                : 0;
+        timePresent = app.render.getPresentTime();
         timeUpdate = app.getPhysicEngine().updateTime;
         pauseStatus = app.pause;
         debugLevel = app.config.debug;
@@ -107,6 +123,215 @@ public class AppStatus implements AppStatusMBean {
         return timeRendering;
     }
 
+    @Override
+    public synchronized Long getTimeRenderingAverage() {
+        return timeRenderingAverage;
+    }
+
+    @Override
+    public synchronized Long getTimePresent() {
+        return timePresent;
+    }
+
+    @Override
+    public Long getInputLatencyAverage() {
+        return app.render.getInputLatency().getAverage();
+    }
+
+    @Override
+    public Long getInputLatencyP95() {
+        return app.render.getInputLatency().getPercentile(95);
+    }
+
+    @Override
+    public Long getInputLatencyMax() {
+        return app.render.getInputLatency().getMax();
+    }
+
+    @Override
+    public Long getResourceCacheHits() {
+        return Resources.getCache().getHits();
+    }
+
+    @Override
+    public Long getResourceCacheMisses() {
+        return Resources.getCache().getMisses();
+    }
+
+    @Override
+    public Long getResourceCacheEvictions() {
+        return Resources.getCache().getEvictions();
+    }
+
+    @Override
+    public Long getResourceCacheBytes() {
+        return Resources.getCache().getBytes();
+    }
+
+    @Override
+    public Integer getAtlasRegions() {
+        return Resources.getAtlas().size();
+    }
+
+    @Override
+    public Long getAtlasBytes() {
+        return Resources.getAtlas().getBytes();
+    }
+
+    @Override
+    public Long getAtlasHits() {
+        return Resources.getAtlas().getHits();
+    }
+
+    @Override
+    public String[] getAtlasTopRegions() {
+        return Resources.getAtlas().getRegions().stream()
+                .limit(20)
+                .map(AtlasCache.Region::toString)
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Retrieve the last interval snapshot of the histogram <code>name</code>. All the histograms start a new interval
+     * together when the current one is older than <code>app.monitor.histogram.interval</code>, for the attributes
+     * read by one JMX poll to describe the same frames.
+     */
+    private synchronized Histogram.Snapshot interval(String name) {
+        long now = System.currentTimeMillis();
+        if (intervals.isEmpty() || now - intervalStart >= application.config.monitorHistogramInterval) {
+            intervalStart = now;
+            intervals.put("frame", application.getFrameHistogram().getIntervalSnapshot());
+            intervals.put("update", application.getPhysicEngine().getUpdateHistogram().getIntervalSnapshot());
+            intervals.put("render", application.render.getRenderHistogram().getIntervalSnapshot());
+            intervals.put("allocation",
+                    application.getAllocationMonitor().getFrameBytesHistogram().getIntervalSnapshot());
+        }
+        return intervals.get(name);
+    }
+
+    @Override
+    public Long getFrameTimeP50() {
+        return interval("frame").getPercentile(50);
+    }
+
+    @Override
+    public Long getFrameTimeP99() {
+        return interval("frame").getPercentile(99);
+    }
+
+    @Override
+    public Long getFrameTimeMax() {
+        return interval("frame").max;
+    }
+
+    @Override
+    public Long getUpdateTimeP50() {
+        return interval("update").getPercentile(50);
+    }
+
+    @Override
+    public Long getUpdateTimeP99() {
+        return interval("update").getPercentile(99);
+    }
+
+    @Override
+    public Long getUpdateTimeMax() {
+        return interval("update").max;
+    }
+
+    @Override
+    public Long getRenderTimeP50() {
+        return interval("render").getPercentile(50);
+    }
+
+    @Override
+    public Long getRenderTimeP99() {
+        return interval("render").getPercentile(99);
+    }
+
+    @Override
+    public Long getRenderTimeMax() {
+        return interval("render").max;
+    }
+
+    @Override
+    public Long getAllocatedBytesLastFrame() {
+        return application.getAllocationMonitor().getLastFrameBytes();
+    }
+
+    @Override
+    public Long getAllocatedBytesP99() {
+        return interval("allocation").getPercentile(99);
+    }
+
+    @Override
+    public long[] getAllocatedBytesPerPhase() {
+        return application.getAllocationMonitor().getLastPhaseBytes();
+    }
+
+    @Override
+    public Long getGcCount() {
+        return application.getAllocationMonitor().getGcCount();
+    }
+
+    @Override
+    public Long getGcPauseTime() {
+        return application.getAllocationMonitor().getGcPauseTime();
+    }
+
+    @Override
+    public Long getFramesWithGc() {
+        return application.getAllocationMonitor().getFramesWithGc();
+    }
+
+    @Override
+    public String getLastGc() {
+        return application.getAllocationMonitor().getLastGc();
+    }
+
+    @Override
+    public CompositeData histogramSnapshot(String name) {
+        Histogram.Snapshot snapshot = interval(name);
+        if (Optional.ofNullable(snapshot).isEmpty()) {
+            throw new IllegalArgumentException("Unknown histogram " + name + ", must be one of frame, update, render or allocation");
+        }
+        try {
+            return snapshot.toCompositeData();
+        } catch (OpenDataException e) {
+            throw new IllegalStateException("Unable to convert histogram " + name, e);
+        }
+    }
+
+    @Override
+    public CompositeData[] getBehaviorStats() {
+        try {
+            return application.getProfiler().getBehaviorStats().toCompositeData();
+        } catch (OpenDataException e) {
+            throw new IllegalStateException("Unable to convert the behavior stats", e);
+        }
+    }
+
+    @Override
+    public void resetBehaviorStats() {
+        // the counters are written by the game thread: reset them between two frames.
+        application.submit(a -> a.getProfiler().getBehaviorStats().reset());
+    }
+
+    @Override
+    public void dumpFlightData() {
+        application.submit(a -> a.dumpFlightData("request", false));
+    }
+
+    @Override
+    public Long getFlightDataDumps() {
+        return Optional.ofNullable(application.getFlightRecorder()).map(FlightDataRecorder::getDumps).orElse(0L);
+    }
+
+    @Override
+    public String getLastFlightDataDump() {
+        return Optional.ofNullable(application.getFlightRecorder()).map(FlightDataRecorder::getLastDump).orElse("");
+    }
+
     @Override
     public synchronized Long getTimeComputation() {
         return computationTime;
@@ -123,13 +348,49 @@ public class AppStatus implements AppStatusMBean {
     }
 
     @Override
-    @Deprecated
-    public synchronized void requestAddEntity(Integer nbEntity) {
+    public void requestAddEntity(Integer nbEntity) {
+        application.submit(a -> a.getLoadGenerator().spawn(a, LoadGenerator.Archetype.BALL, nbEntity));
+    }
+
+    @Override
+    public void requestRemoveEntity(Integer nbEntity) {
+        application.submit(a -> a.getLoadGenerator().despawn(a, nbEntity));
     }
 
     @Override
-    @Deprecated
-    public synchronized void requestRemoveEntity(Integer nbEntity) {
+    public void startLoadRamp(String archetype, Integer target, Integer step, Integer stepDuration) {
+        // an unknown archetype is reported to the JMX client.
+        LoadGenerator.Archetype type = LoadGenerator.Archetype.valueOf(archetype.toUpperCase());
+        application.submit(a -> a.getLoadGenerator().start(type, target, step, stepDuration));
+    }
+
+    @Override
+    public void startUnloadRamp(Integer step, Integer stepDuration) {
+        application.submit(a -> a.getLoadGenerator().startUnload(step, stepDuration));
+    }
+
+    @Override
+    public void stopLoadRamp() {
+        application.submit(a -> a.getLoadGenerator().stop("stopped on request"));
+    }
+
+    @Override
+    public String getLoadStatus() {
+        return application.getLoadGenerator().getStatus();
+    }
+
+    @Override
+    public Integer getLoadEntities() {
+        return application.getLoadGenerator().getCount();
+    }
+
+    @Override
+    public CompositeData[] getLoadSteps() {
+        try {
+            return application.getLoadGenerator().toCompositeData();
+        } catch (OpenDataException e) {
+            throw new IllegalStateException("Unable to convert the load steps", e);
+        }
     }
 
     /**
@@ -3,6 +3,8 @@ package com.demoing.app.core.service.monitor;
 import com.demoing.app.core.Application;
 import com.demoing.app.core.service.render.Render;
 
+import javax.management.openmbean.CompositeData;
+
 /**
  * This MBean is for metrics and action exposition through the JMX service. Connecting with the JConsole
  * to this java process will provide some metrics and action.
@@ -64,6 +66,257 @@ public interface AppStatusMBean {
      */
     Long getTimeRendering();
 
+    /**
+     * Retrieve the average rendering time since start, to measure the draw throughput
+     * (see <code>app.render.accelerated</code> configuration to compare rendering paths).
+     *
+     * @return a value in nanoseconds.
+     */
+    Long getTimeRenderingAverage();
+
+    /**
+     * Retrieve the time spent to present the rendered buffer to the window (scaling and page flip),
+     * see <code>app.render.scaling.mode</code> and <code>app.render.scaling.filter</code> configuration.
+     *
+     * @return a value in nanoseconds.
+     */
+    Long getTimePresent();
+
+    /**
+     * Retrieve the average input-to-photon latency, from a key press to the presentation
+     * of the first frame reflecting it, over the last samples.
+     *
+     * @return a value in nanoseconds.
+     */
+    Long getInputLatencyAverage();
+
+    /**
+     * Retrieve the 95th percentile of the input-to-photon latency over the last samples.
+     *
+     * @return a value in nanoseconds.
+     */
+    Long getInputLatencyP95();
+
+    /**
+     * Retrieve the maximum input-to-photon latency since start.
+     *
+     * @return a value in nanoseconds.
+     */
+    Long getInputLatencyMax();
+
+    /**
+     * Retrieve the number of resources found in the resources cache.
+     *
+     * @return the number of cache hits.
+     */
+    Long getResourceCacheHits();
+
+    /**
+     * Retrieve the number of resources not found in the resources cache (and so decoded).
+     *
+     * @return the number of cache misses.
+     */
+    Long getResourceCacheMisses();
+
+    /**
+     * Retrieve the number of resources evicted from the cache to fit in its budget
+     * (see <code>app.resources.cache.budget</code>).
+     *
+     * @return the number of evictions.
+     */
+    Long getResourceCacheEvictions();
+
+    /**
+     * Retrieve the estimated memory size of the cached resources.
+     *
+     * @return a size in bytes.
+     */
+    Long getResourceCacheBytes();
+
+    /**
+     * Retrieve the number of regions extracted from the atlas images.
+     *
+     * @return the number of atlas regions.
+     */
+    Integer getAtlasRegions();
+
+    /**
+     * Retrieve the memory size of the atlas regions.
+     *
+     * @return a size in bytes.
+     */
+    Long getAtlasBytes();
+
+    /**
+     * Retrieve the number of atlas regions reused instead of being extracted again.
+     *
+     * @return the number of atlas hits.
+     */
+    Long getAtlasHits();
+
+    /**
+     * Retrieve the memory size and the number of hits of the 20 most used atlas regions.
+     *
+     * @return one line per region.
+     */
+    String[] getAtlasTopRegions();
+
+    /**
+     * Retrieve the median of the frames computation times (input, update and render) over the last interval
+     * (see <code>app.monitor.histogram.interval</code>).
+     *
+     * @return a value in nanoseconds.
+     */
+    Long getFrameTimeP50();
+
+    /**
+     * Retrieve the 99th percentile of the frames computation times over the last interval.
+     *
+     * @return a value in nanoseconds.
+     */
+    Long getFrameTimeP99();
+
+    /**
+     * Retrieve the maximum frame computation time over the last interval.
+     *
+     * @return a value in nanoseconds.
+     */
+    Long getFrameTimeMax();
+
+    /**
+     * Retrieve the median of the PhysicEngine update times over the last interval.
+     *
+     * @return a value in nanoseconds.
+     */
+    Long getUpdateTimeP50();
+
+    /**
+     * Retrieve the 99th percentile of the PhysicEngine update times over the last interval.
+     *
+     * @return a value in nanoseconds.
+     */
+    Long getUpdateTimeP99();
+
+    /**
+     * Retrieve the maximum PhysicEngine update time over the last interval.
+     *
+     * @return a value in nanoseconds.
+     */
+    Long getUpdateTimeMax();
+
+    /**
+     * Retrieve the median of the Render draw times over the last interval.
+     *
+     * @return a value in nanoseconds.
+     */
+    Long getRenderTimeP50();
+
+    /**
+     * Retrieve the 99th percentile of the Render draw times over the last interval.
+     *
+     * @return a value in nanoseconds.
+     */
+    Long getRenderTimeP99();
+
+    /**
+     * Retrieve the maximum Render draw time over the last interval.
+     *
+     * @return a value in nanoseconds.
+     */
+    Long getRenderTimeMax();
+
+    /**
+     * Retrieve the memory allocated by the game thread during the last frame (see <code>app.monitor.allocation</code>).
+     *
+     * @return a size in bytes.
+     */
+    Long getAllocatedBytesLastFrame();
+
+    /**
+     * Retrieve the 99th percentile of the memory allocated by the game thread per frame, over the last interval.
+     *
+     * @return a size in bytes.
+     */
+    Long getAllocatedBytesP99();
+
+    /**
+     * Retrieve the memory allocated by the game thread during the last frame, per phase: input, physic, collision,
+     * scene and render.
+     *
+     * @return the sizes in bytes, one per phase.
+     */
+    long[] getAllocatedBytesPerPhase();
+
+    /**
+     * Retrieve the number of garbage collections since the start.
+     *
+     * @return the number of garbage collections.
+     */
+    Long getGcCount();
+
+    /**
+     * Retrieve the cumulated duration of the garbage collections since the start.
+     *
+     * @return a duration in milliseconds.
+     */
+    Long getGcPauseTime();
+
+    /**
+     * Retrieve the number of frames during which at least one garbage collection occurred.
+     *
+     * @return the number of frames.
+     */
+    Long getFramesWithGc();
+
+    /**
+     * Retrieve the last garbage collection: collector, cause, duration and frame number.
+     *
+     * @return a description of the last garbage collection.
+     */
+    String getLastGc();
+
+    /**
+     * Retrieve the full distribution of the <code>frame</code>, <code>update</code> or <code>render</code> times
+     * (in nanoseconds), or of the <code>allocation</code> per frame (in bytes), over the last interval:
+     * count, min, max, mean, percentiles and the non-empty buckets.
+     *
+     * @param name the histogram name: frame, update, render or allocation.
+     * @return the distribution of the values.
+     */
+    CompositeData histogramSnapshot(String name);
+
+    /**
+     * Retrieve the number of calls and the execution time of the Behaviors, per Behavior class and event type
+     * (see <code>app.monitor.behaviors</code>).
+     *
+     * @return one value per called Behavior class and event type, with the times in nanoseconds.
+     */
+    CompositeData[] getBehaviorStats();
+
+    /**
+     * Reset the Behaviors calls and execution times counters.
+     */
+    void resetBehaviorStats();
+
+    /**
+     * Request a dump of the last frames of the flight data recorder to a CSV file, at the next frame.
+     */
+    void dumpFlightData();
+
+    /**
+     * Retrieve the number of flight data dumps written since the start (hitches, crash and requests).
+     *
+     * @return the number of dumps.
+     */
+    Long getFlightDataDumps();
+
+    /**
+     * Retrieve the path of the last flight data dump.
+     *
+     * @return the CSV file path, empty if none or if the flight data recorder is disabled.
+     */
+    String getLastFlightDataDump();
+
     /**
      * Retrieve the value for the global computation spent time.
      *
@@ -84,23 +337,67 @@ public interface AppStatusMBean {
     void requestQuit();
 
     /**
-     * Add <code>nbEntitiesToAdd</code> random entities
+     * Add <code>nbEntitiesToAdd</code> generated balls at the next frame (see {@link LoadGenerator}).
      *
      * @param nbEntitiesToAdd the number of entities to be added.
-     * @deprecated
      */
-    @Deprecated
     void requestAddEntity(Integer nbEntitiesToAdd);
 
     /**
-     * Remove <code>nbEntitiesToRemove</code> entities
+     * Remove the <code>nbEntitiesToRemove</code> last generated entities at the next frame.
      *
      * @param nbEntitiesToRemove the number of entities to be removed
-     * @deprecated
      */
-    @Deprecated
     void requestRemoveEntity(Integer nbEntitiesToRemove);
 
+    /**
+     * Start a load ramp adding <code>step</code> entities of the <code>archetype</code> every
+     * <code>stepDuration</code> ms, up to <code>target</code> generated entities, or until the mean frame time of
+     * a step exceeds <code>app.monitor.load.threshold</code>.
+     *
+     * @param archetype    the kind of entities: <code>ball</code>, <code>particle</code>, <code>platform</code>
+     *                     or <code>light</code>.
+     * @param target       the number of generated entities to reach.
+     * @param step         the number of entities added by step.
+     * @param stepDuration the duration of each step, in milliseconds.
+     */
+    void startLoadRamp(String archetype, Integer target, Integer step, Integer stepDuration);
+
+    /**
+     * Start a ramp removing <code>step</code> generated entities every <code>stepDuration</code> ms, down to none.
+     *
+     * @param step         the number of entities removed by step.
+     * @param stepDuration the duration of each step, in milliseconds.
+     */
+    void startUnloadRamp(Integer step, Integer stepDuration);
+
+    /**
+     * Stop the current load ramp, keeping the generated entities.
+     */
+    void stopLoadRamp();
+
+    /**
+     * Retrieve the load ramp status: idle, running, done, or stopped and why.
+     *
+     * @return the load ramp status.
+     */
+    String getLoadStatus();
+
+    /**
+     * Retrieve the number of generated entities.
+     *
+     * @return the number of entities added by the load generator.
+     */
+    Integer getLoadEntities();
+
+    /**
+     * Retrieve the measures of each step of the last load ramp: number of entities, frames, sustained FPS,
+     * mean and max frame computation times (in ms).
+     *
+     * @return an array of CompositeData, one per step.
+     */
+    CompositeData[] getLoadSteps();
+
     /**
      * Request to reset the current active Scene.
      */
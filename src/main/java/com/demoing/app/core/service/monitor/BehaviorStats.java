@@ -0,0 +1,194 @@
+package com.demoing.app.core.service.monitor;
+
+import com.demoing.app.core.behavior.Behavior;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link BehaviorStats} accumulates the number of calls and the execution time of the {@link Behavior}s,
+ * per Behavior class and per event type ({@link Behavior#ON_UPDATE_ENTITY}, {@link Behavior#ON_UPDATE_SCENE}
+ * and {@link Behavior#ON_COLLISION}), to find which game logic consumes the frame.
+ * <p>
+ * The Behaviors are recorded from the game thread by the {@link FrameProfiler}, into fixed arrays: the first
+ * {@link BehaviorStats#MAX_BEHAVIORS} - 1 Behavior classes met get their own slot, the next ones are cumulated into
+ * the last "others" one. The values are read by the JMX and CSV threads without locking, and may then be a few
+ * calls late.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class BehaviorStats {
+    public static final int UPDATE_ENTITY = 0;
+    public static final int UPDATE_SCENE = 1;
+    public static final int COLLISION = 2;
+    public static final int EVENTS = 3;
+    public static final String[] EVENT_NAMES = {
+            Behavior.ON_UPDATE_ENTITY, Behavior.ON_UPDATE_SCENE, Behavior.ON_COLLISION};
+    /**
+     * Number of Behavior class slots, including the last "others" one.
+     */
+    public static final int MAX_BEHAVIORS = 16;
+
+    private static final String[] ITEMS = {"behavior", "event", "calls", "time", "meanTime"};
+
+    private final Class<?>[] classes = new Class<?>[MAX_BEHAVIORS];
+    private final String[] names = new String[MAX_BEHAVIORS];
+    private volatile int count = 0;
+    private final long[][] calls = new long[MAX_BEHAVIORS][EVENTS];
+    private final long[][] times = new long[MAX_BEHAVIORS][EVENTS];
+
+    public BehaviorStats() {
+        names[MAX_BEHAVIORS - 1] = "others";
+    }
+
+    /**
+     * Record one Behavior call.
+     *
+     * @param b        the executed Behavior.
+     * @param event    the event type index (see {@link BehaviorStats#UPDATE_ENTITY} to {@link BehaviorStats#COLLISION}).
+     * @param duration the duration of the call, in nanoseconds.
+     * @return the slot of the Behavior class.
+     */
+    public int record(Behavior b, int event, long duration) {
+        int slot = slotOf(b.getClass());
+        calls[slot][event]++;
+        times[slot][event] += duration;
+        return slot;
+    }
+
+    private int slotOf(Class<?> behaviorClass) {
+        int n = count;
+        for (int i = 0; i < n; i++) {
+            if (classes[i] == behaviorClass) {
+                return i;
+            }
+        }
+        if (n < MAX_BEHAVIORS - 1) {
+            classes[n] = behaviorClass;
+            names[n] = nameOf(behaviorClass);
+            count = n + 1;
+            return n;
+        }
+        return MAX_BEHAVIORS - 1;
+    }
+
+    private static String nameOf(Class<?> behaviorClass) {
+        String name = behaviorClass.getSimpleName();
+        if (name.isEmpty()) {
+            // anonymous or lambda Behavior: keep the enclosing class name.
+            name = behaviorClass.getName().substring(behaviorClass.getName().lastIndexOf('.') + 1);
+        }
+        return name;
+    }
+
+    /**
+     * Retrieve the number of Behavior classes having their own slot.
+     *
+     * @return the number of named slots.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public String getName(int slot) {
+        return names[slot];
+    }
+
+    public long getCalls(int slot, int event) {
+        return calls[slot][event];
+    }
+
+    public long getTime(int slot, int event) {
+        return times[slot][event];
+    }
+
+    /**
+     * Retrieve the execution time of a Behavior class slot, all event types together.
+     *
+     * @param slot the Behavior class slot.
+     * @return the cumulated time, in nanoseconds.
+     */
+    public long getTotalTime(int slot) {
+        long total = 0;
+        for (int e = 0; e < EVENTS; e++) {
+            total += times[slot][e];
+        }
+        return total;
+    }
+
+    /**
+     * Retrieve the execution time of an event type, all Behavior classes together.
+     *
+     * @param event the event type index.
+     * @return the cumulated time, in nanoseconds.
+     */
+    public long getEventTime(int event) {
+        long total = 0;
+        for (int s = 0; s < MAX_BEHAVIORS; s++) {
+            total += times[s][event];
+        }
+        return total;
+    }
+
+    /**
+     * Retrieve the number of calls of an event type, all Behavior classes together.
+     *
+     * @param event the event type index.
+     * @return the number of calls.
+     */
+    public long getEventCalls(int event) {
+        long total = 0;
+        for (int s = 0; s < MAX_BEHAVIORS; s++) {
+            total += calls[s][event];
+        }
+        return total;
+    }
+
+    /**
+     * Clear the counters, keeping the Behavior class slots. Must be called from the game thread.
+     */
+    public void reset() {
+        for (int s = 0; s < MAX_BEHAVIORS; s++) {
+            for (int e = 0; e < EVENTS; e++) {
+                calls[s][e] = 0;
+                times[s][e] = 0;
+            }
+        }
+    }
+
+    /**
+     * Convert the counters to JMX open data: one CompositeData per called Behavior class and event type, with
+     * the <code>behavior</code>, <code>event</code>, <code>calls</code>, <code>time</code> and
+     * <code>meanTime</code> (in nanoseconds) items.
+     *
+     * @return the counters of the called Behavior classes.
+     * @throws OpenDataException if the conversion fails.
+     */
+    public CompositeData[] toCompositeData() throws OpenDataException {
+        CompositeType type = new CompositeType("BehaviorStats", "Behavior calls and execution time",
+                ITEMS,
+                new String[]{"Behavior class", "Event type", "Number of calls",
+                        "Cumulated execution time (ns)", "Mean execution time (ns)"},
+                new OpenType<?>[]{SimpleType.STRING, SimpleType.STRING, SimpleType.LONG,
+                        SimpleType.LONG, SimpleType.LONG});
+        List<CompositeData> data = new ArrayList<>();
+        for (int s = 0; s < MAX_BEHAVIORS; s++) {
+            for (int e = 0; e < EVENTS; e++) {
+                long c = calls[s][e];
+                if (c > 0) {
+                    long t = times[s][e];
+                    data.add(new CompositeDataSupport(type, ITEMS,
+                            new Object[]{names[s], EVENT_NAMES[e], c, t, t / c}));
+                }
+            }
+        }
+        return data.toArray(new CompositeData[0]);
+    }
+}
@@ -0,0 +1,117 @@
+package com.demoing.app.core.service.monitor;
+
+import com.demoing.app.core.utils.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link BehaviorStatsWriter} periodically appends the {@link BehaviorStats} counters to a CSV file
+ * (<code>app.monitor.behaviors.csv</code>), every <code>app.monitor.behaviors.interval</code> ms,
+ * from a daemon thread.
+ * <p>
+ * Each dump writes one line per called Behavior class and event type:
+ * <pre>
+ * timestamp,behavior,event,calls,time_ns,interval_calls,interval_time_ns
+ * </pre>
+ * with the cumulated counters and their increase since the previous dump, to be loaded into a spreadsheet.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class BehaviorStatsWriter {
+    public static final String HEADER = "timestamp,behavior,event,calls,time_ns,interval_calls,interval_time_ns";
+
+    private final BehaviorStats stats;
+    private final Path file;
+    private final int interval;
+    private final long[][] previousCalls = new long[BehaviorStats.MAX_BEHAVIORS][BehaviorStats.EVENTS];
+    private final long[][] previousTimes = new long[BehaviorStats.MAX_BEHAVIORS][BehaviorStats.EVENTS];
+    private ScheduledExecutorService executor;
+
+    /**
+     * Create the writer of the <code>stats</code> counters.
+     *
+     * @param stats    the Behavior counters to be written.
+     * @param file     the CSV file to append the counters to.
+     * @param interval the duration between two dumps, in milliseconds.
+     */
+    public BehaviorStatsWriter(BehaviorStats stats, String file, int interval) {
+        this.stats = stats;
+        this.file = Path.of(file);
+        this.interval = Math.max(100, interval);
+    }
+
+    /**
+     * Start the periodic dumps.
+     *
+     * @return the started BehaviorStatsWriter.
+     */
+    public BehaviorStatsWriter start() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "behavior-stats");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleAtFixedRate(this::dump, interval, interval, TimeUnit.MILLISECONDS);
+        Logger.log(Logger.INFO, this.getClass(), "Behavior stats written to %s every %d ms", file, interval);
+        return this;
+    }
+
+    /**
+     * Append the current counters to the CSV file, with a header line if the file is new.
+     */
+    public synchronized void dump() {
+        try {
+            if (Optional.ofNullable(file.getParent()).isPresent()) {
+                Files.createDirectories(file.getParent());
+            }
+            boolean header = !Files.exists(file) || Files.size(file) == 0;
+            try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                if (header) {
+                    w.write(HEADER);
+                    w.newLine();
+                }
+                long timestamp = System.currentTimeMillis();
+                for (int s = 0; s < BehaviorStats.MAX_BEHAVIORS; s++) {
+                    for (int e = 0; e < BehaviorStats.EVENTS; e++) {
+                        long calls = stats.getCalls(s, e);
+                        long time = stats.getTime(s, e);
+                        if (calls > 0) {
+                            // the counters may have been reset since the previous dump.
+                            long intervalCalls = calls >= previousCalls[s][e] ? calls - previousCalls[s][e] : calls;
+                            long intervalTime = time >= previousTimes[s][e] ? time - previousTimes[s][e] : time;
+                            w.write(timestamp + "," + stats.getName(s) + "," + BehaviorStats.EVENT_NAMES[e] + ","
+                                    + calls + "," + time + "," + intervalCalls + "," + intervalTime);
+                            w.newLine();
+                        }
+                        previousCalls[s][e] = calls;
+                        previousTimes[s][e] = time;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Logger.log(Logger.ERROR, this.getClass(), "Unable to write the behavior stats to %s: %s",
+                    file, e.getMessage());
+        }
+    }
+
+    /**
+     * Stop the periodic dumps, after a last one.
+     */
+    public void dispose() {
+        if (Optional.ofNullable(executor).isPresent()) {
+            executor.shutdownNow();
+            dump();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.demoing.app.core.service.monitor;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.config.Configuration;
+import com.demoing.app.core.utils.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The {@link BenchmarkRunner} plays benchmark scenes headless, for a fixed number of frames at increasing numbers
+ * of entities, and reports the frame computation time percentiles of each run, to compare the scaling curves of
+ * the engine from one version to another.
+ * <p>
+ * Each run sets the <code>bench.entities</code> Application attribute, switches to the scene, plays
+ * <code>app.bench.warmup</code> frames and then measures <code>app.bench.frames</code> frames, stepped with a fixed
+ * elapsed time of one frame (see <code>app.screen.fps</code>) and without waiting between frames.
+ * The results are written to <code>app.bench.report</code> as a CSV file and an HTML page with a chart per scene:
+ * <pre>
+ * java -cp target/classes com.demoing.app.core.service.monitor.BenchmarkRunner bc=100,1000 bf=300
+ * </pre>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class BenchmarkRunner {
+    /**
+     * The Application attribute giving the number of entities to the benchmark scenes.
+     */
+    public static final String ENTITIES = "bench.entities";
+    public static final String HEADER = "scene,requested,entities,frames,mean_ms,p50_ms,p90_ms,p99_ms,max_ms";
+
+    /**
+     * The measures of a benchmark run, the frame times in milliseconds.
+     */
+    public record Result(String scene, int requested, int entities, int frames,
+                         double mean, double p50, double p90, double p99, double max) {
+    }
+
+    private final Application app;
+    private final int warmup;
+    private final long[] times;
+    private final double elapsed;
+
+    /**
+     * Create the runner of an Application whose services and scenes are initialized.
+     *
+     * @param app the Application to play the scenes with.
+     */
+    public BenchmarkRunner(Application app) {
+        Configuration config = app.getConfiguration();
+        this.app = app;
+        this.warmup = Math.max(0, config.benchWarmup);
+        this.times = new long[Math.max(1, config.benchFrames)];
+        this.elapsed = config.frameTime;
+    }
+
+    /**
+     * Play the <code>scene</code> with <code>count</code> entities and measure its frames.
+     *
+     * @param scene the name of the scene (see <code>app.scene.list</code>).
+     * @param count the number of entities requested to the scene.
+     * @return the measures of the run.
+     */
+    public Result run(String scene, int count) {
+        app.setAttribute(ENTITIES, count);
+        app.switchScene(scene);
+        // the measured frames start with the scene created, not with its loading.
+        app.getSceneManager().awaitScene();
+        for (int i = 0; i < warmup; i++) {
+            app.frame(elapsed);
+        }
+        long sum = 0;
+        for (int i = 0; i < times.length; i++) {
+            times[i] = app.frame(elapsed);
+            sum += times[i];
+        }
+        Arrays.sort(times);
+        Result r = new Result(scene, count, app.getEntities().size(), times.length,
+                ms(sum / times.length), ms(percentile(times, 50)), ms(percentile(times, 90)),
+                ms(percentile(times, 99)), ms(times[times.length - 1]));
+        Logger.log(Logger.INFO, this.getClass(), "Bench %s x %d: mean %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms",
+                scene, count, r.mean(), r.p50(), r.p99(), r.max());
+        return r;
+    }
+
+    /**
+     * Play each scene with each number of entities.
+     *
+     * @param scenes the names of the scenes.
+     * @param counts the increasing numbers of entities.
+     * @return the measures of all the runs, per scene and then per number of entities.
+     */
+    public List<Result> runAll(String[] scenes, int[] counts) {
+        List<Result> results = new ArrayList<>();
+        for (String scene : scenes) {
+            for (int count : counts) {
+                results.add(run(scene.trim(), count));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Retrieve the nearest-rank percentile of sorted values.
+     *
+     * @param sorted the values, in ascending order.
+     * @param p      the percentile, from 0 to 100.
+     * @return the value under which <code>p</code> percent of the values are.
+     */
+    public static long percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Write the results as CSV, one line per run.
+     *
+     * @param file    the CSV file to be written.
+     * @param results the measures of the runs.
+     * @throws IOException if the file can not be written.
+     */
+    public static void writeCsv(Path file, List<Result> results) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write(HEADER);
+            w.newLine();
+            for (Result r : results) {
+                w.write(String.format(Locale.ROOT, "%s,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f",
+                        r.scene(), r.requested(), r.entities(), r.frames(),
+                        r.mean(), r.p50(), r.p90(), r.p99(), r.max()));
+                w.newLine();
+            }
+        }
+    }
+
+    /**
+     * Write the results as an HTML page: a table of the runs, and a chart of the p50 and p99 frame times per number of
+     * entities for each scene.
+     *
+     * @param file    the HTML file to be written.
+     * @param results the measures of the runs.
+     * @throws IOException if the file can not be written.
+     */
+    public static void writeHtml(Path file, List<Result> results) throws IOException {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Benchmark</title>\n")
+                .append("<style>body{font-family:sans-serif}table{border-collapse:collapse}")
+                .append("td,th{border:1px solid #ccc;padding:2px 8px;text-align:right}</style></head><body>\n")
+                .append("<h1>Benchmark</h1>\n<p>Frame computation times in ms.</p>\n");
+        List<String> scenes = results.stream().map(Result::scene).distinct().toList();
+        for (String scene : scenes) {
+            List<Result> runs = results.stream().filter(r -> r.scene().equals(scene)).toList();
+            html.append("<h2>").append(scene).append("</h2>\n");
+            chart(html, runs);
+            html.append("<table><tr><th>requested</th><th>entities</th><th>frames</th><th>mean</th>")
+                    .append("<th>p50</th><th>p90</th><th>p99</th><th>max</th></tr>\n");
+            for (Result r : runs) {
+                html.append(String.format(Locale.ROOT,
+                        "<tr><td>%d</td><td>%d</td><td>%d</td><td>%.3f</td><td>%.3f</td><td>%.3f</td>"
+                                + "<td>%.3f</td><td>%.3f</td></tr>\n",
+                        r.requested(), r.entities(), r.frames(), r.mean(), r.p50(), r.p90(), r.p99(), r.max()));
+            }
+            html.append("</table>\n");
+        }
+        html.append("</body></html>\n");
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, html, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Draw the p50 (blue) and p99 (red) frame times of the runs of a scene as an SVG chart.
+     */
+    private static void chart(StringBuilder html, List<Result> runs) {
+        int width = 480, height = 240, left = 50, bottom = 30, top = 10, right = 10;
+        double maxY = Math.max(0.001, runs.stream().mapToDouble(Result::p99).max().orElse(1));
+        double stepX = runs.size() > 1 ? (width - left - right) / (double) (runs.size() - 1) : 0;
+        double scaleY = (height - top - bottom) / maxY;
+        StringBuilder p50 = new StringBuilder();
+        StringBuilder p99 = new StringBuilder();
+        html.append(String.format(Locale.ROOT, "<svg width=\"%d\" height=\"%d\">", width, height))
+                .append(String.format(Locale.ROOT,
+                        "<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"#999\"/>",
+                        left, height - bottom, width - right, height - bottom))
+                .append(String.format(Locale.ROOT,
+                        "<text x=\"2\" y=\"%d\" font-size=\"10\">%.2f ms</text>", top + 8, maxY));
+        for (int i = 0; i < runs.size(); i++) {
+            Result r = runs.get(i);
+            double x = left + i * stepX;
+            p50.append(String.format(Locale.ROOT, "%.1f,%.1f ", x, height - bottom - r.p50() * scaleY));
+            p99.append(String.format(Locale.ROOT, "%.1f,%.1f ", x, height - bottom - r.p99() * scaleY));
+            html.append(String.format(Locale.ROOT,
+                    "<text x=\"%.1f\" y=\"%d\" font-size=\"10\" text-anchor=\"middle\">%d</text>",
+                    x, height - 10, r.requested()));
+        }
+        html.append("<polyline fill=\"none\" stroke=\"steelblue\" points=\"").append(p50).append("\"/>")
+                .append("<polyline fill=\"none\" stroke=\"crimson\" points=\"").append(p99).append("\"/>")
+                .append("</svg>\n");
+    }
+
+    /**
+     * Play the <code>app.bench.scenes</code> headless, and write the reports.
+     *
+     * @param args the CLI arguments, as for the {@link Application}.
+     */
+    public static void main(String[] args) {
+        // the flight data recorder is disabled by default, the warm-up frames being hitches.
+        String[] benchArgs = new String[args.length + 2];
+        benchArgs[0] = "mff=0";
+        System.arraycopy(args, 0, benchArgs, 1, args.length);
+        benchArgs[args.length + 1] = "headless=true";
+        Application app = new Application(benchArgs);
+        Configuration config = app.getConfiguration();
+        String[] scenes = config.benchScenes.split(",");
+        int[] counts = Arrays.stream(config.benchCounts.split(","))
+                .mapToInt(c -> Integer.parseInt(c.trim()))
+                .toArray();
+        // do not create the default game scene, only the benchmark ones.
+        config.defaultScene = scenes[0].trim();
+        app.initializeServices();
+        app.getSceneManager().loadScenes(config.scenes.split(","));
+        try {
+            List<Result> results = new BenchmarkRunner(app).runAll(scenes, counts);
+            String name = "bench-" + System.currentTimeMillis();
+            Path dir = Path.of(config.benchReport);
+            writeCsv(dir.resolve(name + ".csv"), results);
+            writeHtml(dir.resolve(name + ".html"), results);
+            Logger.log(Logger.INFO, BenchmarkRunner.class, "Benchmark reports written to %s/%s.[csv|html]", dir, name);
+        } catch (IOException e) {
+            Logger.log(Logger.ERROR, BenchmarkRunner.class, "Unable to write the benchmark reports: %s",
+                    e.getMessage());
+        } finally {
+            app.quit();
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.demoing.app.core.service.monitor;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.utils.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The {@link FlightDataRecorder} keeps the metrics of the last frames (phase times, entities, collision pairs,
+ * allocations and garbage collections, see {@link FlightDataRecorder#COLUMNS}) in a fixed-size ring, to be dumped
+ * to a CSV file when something goes wrong:
+ * <ul>
+ *     <li>when a frame is longer than the <code>app.monitor.flight.hitch</code> threshold (at most one dump
+ *     every {@link FlightDataRecorder#HITCH_COOLDOWN} ms),</li>
+ *     <li>when an exception escapes the game loop,</li>
+ *     <li>on request, through the <code>dumpFlightData</code> JMX operation.</li>
+ * </ul>
+ * The ring and its dump copy are allocated once: recording a frame writes a few longs, and a dump copies the ring
+ * on the game thread and writes it from a background thread (synchronously on a crash).
+ * The dumps are written to <code>[jar path]/flight/flight-[timestamp]-[reason].csv</code>.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class FlightDataRecorder {
+    public static final String[] COLUMNS = {
+            "frame", "timestamp", "frame_time_ns",
+            "input_ns", "physic_ns", "collision_ns", "scene_ns", "render_ns",
+            "entities", "tested_pairs", "colliding_pairs", "allocated_bytes", "gc_count", "gc_time_ms"};
+    public static final int FRAME = 0;
+    public static final int TIMESTAMP = 1;
+    public static final int FRAME_TIME = 2;
+    /**
+     * Index of the first phase time, followed by the other {@link FrameProfiler#PHASES} phases.
+     */
+    public static final int PHASE_TIME = 3;
+    public static final int ENTITIES = PHASE_TIME + FrameProfiler.PHASES;
+    public static final int TESTED_PAIRS = ENTITIES + 1;
+    public static final int COLLIDING_PAIRS = ENTITIES + 2;
+    public static final int ALLOCATED_BYTES = ENTITIES + 3;
+    public static final int GC_COUNT = ENTITIES + 4;
+    public static final int GC_TIME = ENTITIES + 5;
+    public static final int FIELDS = COLUMNS.length;
+    /**
+     * Minimum duration between two hitch dumps, in milliseconds.
+     */
+    public static final long HITCH_COOLDOWN = 10_000;
+
+    private final int capacity;
+    private final long[] ring;
+    private final long[] copy;
+    private long recorded = 0;
+    private int current = -1;
+    private final long hitchThreshold;
+    private long lastHitchDump = 0;
+
+    private final Path directory;
+    private final ExecutorService writer;
+    private volatile Future<?> pending;
+    private volatile String lastDump = "";
+    private volatile long dumps = 0;
+
+    /**
+     * Create the recorder.
+     *
+     * @param capacity  the number of recorded frames (<code>app.monitor.flight.frames</code>).
+     * @param hitch     the frame time over which the ring is dumped, in milliseconds, 0 to disable
+     *                  (<code>app.monitor.flight.hitch</code>).
+     * @param directory the directory to write the dumps to.
+     */
+    public FlightDataRecorder(int capacity, int hitch, Path directory) {
+        this.capacity = Math.max(1, capacity);
+        this.ring = new long[this.capacity * FIELDS];
+        this.copy = new long[this.capacity * FIELDS];
+        this.hitchThreshold = hitch * 1_000_000L;
+        this.directory = directory;
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "flight-data");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Start the record of a new frame, overwriting the oldest one.
+     *
+     * @param frame     the frame number.
+     * @param frameTime the frame computation time, in nanoseconds.
+     */
+    public void next(long frame, long frameTime) {
+        current = (current + 1) % capacity;
+        int offset = current * FIELDS;
+        for (int i = 0; i < FIELDS; i++) {
+            ring[offset + i] = 0;
+        }
+        ring[offset + FRAME] = frame;
+        ring[offset + TIMESTAMP] = System.currentTimeMillis();
+        ring[offset + FRAME_TIME] = frameTime;
+        recorded++;
+    }
+
+    /**
+     * Set a value of the current frame.
+     *
+     * @param field the field index (see {@link FlightDataRecorder#COLUMNS}).
+     * @param value the value.
+     */
+    public void set(int field, long value) {
+        ring[current * FIELDS + field] = value;
+    }
+
+    /**
+     * Record the metrics of the frame just computed by the Application.
+     *
+     * @param app       the Application.
+     * @param frame     the frame number.
+     * @param frameTime the frame computation time, in nanoseconds.
+     */
+    public void record(Application app, long frame, long frameTime) {
+        next(frame, frameTime);
+        FrameProfiler profiler = app.getProfiler();
+        for (int p = 0; p < FrameProfiler.PHASES; p++) {
+            set(PHASE_TIME + p, profiler.getFramePhaseTime(p));
+        }
+        set(ENTITIES, app.getEntities().size());
+        set(TESTED_PAIRS, app.getCollisionDetector().getTestedPairs());
+        set(COLLIDING_PAIRS, app.getCollisionDetector().getCollidingPairs());
+        AllocationMonitor allocation = app.getAllocationMonitor();
+        set(ALLOCATED_BYTES, allocation.getLastFrameBytes());
+        set(GC_COUNT, allocation.getLastFrameGcCount());
+        set(GC_TIME, allocation.getLastFrameGcPauseTime());
+        checkHitch();
+    }
+
+    /**
+     * Dump the ring if the current frame is a hitch, and if the previous hitch dump is old enough.
+     *
+     * @return true if a dump has been started.
+     */
+    public boolean checkHitch() {
+        if (hitchThreshold > 0 && ring[current * FIELDS + FRAME_TIME] > hitchThreshold) {
+            long now = System.currentTimeMillis();
+            if (now - lastHitchDump >= HITCH_COOLDOWN) {
+                lastHitchDump = now;
+                return dump("hitch", false);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copy the recorded frames, from the oldest to the last one, and write them to a new CSV file.
+     * Must be called from the game thread.
+     *
+     * @param reason the reason of the dump, part of the file name.
+     * @param wait   true to wait for the file to be written (e.g. before the application ends).
+     * @return false if the previous dump is still being written.
+     */
+    public boolean dump(String reason, boolean wait) {
+        if (Optional.ofNullable(pending).isPresent() && !pending.isDone()) {
+            Logger.log(Logger.INFO, this.getClass(), "Flight data dump (%s) skipped: the previous one is not written",
+                    reason);
+            return false;
+        }
+        int frames = (int) Math.min(recorded, capacity);
+        int oldest = frames < capacity ? 0 : (current + 1) % capacity;
+        int head = (capacity - oldest) * FIELDS;
+        if (frames < capacity) {
+            System.arraycopy(ring, 0, copy, 0, frames * FIELDS);
+        } else {
+            System.arraycopy(ring, oldest * FIELDS, copy, 0, head);
+            System.arraycopy(ring, 0, copy, head, oldest * FIELDS);
+        }
+        Path file = directory.resolve("flight-" + System.currentTimeMillis() + "-" + reason + ".csv");
+        pending = writer.submit(() -> write(file, reason, frames));
+        if (wait) {
+            try {
+                pending.get(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                Logger.log(Logger.ERROR, this.getClass(), "Unable to wait for the flight data dump: %s",
+                        e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void write(Path file, String reason, int frames) {
+        try {
+            Files.createDirectories(file.getParent());
+            try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                w.write("# reason=" + reason + ", frames=" + frames + ", hitch_ns=" + hitchThreshold);
+                w.newLine();
+                w.write(String.join(",", COLUMNS));
+                w.newLine();
+                StringBuilder line = new StringBuilder(256);
+                for (int f = 0; f < frames; f++) {
+                    line.setLength(0);
+                    for (int i = 0; i < FIELDS; i++) {
+                        if (i > 0) {
+                            line.append(',');
+                        }
+                        line.append(copy[f * FIELDS + i]);
+                    }
+                    w.append(line);
+                    w.newLine();
+                }
+            }
+            lastDump = file.toString();
+            dumps++;
+            Logger.log(Logger.INFO, this.getClass(), "Flight data of the last %d frames (%s) written to %s",
+                    frames, reason, file);
+        } catch (IOException e) {
+            Logger.log(Logger.ERROR, this.getClass(), "Unable to write the flight data to %s: %s",
+                    file, e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieve the number of frames recorded since the start.
+     *
+     * @return the number of recorded frames.
+     */
+    public long getRecorded() {
+        return recorded;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Retrieve the path of the last written dump.
+     *
+     * @return the file path, empty if none.
+     */
+    public String getLastDump() {
+        return lastDump;
+    }
+
+    public long getDumps() {
+        return dumps;
+    }
+
+    /**
+     * Stop the dumps writer, after the pending dump.
+     */
+    public void dispose() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.demoing.app.core.service.monitor;
+
+import com.demoing.app.core.behavior.Behavior;
+import com.demoing.app.core.entity.Entity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link FrameProfiler} records where the time of each frame is spent: per phase of the game loop
+ * (input, physic, collision, scene and render) and per {@link Behavior} class, for the last frames, and the
+ * cumulated time per Behavior class and per {@link Entity} since the start of the recording.
+ * <p>
+ * At most {@link FrameProfiler#MAX_ENTITIES} entities are accounted: when full, a new entity replaces the cheapest
+ * one and inherits its time (the Space-Saving algorithm), so that the most expensive entities are kept whatever the
+ * number of entities created during the game. The removed entities are dropped (see
+ * {@link FrameProfiler#remove(Entity)}).
+ * <p>
+ * The samples of the last frames are stored into pre-allocated arrays used as a ring: recording a frame is a few
+ * {@link System#nanoTime()} calls and array additions, cheap enough to be left on during the playtests
+ * (see <code>app.debug.profiler</code>). The Behavior calls are also accounted per Behavior class and event type by
+ * the {@link BehaviorStats}, whose slots are used for the per frame samples.
+ * <p>
+ * The profiler is only used from the game thread, and is displayed by the
+ * {@link com.demoing.app.core.service.render.ProfilerOverlay}, toggled with <kbd>F9</kbd>.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class FrameProfiler {
+    public static final int INPUT = 0;
+    public static final int PHYSIC = 1;
+    public static final int COLLISION = 2;
+    public static final int SCENE = 3;
+    public static final int RENDER = 4;
+    public static final int PHASES = 5;
+    public static final String[] PHASE_NAMES = {"input", "physic", "collision", "scene", "render"};
+    /**
+     * Number of Behavior class slots, including the last "others" one.
+     */
+    public static final int MAX_BEHAVIORS = BehaviorStats.MAX_BEHAVIORS;
+    /**
+     * Maximum number of entities accounted for the cumulated update time.
+     */
+    public static final int MAX_ENTITIES = 64;
+
+    private final int frames;
+    private final long[][] phaseSamples;
+    private final long[][] behaviorSamples;
+    /**
+     * The phase times of the current frame, measured even when not recording (see {@link FlightDataRecorder}).
+     */
+    private final long[] framePhases = new long[PHASES];
+    private int current = 0;
+    private long recordedFrames = 0;
+
+    private final BehaviorStats behaviorStats = new BehaviorStats();
+    private final Map<String, long[]> entityTotals = new HashMap<>(MAX_ENTITIES * 2);
+
+    private boolean recording = false;
+    private boolean visible = false;
+
+    /**
+     * Create a new profiler.
+     *
+     * @param frames the number of frames kept in the samples ring.
+     */
+    public FrameProfiler(int frames) {
+        this.frames = Math.max(1, frames);
+        this.phaseSamples = new long[this.frames][PHASES];
+        this.behaviorSamples = new long[this.frames][MAX_BEHAVIORS];
+    }
+
+    /**
+     * Start the recording of a new frame, overwriting the oldest one of the ring.
+     *
+     * @return the current time in nanoseconds, to be given to the first {@link FrameProfiler#phase(int, long)}.
+     */
+    public long startFrame() {
+        Arrays.fill(framePhases, 0);
+        if (isRecording()) {
+            current = (current + 1) % frames;
+            Arrays.fill(phaseSamples[current], 0);
+            Arrays.fill(behaviorSamples[current], 0);
+            recordedFrames++;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Add the time elapsed since <code>start</code> to the <code>phase</code> of the current frame.
+     *
+     * @param phase the phase index (see {@link FrameProfiler#INPUT} to {@link FrameProfiler#RENDER}).
+     * @param start the start time of the phase, in nanoseconds.
+     * @return the current time in nanoseconds, to chain the next phase.
+     */
+    public long phase(int phase, long start) {
+        long now = System.nanoTime();
+        framePhases[phase] += now - start;
+        if (isRecording()) {
+            phaseSamples[current][phase] += now - start;
+        }
+        return now;
+    }
+
+    /**
+     * Add the duration of a Behavior call to its Behavior class.
+     *
+     * @param b        the executed Behavior.
+     * @param event    the event type index (see {@link BehaviorStats#UPDATE_ENTITY} to {@link BehaviorStats#COLLISION}).
+     * @param duration the duration of the call, in nanoseconds.
+     */
+    public void behavior(Behavior b, int event, long duration) {
+        behaviorSamples[current][behaviorStats.record(b, event, duration)] += duration;
+    }
+
+    /**
+     * Add the duration of an Entity update (including its Behaviors) to the Entity.
+     *
+     * @param e        the updated Entity.
+     * @param duration the duration of the update, in nanoseconds.
+     */
+    public void entity(Entity e, long duration) {
+        long[] total = entityTotals.get(e.name);
+        if (total == null) {
+            total = entityTotals.size() < MAX_ENTITIES ? new long[1] : entityTotals.remove(getCheapestEntity());
+            entityTotals.put(e.name, total);
+        }
+        total[0] += duration;
+    }
+
+    private String getCheapestEntity() {
+        String cheapest = null;
+        long min = Long.MAX_VALUE;
+        for (Map.Entry<String, long[]> e : entityTotals.entrySet()) {
+            if (e.getValue()[0] < min) {
+                min = e.getValue()[0];
+                cheapest = e.getKey();
+            }
+        }
+        return cheapest;
+    }
+
+    /**
+     * Drop the cumulated time of a removed Entity and of its children.
+     *
+     * @param e the Entity removed from the Application.
+     */
+    public void remove(Entity e) {
+        entityTotals.remove(e.name);
+        e.getChild().forEach(c -> entityTotals.remove(c.name));
+    }
+
+    /**
+     * Retrieve the number of entities currently accounted.
+     *
+     * @return the number of entities, up to {@link FrameProfiler#MAX_ENTITIES}.
+     */
+    public int getEntityCount() {
+        return entityTotals.size();
+    }
+
+    /**
+     * Fill the <code>names</code> and <code>times</code> arrays with the most expensive Behavior classes by
+     * cumulated time, the most expensive first.
+     *
+     * @param names the names of the Behavior classes.
+     * @param times the cumulated times, in nanoseconds.
+     * @return the number of filled entries.
+     */
+    public int getTopBehaviors(String[] names, long[] times) {
+        int count = 0;
+        for (int i = 0; i < MAX_BEHAVIORS; i++) {
+            long total = behaviorStats.getTotalTime(i);
+            if (total > 0) {
+                count = insert(names, times, count, behaviorStats.getName(i), total);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Fill the <code>names</code> and <code>times</code> arrays with the most expensive entities by
+     * cumulated update time, the most expensive first.
+     *
+     * @param names the names of the entities.
+     * @param times the cumulated times, in nanoseconds.
+     * @return the number of filled entries.
+     */
+    public int getTopEntities(String[] names, long[] times) {
+        int count = 0;
+        for (Map.Entry<String, long[]> e : entityTotals.entrySet()) {
+            count = insert(names, times, count, e.getKey(), e.getValue()[0]);
+        }
+        return count;
+    }
+
+    /**
+     * Insert a value into the sorted top arrays, dropping the smallest one when full.
+     */
+    private static int insert(String[] names, long[] times, int count, String name, long time) {
+        int i = Math.min(count, times.length);
+        if (i == times.length && time <= times[i - 1]) {
+            return count;
+        }
+        if (i == times.length) {
+            i--;
+        }
+        while (i > 0 && times[i - 1] < time) {
+            names[i] = names[i - 1];
+            times[i] = times[i - 1];
+            i--;
+        }
+        names[i] = name;
+        times[i] = time;
+        return Math.min(count + 1, times.length);
+    }
+
+    /**
+     * Retrieve the time of a phase for one of the last frames.
+     *
+     * @param age   the age of the frame, 0 for the last recorded one, up to {@link FrameProfiler#getFrames()} - 1.
+     * @param phase the phase index.
+     * @return the time spent in this phase, in nanoseconds.
+     */
+    public long getPhaseTime(int age, int phase) {
+        return phaseSamples[(current - age + frames) % frames][phase];
+    }
+
+    /**
+     * Retrieve the time of a phase for the current frame, whether the frames are recorded or not.
+     *
+     * @param phase the phase index.
+     * @return the time spent in this phase since the frame start, in nanoseconds.
+     */
+    public long getFramePhaseTime(int phase) {
+        return framePhases[phase];
+    }
+
+    /**
+     * Retrieve the time of a Behavior class slot for one of the last frames.
+     *
+     * @param age  the age of the frame, 0 for the last recorded one.
+     * @param slot the Behavior class slot, from 0 to {@link FrameProfiler#getBehaviorCount()} - 1,
+     *             or {@link FrameProfiler#MAX_BEHAVIORS} - 1 for the others.
+     * @return the time spent in this Behavior class, in nanoseconds.
+     */
+    public long getBehaviorTime(int age, int slot) {
+        return behaviorSamples[(current - age + frames) % frames][slot];
+    }
+
+    public String getBehaviorName(int slot) {
+        return behaviorStats.getName(slot);
+    }
+
+    public int getBehaviorCount() {
+        return behaviorStats.getCount();
+    }
+
+    public BehaviorStats getBehaviorStats() {
+        return behaviorStats;
+    }
+
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * Retrieve the number of frames recorded since the start, to know how many samples of the ring are valid.
+     *
+     * @return the number of recorded frames.
+     */
+    public long getRecordedFrames() {
+        return recordedFrames;
+    }
+
+    /**
+     * Clear all the samples and cumulated times.
+     */
+    public void reset() {
+        for (int i = 0; i < frames; i++) {
+            Arrays.fill(phaseSamples[i], 0);
+            Arrays.fill(behaviorSamples[i], 0);
+        }
+        behaviorStats.reset();
+        entityTotals.clear();
+        recordedFrames = 0;
+    }
+
+    /**
+     * The frames are recorded when the recording is requested (<code>app.debug.profiler=true</code>)
+     * or when the overlay is displayed.
+     *
+     * @return true if the frames are recorded.
+     */
+    public boolean isRecording() {
+        return recording || visible;
+    }
+
+    public FrameProfiler setRecording(boolean recording) {
+        this.recording = recording;
+        return this;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Show or hide the profiler overlay.
+     *
+     * @return the updated FrameProfiler.
+     */
+    public FrameProfiler toggleVisible() {
+        this.visible = !visible;
+        return this;
+    }
+}
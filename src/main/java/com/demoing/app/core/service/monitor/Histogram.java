@@ -0,0 +1,305 @@
+package com.demoing.app.core.service.monitor;
+
+import javax.management.openmbean.ArrayType;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The {@link Histogram} records a distribution of durations (e.g. frame, update and render times)
+ * into log-scaled buckets, to provide the percentiles and the maximum of the measured values, and not only the
+ * last or the average one: a single hitch of 80 ms every few seconds can then be seen.
+ * <p>
+ * The values are recorded into a fixed number of buckets: each power of two is split into
+ * {@link Histogram#SUB_BUCKETS} linear buckets, giving a relative precision of about 3% from 1 ns
+ * up to {@link Long#MAX_VALUE}, in a fixed memory of about 15 KB per interval.
+ * <p>
+ * The recording is lock-free (a few atomic increments), to be called from the game loop. The histogram is read
+ * by intervals: {@link Histogram#getIntervalSnapshot()} returns the values recorded since its previous call and
+ * starts a new interval, by swapping the recording buckets with a spare ones. The cumulated counts since start are
+ * also kept, for the scrapers computing their own rates (see {@link MetricsExporter}).
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class Histogram {
+    /**
+     * Number of bits of the linear sub-buckets of each power of two.
+     */
+    private static final int SUB_BITS = 5;
+    /**
+     * Number of linear sub-buckets of each power of two.
+     */
+    public static final int SUB_BUCKETS = 1 << SUB_BITS;
+    /**
+     * Total number of buckets, to cover all the positive long values.
+     */
+    public static final int BUCKETS = (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+
+    /**
+     * The buckets of one recording interval.
+     */
+    private static class Interval {
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong max = new AtomicLong();
+        /**
+         * Number of threads recording into this interval.
+         */
+        private final AtomicLong writers = new AtomicLong();
+
+        private void clear() {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts.set(i, 0);
+            }
+            count.set(0);
+            sum.set(0);
+            min.set(Long.MAX_VALUE);
+            max.set(0);
+        }
+    }
+
+    private final String name;
+    private final AtomicReference<Interval> active = new AtomicReference<>(new Interval());
+    private Interval spare = new Interval();
+    /**
+     * The buckets, count and sum cumulated since start, never reset.
+     */
+    private final AtomicLongArray totalCounts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalSum = new AtomicLong();
+
+    /**
+     * Create a new histogram.
+     *
+     * @param name the name of the measured value.
+     */
+    public Histogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Compute the bucket index of a value.
+     *
+     * @param value a positive value.
+     * @return the index of the bucket containing the value.
+     */
+    public static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(0, value);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int mantissa = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    /**
+     * Compute the lowest value of a bucket.
+     *
+     * @param index the bucket index.
+     * @return the lowest value stored into this bucket.
+     */
+    public static long lowestValueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        long mantissa = index % SUB_BUCKETS;
+        return (SUB_BUCKETS + mantissa) << (exponent - SUB_BITS);
+    }
+
+    /**
+     * Compute the highest value of a bucket.
+     *
+     * @param index the bucket index.
+     * @return the highest value stored into this bucket.
+     */
+    public static long highestValueOf(int index) {
+        return index + 1 < BUCKETS ? lowestValueOf(index + 1) - 1 : Long.MAX_VALUE;
+    }
+
+    /**
+     * Record a new value. This method is lock-free.
+     *
+     * @param value the measured value (negative values are recorded as 0).
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        Interval interval;
+        // register as writer of the active interval, retrying if it has been swapped meanwhile.
+        while (true) {
+            interval = active.get();
+            interval.writers.incrementAndGet();
+            if (interval == active.get()) {
+                break;
+            }
+            interval.writers.decrementAndGet();
+        }
+        interval.counts.incrementAndGet(indexOf(v));
+        interval.count.incrementAndGet();
+        interval.sum.addAndGet(v);
+        interval.min.accumulateAndGet(v, Math::min);
+        interval.max.accumulateAndGet(v, Math::max);
+        interval.writers.decrementAndGet();
+        totalCounts.incrementAndGet(indexOf(v));
+        totalCount.incrementAndGet();
+        totalSum.addAndGet(v);
+    }
+
+    /**
+     * Retrieve the cumulated number of values lower or equal to each of the <code>bounds</code>, since start.
+     * The bounds are rounded up to the highest value of their bucket. This method is lock-free.
+     *
+     * @param bounds the increasing bounds.
+     * @param dest   the array receiving the number of values for each bound.
+     * @return the <code>dest</code> array.
+     */
+    public long[] getTotalCounts(long[] bounds, long[] dest) {
+        long seen = 0;
+        int i = 0;
+        for (int b = 0; b < bounds.length; b++) {
+            int last = indexOf(bounds[b]);
+            for (; i <= last; i++) {
+                seen += totalCounts.get(i);
+            }
+            dest[b] = seen;
+        }
+        return dest;
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    public long getTotalSum() {
+        return totalSum.get();
+    }
+
+    /**
+     * Retrieve the values recorded since the previous call, and start a new interval.
+     *
+     * @return the distribution of the values recorded during the interval.
+     */
+    public synchronized Snapshot getIntervalSnapshot() {
+        Interval interval = active.getAndSet(spare);
+        // wait for the writers still recording into the previous interval.
+        while (interval.writers.get() > 0) {
+            Thread.onSpinWait();
+        }
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = interval.counts.get(i);
+        }
+        Snapshot snapshot = new Snapshot(name, counts, interval.count.get(), interval.sum.get(),
+                interval.count.get() > 0 ? interval.min.get() : 0, interval.max.get());
+        interval.clear();
+        spare = interval;
+        return snapshot;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The distribution of the values recorded during an interval.
+     */
+    public static class Snapshot {
+        public final String name;
+        public final long count;
+        public final long sum;
+        public final long min;
+        public final long max;
+        private final long[] counts;
+
+        Snapshot(String name, long[] counts, long count, long sum, long min, long max) {
+            this.name = name;
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * Retrieve the mean of the recorded values.
+         *
+         * @return the mean value, 0 if no value.
+         */
+        public double getMean() {
+            return count > 0 ? (double) sum / count : 0;
+        }
+
+        /**
+         * Retrieve the <code>p</code> percentile of the recorded values, as the highest value of the bucket
+         * containing it (bounded by the max value).
+         *
+         * @param p the percentile, from 0 to 100.
+         * @return the percentile value, 0 if no value.
+         */
+        public long getPercentile(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(p / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(max, highestValueOf(i));
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Retrieve the number of values recorded into a bucket.
+         *
+         * @param index the bucket index.
+         * @return the number of values.
+         */
+        public long getCount(int index) {
+            return counts[index];
+        }
+
+        /**
+         * Convert this snapshot to a JMX {@link CompositeData}, with its statistics and its non-empty buckets:
+         * <code>bucketsValue</code> are the buckets highest values and <code>bucketsCount</code> their number of
+         * values.
+         *
+         * @return the JMX representation of the distribution.
+         * @throws OpenDataException if the composite data can not be created.
+         */
+        public CompositeData toCompositeData() throws OpenDataException {
+            String[] items = {"name", "count", "min", "max", "mean", "p50", "p90", "p99", "p999",
+                    "bucketsValue", "bucketsCount"};
+            OpenType<?> longArray = ArrayType.getPrimitiveArrayType(long[].class);
+            OpenType<?>[] types = {SimpleType.STRING, SimpleType.LONG, SimpleType.LONG, SimpleType.LONG,
+                    SimpleType.DOUBLE, SimpleType.LONG, SimpleType.LONG, SimpleType.LONG, SimpleType.LONG,
+                    longArray, longArray};
+            CompositeType type = new CompositeType("Histogram", "Distribution of the values recorded during an interval",
+                    items, items, types);
+            int buckets = (int) Arrays.stream(counts).filter(c -> c > 0).count();
+            long[] bucketsValue = new long[buckets];
+            long[] bucketsCount = new long[buckets];
+            for (int i = 0, b = 0; i < BUCKETS; i++) {
+                if (counts[i] > 0) {
+                    bucketsValue[b] = Math.min(max, highestValueOf(i));
+                    bucketsCount[b++] = counts[i];
+                }
+            }
+            return new CompositeDataSupport(type, items, new Object[]{name, count, min, max, getMean(),
+                    getPercentile(50), getPercentile(90), getPercentile(99), getPercentile(99.9),
+                    bucketsValue, bucketsCount});
+        }
+    }
+}
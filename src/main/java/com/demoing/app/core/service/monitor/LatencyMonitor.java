@@ -0,0 +1,93 @@
+package com.demoing.app.core.service.monitor;
+
+import java.util.Arrays;
+
+/**
+ * The {@link LatencyMonitor} keeps the last latency samples into a fixed ring, to provide
+ * the average, 95th percentile and maximum values of the latency distribution.
+ * <p>
+ * It is used to measure the input-to-photon latency: the time between a key press received by the
+ * {@link com.demoing.app.core.gfx.Window} and the presentation of the first frame reflecting it.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class LatencyMonitor {
+    private final long[] samples;
+    private final long[] sorted;
+    private int index = 0;
+    private int count = 0;
+    private long max = 0;
+
+    /**
+     * Create a new monitor keeping the <code>size</code> last samples.
+     *
+     * @param size the number of samples to keep.
+     */
+    public LatencyMonitor(int size) {
+        this.samples = new long[size];
+        this.sorted = new long[size];
+    }
+
+    /**
+     * Record a new latency sample.
+     *
+     * @param latency the measured latency, in nanoseconds.
+     */
+    public synchronized void record(long latency) {
+        samples[index] = latency;
+        index = (index + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        max = Math.max(max, latency);
+    }
+
+    /**
+     * Retrieve the average of the kept samples.
+     *
+     * @return the average latency in nanoseconds, 0 if no sample.
+     */
+    public synchronized long getAverage() {
+        if (count == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += samples[i];
+        }
+        return sum / count;
+    }
+
+    /**
+     * Retrieve the <code>p</code> percentile of the kept samples.
+     *
+     * @param p the percentile from 0 to 100.
+     * @return the latency percentile in nanoseconds, 0 if no sample.
+     */
+    public synchronized long getPercentile(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        int rank = (int) Math.ceil((p / 100.0) * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, rank))];
+    }
+
+    /**
+     * Retrieve the maximum latency measured since start.
+     *
+     * @return the max latency in nanoseconds.
+     */
+    public synchronized long getMax() {
+        return max;
+    }
+
+    /**
+     * Retrieve the number of kept samples.
+     *
+     * @return the number of samples.
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,342 @@
+package com.demoing.app.core.service.monitor;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.entity.Entity;
+import com.demoing.app.core.entity.Light;
+import com.demoing.app.core.entity.helpers.LightType;
+import com.demoing.app.core.service.physic.PhysicType;
+import com.demoing.app.core.service.physic.World;
+import com.demoing.app.core.service.physic.material.Material;
+import com.demoing.app.core.utils.Logger;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.demoing.app.core.entity.helpers.EntityType.ELLIPSE;
+import static com.demoing.app.core.entity.helpers.EntityType.RECTANGLE;
+
+/**
+ * The {@link LoadGenerator} stresses a running {@link Application} with generated entities of a chosen
+ * {@link Archetype}, to find how many entities the engine sustains at the expected frame rate.
+ * <p>
+ * A ramp adds (or removes) <code>step</code> entities every <code>stepDuration</code> ms, up to the
+ * <code>target</code> number of entities (or down to none), and measures each step: number of frames, sustained FPS,
+ * mean and max frame computation times (see {@link LoadGenerator.Step}). The ramp stops by itself when the mean
+ * frame time of a step exceeds the <code>app.monitor.load.threshold</code>.
+ * <p>
+ * The ramps are requested through the {@link AppStatusMBean} operations, and the generator runs on the game thread:
+ * the commands are submitted with {@link Application#submit(java.util.function.Consumer)}, and the steps are
+ * processed at the end of each frame by {@link LoadGenerator#update(Application, long)}.
+ * The entities are placed with a seeded random generator, so that two ramps produce the same scene.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class LoadGenerator {
+    /**
+     * The kinds of generated entities.
+     */
+    public enum Archetype {
+        /**
+         * A dynamic bouncing ball, colliding with the others.
+         */
+        BALL,
+        /**
+         * A tiny dynamic particle, without Behavior.
+         */
+        PARTICLE,
+        /**
+         * A static platform.
+         */
+        PLATFORM,
+        /**
+         * A spherical light.
+         */
+        LIGHT
+    }
+
+    /**
+     * The measures of a ramp step, the frame times in milliseconds.
+     */
+    public record Step(int entities, long frames, double fps, double meanFrameTime, double maxFrameTime) {
+    }
+
+    public static final String PREFIX = "load_";
+    private static final String[] ITEMS = {"entities", "frames", "fps", "meanFrameTime", "maxFrameTime"};
+    private static final Material BALL_MATERIAL = new Material("loadBall", 1.0, 0.65, 0.98);
+    private static final Material PLATFORM_MATERIAL = new Material("loadPlatform", 1.0, 0.2, 0.20);
+
+    private final long threshold;
+    private final Random random = new Random(42);
+    private final List<String> spawned = new ArrayList<>();
+    private final List<Step> steps = new CopyOnWriteArrayList<>();
+    private long index = 0;
+
+    private boolean running = false;
+    private Archetype archetype = Archetype.BALL;
+    private int target, stepSize, stepDuration;
+    private long stepStart, stepFrames, stepTime, stepMax;
+    private volatile int count = 0;
+    private volatile String status = "idle";
+
+    /**
+     * Create the generator.
+     *
+     * @param threshold the mean frame time of a step stopping the ramp, in milliseconds
+     *                  (<code>app.monitor.load.threshold</code>), 0 to never stop.
+     */
+    public LoadGenerator(int threshold) {
+        this.threshold = threshold * 1_000_000L;
+    }
+
+    /**
+     * Start a ramp adding <code>step</code> entities every <code>stepDuration</code> ms, up to <code>target</code>
+     * generated entities. Must be called from the game thread.
+     *
+     * @param archetype    the kind of entities to generate.
+     * @param target       the number of generated entities to reach.
+     * @param step         the number of entities added by step.
+     * @param stepDuration the duration of the measure of each step, in milliseconds.
+     */
+    public void start(Archetype archetype, int target, int step, int stepDuration) {
+        this.archetype = archetype;
+        ramp(target, step, stepDuration);
+        Logger.log(Logger.INFO, this.getClass(), "Load ramp of %s up to %d entities, %d every %d ms",
+                archetype, target, stepSize, this.stepDuration);
+    }
+
+    /**
+     * Start a ramp removing <code>step</code> generated entities every <code>stepDuration</code> ms, down to none.
+     * Must be called from the game thread.
+     *
+     * @param step         the number of entities removed by step.
+     * @param stepDuration the duration of the measure of each step, in milliseconds.
+     */
+    public void startUnload(int step, int stepDuration) {
+        ramp(0, step, stepDuration);
+        Logger.log(Logger.INFO, this.getClass(), "Unload ramp of %d entities, %d every %d ms",
+                spawned.size(), stepSize, this.stepDuration);
+    }
+
+    private void ramp(int target, int step, int stepDuration) {
+        this.target = Math.max(0, target);
+        this.stepSize = Math.max(1, step);
+        this.stepDuration = Math.max(100, stepDuration);
+        steps.clear();
+        // the first step is applied at the end of the current frame.
+        stepStart = 0;
+        running = true;
+        status = "running";
+    }
+
+    /**
+     * Stop the current ramp, keeping the generated entities.
+     *
+     * @param reason the reason of the stop, published as the status.
+     */
+    public void stop(String reason) {
+        if (running) {
+            running = false;
+            status = reason;
+            Logger.log(Logger.INFO, this.getClass(), "Load ramp stopped: %s", reason);
+        }
+    }
+
+    /**
+     * Account the frame just computed, and at the end of a step, record its measures and apply the next step.
+     *
+     * @param app       the Application to add the entities to.
+     * @param frameTime the frame computation time, in nanoseconds.
+     */
+    public void update(Application app, long frameTime) {
+        if (!running) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (stepStart > 0) {
+            stepFrames++;
+            stepTime += frameTime;
+            stepMax = Math.max(stepMax, frameTime);
+            if (now - stepStart < stepDuration) {
+                return;
+            }
+            Step s = new Step(spawned.size(), stepFrames, stepFrames * 1000.0 / (now - stepStart),
+                    stepTime / 1_000_000.0 / stepFrames, stepMax / 1_000_000.0);
+            steps.add(s);
+            Logger.log(Logger.INFO, this.getClass(), "Load step: %d entities, %.1f fps, %.2f ms mean, %.2f ms max",
+                    s.entities(), s.fps(), s.meanFrameTime(), s.maxFrameTime());
+            if (threshold > 0 && stepTime / stepFrames > threshold) {
+                stop(String.format("stopped: mean frame time %.2f ms over %d ms at %d entities",
+                        s.meanFrameTime(), threshold / 1_000_000, s.entities()));
+                return;
+            }
+            if (spawned.size() == target) {
+                stop("done: " + spawned.size() + " entities");
+                return;
+            }
+        }
+        if (spawned.size() < target) {
+            spawn(app, archetype, Math.min(stepSize, target - spawned.size()));
+        } else {
+            despawn(app, Math.min(stepSize, spawned.size() - target));
+        }
+        status = "running: " + spawned.size() + "/" + target + " " + archetype.name().toLowerCase() + " entities";
+        stepStart = now;
+        stepFrames = 0;
+        stepTime = 0;
+        stepMax = 0;
+    }
+
+    /**
+     * Add <code>nb</code> generated entities of the <code>archetype</code>. Must be called from the game thread.
+     *
+     * @param app       the Application to add the entities to.
+     * @param archetype the kind of entities to generate.
+     * @param nb        the number of entities to add.
+     */
+    public void spawn(Application app, Archetype archetype, int nb) {
+        World world = getWorld(app);
+        for (int i = 0; i < nb; i++) {
+            Entity e = create(archetype, world);
+            add(app, e);
+            spawned.add(e.name);
+        }
+        count = spawned.size();
+    }
+
+    /**
+     * Remove the <code>nb</code> last generated entities. Must be called from the game thread.
+     *
+     * @param app the Application to remove the entities from.
+     * @param nb  the number of entities to remove.
+     */
+    public void despawn(Application app, int nb) {
+        for (int i = 0; i < nb && !spawned.isEmpty(); i++) {
+            remove(app, spawned.remove(spawned.size() - 1));
+        }
+        count = spawned.size();
+    }
+
+    /**
+     * Create a new entity of the <code>archetype</code>, at a pseudo-random position in the <code>world</code>.
+     *
+     * @param archetype the kind of entity to create.
+     * @param world     the World the entity is created into.
+     * @return the created Entity.
+     */
+    public Entity create(Archetype archetype, World world) {
+        double x = random.nextDouble() * world.area.getWidth();
+        double y = random.nextDouble() * world.area.getHeight();
+        String name = PREFIX + archetype.name().toLowerCase() + "_" + (index++);
+        return switch (archetype) {
+            case BALL -> new Entity(name)
+                    .setType(ELLIPSE)
+                    .setPhysicType(PhysicType.DYNAMIC)
+                    .setSize(8, 8)
+                    .setPosition(x, y)
+                    .setColor(Color.ORANGE)
+                    .setMaterial(BALL_MATERIAL)
+                    .setMass(30.0)
+                    .setPriority(2)
+                    .setDuration(-1);
+            case PARTICLE -> new Entity(name)
+                    .setType(ELLIPSE)
+                    .setPhysicType(PhysicType.DYNAMIC)
+                    .setSize(1.0, 2.0)
+                    .setPosition(x, y)
+                    .setColor(Color.CYAN)
+                    .setMass(0.01)
+                    .setPriority(10)
+                    .setDuration(-1);
+            case PLATFORM -> new Entity(name)
+                    .setType(RECTANGLE)
+                    .setPhysicType(PhysicType.STATIC)
+                    .setSize(64, 16)
+                    .setPosition(x, y)
+                    .setColor(Color.LIGHT_GRAY)
+                    .setMaterial(PLATFORM_MATERIAL)
+                    .setMass(10000)
+                    .setDuration(-1);
+            case LIGHT -> new Light(name)
+                    .setLightType(LightType.SPHERICAL)
+                    .setEnergy(0.8)
+                    .setColor(new Color(0.9f, 0.7f, 0.2f, 0.6f))
+                    .setPosition(x, y)
+                    .setSize(50.0, 50.0)
+                    .setDuration(-1);
+        };
+    }
+
+    protected World getWorld(Application app) {
+        return app.getPhysicEngine().getWorld();
+    }
+
+    protected void add(Application app, Entity e) {
+        app.addEntity(e);
+    }
+
+    protected void remove(Application app, String name) {
+        app.removeEntity(name);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Retrieve the ramp status: idle, running (with the current number of entities), done, or stopped and why.
+     *
+     * @return the ramp status.
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Retrieve the number of generated entities currently in the Application.
+     *
+     * @return the number of generated entities.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Retrieve the measures of the steps of the last ramp.
+     *
+     * @return the list of measured steps, in order.
+     */
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Convert the measures of the last ramp steps to JMX open data.
+     *
+     * @return an array of CompositeData: entities, frames, fps, meanFrameTime and maxFrameTime (ms).
+     * @throws OpenDataException if the CompositeData can not be created.
+     */
+    public CompositeData[] toCompositeData() throws OpenDataException {
+        CompositeType type = new CompositeType("LoadStep", "Load ramp step measures",
+                ITEMS,
+                new String[]{"Number of generated entities", "Number of measured frames", "Sustained frames per second",
+                        "Mean frame computation time (ms)", "Max frame computation time (ms)"},
+                new OpenType<?>[]{SimpleType.INTEGER, SimpleType.LONG, SimpleType.DOUBLE,
+                        SimpleType.DOUBLE, SimpleType.DOUBLE});
+        List<CompositeData> data = new ArrayList<>();
+        for (Step s : steps) {
+            data.add(new CompositeDataSupport(type, ITEMS,
+                    new Object[]{s.entities(), s.frames(), s.fps(), s.meanFrameTime(), s.maxFrameTime()}));
+        }
+        return data.toArray(new CompositeData[0]);
+    }
+}
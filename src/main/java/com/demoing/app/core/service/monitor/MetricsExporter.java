@@ -0,0 +1,279 @@
+package com.demoing.app.core.service.monitor;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.entity.Entity;
+import com.demoing.app.core.io.Resources;
+import com.demoing.app.core.utils.Logger;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The {@link MetricsExporter} publishes the {@link Application} metrics in the Prometheus text exposition format,
+ * on <code>http://127.0.0.1:[app.metrics.http.port]/metrics</code>, with the JDK embedded {@link HttpServer}.
+ * <p>
+ * The exported metrics are the {@link AppStatusMBean} ones (FPS, entities, pipeline, resources cache and atlas),
+ * the frame, update and render times as Prometheus histograms (cumulated since start, see {@link Histogram}),
+ * the number of entities per type, the collision pairs counts, and the JVM garbage collections and the game thread allocations.
+ * <p>
+ * The scrapes are served by one daemon thread, which only reads the lock-free or volatile measures of the services:
+ * the game loop is never blocked nor slowed by a scrape. The exposition text is rendered into a reused buffer,
+ * without allocation per scrape.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class MetricsExporter implements HttpHandler {
+    /**
+     * The histograms buckets bounds, in nanoseconds, from 1 ms to 250 ms.
+     */
+    private static final long[] BOUNDS = {
+            1_000_000, 2_000_000, 4_000_000, 8_000_000, 16_000_000, 33_000_000, 50_000_000, 100_000_000, 250_000_000};
+
+    /**
+     * Number of entities of one type, counted on each scrape.
+     */
+    private static class TypeCounter {
+        private final String type;
+        private long count;
+
+        TypeCounter(Class<?> clazz) {
+            this.type = clazz.getSimpleName();
+        }
+    }
+
+    private final Application app;
+    private final int port;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private final StringBuilder text = new StringBuilder(16 * 1024);
+    private byte[] bytes = new byte[16 * 1024];
+    private final long[] bucketCounts = new long[BOUNDS.length];
+    private final Map<Class<?>, TypeCounter> types = new HashMap<>();
+
+    private final List<GarbageCollectorMXBean> gcs = ManagementFactory.getGarbageCollectorMXBeans();
+    private final String[] gcNames;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Create the exporter for the <code>app</code> Application.
+     *
+     * @param app  the Application to export the metrics of.
+     * @param port the local HTTP port to listen to.
+     */
+    public MetricsExporter(Application app, int port) {
+        this.app = app;
+        this.port = port;
+        this.gcNames = gcs.stream().map(GarbageCollectorMXBean::getName).toArray(String[]::new);
+    }
+
+    /**
+     * Start listening to the local HTTP port.
+     *
+     * @return the started MetricsExporter.
+     */
+    public MetricsExporter start() {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/metrics", this);
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "metrics-exporter");
+                t.setDaemon(true);
+                return t;
+            });
+            server.setExecutor(executor);
+            server.start();
+            Logger.log(Logger.INFO, this.getClass(), "Metrics published on http://127.0.0.1:%d/metrics",
+                    server.getAddress().getPort());
+        } catch (IOException e) {
+            Logger.log(Logger.ERROR, this.getClass(), "Unable to start the metrics exporter on port %d: %s",
+                    port, e.getMessage());
+        }
+        return this;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            int length = render();
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Render all the metrics into the reused {@link MetricsExporter#bytes} buffer.
+     *
+     * @return the length of the exposition text.
+     */
+    public int render() {
+        text.setLength(0);
+        gauge("monoclass_fps", "Measured frames per second.", app.getRealFps());
+        gauge("monoclass_paused", "1 if the application is paused.", app.pause ? 1 : 0);
+        gauge("monoclass_entities", "Number of entities.", app.getEntities().size());
+        entitiesByType();
+        gauge("monoclass_render_pipeline_size", "Number of entities in the rendering pipeline.",
+                app.getRender().getgPipeline().size());
+        histogram("monoclass_frame_time_nanoseconds", "Frame computation time (input, update, render).",
+                app.getFrameHistogram());
+        histogram("monoclass_update_time_nanoseconds", "PhysicEngine update time.",
+                app.getPhysicEngine().getUpdateHistogram());
+        histogram("monoclass_render_time_nanoseconds", "Render draw time.",
+                app.getRender().getRenderHistogram());
+        gauge("monoclass_collision_pairs_tested", "Entities pairs tested during the last update.",
+                app.getCollisionDetector().getTestedPairs());
+        gauge("monoclass_collision_pairs_colliding", "Entities pairs colliding during the last update.",
+                app.getCollisionDetector().getCollidingPairs());
+        counter("monoclass_collision_pairs_colliding_total", "Entities pairs collisions since start.",
+                app.getCollisionDetector().getTotalCollidingPairs());
+        counter("monoclass_resource_cache_hits_total", "Resources found in the cache.",
+                Resources.getCache().getHits());
+        counter("monoclass_resource_cache_misses_total", "Resources not found in the cache.",
+                Resources.getCache().getMisses());
+        counter("monoclass_resource_cache_evictions_total", "Resources evicted from the cache.",
+                Resources.getCache().getEvictions());
+        gauge("monoclass_resource_cache_bytes", "Estimated memory size of the cached resources.",
+                Resources.getCache().getBytes());
+        gauge("monoclass_atlas_regions", "Number of atlas regions.", Resources.getAtlas().size());
+        gauge("monoclass_atlas_bytes", "Memory size of the atlas regions.", Resources.getAtlas().getBytes());
+        allocations();
+        jvm();
+        return encode();
+    }
+
+    private void entitiesByType() {
+        types.values().forEach(t -> t.count = 0);
+        for (Entity e : app.getEntities().values()) {
+            types.computeIfAbsent(e.getClass(), TypeCounter::new).count++;
+        }
+        header("monoclass_entities_by_type", "Number of entities per type.", "gauge");
+        for (TypeCounter t : types.values()) {
+            text.append("monoclass_entities_by_type{type=\"").append(t.type).append("\"} ")
+                    .append(t.count).append('\n');
+        }
+    }
+
+    private void histogram(String name, String help, Histogram histogram) {
+        header(name, help, "histogram");
+        histogram.getTotalCounts(BOUNDS, bucketCounts);
+        long count = histogram.getTotalCount();
+        for (int i = 0; i < BOUNDS.length; i++) {
+            text.append(name).append("_bucket{le=\"").append(BOUNDS[i]).append("\"} ")
+                    .append(Math.min(count, bucketCounts[i])).append('\n');
+        }
+        text.append(name).append("_bucket{le=\"+Inf\"} ").append(count).append('\n');
+        text.append(name).append("_sum ").append(histogram.getTotalSum()).append('\n');
+        text.append(name).append("_count ").append(count).append('\n');
+    }
+
+    private void allocations() {
+        AllocationMonitor allocation = app.getAllocationMonitor();
+        if (allocation.isEnabled()) {
+            header("monoclass_allocated_bytes_total", "Memory allocated by the game thread per frame phase.", "counter");
+            for (int i = 0; i < FrameProfiler.PHASES; i++) {
+                text.append("monoclass_allocated_bytes_total{phase=\"").append(FrameProfiler.PHASE_NAMES[i])
+                        .append("\"} ").append(allocation.getTotalPhaseBytes(i)).append('\n');
+            }
+            counter("monoclass_frames_with_gc_total", "Frames during which a garbage collection occurred.",
+                    allocation.getFramesWithGc());
+        }
+    }
+
+    private void jvm() {
+        header("jvm_gc_collections_total", "Number of garbage collections.", "counter");
+        for (int i = 0; i < gcNames.length; i++) {
+            text.append("jvm_gc_collections_total{gc=\"").append(gcNames[i]).append("\"} ")
+                    .append(gcs.get(i).getCollectionCount()).append('\n');
+        }
+        header("jvm_gc_collection_time_milliseconds_total", "Time spent in garbage collections.", "counter");
+        for (int i = 0; i < gcNames.length; i++) {
+            text.append("jvm_gc_collection_time_milliseconds_total{gc=\"").append(gcNames[i]).append("\"} ")
+                    .append(gcs.get(i).getCollectionTime()).append('\n');
+        }
+        Runtime runtime = Runtime.getRuntime();
+        gauge("jvm_heap_used_bytes", "Used heap memory.", runtime.totalMemory() - runtime.freeMemory());
+        gauge("jvm_heap_max_bytes", "Maximum heap memory.", runtime.maxMemory());
+        long gameThread = app.getAllocationMonitor().getThreadId();
+        if (gameThread >= 0
+                && threads instanceof com.sun.management.ThreadMXBean t && t.isThreadAllocatedMemoryEnabled()) {
+            // only the game thread is read: the threads ids and bytes arrays of all the threads are not allocated.
+            gauge("jvm_game_thread_allocated_bytes", "Memory allocated by the game thread since its start.",
+                    Math.max(0, t.getThreadAllocatedBytes(gameThread)));
+        }
+    }
+
+    private void gauge(String name, String help, long value) {
+        header(name, help, "gauge");
+        text.append(name).append(' ').append(value).append('\n');
+    }
+
+    private void counter(String name, String help, long value) {
+        header(name, help, "counter");
+        text.append(name).append(' ').append(value).append('\n');
+    }
+
+    private void header(String name, String help, String type) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Copy the exposition text to the bytes buffer. The text is ASCII, the entities types and GC names included.
+     */
+    private int encode() {
+        int length = text.length();
+        if (bytes.length < length) {
+            bytes = new byte[length * 2];
+        }
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) text.charAt(i);
+        }
+        return length;
+    }
+
+    /**
+     * Retrieve the exposition text of the last scrape.
+     *
+     * @return the metrics in the Prometheus text format.
+     */
+    public String getText() {
+        return text.toString();
+    }
+
+    /**
+     * Retrieve the port the exporter listens to.
+     *
+     * @return the local HTTP port.
+     */
+    public int getPort() {
+        return Optional.ofNullable(server).isPresent() ? server.getAddress().getPort() : port;
+    }
+
+    /**
+     * Stop the HTTP server.
+     */
+    public void dispose() {
+        if (Optional.ofNullable(server).isPresent()) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
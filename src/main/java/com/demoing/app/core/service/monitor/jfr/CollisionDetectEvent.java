@@ -0,0 +1,33 @@
+package com.demoing.app.core.service.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event: the CollisionDetector pass over all the colliders.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+@Name("com.demoing.app.CollisionDetect")
+@Label("Collision Detect")
+@Category({"Monoclass", "Collision"})
+@Description("The CollisionDetector pass over all the colliders.")
+@StackTrace(false)
+public class CollisionDetectEvent extends Event {
+    @Label("Colliders")
+    @Description("The number of colliders.")
+    public int colliders;
+
+    @Label("Tested Pairs")
+    @Description("The number of entities pairs tested.")
+    public long testedPairs;
+
+    @Label("Colliding Pairs")
+    @Description("The number of entities pairs colliding.")
+    public long collidingPairs;
+}
@@ -0,0 +1,40 @@
+package com.demoing.app.core.service.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event: one game loop frame, from its start (input) to its end (rendered and presented).
+ * <p>
+ * The engine events of this package are all under the "Monoclass" category, and enabled by the
+ * <code>docs/mission-control/monoclass.jfc</code> settings, recording them along with the GC and allocation events:
+ * <pre>
+ * java -XX:StartFlightRecording:settings=docs/mission-control/monoclass.jfc,filename=monoclass.jfr ...
+ * </pre>
+ * When no recording is running, the events are not committed and their cost is removed by the JIT.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+@Name("com.demoing.app.Frame")
+@Label("Frame")
+@Category({"Monoclass", "Frame"})
+@Description("One game loop frame, from its start (input) to its end (rendered and presented).")
+@StackTrace(false)
+public class FrameEvent extends Event {
+    @Label("Frame")
+    @Description("The frame number since start.")
+    public long frame;
+
+    @Label("Entities")
+    @Description("The number of entities.")
+    public int entities;
+
+    @Label("FPS")
+    @Description("The last measured frames per second.")
+    public long fps;
+}
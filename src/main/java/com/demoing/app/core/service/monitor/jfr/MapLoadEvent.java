@@ -0,0 +1,37 @@
+package com.demoing.app.core.service.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event: the loading of a TileMap, its resources and its objects.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+@Name("com.demoing.app.MapLoad")
+@Label("Map Load")
+@Category({"Monoclass", "Map"})
+@Description("The loading of a TileMap, its resources and its objects.")
+@StackTrace(false)
+public class MapLoadEvent extends Event {
+    @Label("Path")
+    @Description("The path of the map file.")
+    public String path;
+
+    @Label("Width")
+    @Description("The map width, in tiles.")
+    public int width;
+
+    @Label("Height")
+    @Description("The map height, in tiles.")
+    public int height;
+
+    @Label("Streamed")
+    @Description("The map is streamed chunk by chunk.")
+    public boolean streamed;
+}
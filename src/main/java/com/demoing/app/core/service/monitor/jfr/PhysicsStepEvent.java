@@ -0,0 +1,29 @@
+package com.demoing.app.core.service.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event: the PhysicEngine update of all the entities.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+@Name("com.demoing.app.PhysicsStep")
+@Label("Physics Step")
+@Category({"Monoclass", "Physics"})
+@Description("The PhysicEngine update of all the entities.")
+@StackTrace(false)
+public class PhysicsStepEvent extends Event {
+    @Label("Entities")
+    @Description("The number of updated entities.")
+    public int entities;
+
+    @Label("Elapsed")
+    @Description("The simulated elapsed time, in milliseconds.")
+    public double elapsed;
+}
@@ -0,0 +1,33 @@
+package com.demoing.app.core.service.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event: the Render draw of the pipeline into the back buffer and its presentation.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+@Name("com.demoing.app.RenderPass")
+@Label("Render Pass")
+@Category({"Monoclass", "Render"})
+@Description("The Render draw of the pipeline into the back buffer and its presentation.")
+@StackTrace(false)
+public class RenderPassEvent extends Event {
+    @Label("Drawn")
+    @Description("The number of pipeline entities drawn.")
+    public int drawn;
+
+    @Label("Culled")
+    @Description("The number of pipeline entities skipped (not alive nor persistent).")
+    public int culled;
+
+    @Label("Accelerated")
+    @Description("The hardware accelerated back buffer is used.")
+    public boolean accelerated;
+}
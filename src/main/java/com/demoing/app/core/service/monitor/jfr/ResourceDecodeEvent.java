@@ -0,0 +1,35 @@
+package com.demoing.app.core.service.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event: the decoding of an image or a font resource.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+@Name("com.demoing.app.ResourceDecode")
+@Label("Resource Decode")
+@Category({"Monoclass", "Resources"})
+@Description("The decoding of an image or a font resource.")
+@StackTrace(false)
+public class ResourceDecodeEvent extends Event {
+    @Label("Path")
+    @Description("The path of the resource.")
+    public String path;
+
+    @Label("Type")
+    @Description("The resource type: image or font.")
+    public String type;
+
+    @Label("Bytes")
+    @Description("The estimated memory size of the decoded resource.")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,33 @@
+package com.demoing.app.core.service.monitor.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event: the activation of a Scene, its resources preloading and creation.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+@Name("com.demoing.app.SceneSwitch")
+@Label("Scene Switch")
+@Category({"Monoclass", "Scene"})
+@Description("The activation of a Scene, its resources preloading and creation.")
+@StackTrace(false)
+public class SceneSwitchEvent extends Event {
+    @Label("From")
+    @Description("The name of the previous Scene.")
+    public String from;
+
+    @Label("To")
+    @Description("The name of the activated Scene.")
+    public String to;
+
+    @Label("Resources")
+    @Description("The number of preloaded resources.")
+    public int resources;
+}
@@ -6,11 +6,16 @@ import com.demoing.app.core.config.Configuration;
 import com.demoing.app.core.entity.Entity;
 import com.demoing.app.core.entity.Influencer;
 import com.demoing.app.core.math.Vec2d;
+import com.demoing.app.core.service.monitor.BehaviorStats;
+import com.demoing.app.core.service.monitor.FrameProfiler;
+import com.demoing.app.core.service.monitor.Histogram;
+import com.demoing.app.core.service.monitor.jfr.PhysicsStepEvent;
 import com.demoing.app.core.service.physic.material.DefaultMaterial;
 import com.demoing.app.core.service.physic.material.Material;
 import com.demoing.app.core.service.render.Render;
 import com.demoing.app.core.utils.Logger;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -28,6 +33,10 @@ public class PhysicEngine {
     private World world;
     private Configuration config;
     public long updateTime;
+    /**
+     * The distribution of the update times.
+     */
+    private final Histogram updateHistogram = new Histogram("update");
     private final Map<String, Influencer> influencers = new ConcurrentHashMap<>();
 
     /**
@@ -54,9 +63,14 @@ public class PhysicEngine {
      */
     public synchronized void update(double elapsed) {
         long start = System.nanoTime();
+        PhysicsStepEvent event = new PhysicsStepEvent();
+        event.begin();
 
+        FrameProfiler profiler = app.getProfiler();
+        boolean profiling = profiler.isRecording();
         // update entities
-        app.getEntities().values().forEach((e) -> {
+        for (Entity e : app.getEntities().values()) {
+            long entityStart = profiling ? System.nanoTime() : 0;
             // Reset all collision for the Entity e
             e.collide = false;
             e.colliders.clear();
@@ -72,26 +86,37 @@ public class PhysicEngine {
 
             // Update Entity Behavior (A specific event may have multiple Behavior)
             // this can be applied alto specifically to ParticleSystem particle's update and generation.
-            e.behaviors.values().stream()
-                    .forEach(
-                            l -> l.stream()
-                                    .filter(b -> b.filterOnEvent()
-                                            .contains(Behavior.ON_UPDATE_ENTITY))
-                                    .toList()
-                                    .forEach(b -> b.update(app, e, elapsed)));
-
-        });
+            for (List<Behavior> l : e.behaviors.values()) {
+                for (int i = 0; i < l.size(); i++) {
+                    Behavior b = l.get(i);
+                    if (b.filterOnEvent().contains(Behavior.ON_UPDATE_ENTITY)) {
+                        if (profiling) {
+                            long behaviorStart = System.nanoTime();
+                            b.update(app, e, elapsed);
+                            profiler.behavior(b, BehaviorStats.UPDATE_ENTITY, System.nanoTime() - behaviorStart);
+                        } else {
+                            b.update(app, e, elapsed);
+                        }
+                    }
+                }
+            }
+            if (profiling) {
+                profiler.entity(e, System.nanoTime() - entityStart);
+            }
+        }
 
         // Update Scene Behaviors
-        if (Optional.ofNullable(app.getSceneManager().getActiveScene().getBehaviors()).isPresent()) {
-            app.getSceneManager()
-                    .getActiveScene()
-                    .getBehaviors()
-                    .values().stream()
-                    .filter(b -> b.filterOnEvent()
-                            .contains(Behavior.ON_UPDATE_SCENE))
-                    .toList()
-                    .forEach(b -> b.update(app, elapsed));
+        if (app.getSceneManager().isSceneReady()
+                && Optional.ofNullable(app.getSceneManager().getActiveScene().getBehaviors()).isPresent()) {
+            for (Behavior b : app.getSceneManager().getActiveScene().getBehaviors().values()) {
+                if (b.filterOnEvent().contains(Behavior.ON_UPDATE_SCENE)) {
+                    long behaviorStart = profiling ? System.nanoTime() : 0;
+                    b.update(app, elapsed);
+                    if (profiling) {
+                        profiler.behavior(b, BehaviorStats.UPDATE_SCENE, System.nanoTime() - behaviorStart);
+                    }
+                }
+            }
         }
         //  update active camera if presents.
         Render r = app.getRender();
@@ -99,6 +124,17 @@ public class PhysicEngine {
             r.getActiveCamera().update(elapsed);
         }
         updateTime = System.nanoTime() - start;
+        updateHistogram.record(updateTime);
+        event.end();
+        if (event.shouldCommit()) {
+            event.entities = app.getEntities().size();
+            event.elapsed = elapsed;
+            event.commit();
+        }
+    }
+
+    public Histogram getUpdateHistogram() {
+        return updateHistogram;
     }
 
     /**
@@ -123,7 +159,9 @@ public class PhysicEngine {
         Vec2d g = new Vec2d(world.gravity.x, e.mass * world.gravity.y);
         for (Influencer i : getInfluencers().values()) {
             if (i.box.contains(e.box)) {
-                Logger.log(Logger.DETAILED, this.getClass(), "Entity %s intersects Influencer %s", e.name, i.name);
+                if (Logger.isEnabled(Logger.DETAILED)) {
+                    Logger.log(Logger.DETAILED, this.getClass(), "Entity %s intersects Influencer %s", e.name, i.name);
+                }
                 if (Optional.ofNullable(i.getGravity()).isPresent()) {
                     g = new Vec2d(
                             i.getGravity().x,
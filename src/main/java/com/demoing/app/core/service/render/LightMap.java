@@ -0,0 +1,287 @@
+package com.demoing.app.core.service.render;
+
+import com.demoing.app.core.config.Configuration;
+import com.demoing.app.core.entity.Camera;
+import com.demoing.app.core.entity.Entity;
+import com.demoing.app.core.entity.Light;
+import com.demoing.app.core.entity.helpers.LightType;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The {@link LightMap} is the lighting pass of the {@link Render} service.
+ * <p>
+ * All the visible {@link Light} are accumulated with an additive blending into a reduced resolution
+ * light map (see {@link Configuration#lightMapScale}), and this light map is then composited once over the
+ * rendered scene.
+ * <p>
+ * The gradient of a {@link LightType#SPHERICAL} light is rendered once into a sprite, cached per light
+ * configuration (color, size and energy) and shared between all the lights having the same configuration.
+ * The sprite cache is a Least Recently Used cache of {@link LightMap#MAX_SPRITES} sprites, so that a light
+ * animating its size, energy or color does not keep a sprite for each of its values.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class LightMap {
+    /**
+     * The maximum number of light sprites kept in the cache.
+     */
+    public static final int MAX_SPRITES = 64;
+
+    /**
+     * A pre-rendered light gradient, at the light map resolution, in premultiplied ARGB.
+     *
+     * @param key    the light configuration this sprite was rendered for.
+     * @param pixels the premultiplied ARGB pixels
+     * @param width  width of the sprite
+     * @param height height of the sprite
+     */
+    private record LightSprite(SpriteKey key, int[] pixels, int width, int height) {
+    }
+
+    /**
+     * The light configuration identifying a {@link LightSprite}.
+     *
+     * @param argb   the light color
+     * @param width  the light width
+     * @param height the light height
+     * @param energy the light energy (0 to 255)
+     */
+    private record SpriteKey(int argb, int width, int height, int energy) {
+        boolean matches(Light l) {
+            return argb == l.color.getRGB()
+                    && width == (int) l.width
+                    && height == (int) l.height
+                    && energy == (int) (l.energy * 255);
+        }
+    }
+
+    private final Configuration config;
+    private final int scale;
+    private final int width, height;
+    private final BufferedImage image;
+    private final int[] pixels;
+
+    /**
+     * Sprites shared between all the lights with the same configuration.
+     */
+    private final Map<SpriteKey, LightSprite> sprites = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SpriteKey, LightSprite> eldest) {
+            return size() > MAX_SPRITES;
+        }
+    };
+    /**
+     * The sprite currently used by each light.
+     */
+    private final Map<Light, LightSprite> lightSprites = new IdentityHashMap<>();
+
+    /**
+     * Number of lights drawn into the light map during the last frame.
+     */
+    private int drawnLights;
+
+    /**
+     * Create the light map according to the screen size and the light map scale from the {@link Configuration}.
+     *
+     * @param c the configuration to rely on.
+     */
+    public LightMap(Configuration c) {
+        this.config = c;
+        this.scale = Math.max(1, config.lightMapScale);
+        this.width = (int) Math.ceil(config.screenWidth / scale);
+        this.height = (int) Math.ceil(config.screenHeight / scale);
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Accumulate all the visible lights from the <code>pipeline</code> into the light map
+     * and composite the result over the scene.
+     *
+     * @param g        the Graphics API of the back buffer (in screen coordinates).
+     * @param pipeline the rendering pipeline containing the {@link Light} entities.
+     * @param cam      the active camera (can be null).
+     */
+    public void render(Graphics2D g, List<Entity> pipeline, Camera cam) {
+        Arrays.fill(pixels, 0);
+        drawnLights = 0;
+        for (Entity e : pipeline) {
+            if (e instanceof Light l) {
+                drawLight(l, cam);
+            }
+        }
+        if (drawnLights > 0) {
+            Object interpolation = g.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, (int) config.screenWidth, (int) config.screenHeight, null);
+            if (Optional.ofNullable(interpolation).isPresent()) {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+            }
+        }
+    }
+
+    private void drawLight(Light l, Camera cam) {
+        double offsetX = 0, offsetY = 0;
+        if (l.isNotStickToCamera() && Optional.ofNullable(cam).isPresent()) {
+            offsetX = cam.pos.x;
+            offsetY = cam.pos.y;
+        }
+        switch (l.lightType) {
+            case AMBIENT -> addRect(0, 0, width, height, premultiply(l.color, l.energy));
+            case AREA_RECTANGLE -> addRect(
+                    (int) ((l.pos.x - offsetX) / scale), (int) ((l.pos.y - offsetY) / scale),
+                    (int) Math.ceil(l.width / scale), (int) Math.ceil(l.height / scale),
+                    premultiply(l.color, l.energy));
+            case SPHERICAL -> {
+                LightSprite sprite = getSprite(l);
+                double glitter = 10 * Math.random() * l.glitterEffect;
+                int x = (int) ((l.pos.x - offsetX + glitter) / scale);
+                int y = (int) ((l.pos.y - offsetY + glitter) / scale);
+                if (x + sprite.width() <= 0 || y + sprite.height() <= 0 || x >= width || y >= height) {
+                    // out of the view: culled.
+                    return;
+                }
+                addSprite(sprite, x, y);
+            }
+            case SPOT -> {
+                // not supported yet.
+                return;
+            }
+        }
+        drawnLights++;
+    }
+
+    /**
+     * Retrieve the sprite for the Light <code>l</code>, rendering it only if no sprite exists for its configuration.
+     *
+     * @param l the light to get the sprite for.
+     * @return the corresponding LightSprite.
+     */
+    private LightSprite getSprite(Light l) {
+        LightSprite sprite = lightSprites.get(l);
+        if (Optional.ofNullable(sprite).isEmpty() || !sprite.key().matches(l)) {
+            SpriteKey key = new SpriteKey(l.color.getRGB(), (int) l.width, (int) l.height, (int) (l.energy * 255));
+            sprite = sprites.computeIfAbsent(key, this::createSprite);
+            lightSprites.put(l, sprite);
+        }
+        return sprite;
+    }
+
+    private LightSprite createSprite(SpriteKey key) {
+        // the spherical light is a circle with a diameter of the light width.
+        int w = Math.max(1, (int) Math.ceil((double) key.width() / scale));
+        int h = w;
+        double energy = key.energy() / 255.0;
+        Color color = Render.brighten(new Color(key.argb(), true), energy);
+        BufferedImage img = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setPaint(new RadialGradientPaint(
+                new Point(w / 2, h / 2),
+                w,
+                new float[]{0.0f, 0.05f, 0.5f},
+                new Color[]{color,
+                        Render.brighten(color, energy * 0.5),
+                        new Color(0.0f, 0.0f, 0.0f, 0.2f)}));
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) energy));
+        g.fill(new Ellipse2D.Double(0, 0, w, h));
+        g.dispose();
+        int[] spritePixels = ((DataBufferInt) img.getRaster().getDataBuffer()).getData();
+        return new LightSprite(key, spritePixels, w, h);
+    }
+
+    private void addSprite(LightSprite sprite, int dx, int dy) {
+        int x0 = Math.max(0, dx), y0 = Math.max(0, dy);
+        int x1 = Math.min(width, dx + sprite.width()), y1 = Math.min(height, dy + sprite.height());
+        int[] src = sprite.pixels();
+        for (int y = y0; y < y1; y++) {
+            int si = (y - dy) * sprite.width() + (x0 - dx);
+            int di = y * width + x0;
+            for (int x = x0; x < x1; x++) {
+                pixels[di] = addSaturate(pixels[di], src[si]);
+                si++;
+                di++;
+            }
+        }
+    }
+
+    private void addRect(int rx, int ry, int rw, int rh, int argb) {
+        int x0 = Math.max(0, rx), y0 = Math.max(0, ry);
+        int x1 = Math.min(width, rx + rw), y1 = Math.min(height, ry + rh);
+        for (int y = y0; y < y1; y++) {
+            int di = y * width + x0;
+            for (int x = x0; x < x1; x++) {
+                pixels[di] = addSaturate(pixels[di], argb);
+                di++;
+            }
+        }
+    }
+
+    /**
+     * Add the 2 premultiplied ARGB values, channel by channel, saturating each channel to 255.
+     */
+    private static int addSaturate(int a, int b) {
+        int alpha = Math.min(255, (a >>> 24) + (b >>> 24));
+        int red = Math.min(255, ((a >> 16) & 0xff) + ((b >> 16) & 0xff));
+        int green = Math.min(255, ((a >> 8) & 0xff) + ((b >> 8) & 0xff));
+        int blue = Math.min(255, (a & 0xff) + (b & 0xff));
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;
+    }
+
+    /**
+     * Convert a color to a premultiplied ARGB value, with its alpha modulated by the light energy.
+     */
+    private static int premultiply(Color c, double energy) {
+        double alpha = (c.getAlpha() / 255.0) * Math.min(1.0, energy);
+        return ((int) (alpha * 255) << 24)
+                | ((int) (c.getRed() * alpha) << 16)
+                | ((int) (c.getGreen() * alpha) << 8)
+                | (int) (c.getBlue() * alpha);
+    }
+
+    /**
+     * Release the light sprite attached to a removed light.
+     *
+     * @param l the Light removed from the rendering pipeline.
+     */
+    public void remove(Light l) {
+        lightSprites.remove(l);
+    }
+
+    /**
+     * Release the light sprites attached to all the lights, and the cached sprites.
+     */
+    public void clear() {
+        lightSprites.clear();
+        sprites.clear();
+    }
+
+    /**
+     * Retrieve the number of lights drawn during the last frame.
+     *
+     * @return the number of visible lights.
+     */
+    public int getDrawnLights() {
+        return drawnLights;
+    }
+
+    /**
+     * Retrieve the number of cached light sprites.
+     *
+     * @return the size of the sprite cache.
+     */
+    public int getSpriteCount() {
+        return sprites.size();
+    }
+}
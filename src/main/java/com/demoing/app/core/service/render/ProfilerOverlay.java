@@ -0,0 +1,175 @@
+package com.demoing.app.core.service.render;
+
+import com.demoing.app.core.config.Configuration;
+import com.demoing.app.core.service.monitor.FrameProfiler;
+import com.demoing.app.core.utils.TextUtils;
+
+import java.awt.*;
+
+/**
+ * The {@link ProfilerOverlay} draws the {@link FrameProfiler} samples over the displayed frame:
+ * <ul>
+ *     <li>the stacked bars of the last frames split by phase, with the frame time budget line,</li>
+ *     <li>the stacked bars of the last frames split by Behavior class,</li>
+ *     <li>the top most expensive Behavior classes and entities by cumulated time.</li>
+ * </ul>
+ * The texts are built into a reused buffer, and the top lists are refreshed every
+ * {@link ProfilerOverlay#TOP_REFRESH} frames only.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class ProfilerOverlay {
+    private static final int TOP = 5;
+    private static final int TOP_REFRESH = 30;
+    private static final int BAR_WIDTH = 2;
+    private static final int PHASE_HEIGHT = 80;
+    private static final int BEHAVIOR_HEIGHT = 40;
+    private static final int LINE_HEIGHT = 12;
+
+    private static final Color BACKGROUND = new Color(0.0f, 0.0f, 0.0f, 0.6f);
+    private static final Color[] PHASE_COLORS = {
+            Color.CYAN, Color.GREEN, Color.ORANGE, Color.MAGENTA, new Color(0.3f, 0.5f, 1.0f)};
+    private static final Color[] BEHAVIOR_COLORS = {
+            new Color(0xE6194B), new Color(0x3CB44B), new Color(0xFFE119), new Color(0x4363D8),
+            new Color(0xF58231), new Color(0x911EB4), new Color(0x46F0F0), new Color(0xF032E6)};
+
+    private final Configuration config;
+    private final FrameProfiler profiler;
+    private final Font font;
+
+    private final StringBuilder text = new StringBuilder(64);
+    private char[] chars = new char[64];
+    private final String[] topBehaviorNames = new String[TOP];
+    private final long[] topBehaviorTimes = new long[TOP];
+    private final String[] topEntityNames = new String[TOP];
+    private final long[] topEntityTimes = new long[TOP];
+    private int topBehaviors, topEntities;
+    private int refresh = 0;
+
+    public ProfilerOverlay(Configuration config, FrameProfiler profiler, Font font) {
+        this.config = config;
+        this.profiler = profiler;
+        this.font = font;
+    }
+
+    /**
+     * Draw the overlay at the top left corner of the displayed frame.
+     *
+     * @param g the Graphics API of the window.
+     */
+    public void draw(Graphics2D g) {
+        int frames = (int) Math.min(profiler.getFrames(), profiler.getRecordedFrames());
+        int width = profiler.getFrames() * BAR_WIDTH;
+        int x = 10, y = 30;
+        g.setFont(font);
+        g.setColor(BACKGROUND);
+        g.fillRect(x - 4, y - 4, width + 200, PHASE_HEIGHT + BEHAVIOR_HEIGHT + LINE_HEIGHT * (TOP * 2 + 3) + 12);
+
+        // the phase bars, scaled to twice the frame time budget.
+        double budget = config.frameTime * 1_000_000.0;
+        double phaseScale = PHASE_HEIGHT / (2.0 * budget);
+        for (int age = 0; age < frames; age++) {
+            int bx = x + width - (age + 1) * BAR_WIDTH;
+            int by = y + PHASE_HEIGHT;
+            for (int p = 0; p < FrameProfiler.PHASES; p++) {
+                int h = (int) Math.round(profiler.getPhaseTime(age, p) * phaseScale);
+                h = Math.min(h, by - y);
+                g.setColor(PHASE_COLORS[p]);
+                g.fillRect(bx, by - h, BAR_WIDTH, h);
+                by -= h;
+            }
+        }
+        g.setColor(Color.RED);
+        g.drawLine(x, y + PHASE_HEIGHT / 2, x + width, y + PHASE_HEIGHT / 2);
+
+        // the behavior bars, scaled to the most expensive frame.
+        int by0 = y + PHASE_HEIGHT + BEHAVIOR_HEIGHT + 4;
+        long max = 1;
+        for (int age = 0; age < frames; age++) {
+            long sum = 0;
+            for (int s = 0; s < FrameProfiler.MAX_BEHAVIORS; s++) {
+                sum += profiler.getBehaviorTime(age, s);
+            }
+            max = Math.max(max, sum);
+        }
+        double behaviorScale = (double) BEHAVIOR_HEIGHT / max;
+        for (int age = 0; age < frames; age++) {
+            int bx = x + width - (age + 1) * BAR_WIDTH;
+            int by = by0;
+            for (int s = 0; s < FrameProfiler.MAX_BEHAVIORS; s++) {
+                int h = (int) Math.round(profiler.getBehaviorTime(age, s) * behaviorScale);
+                g.setColor(BEHAVIOR_COLORS[s % BEHAVIOR_COLORS.length]);
+                g.fillRect(bx, by - h, BAR_WIDTH, h);
+                by -= h;
+            }
+        }
+
+        // the phases legend, with the average time of the displayed frames.
+        int lx = x + width + 8;
+        int ly = y + LINE_HEIGHT;
+        for (int p = 0; p < FrameProfiler.PHASES; p++) {
+            long sum = 0;
+            for (int age = 0; age < frames; age++) {
+                sum += profiler.getPhaseTime(age, p);
+            }
+            g.setColor(PHASE_COLORS[p]);
+            text.setLength(0);
+            text.append(FrameProfiler.PHASE_NAMES[p]);
+            TextUtils.appendDecimal(text.append(' '), frames > 0 ? sum / (frames * 1_000_000.0) : 0.0, 0, 2, ' ');
+            drawText(g, lx, ly);
+            ly += LINE_HEIGHT;
+        }
+        text.setLength(0);
+        TextUtils.appendDecimal(text.append("budget "), config.frameTime, 0, 0, ' ');
+        g.setColor(Color.RED);
+        drawText(g, lx, ly);
+
+        // the Behavior classes legend.
+        ly = by0 - BEHAVIOR_HEIGHT + LINE_HEIGHT;
+        for (int s = 0; s < FrameProfiler.MAX_BEHAVIORS; s++) {
+            if (s < profiler.getBehaviorCount() || s == FrameProfiler.MAX_BEHAVIORS - 1 && profiler.getBehaviorCount() == s) {
+                g.setColor(BEHAVIOR_COLORS[s % BEHAVIOR_COLORS.length]);
+                text.setLength(0);
+                text.append(profiler.getBehaviorName(s));
+                drawText(g, lx, ly);
+                ly += LINE_HEIGHT;
+            }
+        }
+
+        // the top Behavior classes and entities, by cumulated time.
+        if (refresh-- <= 0) {
+            topBehaviors = profiler.getTopBehaviors(topBehaviorNames, topBehaviorTimes);
+            topEntities = profiler.getTopEntities(topEntityNames, topEntityTimes);
+            refresh = TOP_REFRESH;
+        }
+        ly = by0 + LINE_HEIGHT + 4;
+        ly = drawTop(g, x, ly, "top behaviors (ms)", topBehaviorNames, topBehaviorTimes, topBehaviors);
+        drawTop(g, x, ly, "top entities (ms)", topEntityNames, topEntityTimes, topEntities);
+    }
+
+    private int drawTop(Graphics2D g, int x, int y, String title, String[] names, long[] times, int count) {
+        g.setColor(Color.WHITE);
+        text.setLength(0);
+        text.append(title);
+        drawText(g, x, y);
+        y += LINE_HEIGHT;
+        for (int i = 0; i < count; i++) {
+            text.setLength(0);
+            TextUtils.appendDecimal(text, times[i] / 1_000_000.0, 6, 1, ' ');
+            text.append(' ').append(names[i]);
+            drawText(g, x, y);
+            y += LINE_HEIGHT;
+        }
+        return y;
+    }
+
+    private void drawText(Graphics2D g, int x, int y) {
+        int length = text.length();
+        if (length > chars.length) {
+            chars = new char[length * 2];
+        }
+        text.getChars(0, length, chars, 0);
+        g.drawChars(chars, 0, length, x, y);
+    }
+}
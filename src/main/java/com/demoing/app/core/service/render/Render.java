@@ -5,27 +5,28 @@ import com.demoing.app.core.config.Configuration;
 import com.demoing.app.core.entity.*;
 import com.demoing.app.core.entity.helpers.TextAlign;
 import com.demoing.app.core.entity.tilemap.TileMap;
+import com.demoing.app.core.entity.tilemap.TileMapChunk;
+import com.demoing.app.core.io.ResourcePreload;
+import com.demoing.app.core.io.Resources;
+import com.demoing.app.core.service.capture.CaptureService;
+import com.demoing.app.core.service.monitor.FrameProfiler;
+import com.demoing.app.core.service.monitor.Histogram;
+import com.demoing.app.core.service.monitor.LatencyMonitor;
+import com.demoing.app.core.service.monitor.jfr.RenderPassEvent;
 import com.demoing.app.core.service.physic.PhysicType;
 import com.demoing.app.core.service.physic.World;
+import com.demoing.app.core.service.scene.SceneManager;
 import com.demoing.app.core.utils.Logger;
-import com.demoing.app.core.utils.Utils;
+import com.demoing.app.core.utils.TextUtils;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
-import java.awt.geom.Area;
-import java.awt.geom.Ellipse2D;
-import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
 import java.awt.image.RescaleOp;
-import java.io.File;
+import java.awt.image.VolatileImage;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
-import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -36,6 +37,10 @@ import java.util.concurrent.CopyOnWriteArrayList;
  */
 public class Render {
 
+    private static final Color DEBUG_BOX_COLOR = new Color(1.0f, 0.5f, 0.1f, 0.8f);
+    private static final Color DEBUG_COLLIDING_COLOR = new Color(1.0f, 0.0f, 0.0f, 0.4f);
+    private static final Color DEBUG_CBOX_COLOR = new Color(0.0f, 0.0f, 1.0f, 0.3f);
+
     /**
      * The World object defining the play area limit.
      */
@@ -44,31 +49,89 @@ public class Render {
     private final Configuration config;
 
     /**
-     * The internal rendering graphics buffer.
+     * The internal rendering graphics buffer, used when the accelerated rendering path is not available
+     * or deactivated (see {@link Configuration#renderAccelerated}).
      */
     private BufferedImage buffer;
+    /**
+     * The hardware accelerated rendering back buffer.
+     */
+    private VolatileImage vBuffer;
     /**
      * The debug font to be used to display debug level information.
      */
     private Font debugFont;
+    /**
+     * The debug font used for the on-screen debug status line.
+     */
+    private Font debugStatusFont;
+    /**
+     * The cache of laid out texts, to prevent measuring and laying out the same text on each frame.
+     */
+    private final TextCache textCache = new TextCache(256);
+    /**
+     * Reused buffers to build the debug texts.
+     */
+    private final StringBuilder debugText = new StringBuilder(128);
+    private char[] debugChars = new char[128];
     /**
      * Internal metric to measure rendering time.
      */
     public long renderingTime = 0;
+    /**
+     * Cumulated rendering time and number of drawn frames, to measure the draw throughput.
+     */
+    private long totalRenderingTime = 0, renderedFrames = 0;
+    /**
+     * Internal metric to measure the time spent to present the back buffer to the window
+     * (included into the {@link Render#renderingTime}).
+     */
+    private long presentTime = 0;
+    /**
+     * The receiving time of the oldest key press reflected by the frame being drawn (0 if none),
+     * and the input-to-photon latency measures.
+     */
+    private long inputTimestamp = 0;
+    private final LatencyMonitor inputLatency = new LatencyMonitor(256);
+    /**
+     * The distribution of the rendering times.
+     */
+    private final Histogram renderHistogram = new Histogram("render");
+    /**
+     * Number of pipeline entities drawn and skipped during the last frame.
+     */
+    private int drawnEntities, culledEntities;
     /**
      * The list of object to be rendered: the rendering pipeline.
      */
     private List<Entity> gPipeline = new CopyOnWriteArrayList<>();
+    /**
+     * The lighting pass accumulating all the {@link Light} before compositing them over the scene.
+     */
+    private final LightMap lightMap;
+    /**
+     * The presentation stage copying the back buffer to the window.
+     */
+    private final ScreenPresenter presenter;
+    /**
+     * The service writing the screenshots and frame captures.
+     */
+    private final CaptureService capture;
+    /**
+     * The frame profiler overlay, displayed with <kbd>F9</kbd>.
+     */
+    private final FrameProfiler profiler;
+    /**
+     * The scene manager, to display the loading progress while a scene is being activated.
+     */
+    private final SceneManager sceneManager;
+    private ProfilerOverlay profilerOverlay;
 
 
     /**
      * The current active camera to draw all the scene entities from this point of view.
      */
     private Camera activeCamera;
-    /**
-     * Internal Counter for screenshots
-     */
-    private static int screenShotIndex;
 
 
     /**
@@ -81,14 +144,22 @@ public class Render {
         this.config = app.getConfiguration();
         this.window = app.getWindow();
         this.world = world;
-        buffer = new BufferedImage((int) config.screenWidth, (int) config.screenHeight,
-                BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g = buffer.createGraphics();
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        buffer = Optional.ofNullable(gc).isPresent()
+                ? gc.createCompatibleImage((int) config.screenWidth, (int) config.screenHeight, Transparency.OPAQUE)
+                : new BufferedImage((int) config.screenWidth, (int) config.screenHeight, BufferedImage.TYPE_INT_ARGB);
+        lightMap = new LightMap(config);
+        presenter = new ScreenPresenter(config);
+        capture = app.getCaptureService();
+        profiler = app.getProfiler();
+        sceneManager = app.getSceneManager();
         try {
             debugFont = Font.createFont(
                             Font.PLAIN,
                             Objects.requireNonNull(this.getClass().getResourceAsStream("/fonts/FreePixel.ttf")))
                     .deriveFont(9.0f);
+            debugStatusFont = debugFont.deriveFont(16.0f);
+            profilerOverlay = new ProfilerOverlay(config, profiler, debugFont.deriveFont(12.0f));
         } catch (FontFormatException | IOException e) {
             Logger.log(Logger.ERROR, this.getClass(), "ERR: Unable to initialize Render: " + e.getLocalizedMessage());
         }
@@ -103,8 +174,46 @@ public class Render {
      */
     public void draw(long realFps) {
         long startTime = System.nanoTime();
-        Graphics2D g = buffer.createGraphics();
+        RenderPassEvent event = new RenderPassEvent();
+        event.begin();
+        if (isAccelerated()) {
+            // redraw the full frame as long as the video memory content is lost.
+            do {
+                validateBackBuffer();
+                Graphics2D g = vBuffer.createGraphics();
+                drawScene(g);
+                g.dispose();
+            } while (vBuffer.contentsLost());
+        } else {
+            Graphics2D g = buffer.createGraphics();
+            drawScene(g);
+            g.dispose();
+        }
+        if (Optional.ofNullable(capture).isPresent()) {
+            capture.capture(getBackBuffer());
+        }
+        if (Optional.ofNullable(window).isPresent()) {
+            renderToScreen(realFps);
+        }
+        renderingTime = System.nanoTime() - startTime;
+        totalRenderingTime += renderingTime;
+        renderedFrames++;
+        renderHistogram.record(renderingTime);
+        event.end();
+        if (event.shouldCommit()) {
+            event.drawn = drawnEntities;
+            event.culled = culledEntities;
+            event.accelerated = isAccelerated();
+            event.commit();
+        }
+    }
 
+    /**
+     * Draw all the pipeline entities and then the lights into the back buffer Graphics API.
+     *
+     * @param g the Graphics API of the current back buffer.
+     */
+    private void drawScene(Graphics2D g) {
         g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
         g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
@@ -114,25 +223,85 @@ public class Render {
         moveCamera(g, activeCamera, -1);
         //drawGrid(g, world, 16, 16);
         moveCamera(g, activeCamera, 1);
-        gPipeline.stream()
-                .filter(e -> !(e instanceof Light)
-                        && e.isAlive() || e.isPersistent())
-                .forEach(e -> {
-                    drawPipelineEntity(g, e);
-                });
-        // Draw all lights
-        gPipeline.stream().filter(e -> e instanceof Light).forEach(l -> {
-            if (l.isNotStickToCamera()) {
-                moveCamera(g, activeCamera, -1);
+        drawnEntities = 0;
+        culledEntities = 0;
+        for (Entity e : gPipeline) {
+            if (!(e instanceof Light) && e.isAlive() || e.isPersistent()) {
+                drawPipelineEntity(g, e);
+                drawnEntities++;
+            } else if (!(e instanceof Light)) {
+                culledEntities++;
             }
-            drawLight(g, (Light) l);
-            if (l.isNotStickToCamera()) {
-                moveCamera(g, activeCamera, 1);
+        }
+        // Draw all lights
+        lightMap.render(g, gPipeline, activeCamera);
+        if (Optional.ofNullable(sceneManager).isPresent() && sceneManager.isLoading()) {
+            drawLoading(g, sceneManager.getLoading());
+        }
+    }
+
+    /**
+     * Draw the progress bar of the resources loading of the scene being activated.
+     *
+     * @param g       the Graphics API of the back buffer.
+     * @param loading the current resources preloading (can be null if nothing is loaded).
+     */
+    private void drawLoading(Graphics2D g, ResourcePreload loading) {
+        double progress = Optional.ofNullable(loading).isPresent() ? loading.getProgress() : 1.0;
+        int w = (int) (config.screenWidth / 2);
+        int x = (int) (config.screenWidth - w) / 2;
+        int y = (int) (config.screenHeight / 2);
+        g.setColor(Color.DARK_GRAY);
+        g.fillRect(x, y, w, 6);
+        g.setColor(Color.WHITE);
+        g.fillRect(x, y, (int) (w * progress), 6);
+        g.drawRect(x, y, w, 6);
+    }
+
+    /**
+     * Create or re-create the {@link VolatileImage} back buffer when it does not exist or is not compatible
+     * anymore with the current window {@link GraphicsConfiguration} (e.g. after a display mode switch).
+     */
+    private void validateBackBuffer() {
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (Optional.ofNullable(vBuffer).isEmpty() || vBuffer.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+            if (Optional.ofNullable(vBuffer).isPresent()) {
+                vBuffer.flush();
             }
-        });
-        g.dispose();
-        renderToScreen(realFps);
-        renderingTime = System.nanoTime() - startTime;
+            vBuffer = gc.createCompatibleVolatileImage(
+                    (int) config.screenWidth, (int) config.screenHeight,
+                    Transparency.OPAQUE);
+        }
+    }
+
+    /**
+     * Retrieve the {@link GraphicsConfiguration} of the application window, or the default screen one.
+     *
+     * @return the current GraphicsConfiguration, null on a headless environment.
+     */
+    private GraphicsConfiguration getGraphicsConfiguration() {
+        if (Optional.ofNullable(window).isPresent() && Optional.ofNullable(window.getFrame()).isPresent()) {
+            return window.getFrame().getGraphicsConfiguration();
+        }
+        return Resources.getGraphicsConfiguration();
+    }
+
+    /**
+     * Is the hardware accelerated rendering path active ?
+     *
+     * @return true if the {@link VolatileImage} back buffer is used.
+     */
+    public boolean isAccelerated() {
+        return config.renderAccelerated && Optional.ofNullable(getGraphicsConfiguration()).isPresent();
+    }
+
+    /**
+     * Return the current back buffer image.
+     *
+     * @return the VolatileImage back buffer if accelerated, else the BufferedImage one.
+     */
+    private Image getBackBuffer() {
+        return isAccelerated() && Optional.ofNullable(vBuffer).isPresent() ? vBuffer : buffer;
     }
 
     private void drawPipelineEntity(Graphics2D g, Entity e) {
@@ -180,85 +349,44 @@ public class Render {
     private void drawTileMap(Graphics2D g, TileMap tme) {
         int tileCounter = 0;
         g.setColor(Color.CYAN);
-        for (int ix = 0; ix < tme.mapWidth; ix++) {
-            for (int iy = 0; iy < tme.mapHeight; iy++) {
+        if (tme.isStreamed()) {
+            // only the resident chunks of a streamed map can be drawn.
+            for (TileMapChunk chunk : tme.getChunks()) {
+                tileCounter += drawTiles(g, tme, chunk.cells, chunk.x, chunk.y, chunk.width, chunk.height);
+            }
+        } else {
+            tileCounter = drawTiles(g, tme, tme.map, 0, 0, tme.mapWidth, tme.mapHeight);
+        }
+        tme.drawn = true;
+        tme.tileDrawnCounter = tileCounter;
+    }
+
+    private int drawTiles(Graphics2D g, TileMap tme, int[] cells, int x, int y, int width, int height) {
+        int tileCounter = 0;
+        for (int ix = 0; ix < width; ix++) {
+            for (int iy = 0; iy < height; iy++) {
                 // temporary rendering process to satisfy tests.
                 // TODO implement the Tile based rendering
                 tileCounter++;
-                int tileIdx = tme.map[ix + (iy * tme.mapWidth)];
+                int tileIdx = cells[ix + (iy * width)];
+                int tx = (x + ix) * tme.tileWidth;
+                int ty = (y + iy) * tme.tileHeight;
                 if (tileIdx != 0) {
                     g.setColor(tme.tilesColor.get(tileIdx));
-                    g.fillRect(ix * tme.tileWidth, iy * tme.tileHeight, tme.tileWidth, tme.tileHeight);
+                    g.fillRect(tx, ty, tme.tileWidth, tme.tileHeight);
                 } else {
                     g.setColor(Color.BLUE);
-                    g.drawRect(ix * tme.tileWidth, iy * tme.tileHeight, tme.tileWidth, tme.tileHeight);
+                    g.drawRect(tx, ty, tme.tileWidth, tme.tileHeight);
                 }
             }
         }
-        tme.drawn = true;
-        tme.tileDrawnCounter = tileCounter;
+        return tileCounter;
     }
 
     private void drawInfluencer(Graphics2D g, Influencer ie) {
         drawEntity(g, ie);
     }
 
-    private void drawLight(Graphics2D g, Light l) {
-        switch (l.lightType) {
-            case SPOT -> drawSpotLight(g, l);
-            case SPHERICAL -> drawSphericalLight(g, l);
-            case AMBIENT -> drawAmbiantLight(g, l);
-            case AREA_RECTANGLE -> drawLightArea(g, l);
-        }
-    }
-
-    private void drawLightArea(Graphics2D g, Light l) {
-
-        final Area ambientArea = new Area(new Rectangle2D.Double(l.pos.x, l.pos.y, l.width, l.height));
-        g.setColor(l.color);
-        Composite c = g.getComposite();
-        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) l.energy));
-        g.fill(ambientArea);
-        g.setComposite(c);
-    }
-
-    private void drawAmbiantLight(Graphics2D g, Light l) {
-        final Area ambientArea = new Area(
-                new Rectangle2D.Double(
-                        activeCamera.pos.x, activeCamera.pos.y,
-                        config.screenWidth, config.screenHeight));
-        g.setColor(l.color);
-        Composite c = g.getComposite();
-        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) l.energy));
-        g.fill(ambientArea);
-        g.setComposite(c);
-    }
-
-    private void drawSphericalLight(Graphics2D g, Light l) {
-        l.color = brighten(l.color, l.energy);
-        Color medColor = brighten(l.color, l.energy * 0.5);
-        Color endColor = new Color(0.0f, 0.0f, 0.0f, 0.2f);
-
-        l.colors = new Color[]{l.color,
-                medColor,
-                endColor};
-        l.dist = new float[]{0.0f, 0.05f, 0.5f};
-        l.rgp = new RadialGradientPaint(
-                new Point(
-                        (int) (l.pos.x + (l.width * 0.5) + (10 * Math.random() * l.glitterEffect)),
-                        (int) (l.pos.y + (l.width * 0.5) + (10 * Math.random() * l.glitterEffect))),
-                (int) (l.width),
-                l.dist,
-                l.colors);
-        g.setPaint(l.rgp);
-        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) l.energy));
-        g.fill(new Ellipse2D.Double(l.pos.x, l.pos.y, l.width, l.width));
-    }
-
-    private void drawSpotLight(Graphics2D g, Light l) {
-
-    }
-
     /**
      * Make a color brighten.
      *
@@ -280,24 +408,66 @@ public class Render {
     }
 
     private void drawMapEntity(Graphics2D g, MapEntity me) {
+        long now = System.nanoTime();
+        long refreshPeriod = 1_000_000_000L / Math.max(1, config.minimapRefreshRate);
+        if (me.staticDirty || Optional.ofNullable(me.mapImage).isEmpty() || now - me.lastRefresh >= refreshPeriod) {
+            refreshMapImage(me);
+            me.lastRefresh = now;
+        }
+        g.drawImage(me.mapImage, (int) me.pos.x, (int) me.pos.y, null);
         g.setColor(me.color);
         g.drawRect((int) me.pos.x, (int) me.pos.y, (int) me.width, (int) me.height);
-        g.setColor(me.backgroundColor);
-        g.fillRect((int) me.pos.x, (int) me.pos.y, (int) me.width, (int) me.height);
-        me.entitiesRef.stream()
-                .filter(e -> (e.isAlive() || e.isPersistent()))
-                .forEach(e -> {
-                    me.colorEntityMapping.entrySet().forEach(cm -> {
-                        if (e.name.contains(cm.getKey())) {
-                            g.setColor(cm.getValue());
-                            int px = (int) (me.pos.x + (me.width * (e.pos.x / me.world.area.getWidth())));
-                            int py = (int) (me.pos.y + me.height * (e.pos.y / me.world.area.getHeight()));
-                            int pw = (int) (me.width * (e.width / me.world.area.getWidth()));
-                            int ph = (int) (me.height * (e.height / me.world.area.getHeight()));
-                            g.drawRect(px, py, pw, ph);
-                        }
-                    });
-                });
+    }
+
+    /**
+     * Rebuild the cached image of the {@link MapEntity}: the static layer is only redrawn if some static entity
+     * has been added or removed, and the moving entities are drawn over it.
+     *
+     * @param me the MapEntity to be refreshed.
+     */
+    private void refreshMapImage(MapEntity me) {
+        int w = Math.max(1, (int) me.width), h = Math.max(1, (int) me.height);
+        if (Optional.ofNullable(me.mapImage).isEmpty()
+                || me.mapImage.getWidth() != w || me.mapImage.getHeight() != h) {
+            me.mapImage = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            me.staticLayer = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            me.staticDirty = true;
+        }
+        double sx = me.width / me.world.area.getWidth();
+        double sy = me.height / me.world.area.getHeight();
+        if (me.staticDirty) {
+            me.staticDirty = false;
+            Graphics2D sg = me.staticLayer.createGraphics();
+            sg.setComposite(AlphaComposite.Clear);
+            sg.fillRect(0, 0, w, h);
+            sg.setComposite(AlphaComposite.SrcOver);
+            sg.setColor(me.backgroundColor);
+            sg.fillRect(0, 0, w, h);
+            for (MapEntity.Category c : me.getCategories()) {
+                sg.setColor(c.color);
+                for (Entity e : c.statics) {
+                    drawMapItem(sg, e, sx, sy);
+                }
+            }
+            sg.dispose();
+        }
+        Graphics2D mg = me.mapImage.createGraphics();
+        mg.setComposite(AlphaComposite.Src);
+        mg.drawImage(me.staticLayer, 0, 0, null);
+        mg.setComposite(AlphaComposite.SrcOver);
+        for (MapEntity.Category c : me.getCategories()) {
+            mg.setColor(c.color);
+            for (Entity e : c.dynamics) {
+                drawMapItem(mg, e, sx, sy);
+            }
+        }
+        mg.dispose();
+    }
+
+    private void drawMapItem(Graphics2D g, Entity e, double sx, double sy) {
+        if (e.isAlive() || e.isPersistent()) {
+            g.drawRect((int) (e.pos.x * sx), (int) (e.pos.y * sy), (int) (e.width * sx), (int) (e.height * sy));
+        }
     }
 
     private void drawEntity(Graphics2D g, Entity ee) {
@@ -339,14 +509,15 @@ public class Render {
     }
 
     private void drawText(Graphics2D g, Entity e, TextEntity te) {
-        g.setFont(te.font);
-        int size = g.getFontMetrics().stringWidth(te.text);
+        Font font = Optional.ofNullable(te.font).orElse(g.getFont());
+        TextCache.Entry text = textCache.get(g, font, te.text);
+        double size = Math.ceil(text.width());
         double offsetX = te.align.equals(TextAlign.RIGHT) ? -size
                 : te.align.equals(TextAlign.CENTER) ? -size * 0.5 : 0;
-        g.drawString(te.text, (int) (te.pos.x + offsetX), (int) te.pos.y);
+        g.drawGlyphVector(text.glyphs(), (int) (te.pos.x + offsetX), (int) te.pos.y);
         e.width = size;
-        e.height = g.getFontMetrics().getHeight();
-        e.box.setRect(e.pos.x + offsetX, e.pos.y - e.height + g.getFontMetrics().getDescent(), e.width,
+        e.height = Math.ceil(text.height());
+        e.box.setRect(e.pos.x + offsetX, e.pos.y - e.height + text.descent(), e.width,
                 e.height);
     }
 
@@ -372,7 +543,7 @@ public class Render {
             // display bounding box
             if (Optional.ofNullable(e.box).isPresent()) {
                 // collision box
-                g.setColor(new Color(1.0f, 0.5f, 0.1f, 0.8f));
+                g.setColor(DEBUG_BOX_COLOR);
                 g.draw(e.box);
                 //initial coordinate
                 g.setColor(Color.WHITE);
@@ -384,7 +555,9 @@ public class Render {
             g.setColor(Color.ORANGE);
             int offsetX = (int) (e.pos.x + e.width + 4);
             int offsetY = (int) (e.pos.y - 8);
-            g.drawString(String.format("#%d", e.id), (int) e.pos.x, offsetY);
+            debugText.setLength(0);
+            TextUtils.appendInt(debugText.append('#'), e.id, 0, ' ');
+            drawDebugText(g, (int) e.pos.x, offsetY);
             // display LifeBar
             if (e.isAlive()) {
                 drawLifeBar(g, e);
@@ -393,30 +566,44 @@ public class Render {
                 // display colliding box
                 g.setColor(
                         e.collide && e.physicType == PhysicType.DYNAMIC
-                                ? new Color(1.0f, 0.0f, 0.0f, 0.4f)
-                                : new Color(0.0f, 0.0f, 1.0f, 0.3f));
+                                ? DEBUG_COLLIDING_COLOR
+                                : DEBUG_CBOX_COLOR);
                 g.fill(e.cbox);
                 if (config.debugObjectFilter.contains(e.name) && config.debug > 2) {
                     // display 2D parameters
                     g.setColor(Color.ORANGE);
-                    g.drawString(String.format(Locale.ROOT, "name:%s", e.name), offsetX, offsetY + lineHeight);
-                    g.drawString(String.format(Locale.ROOT, "pos:%03.0f,%03.0f", e.pos.x, e.pos.y), offsetX, offsetY + (lineHeight * 2));
-                    g.drawString(String.format("life:%d", e.duration), offsetX, offsetY + (lineHeight * 3));
+                    debugText.setLength(0);
+                    debugText.append("name:").append(e.name);
+                    drawDebugText(g, offsetX, offsetY + lineHeight);
+                    debugText.setLength(0);
+                    TextUtils.appendDecimal(debugText.append("pos:"), e.pos.x, 3, 0, '0');
+                    TextUtils.appendDecimal(debugText.append(','), e.pos.y, 3, 0, '0');
+                    drawDebugText(g, offsetX, offsetY + (lineHeight * 2));
+                    debugText.setLength(0);
+                    TextUtils.appendInt(debugText.append("life:"), e.duration, 0, ' ');
+                    drawDebugText(g, offsetX, offsetY + (lineHeight * 3));
                     if (config.debug > 3) {
                         // display Physic parameters
-                        g.drawString(String.format(Locale.ROOT, "spd:%03.2f,%03.2f", e.vel.x, e.vel.y), offsetX,
-                                offsetY + (lineHeight * 4));
-                        g.drawString(String.format(Locale.ROOT, "acc:%03.2f,%03.2f", e.acc.x, e.acc.y), offsetX,
-                                offsetY + (lineHeight * 5));
+                        debugText.setLength(0);
+                        TextUtils.appendDecimal(debugText.append("spd:"), e.vel.x, 3, 2, '0');
+                        TextUtils.appendDecimal(debugText.append(','), e.vel.y, 3, 2, '0');
+                        drawDebugText(g, offsetX, offsetY + (lineHeight * 4));
+                        debugText.setLength(0);
+                        TextUtils.appendDecimal(debugText.append("acc:"), e.acc.x, 3, 2, '0');
+                        TextUtils.appendDecimal(debugText.append(','), e.acc.y, 3, 2, '0');
+                        drawDebugText(g, offsetX, offsetY + (lineHeight * 5));
                         if (Optional.ofNullable(e.material).isPresent()) {
-                            g.drawString(String.format(Locale.ROOT, "mat[e:%03.2f f:%03.2f]", e.elasticity, e.friction), offsetX,
-                                    offsetY + (lineHeight * 6));
+                            debugText.setLength(0);
+                            TextUtils.appendDecimal(debugText.append("mat[e:"), e.elasticity, 3, 2, '0');
+                            TextUtils.appendDecimal(debugText.append(" f:"), e.friction, 3, 2, '0');
+                            debugText.append(']');
+                            drawDebugText(g, offsetX, offsetY + (lineHeight * 6));
                         }
                         if (e.getAnimations()) {
-                            g.drawString(String.format("anim:%s/%d",
-                                            e.animations.currentAnimationSet,
-                                            e.animations.currentFrame),
-                                    offsetX, offsetY + (lineHeight * 7));
+                            debugText.setLength(0);
+                            debugText.append("anim:").append(e.animations.currentAnimationSet).append('/');
+                            TextUtils.appendInt(debugText, e.animations.currentFrame, 0, ' ');
+                            drawDebugText(g, offsetX, offsetY + (lineHeight * 7));
                         }
                     }
                 }
@@ -424,6 +611,22 @@ public class Render {
         }
     }
 
+    /**
+     * Draw the current content of the {@link Render#debugText} buffer at (x,y) with the current font and color.
+     *
+     * @param g the Graphics API to draw with.
+     * @param x horizontal position of the text baseline.
+     * @param y vertical position of the text baseline.
+     */
+    private void drawDebugText(Graphics2D g, int x, int y) {
+        int length = debugText.length();
+        if (length > debugChars.length) {
+            debugChars = new char[length * 2];
+        }
+        debugText.getChars(0, length, debugChars, 0);
+        g.drawChars(debugChars, 0, length, x, y);
+    }
+
     private void drawLifeBar(Graphics2D g, Entity e) {
         g.setColor(Color.RED);
         float ratio = 0.0f;
@@ -443,12 +646,21 @@ public class Render {
      * @param se ValueEntity object
      */
     private void drawValue(Graphics2D g, ValueEntity se) {
-        String textValue = se.valueTxt.strip();
-        byte[] c = textValue.getBytes(StandardCharsets.US_ASCII);
-        for (int pos = 0; pos < textValue.length(); pos++) {
+        if (Optional.ofNullable(se.valueTxt).isEmpty()) {
+            return;
+        }
+        String textValue = se.valueTxt;
+        // skip the leading blanks of the formatted value.
+        int start = 0;
+        while (start < textValue.length() && textValue.charAt(start) == ' ') {
+            start++;
+        }
+        for (int pos = start; pos < textValue.length(); pos++) {
             //convert character ascii value to number from 0 to 9.
-            int v = c[pos] - 48;
-            drawFig(g, se, v, se.pos.x + (pos * 8), se.pos.y);
+            int v = textValue.charAt(pos) - '0';
+            if (v >= 0 && v <= 9) {
+                drawFig(g, se, v, se.pos.x + ((pos - start) * 8), se.pos.y);
+            }
         }
     }
 
@@ -492,40 +704,69 @@ public class Render {
 
     /**
      * After the Buffer rendering operation performed in {@link Render#draw(long)},
-     * the buffer is coped to the JFrame content.
+     * the buffer is coped to the JFrame content through the {@link ScreenPresenter} stage.
      *
      * @param realFps the measured frame rate per seconds
      */
     public void renderToScreen(long realFps) {
+        long startTime = System.nanoTime();
         JFrame frame = window.getFrame();
-        Graphics2D g2 = (Graphics2D) frame.getBufferStrategy().getDrawGraphics();
-        g2.drawImage(
-                buffer,
-                0, 0, (int) frame.getWidth(), (int) frame.getHeight(),
-                0, 0, (int) config.screenWidth, (int) config.screenHeight,
-                null);
-        drawDebugString(g2, realFps);
-        g2.dispose();
-        frame.getBufferStrategy().show();
+        BufferStrategy bs = frame.getBufferStrategy();
+        Image backBuffer = getBackBuffer();
+        do {
+            do {
+                Graphics2D g2 = (Graphics2D) bs.getDrawGraphics();
+                presenter.present(g2, backBuffer, frame.getWidth(), frame.getHeight());
+                drawDebugString(g2, realFps);
+                drawProfiler(g2);
+                g2.dispose();
+            } while (bs.contentsRestored());
+            bs.show();
+        } while (bs.contentsLost());
+        long presented = System.nanoTime();
+        presentTime = presented - startTime;
+        if (inputTimestamp != 0) {
+            inputLatency.record(presented - inputTimestamp);
+            inputTimestamp = 0;
+        }
     }
 
     public void drawDebugString(Graphics2D g, double realFps) {
         if (config.debug > 0) {
-            g.setFont(debugFont.deriveFont(16.0f));
+            g.setFont(debugStatusFont);
             g.setColor(Color.WHITE);
-            g.drawString(
-                    String.format(
-                            "[ dbg: %d | fps:%3.0f | obj:%d | {g:%1.03f, a(%3.0fx%3.0f) }]",
-                            config.debug,
-                            realFps,
-                            gPipeline.size(),
-                            world.gravity.y * 1000.0,
-                            world.area.getWidth(), world.area.getHeight()),
-                    20, (int) window.getHeight() - 20);
+            debugText.setLength(0);
+            TextUtils.appendInt(debugText.append("[ dbg: "), config.debug, 0, ' ');
+            TextUtils.appendDecimal(debugText.append(" | fps:"), realFps, 3, 0, ' ');
+            TextUtils.appendInt(debugText.append(" | obj:"), gPipeline.size(), 0, ' ');
+            TextUtils.appendDecimal(debugText.append(" | {g:"), world.gravity.y * 1000.0, 1, 3, ' ');
+            TextUtils.appendDecimal(debugText.append(", a("), world.area.getWidth(), 3, 0, ' ');
+            TextUtils.appendDecimal(debugText.append('x'), world.area.getHeight(), 3, 0, ' ');
+            debugText.append(") }");
+            if (inputLatency.getCount() > 0) {
+                TextUtils.appendDecimal(debugText.append(" | lat:"), inputLatency.getAverage() / 1000000.0, 0, 1, ' ');
+                TextUtils.appendDecimal(debugText.append('/'), inputLatency.getPercentile(95) / 1000000.0, 0, 1, ' ');
+                TextUtils.appendDecimal(debugText.append('/'), inputLatency.getMax() / 1000000.0, 0, 1, ' ');
+                debugText.append(" ms");
+            }
+            debugText.append(']');
+            drawDebugText(g, 20, (int) window.getHeight() - 20);
         }
 
     }
 
+    /**
+     * Draw the frame profiler overlay over the displayed frame, if visible.
+     *
+     * @param g the Graphics API of the window.
+     */
+    private void drawProfiler(Graphics2D g) {
+        if (Optional.ofNullable(profiler).isPresent() && profiler.isVisible()
+                && Optional.ofNullable(profilerOverlay).isPresent()) {
+            profilerOverlay.draw(g);
+        }
+    }
+
     /**
      * Move rendering point of view to Camera cam, with a direction -1 move to camera, 1 move back from camera.
      *
@@ -565,6 +806,8 @@ public class Render {
      */
     public void clear() {
         gPipeline.clear();
+        lightMap.clear();
+        textCache.clear();
     }
 
     /**
@@ -572,6 +815,14 @@ public class Render {
      */
     public void dispose() {
         clear();
+        if (renderedFrames > 0) {
+            Logger.log(Logger.INFO, this.getClass(), "Render: %d frames drawn, avg %.3f ms/frame (accelerated=%b)",
+                    renderedFrames, (totalRenderingTime / (double) renderedFrames) / 1000000.0, isAccelerated());
+        }
+        if (Optional.ofNullable(vBuffer).isPresent()) {
+            vBuffer.flush();
+            vBuffer = null;
+        }
         buffer = null;
     }
 
@@ -582,28 +833,37 @@ public class Render {
      */
     public void remove(Entity e) {
         gPipeline.remove(e);
+        if (e instanceof Light l) {
+            lightMap.remove(l);
+        }
     }
 
     /**
-     * Write out to the class root path ./screenshots directory a new screenshot from the current displayed buffer.
+     * Request a screenshot of the next rendered frame, to be written to the class root path ./screenshots directory
+     * by the {@link CaptureService}.
      */
     public void saveScreenshot() {
-        String path = Utils.getJarPath();
-        Path targetDir = Paths.get(path + "/screenshots");
-        int i = screenShotIndex++;
-        String filename = String.format("%s/screenshots/%s-%d.png", path, System.nanoTime(), i);
+        if (Optional.ofNullable(capture).isPresent()) {
+            capture.requestScreenshot();
+        }
+    }
 
-        try {
-            if (!Files.exists(targetDir)) {
-                Files.createDirectory(targetDir);
-            }
-            File out = new File(filename);
-            ImageIO.write(buffer, "PNG", out);
+    /**
+     * Retrieve the cumulated rendering time since start.
+     *
+     * @return a value in nanoseconds.
+     */
+    public long getTotalRenderingTime() {
+        return totalRenderingTime;
+    }
 
-            System.out.printf(" Write screenshot to %s\n", filename);
-        } catch (IOException e) {
-            Logger.log(Logger.ERROR, this.getClass(), "Unable to write screenshot to %s: %s", filename, e.getMessage());
-        }
+    /**
+     * Retrieve the number of frames drawn since start.
+     *
+     * @return the number of drawn frames.
+     */
+    public long getRenderedFrames() {
+        return renderedFrames;
     }
 
     public Camera getActiveCamera() {
@@ -615,6 +875,28 @@ public class Render {
         return renderingTime;
     }
 
+    public long getPresentTime() {
+        return presentTime;
+    }
+
+    /**
+     * Set the receiving time of the oldest key press reflected by the next drawn frame, to measure
+     * the input-to-photon latency when this frame is presented.
+     *
+     * @param timestamp the {@link System#nanoTime()} time the key press has been received.
+     */
+    public void setInputTimestamp(long timestamp) {
+        this.inputTimestamp = timestamp;
+    }
+
+    public LatencyMonitor getInputLatency() {
+        return inputLatency;
+    }
+
+    public Histogram getRenderHistogram() {
+        return renderHistogram;
+    }
+
     public List<Entity> getgPipeline() {
         return gPipeline;
     }
@@ -0,0 +1,125 @@
+package com.demoing.app.core.service.render;
+
+import com.demoing.app.core.config.Configuration;
+
+import java.awt.*;
+
+/**
+ * The {@link ScreenPresenter} is the presentation stage of the {@link Render} service: it copies the rendered
+ * back buffer to the window, scaled according to the {@link Configuration#renderScalingMode} and
+ * {@link Configuration#renderScalingFilter}.
+ * <p>
+ * The destination geometry (scale and letterbox borders) is computed only when the window size changes.
+ * <ul>
+ *     <li><code>integer</code>: the largest integer scale factor fitting in the window, centered, with the remaining
+ *     area letterboxed, or as <code>fit</code> when the window is smaller than the buffer,</li>
+ *     <li><code>fit</code>: the largest (fractional) scale keeping the aspect ratio, letterboxed,</li>
+ *     <li><code>stretch</code>: the buffer is stretched to the full window size.</li>
+ * </ul>
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class ScreenPresenter {
+
+    /**
+     * The available scaling modes.
+     */
+    public enum ScalingMode {
+        INTEGER, FIT, STRETCH
+    }
+
+    private final Configuration config;
+    private final ScalingMode mode;
+    private final Object interpolation;
+
+    private int targetWidth = -1, targetHeight = -1;
+    private int dx, dy, dw, dh;
+
+    /**
+     * Create the presentation stage according to the configuration.
+     *
+     * @param c the configuration to rely on.
+     */
+    public ScreenPresenter(Configuration c) {
+        this.config = c;
+        this.mode = parseMode(c.renderScalingMode);
+        this.interpolation = parseFilter(c.renderScalingFilter);
+    }
+
+    private static ScalingMode parseMode(String m) {
+        return switch (m.toLowerCase()) {
+            case "fit" -> ScalingMode.FIT;
+            case "stretch" -> ScalingMode.STRETCH;
+            default -> ScalingMode.INTEGER;
+        };
+    }
+
+    private static Object parseFilter(String f) {
+        return switch (f.toLowerCase()) {
+            case "bilinear", "quality" -> RenderingHints.VALUE_INTERPOLATION_BILINEAR;
+            case "bicubic" -> RenderingHints.VALUE_INTERPOLATION_BICUBIC;
+            default -> RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR;
+        };
+    }
+
+    /**
+     * Draw the <code>backBuffer</code> onto the target Graphics <code>g</code> of size
+     * <code>width</code> x <code>height</code>.
+     *
+     * @param g          the target Graphics API (the window BufferStrategy one).
+     * @param backBuffer the rendered image of {@link Configuration#screenWidth} x {@link Configuration#screenHeight}.
+     * @param width      the target width.
+     * @param height     the target height.
+     */
+    public void present(Graphics2D g, Image backBuffer, int width, int height) {
+        if (width != targetWidth || height != targetHeight) {
+            computeGeometry(width, height);
+        }
+        if (dx > 0 || dy > 0) {
+            // letterbox borders
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, width, dy);
+            g.fillRect(0, dy + dh, width, height - dy - dh);
+            g.fillRect(0, dy, dx, dh);
+            g.fillRect(dx + dw, dy, width - dx - dw, dh);
+        }
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+        g.drawImage(backBuffer,
+                dx, dy, dx + dw, dy + dh,
+                0, 0, (int) config.screenWidth, (int) config.screenHeight,
+                null);
+    }
+
+    private void computeGeometry(int width, int height) {
+        targetWidth = width;
+        targetHeight = height;
+        double sw = config.screenWidth, sh = config.screenHeight;
+        switch (mode) {
+            case INTEGER -> {
+                // a window smaller than the buffer has no integer scale: the buffer is scaled down to fit.
+                double scale = Math.min(Math.floor(width / sw), Math.floor(height / sh));
+                if (scale < 1) {
+                    scale = Math.min(width / sw, height / sh);
+                }
+                dw = (int) (sw * scale);
+                dh = (int) (sh * scale);
+            }
+            case FIT -> {
+                double scale = Math.min(width / sw, height / sh);
+                dw = (int) (sw * scale);
+                dh = (int) (sh * scale);
+            }
+            case STRETCH -> {
+                dw = width;
+                dh = height;
+            }
+        }
+        dx = Math.max(0, (width - dw) / 2);
+        dy = Math.max(0, (height - dh) / 2);
+    }
+
+    public ScalingMode getMode() {
+        return mode;
+    }
+}
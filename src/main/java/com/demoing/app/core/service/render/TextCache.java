@@ -0,0 +1,120 @@
+package com.demoing.app.core.service.render;
+
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.LineMetrics;
+import java.awt.geom.Rectangle2D;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The {@link TextCache} keeps the {@link GlyphVector} and its metrics for each (font, text) pair drawn by
+ * the {@link Render} service, so that a text is laid out and measured only once, and not on every frame.
+ * <p>
+ * Each font has its own Least Recently Used cache of {@link TextCache#maxEntriesPerFont} texts.
+ * All the entries are invalidated if the {@link FontRenderContext} of the target Graphics changes.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class TextCache {
+
+    /**
+     * A laid out text with its metrics.
+     *
+     * @param glyphs  the GlyphVector to be drawn
+     * @param width   the advance width of the text
+     * @param height  the line height for the text font
+     * @param descent the descent of the text font
+     */
+    public record Entry(GlyphVector glyphs, double width, double height, double descent) {
+    }
+
+    private final int maxEntriesPerFont;
+    private final Map<Font, Map<String, Entry>> fonts = new HashMap<>();
+    private FontRenderContext frc;
+
+    private long hits, misses;
+
+    /**
+     * Create a new {@link TextCache}.
+     *
+     * @param maxEntriesPerFont the maximum number of texts cached for one font.
+     */
+    public TextCache(int maxEntriesPerFont) {
+        this.maxEntriesPerFont = maxEntriesPerFont;
+    }
+
+    /**
+     * Retrieve the laid out <code>text</code> for the <code>font</code>, creating it only if not already cached.
+     *
+     * @param g    the Graphics API the text will be drawn with.
+     * @param font the Font to be used.
+     * @param text the text to be laid out.
+     * @return the corresponding cached {@link Entry}.
+     */
+    public Entry get(Graphics2D g, Font font, String text) {
+        FontRenderContext gfrc = g.getFontRenderContext();
+        if (!Objects.equals(frc, gfrc)) {
+            fonts.clear();
+            frc = gfrc;
+        }
+        Map<String, Entry> texts = fonts.computeIfAbsent(font, f -> createFontCache());
+        Entry entry = texts.get(text);
+        if (Optional.ofNullable(entry).isEmpty()) {
+            misses++;
+            GlyphVector gv = font.createGlyphVector(frc, text);
+            Rectangle2D bounds = gv.getLogicalBounds();
+            LineMetrics lm = font.getLineMetrics(text, frc);
+            entry = new Entry(gv, bounds.getWidth(), lm.getHeight(), lm.getDescent());
+            texts.put(text, entry);
+        } else {
+            hits++;
+        }
+        return entry;
+    }
+
+    /**
+     * Draw the <code>text</code> with the <code>font</code> at (x,y), using the cached GlyphVector.
+     *
+     * @param g    the Graphics API to draw with.
+     * @param font the Font to be used.
+     * @param text the text to be drawn.
+     * @param x    horizontal position of the text baseline.
+     * @param y    vertical position of the text baseline.
+     * @return the corresponding cached {@link Entry}.
+     */
+    public Entry draw(Graphics2D g, Font font, String text, float x, float y) {
+        Entry entry = get(g, font, text);
+        g.drawGlyphVector(entry.glyphs(), x, y);
+        return entry;
+    }
+
+    private Map<String, Entry> createFontCache() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TextCache.Entry> eldest) {
+                return size() > maxEntriesPerFont;
+            }
+        };
+    }
+
+    /**
+     * Remove all the cached texts.
+     */
+    public void clear() {
+        fonts.clear();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+}
@@ -2,11 +2,14 @@ package com.demoing.app.core.service.scene;
 
 import com.demoing.app.core.Application;
 import com.demoing.app.core.config.Configuration;
+import com.demoing.app.core.io.ResourceManifest;
+import com.demoing.app.core.io.ResourcePreload;
+import com.demoing.app.core.io.Resources;
 import com.demoing.app.core.scene.Scene;
+import com.demoing.app.core.service.monitor.jfr.SceneSwitchEvent;
+import com.demoing.app.core.utils.FactoryRegistry;
 import com.demoing.app.core.utils.Logger;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -28,6 +31,26 @@ public class SceneManager {
 
     private Scene activeScene;
 
+    /**
+     * The current resources preloading and its progress listener.
+     */
+    private ResourcePreload loading;
+    /**
+     * The resources retained by the active scene.
+     */
+    private ResourceManifest activeManifest = new ResourceManifest();
+    /**
+     * The resources retained by the previous scene, released once the next scene is created.
+     */
+    private ResourceManifest previousManifest = new ResourceManifest();
+    /**
+     * The scene waiting for its resources to be loaded before being created, and its switch event.
+     */
+    private Scene pendingScene;
+    private SceneSwitchEvent pendingEvent;
+    private ResourcePreload.ProgressListener loadingListener = (loaded, total, path) ->
+            Logger.log(Logger.DEBUG, SceneManager.class, "Loading resources %d/%d: %s", loaded, total, path);
+
     public SceneManager(Application application, Configuration config) {
         this.application = application;
         this.config = config;
@@ -50,14 +73,9 @@ public class SceneManager {
             for (String scene : scenesList) {
                 String[] sceneStr = scene.split(":");
                 try {
-                    Class<?> clazzScene = Class.forName(sceneStr[1]);
-                    final Constructor<?> sceneConstructor = clazzScene.getConstructor(String.class);
-                    Scene s = (Scene) sceneConstructor.newInstance(sceneStr[0]);
+                    Scene s = FactoryRegistry.create(sceneStr[1], sceneStr[0]);
                     scenes.put(sceneStr[0], s);
-                    activateScene(config.defaultScene);
-                } catch (ClassNotFoundException | NoSuchMethodException | InstantiationException |
-                         IllegalAccessException |
-                         InvocationTargetException e) {
+                } catch (IllegalArgumentException | IllegalStateException | ClassCastException e) {
                     Logger.log(Logger.ERROR, this.getClass(), "ERR: Unable to load scene from configuration file:"
                             + e.getLocalizedMessage()
                             + "scene:" + sceneStr[0] + "=>" + sceneStr[1]);
@@ -65,6 +83,9 @@ public class SceneManager {
                     return false;
                 }
             }
+            // activate the default scene once all the scenes are known: nothing is rendered yet, so wait for it.
+            activateScene(config.defaultScene);
+            awaitScene();
         }
         return true;
     }
@@ -73,24 +94,137 @@ public class SceneManager {
         activeScene.create(application);
     }
 
+    /**
+     * Activate the scene <code>name</code>: the current scene is disposed and the resources of the next one are
+     * loaded in parallel, without waiting for them. The frames keep on being computed and rendered (with the loading
+     * progress, see {@link SceneManager#getLoading()}), and the scene is prepared and created by
+     * {@link SceneManager#update()} once all its resources are loaded.
+     *
+     * @param name the name of the scene to activate.
+     */
     public void activateScene(String name) {
         if (scenes.containsKey(name)) {
-            if (Optional.ofNullable(this.activeScene).isPresent()) {
-                this.activeScene.dispose();
-            }
-            Scene scene = scenes.get(name);
-            try {
-                scene.prepare();
-                sceneReady = scene.create(application);
-                this.activeScene = scene;
-            } catch (Exception e) {
-                Logger.log(Logger.ERROR, this.getClass(), "ERR: Unable to initialize the Scene " + name + " => " + e.getLocalizedMessage());
+            if (Optional.ofNullable(pendingScene).isPresent()) {
+                // a scene still loading is replaced: its resources are not needed anymore.
+                Resources.releaseAll(activeManifest);
+            } else {
+                previousManifest = activeManifest;
+                if (Optional.ofNullable(this.activeScene).isPresent()) {
+                    this.activeScene.dispose();
+                }
             }
+            sceneReady = false;
+            pendingScene = scenes.get(name);
+            pendingEvent = new SceneSwitchEvent();
+            pendingEvent.begin();
+            preload(pendingScene);
+            update();
         } else {
             Logger.log(Logger.ERROR, this.getClass(), "ERR: Unable to load unknown scene " + name);
         }
     }
 
+    /**
+     * Create the scene being activated once all its resources are loaded. Called by the Application on each frame,
+     * from the game thread.
+     */
+    public void update() {
+        if (Optional.ofNullable(pendingScene).isPresent()
+                && (Optional.ofNullable(loading).isEmpty() || loading.isDone())) {
+            create();
+        }
+    }
+
+    /**
+     * Wait for the resources of the scene being activated to be loaded, and create it. Used when no frame has to be
+     * rendered in between, e.g. at start or by a benchmark.
+     */
+    public void awaitScene() {
+        if (Optional.ofNullable(pendingScene).isPresent()) {
+            if (Optional.ofNullable(loading).isPresent()) {
+                loading.getCompletion().exceptionally(e -> null).join();
+            }
+            create();
+        }
+    }
+
+    /**
+     * Is a scene waiting for its resources to be loaded ?
+     *
+     * @return true if a scene is being activated.
+     */
+    public boolean isLoading() {
+        return Optional.ofNullable(pendingScene).isPresent();
+    }
+
+    private void create() {
+        Scene scene = pendingScene;
+        SceneSwitchEvent event = pendingEvent;
+        pendingScene = null;
+        pendingEvent = null;
+        if (Optional.ofNullable(loading).isPresent() && loading.getCompletion().isCompletedExceptionally()) {
+            Logger.log(Logger.ERROR, this.getClass(), "ERR: Unable to preload all the resources of the Scene %s",
+                    scene.getName());
+        }
+        try {
+            scene.prepare();
+            sceneReady = scene.create(application);
+            event.end();
+            if (event.shouldCommit()) {
+                event.from = Optional.ofNullable(activeScene).map(Scene::getName).orElse("");
+                event.to = scene.getName();
+                event.resources = activeManifest.size();
+                event.commit();
+            }
+            this.activeScene = scene;
+        } catch (Exception e) {
+            Logger.log(Logger.ERROR, this.getClass(), "ERR: Unable to initialize the Scene " + scene.getName() + " => " + e.getLocalizedMessage());
+        } finally {
+            // the previous scene resources are released once the new ones are retained and the new scene created:
+            // the resources shared by both scenes are never evicted in between.
+            Resources.releaseAll(previousManifest);
+            previousManifest = new ResourceManifest();
+        }
+    }
+
+    /**
+     * Load in parallel all the resources declared by the <code>scene</code> manifest, without waiting for them.
+     *
+     * @param scene the Scene to preload the resources for.
+     */
+    private void preload(Scene scene) {
+        ResourceManifest manifest = scene.getManifest();
+        activeManifest = manifest;
+        loading = null;
+        if (manifest.size() > 0) {
+            long start = System.nanoTime();
+            // retained first, so that a loaded resource can not be evicted by the next ones.
+            Resources.retainAll(manifest);
+            loading = Resources.preload(manifest, loadingListener);
+            loading.getCompletion().whenComplete((v, e) ->
+                    Logger.log(Logger.INFO, SceneManager.class, "Scene %s: %d resources preloaded in %d ms",
+                            scene.getName(), manifest.size(), (System.nanoTime() - start) / 1000000));
+        }
+    }
+
+    /**
+     * Define the listener to be notified of the resources preloading progress (e.g. to update a loading screen).
+     *
+     * @param listener the progress listener.
+     */
+    public void setLoadingListener(ResourcePreload.ProgressListener listener) {
+        this.loadingListener = listener;
+    }
+
+    /**
+     * Retrieve the current (or last) resources preloading.
+     *
+     * @return the ResourcePreload, or null if no resource has been preloaded.
+     */
+    public ResourcePreload getLoading() {
+        return loading;
+    }
+
     public Scene getActiveScene() {
         return this.activeScene;
     }
@@ -0,0 +1,158 @@
+package com.demoing.app.core.utils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The {@link FactoryRegistry} creates instances of classes known by their name (e.g. the Scene classes from the
+ * configuration file, or the Entity and Behavior classes from a map file) without paying the reflection cost
+ * on each instance.
+ * <p>
+ * A class is resolved only once, on its first use, into a factory cached for the next instances:
+ * its constructor is bound to a {@link Function} (or a {@link Supplier}) generated by the {@link LambdaMetafactory},
+ * as fast as a direct <code>new</code> call. If the constructor can not be linked this way,
+ * the factory invokes the constructor {@link MethodHandle}.
+ * <p>
+ * The constructor is selected according to the creation argument: a public constructor with one parameter
+ * accepting the argument, or else the public no-argument constructor.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class FactoryRegistry {
+
+    private static final Map<String, Function<Object, Object>> factories = new ConcurrentHashMap<>();
+
+    private FactoryRegistry() {
+    }
+
+    /**
+     * Create a new instance of the class <code>className</code>.
+     *
+     * @param className the fully qualified name of the class to be instantiated.
+     * @param arg       the argument of the constructor (ignored if the class only has a no-argument constructor).
+     * @param <T>       the expected type of the instance.
+     * @return a new instance of the class.
+     * @throws IllegalArgumentException if the class or a compatible constructor can not be found.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T create(String className, Object arg) {
+        String key = className + "(" + arg.getClass().getName() + ")";
+        Function<Object, Object> factory = factories.get(key);
+        if (Optional.ofNullable(factory).isEmpty()) {
+            factory = factories.computeIfAbsent(key, k -> resolve(className, arg.getClass()));
+        }
+        return (T) factory.apply(arg);
+    }
+
+    /**
+     * Retrieve the number of resolved factories.
+     *
+     * @return the number of cached factories.
+     */
+    public static int size() {
+        return factories.size();
+    }
+
+    /**
+     * Remove all the cached factories (e.g. after a classes reload).
+     */
+    public static void clear() {
+        factories.clear();
+    }
+
+    private static Function<Object, Object> resolve(String className, Class<?> argType) {
+        Class<?> clazz;
+        try {
+            clazz = Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Unable to find class " + className, e);
+        }
+        Constructor<?> constructor = findConstructor(clazz, argType);
+        Logger.log(Logger.DEBUG, FactoryRegistry.class, "Factory for %s resolved with constructor %s",
+                className, constructor);
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle;
+        try {
+            handle = lookup.unreflectConstructor(constructor);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Unable to access constructor of class " + className, e);
+        }
+        try {
+            return link(lookup, handle, clazz, constructor.getParameterTypes());
+        } catch (Throwable e) {
+            Logger.log(Logger.DEBUG, FactoryRegistry.class, "Unable to link a factory for %s: %s",
+                    className, e.getMessage());
+        }
+        return invoker(handle, className, constructor.getParameterCount() == 1);
+    }
+
+    private static Constructor<?> findConstructor(Class<?> clazz, Class<?> argType) {
+        Constructor<?> noArg = null;
+        for (Constructor<?> c : clazz.getConstructors()) {
+            if (c.getParameterCount() == 1 && c.getParameterTypes()[0].isAssignableFrom(argType)) {
+                return c;
+            } else if (c.getParameterCount() == 0) {
+                noArg = c;
+            }
+        }
+        if (Optional.ofNullable(noArg).isEmpty()) {
+            throw new IllegalArgumentException(String.format("No constructor for class %s accepting %s or no argument",
+                    clazz.getName(), argType.getName()));
+        }
+        return noArg;
+    }
+
+    /**
+     * Generate a {@link Function} (or a {@link Supplier}) calling the constructor as a lambda would do.
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> link(MethodHandles.Lookup lookup, MethodHandle handle,
+                                                 Class<?> clazz, Class<?>[] paramTypes) throws Throwable {
+        if (paramTypes.length == 1) {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle,
+                    MethodType.methodType(clazz, paramTypes[0]));
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        }
+        CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                MethodType.methodType(Supplier.class),
+                MethodType.methodType(Object.class),
+                handle,
+                MethodType.methodType(clazz));
+        Supplier<Object> supplier = (Supplier<Object>) site.getTarget().invokeExact();
+        return arg -> supplier.get();
+    }
+
+    /**
+     * Call the constructor through its {@link MethodHandle}, when no lambda can be generated.
+     */
+    private static Function<Object, Object> invoker(MethodHandle handle, String className, boolean withArg) {
+        MethodHandle mh = withArg
+                ? handle.asType(MethodType.methodType(Object.class, Object.class))
+                : handle.asType(MethodType.methodType(Object.class));
+        return arg -> {
+            try {
+                if (withArg) {
+                    return (Object) mh.invokeExact(arg);
+                }
+                return (Object) mh.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Unable to create an instance of " + className, e);
+            }
+        };
+    }
+}
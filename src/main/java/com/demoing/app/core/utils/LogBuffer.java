@@ -0,0 +1,139 @@
+package com.demoing.app.core.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The {@link LogBuffer} is the bounded lock-free ring of the log records waiting to be written
+ * by the {@link Logger} background thread.
+ * <p>
+ * Any thread can publish a record: it claims a slot by incrementing the ring tail, fills the preallocated
+ * {@link LogBuffer.Record} of this slot and then publishes it through the slot sequence number.
+ * Only the writer thread consumes the records, in order. When the ring is full, the new records are dropped
+ * (and counted) instead of blocking the publishing thread.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class LogBuffer {
+
+    /**
+     * A log record, formatted by the consumer thread.
+     */
+    public static class Record {
+        public long timestamp;
+        public int level;
+        public Class<?> source;
+        public String thread;
+        public String message;
+        public Object[] args;
+
+        private void clear() {
+            source = null;
+            thread = null;
+            message = null;
+            args = null;
+        }
+    }
+
+    /**
+     * Consumer of the records.
+     */
+    public interface Consumer {
+        void accept(Record record);
+    }
+
+    private final Record[] records;
+    /**
+     * The sequence of each slot: equal to its index when free, to its index + 1 when published.
+     */
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private long head = 0;
+
+    /**
+     * Create a new ring.
+     *
+     * @param size the number of slots, rounded up to a power of two.
+     */
+    public LogBuffer(int size) {
+        int capacity = Integer.highestOneBit(Math.max(2, size) - 1) << 1;
+        this.records = new Record[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            records[i] = new Record();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Publish a new record. This method is lock-free and never blocks.
+     *
+     * @param level   the log level.
+     * @param source  the class emitting the log.
+     * @param message the message format.
+     * @param args    the message arguments.
+     * @return false if the ring is full and the record has been dropped.
+     */
+    public boolean offer(int level, Class<?> source, String message, Object[] args) {
+        long slot;
+        while (true) {
+            slot = tail.get();
+            long sequence = sequences.get((int) slot & mask);
+            if (sequence == slot) {
+                if (tail.compareAndSet(slot, slot + 1)) {
+                    break;
+                }
+            } else if (sequence < slot) {
+                // the consumer has not yet freed this slot: the ring is full.
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+        Record r = records[(int) slot & mask];
+        r.timestamp = System.currentTimeMillis();
+        r.level = level;
+        r.source = source;
+        r.thread = Thread.currentThread().getName();
+        r.message = message;
+        r.args = args;
+        sequences.set((int) slot & mask, slot + 1);
+        return true;
+    }
+
+    /**
+     * Consume all the published records, in order. Must only be called by one thread at a time.
+     *
+     * @param consumer the consumer of the records.
+     * @return the number of consumed records.
+     */
+    public synchronized int drain(Consumer consumer) {
+        int count = 0;
+        while (true) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                return count;
+            }
+            Record r = records[index];
+            try {
+                consumer.accept(r);
+            } finally {
+                r.clear();
+                sequences.set(index, head + records.length);
+                head++;
+                count++;
+            }
+        }
+    }
+
+    public int capacity() {
+        return records.length;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
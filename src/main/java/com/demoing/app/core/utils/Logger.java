@@ -2,12 +2,30 @@ package com.demoing.app.core.utils;
 
 import com.demoing.app.core.config.Configuration;
 
-import java.time.ZonedDateTime;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
+import java.util.Optional;
 
 /**
  * A little Logger class helper to output some basc log to console for debug purpose.
+ * <p>
+ * The level is checked before anything else: a disabled log costs a comparison, and the fixed arity
+ * <code>log</code> methods (up to 4 arguments) do not even allocate the arguments array. Hot paths must still
+ * guard their logs with {@link Logger#isEnabled(int)} to avoid the boxing of their primitive arguments.
+ * <p>
+ * When <code>app.logger.async=true</code>, the records are published into a lock-free {@link LogBuffer} and
+ * formatted and written by a background thread, out of the game thread. The mutable arguments are converted to
+ * strings when published, so that the messages show the state of their arguments at logging time, as in the
+ * synchronous mode; the numbers, strings, booleans, characters and enums are immutable and kept as is.
+ * The output is the console or the <code>app.logger.file</code> file, as text or as JSON lines
+ * (<code>app.logger.format=json</code>, one JSON object per line, to be shipped to the ELK stack, see
+ * <code>docs/elk</code>).
  *
  * @author Frédéric Delorme
  * @since 1.0.5
@@ -20,14 +38,125 @@ public class Logger {
     public static final int DETAILED = 4;
     public static final int ALL = 5;
 
-    private static int logLevel = 0;
+    private static final String[] LEVELS = {"ERROR", "INFO", "DEBUG", "FINED", "DETAILED", "ALL"};
+    private static final Object[] NO_ARGS = new Object[0];
 
-    private static DateTimeFormatter dtf = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    private static volatile int logLevel = 0;
+
+    private static DateTimeFormatter dtf = DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(ZoneId.systemDefault());
     private static String entityLogFilterMatching = "";
 
+    private static boolean json = false;
+    private static PrintStream out = System.out;
+    private static volatile LogBuffer buffer;
+    private static Thread writer;
+    private static boolean shutdownHook = false;
+    private static final StringBuilder line = new StringBuilder(256);
+
     public Logger(Configuration c) {
+        configure(c);
+    }
+
+    /**
+     * Configure the level, the entity filter, the output format and file, and start the background writer
+     * if <code>app.logger.async=true</code>.
+     * <p>
+     * A running background writer is not waited for: it is only asked to stop, and drains its pending records
+     * into its own output, closing it if it has been replaced, so that a reconfiguration from the game thread
+     * does not stall the frame.
+     *
+     * @param c the Configuration to read the <code>app.logger.*</code> values from.
+     */
+    public static synchronized void configure(Configuration c) {
+        Thread previousWriter = writer;
+        PrintStream previous = out;
+        // the next records are written synchronously until the new writer starts.
+        buffer = null;
+        writer = null;
         logLevel = c.logLevel;
-        entityLogFilterMatching = c.logEntityFilterMatching;
+        entityLogFilterMatching = Optional.ofNullable(c.logEntityFilterMatching).orElse("");
+        json = "json".equalsIgnoreCase(c.logFormat);
+        PrintStream next = System.out;
+        if (Optional.ofNullable(c.logFile).isPresent() && !c.logFile.isBlank()) {
+            try {
+                OutputStream os = new FileOutputStream(c.logFile, true);
+                next = new PrintStream(os, false, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                System.err.printf("ERR: Unable to open the log file %s: %s%n", c.logFile, e.getMessage());
+            }
+        }
+        synchronized (line) {
+            out = next;
+        }
+        if (Optional.ofNullable(previousWriter).isPresent()) {
+            previousWriter.interrupt();
+        } else {
+            release(previous);
+        }
+        if (c.logAsync) {
+            LogBuffer b = new LogBuffer(c.logBufferSize);
+            PrintStream o = out;
+            buffer = b;
+            writer = new Thread(() -> writeLoop(b, o), "logger");
+            writer.setDaemon(true);
+            writer.start();
+            if (!shutdownHook) {
+                Runtime.getRuntime().addShutdownHook(new Thread(Logger::shutdown, "logger-shutdown"));
+                shutdownHook = true;
+            }
+        }
+    }
+
+    /**
+     * Flush the <code>previous</code> output, and close it if it is no more the current one.
+     */
+    private static void release(PrintStream previous) {
+        synchronized (line) {
+            previous.flush();
+            if (previous != out && previous != System.out) {
+                previous.close();
+            }
+        }
+    }
+
+    /**
+     * Is the <code>level</code> enabled ? To be used to guard the logs of the hot paths.
+     *
+     * @param level the log level.
+     * @return true if the logs of this level are written.
+     */
+    public static boolean isEnabled(int level) {
+        return logLevel >= level;
+    }
+
+    public static void log(int level, Class className, String message) {
+        if (logLevel >= level) {
+            publish(level, className, message, NO_ARGS);
+        }
+    }
+
+    public static void log(int level, Class className, String message, Object a) {
+        if (logLevel >= level) {
+            publish(level, className, message, new Object[]{a});
+        }
+    }
+
+    public static void log(int level, Class className, String message, Object a, Object b) {
+        if (logLevel >= level) {
+            publish(level, className, message, new Object[]{a, b});
+        }
+    }
+
+    public static void log(int level, Class className, String message, Object a, Object b, Object c) {
+        if (logLevel >= level) {
+            publish(level, className, message, new Object[]{a, b, c});
+        }
+    }
+
+    public static void log(int level, Class className, String message, Object a, Object b, Object c, Object d) {
+        if (logLevel >= level) {
+            publish(level, className, message, new Object[]{a, b, c, d});
+        }
     }
 
     /**
@@ -41,16 +170,164 @@ public class Logger {
      * @param args      arguments array to format the correct message.
      */
     public static void log(int level, Class className, String message, Object... args) {
-        if (logLevel >= level && isEntityFiltered(args)) {
-            ZonedDateTime ldt = ZonedDateTime.now();
-            System.out.printf("[%s] %s : %s - %s\n", ldt.format(dtf), className, level, String.format(message, args));
+        if (logLevel >= level) {
+            publish(level, className, message, args);
         }
     }
 
-    private static boolean isEntityFiltered(Object[] args) {
-        return Logger.entityLogFilterMatching.equals("") || Arrays.stream(args).anyMatch(
-                o -> o instanceof String
-                        && Logger.entityLogFilterMatching.contains((String) o));
+    private static void publish(int level, Class<?> className, String message, Object[] args) {
+        if (!isEntityFiltered(level, args)) {
+            return;
+        }
+        LogBuffer b = buffer;
+        if (Optional.ofNullable(b).isPresent()) {
+            b.offer(level, className, message, snapshot(args));
+        } else {
+            synchronized (line) {
+                write(out, System.currentTimeMillis(), level, className, Thread.currentThread().getName(), message,
+                        args);
+            }
+        }
+    }
+
+    /**
+     * Convert the mutable arguments to strings, before they are formatted by the background writer.
+     * The arguments array is only copied if one of them is mutable.
+     */
+    private static Object[] snapshot(Object[] args) {
+        Object[] snapshot = args;
+        for (int i = 0; i < args.length; i++) {
+            Object o = args[i];
+            if (!(o == null || o instanceof Number || o instanceof String || o instanceof Boolean
+                    || o instanceof Character || o instanceof Enum<?>)) {
+                if (snapshot == args) {
+                    snapshot = args.clone();
+                }
+                try {
+                    snapshot[i] = String.valueOf(o);
+                } catch (RuntimeException e) {
+                    snapshot[i] = o.getClass().getName();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * The entity filter (<code>app.logger.filter.entity.match</code>) only applies to the debug levels:
+     * errors and information are always written.
+     */
+    private static boolean isEntityFiltered(int level, Object[] args) {
+        if (level <= INFO || entityLogFilterMatching.isEmpty()) {
+            return true;
+        }
+        for (Object o : args) {
+            if (o instanceof String s && entityLogFilterMatching.contains(s)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void writeLoop(LogBuffer b, PrintStream o) {
+        LogBuffer.Consumer consumer = r -> write(o, r.timestamp, r.level, r.source, r.thread, r.message, r.args);
+        while (!Thread.currentThread().isInterrupted()) {
+            if (b.drain(consumer) == 0) {
+                o.flush();
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        b.drain(consumer);
+        release(o);
+    }
+
+    private static void write(PrintStream o, long timestamp, int level, Class<?> source, String thread,
+                              String message, Object[] args) {
+        synchronized (line) {
+            format(timestamp, level, source, thread, message, args);
+            o.println(line);
+        }
+    }
+
+    private static void format(long timestamp, int level, Class<?> source, String thread, String message,
+                               Object[] args) {
+        String text;
+        try {
+            text = args.length > 0 ? String.format(message, args) : message;
+        } catch (RuntimeException e) {
+            text = message;
+        }
+        line.setLength(0);
+        if (json) {
+            line.append("{\"@timestamp\":\"");
+            dtf.formatTo(Instant.ofEpochMilli(timestamp), line);
+            line.append("\",\"level\":\"").append(LEVELS[Math.max(0, Math.min(level, ALL))])
+                    .append("\",\"logger\":\"").append(source.getName())
+                    .append("\",\"thread\":\"");
+            escape(thread);
+            line.append("\",\"message\":\"");
+            escape(text.strip());
+            line.append("\"}");
+        } else {
+            line.append('[');
+            dtf.formatTo(Instant.ofEpochMilli(timestamp), line);
+            line.append("] ").append(source).append(" : ").append(level).append(" - ").append(text);
+            if (text.endsWith("\n")) {
+                line.setLength(line.length() - 1);
+            }
+        }
+    }
+
+    private static void escape(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the pending records and stop the background writer, if any.
+     */
+    public static synchronized void shutdown() {
+        if (Optional.ofNullable(writer).isPresent()) {
+            // the next records are written synchronously, the writer drains the pending ones.
+            buffer = null;
+            writer.interrupt();
+            try {
+                writer.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        out.flush();
+    }
+
+    /**
+     * Retrieve the number of records dropped because the ring was full.
+     *
+     * @return the number of dropped records.
+     */
+    public static long getDropped() {
+        LogBuffer b = buffer;
+        return Optional.ofNullable(b).isPresent() ? b.getDropped() : 0;
     }
 
     public static void setLevel(int level) {
@@ -0,0 +1,112 @@
+package com.demoing.app.core.utils;
+
+/**
+ * {@link TextUtils} provides number to text conversion appending directly into a reused {@link StringBuilder},
+ * to be used in the rendering loop instead of {@link String#format(String, Object...)}.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class TextUtils {
+
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 1_000_000_000_000_000_000L};
+
+    private TextUtils() {
+    }
+
+    /**
+     * Append the integer <code>value</code> to <code>sb</code>, padded on the left up to <code>width</code>
+     * characters with the <code>pad</code> character (same result as the "%[0][width]d" format).
+     *
+     * @param sb    the StringBuilder to append to.
+     * @param value the value to be appended.
+     * @param width the minimum number of characters (0 for no padding).
+     * @param pad   the padding character: '0' or ' '.
+     * @return the StringBuilder <code>sb</code>.
+     */
+    public static StringBuilder appendInt(StringBuilder sb, long value, int width, char pad) {
+        if (value == Long.MIN_VALUE) {
+            return padLeft(sb, Long.toString(value), width, pad);
+        }
+        boolean negative = value < 0;
+        long abs = negative ? -value : value;
+        int digits = digitCount(abs);
+        appendPaddedSign(sb, negative, digits + (negative ? 1 : 0), width, pad);
+        appendDigits(sb, abs, digits);
+        return sb;
+    }
+
+    /**
+     * Append the decimal <code>value</code> to <code>sb</code> with <code>decimals</code> fraction digits,
+     * padded on the left up to <code>width</code> characters (same result as the "%[0][width].[decimals]f" format,
+     * with the {@link java.util.Locale#ROOT} locale). The rounding is applied on the binary value, so a value
+     * like 1.005 which is not exactly representable may be rounded down where the Formatter rounds it up.
+     *
+     * @param sb       the StringBuilder to append to.
+     * @param value    the value to be appended.
+     * @param width    the minimum number of characters (0 for no padding).
+     * @param decimals the number of fraction digits (from 0 to 9).
+     * @param pad      the padding character: '0' or ' '.
+     * @return the StringBuilder <code>sb</code>.
+     */
+    public static StringBuilder appendDecimal(StringBuilder sb, double value, int width, int decimals, char pad) {
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= 1e17 / POW10[decimals]) {
+            return padLeft(sb, Double.toString(value), width, ' ');
+        }
+        boolean negative = value < 0 || (value == 0.0 && 1.0 / value < 0);
+        long scaled = Math.round(Math.abs(value) * POW10[decimals]);
+        long intPart = scaled / POW10[decimals];
+        long fracPart = scaled % POW10[decimals];
+        int intDigits = digitCount(intPart);
+        int length = (negative ? 1 : 0) + intDigits + (decimals > 0 ? decimals + 1 : 0);
+        appendPaddedSign(sb, negative, length, width, pad);
+        appendDigits(sb, intPart, intDigits);
+        if (decimals > 0) {
+            sb.append('.');
+            appendDigits(sb, fracPart, decimals);
+        }
+        return sb;
+    }
+
+    private static void appendPaddedSign(StringBuilder sb, boolean negative, int length, int width, char pad) {
+        if (pad == '0') {
+            if (negative) {
+                sb.append('-');
+            }
+            appendRepeat(sb, '0', width - length);
+        } else {
+            appendRepeat(sb, pad, width - length);
+            if (negative) {
+                sb.append('-');
+            }
+        }
+    }
+
+    private static void appendDigits(StringBuilder sb, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            sb.append((char) ('0' + (value / POW10[i]) % 10));
+        }
+    }
+
+    private static void appendRepeat(StringBuilder sb, char c, int count) {
+        for (int i = 0; i < count; i++) {
+            sb.append(c);
+        }
+    }
+
+    private static StringBuilder padLeft(StringBuilder sb, String s, int width, char pad) {
+        appendRepeat(sb, pad, width - s.length());
+        return sb.append(s);
+    }
+
+    private static int digitCount(long abs) {
+        int digits = 1;
+        while (digits < POW10.length && abs >= POW10[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -3,6 +3,7 @@ package com.demoing.app.demo.scenes;
 import com.demoing.app.core.behavior.Behavior;
 import com.demoing.app.core.entity.helpers.LightType;
 import com.demoing.app.core.gfx.Window;
+import com.demoing.app.core.io.ResourceManifest;
 import com.demoing.app.core.io.Resources;
 import com.demoing.app.core.service.physic.World;
 import com.demoing.app.core.service.physic.material.Material;
@@ -41,6 +42,13 @@ public class DemoScene extends AbstractScene {
         super(name);
     }
 
+    @Override
+    public ResourceManifest getManifest() {
+        return new ResourceManifest()
+                .addImage("/images/tiles01.png")
+                .addFont("/fonts/FreePixel.ttf");
+    }
+
     @Override
     public void prepare() {
         // prepare the Figures for score rendering
@@ -246,7 +254,6 @@ public class DemoScene extends AbstractScene {
                                 "pf_", Color.LIGHT_GRAY,
                                 "floor", Color.GRAY,
                                 "outPlatform", Color.YELLOW))
-                .setRefEntities(app.getEntities().values().stream().toList())
                 .setWorld(world)
                 .setSize(48, 32)
                 .setPosition(10, app.config.screenHeight - 48);
@@ -508,10 +515,9 @@ public class DemoScene extends AbstractScene {
     }
 
     private void prepareFigures(String pathToImage) {
-        BufferedImage figuresImage = Resources.loadImage(pathToImage);
         figs = new BufferedImage[10];
         for (int i = 0; i < 10; i++) {
-            figs[i] = figuresImage.getSubimage(i * 8, 3 * 16, 8, 16);
+            figs[i] = Resources.loadSubImage(pathToImage, i * 8, 3 * 16, 8, 16);
         }
     }
 }
@@ -0,0 +1,62 @@
+package com.demoing.app.demo.scenes.bench;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.scene.AbstractScene;
+import com.demoing.app.core.service.monitor.BenchmarkRunner;
+import com.demoing.app.core.service.monitor.LoadGenerator;
+import com.demoing.app.core.service.physic.World;
+import com.demoing.app.core.service.physic.material.Material;
+
+/**
+ * The {@link BenchScene} is the base of the benchmark scenes, each one stressing a part of the engine with a number
+ * of entities given by the <code>bench.entities</code> Application attribute (set by the
+ * {@link BenchmarkRunner}).
+ * <p>
+ * The entities are created by a new {@link LoadGenerator} at each scene creation: the same number of entities
+ * gives the same scene, from one run to another, so that the measures can be compared.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public abstract class BenchScene extends AbstractScene {
+    protected World world;
+
+    public BenchScene(String name) {
+        super(name);
+    }
+
+    @Override
+    public void prepare() {
+    }
+
+    @Override
+    public boolean create(Application app) throws Exception {
+        world = app.getPhysicEngine().getWorld();
+        world.setArea(app.config.worldWidth, app.config.worldHeight);
+        world.setMaterial(new Material("world", 1.0, 0.0, 1.0));
+        create(app, new LoadGenerator(0), (int) app.getAttribute(BenchmarkRunner.ENTITIES, 100));
+        return true;
+    }
+
+    /**
+     * Create the entities of the scene.
+     *
+     * @param app       the parent Application.
+     * @param generator the generator of the entities, with its pseudo-random positions reset.
+     * @param count     the number of entities to create.
+     */
+    protected abstract void create(Application app, LoadGenerator generator, int count);
+
+    @Override
+    public void update(Application app, double elapsed) {
+    }
+
+    @Override
+    public void input(Application app) {
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,29 @@
+package com.demoing.app.demo.scenes.bench;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.service.monitor.LoadGenerator;
+
+/**
+ * A collision-heavy benchmark scene: dynamic balls packed into a play area growing with their number, to keep
+ * the same density, and then the same share of colliding pairs, at any number of entities.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class CollisionBenchScene extends BenchScene {
+    /**
+     * Size of the play area cell of each ball, in pixels.
+     */
+    private static final double CELL = 16.0;
+
+    public CollisionBenchScene(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void create(Application app, LoadGenerator generator, int count) {
+        double side = Math.max(10, Math.ceil(Math.sqrt(count))) * CELL;
+        world.setArea(side, side);
+        generator.spawn(app, LoadGenerator.Archetype.BALL, count);
+    }
+}
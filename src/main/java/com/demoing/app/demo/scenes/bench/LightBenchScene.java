@@ -0,0 +1,22 @@
+package com.demoing.app.demo.scenes.bench;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.service.monitor.LoadGenerator;
+
+/**
+ * A light-heavy benchmark scene: spherical lights accumulated into the light map at each frame.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class LightBenchScene extends BenchScene {
+
+    public LightBenchScene(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void create(Application app, LoadGenerator generator, int count) {
+        generator.spawn(app, LoadGenerator.Archetype.LIGHT, count);
+    }
+}
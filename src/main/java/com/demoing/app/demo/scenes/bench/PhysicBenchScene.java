@@ -0,0 +1,23 @@
+package com.demoing.app.demo.scenes.bench;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.service.monitor.LoadGenerator;
+
+/**
+ * A physic-heavy benchmark scene: tiny dynamic particles spread over the whole play area, moved by the
+ * {@link com.demoing.app.core.service.physic.PhysicEngine} and rarely colliding.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class PhysicBenchScene extends BenchScene {
+
+    public PhysicBenchScene(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void create(Application app, LoadGenerator generator, int count) {
+        generator.spawn(app, LoadGenerator.Archetype.PARTICLE, count);
+    }
+}
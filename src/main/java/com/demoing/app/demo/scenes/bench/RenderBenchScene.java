@@ -0,0 +1,23 @@
+package com.demoing.app.demo.scenes.bench;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.service.monitor.LoadGenerator;
+
+/**
+ * A render-heavy benchmark scene: static platforms, drawn at each frame but neither moved nor tested against
+ * each other.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class RenderBenchScene extends BenchScene {
+
+    public RenderBenchScene(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void create(Application app, LoadGenerator generator, int count) {
+        generator.spawn(app, LoadGenerator.Archetype.PLATFORM, count);
+    }
+}
@@ -0,0 +1,34 @@
+package com.demoing.app.demo.scenes.bench;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.entity.tilemap.TileMap;
+import com.demoing.app.core.service.monitor.LoadGenerator;
+
+/**
+ * A tilemap-heavy benchmark scene: a square {@link TileMap} of about <code>count</code> tiles, filled with
+ * a fixed pattern of the 8 tile colors and empty cells.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class TileMapBenchScene extends BenchScene {
+    private static final int TILE_SIZE = 16;
+
+    public TileMapBenchScene(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void create(Application app, LoadGenerator generator, int count) {
+        int side = (int) Math.ceil(Math.sqrt(count));
+        TileMap tm = new TileMap("bench_tilemap")
+                .setTileSize(TILE_SIZE, TILE_SIZE)
+                .setMapSize(side, side);
+        for (int i = 0; i < tm.map.length; i++) {
+            tm.map[i] = ((i % side) * 7 + (i / side) * 3) % 8;
+        }
+        tm.setPosition(0, 0)
+                .setSize(side * TILE_SIZE, side * TILE_SIZE);
+        app.addEntity(tm);
+    }
+}
@@ -0,0 +1,33 @@
+package com.demoing.app.tests.core;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The maximum memory a steady-state frame may allocate, checked by the {@link AllocationBudgetExtension}
+ * on the frames run through its {@link AllocationBudgetExtension.FrameMeter}.
+ * The budget can be overridden with the <code>-Dallocation.budget=[bytes]</code> system property.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AllocationBudget {
+    /**
+     * Maximum average number of bytes allocated per measured frame.
+     */
+    long bytesPerFrame() default 0;
+
+    /**
+     * Number of frames run before the measure, to let the JIT compile the frame code.
+     */
+    int warmupFrames() default 10_000;
+
+    /**
+     * Number of measured frames.
+     */
+    int frames() default 1_000;
+}
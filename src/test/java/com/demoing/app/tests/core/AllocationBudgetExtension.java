@@ -0,0 +1,123 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.service.monitor.AllocationMonitor;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.opentest4j.AssertionFailedError;
+import org.opentest4j.TestAbortedException;
+
+/**
+ * A JUnit 5 extension failing a test when its steady-state frames allocate more memory than the
+ * {@link AllocationBudget} of the test method.
+ * <p>
+ * The test receives a {@link FrameMeter} parameter, and gives it the code of one frame: the meter runs the warm-up
+ * frames, and then measures the bytes allocated by the current thread during the measured frames
+ * (see {@link AllocationMonitor#getCurrentThreadAllocatedBytes()}). The budget is checked after the test execution.
+ *
+ * @author Frédéric Delorme
+ * @since 1.0.6
+ */
+public class AllocationBudgetExtension implements ParameterResolver, AfterTestExecutionCallback {
+
+    /**
+     * Run and measure the frames of a test.
+     */
+    public static class FrameMeter {
+        /**
+         * Maximum number of measures of the frames.
+         */
+        private static final int ROUNDS = 5;
+        private final AllocationBudget budget;
+        private long bytes = -1;
+        private int frames;
+
+        FrameMeter(AllocationBudget budget) {
+            this.budget = budget;
+        }
+
+        /**
+         * Run the warm-up frames, and then measure the memory allocated by the measured frames.
+         * <p>
+         * The JIT compiles the frame code in the background, and may not be done after the warm-up on a loaded machine:
+         * the measured frames are run again, up to {@link FrameMeter#ROUNDS} times, until they fit in the budget.
+         * The lowest measure is kept: a frame allocating by design allocates in every round.
+         *
+         * @param frame the code of one frame.
+         */
+        public void measure(Runnable frame) {
+            for (int i = 0; i < budget.warmupFrames(); i++) {
+                frame.run();
+            }
+            frames = budget.frames();
+            long limit = getBudget() * frames;
+            for (int round = 0; round < ROUNDS && (bytes < 0 || bytes > limit); round++) {
+                long start = AllocationMonitor.getCurrentThreadAllocatedBytes();
+                for (int i = 0; i < frames; i++) {
+                    frame.run();
+                }
+                long allocated = AllocationMonitor.getCurrentThreadAllocatedBytes() - start;
+                bytes = bytes < 0 ? allocated : Math.min(bytes, allocated);
+            }
+        }
+
+        /**
+         * Retrieve the budget of the test, overridden by the <code>allocation.budget</code> system property if set.
+         *
+         * @return the maximum number of bytes per frame.
+         */
+        long getBudget() {
+            return Long.getLong("allocation.budget", budget.bytesPerFrame());
+        }
+
+        /**
+         * Retrieve the average memory allocated per measured frame.
+         *
+         * @return a size in bytes, or -1 if no frame has been measured.
+         */
+        public long getBytesPerFrame() {
+            return bytes < 0 ? -1 : bytes / Math.max(1, frames);
+        }
+    }
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(AllocationBudgetExtension.class);
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == FrameMeter.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        AllocationBudget budget = extensionContext.getRequiredTestMethod().getAnnotation(AllocationBudget.class);
+        if (budget == null) {
+            throw new IllegalStateException("The test method must be annotated with @AllocationBudget");
+        }
+        if (!AllocationMonitor.isSupported()) {
+            throw new TestAbortedException("The threads allocated memory measure is not supported by this JVM");
+        }
+        FrameMeter meter = new FrameMeter(budget);
+        extensionContext.getStore(NAMESPACE).put(FrameMeter.class, meter);
+        return meter;
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        FrameMeter meter = context.getStore(NAMESPACE).remove(FrameMeter.class, FrameMeter.class);
+        if (meter == null || context.getExecutionException().isPresent()) {
+            return;
+        }
+        if (meter.getBytesPerFrame() < 0) {
+            throw new AssertionFailedError("No frame has been measured: FrameMeter.measure() was not called");
+        }
+        long budget = meter.getBudget();
+        if (meter.getBytesPerFrame() > budget) {
+            throw new AssertionFailedError(String.format(
+                    "%s allocates %d bytes per frame, over its budget of %d bytes",
+                    context.getDisplayName(), meter.getBytesPerFrame(), budget),
+                    budget, meter.getBytesPerFrame());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.utils.Utils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ApplicationExitTest {
+
+    private static class TestApplication extends Application {
+        TestApplication() {
+            super(new String[]{}, "test-bench.properties");
+        }
+
+        void session() {
+            run();
+        }
+    }
+
+    @Test
+    @DisplayName("A screenshot requested on the last frame is written before the application exits")
+    public void captureWrittenOnExitTest() throws IOException {
+        Path screenshots = Paths.get(Utils.getJarPath(), "screenshots");
+        long before = count(screenshots);
+        TestApplication app = new TestApplication();
+        app.submit(a -> {
+            a.getCaptureService().requestScreenshot();
+            a.requestExit();
+        });
+        app.session();
+        assertEquals(1, app.getCaptureService().getWrittenFrames());
+        assertEquals(before + 1, count(screenshots));
+    }
+
+    private static long count(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
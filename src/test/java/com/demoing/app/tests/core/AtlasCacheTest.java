@@ -0,0 +1,143 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.io.AtlasCache;
+import com.demoing.app.core.io.ResourceCache;
+import com.demoing.app.core.io.ResourceManifest;
+import com.demoing.app.core.io.Resources;
+import com.demoing.app.core.scene.AbstractScene;
+import com.demoing.app.core.service.scene.SceneManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AtlasCacheTest {
+    /**
+     * An atlas image used by no other test, so that its references are only the ones of this test.
+     */
+    private static final String ATLAS = "/images/backgrounds/ruins.png";
+
+    private static class AtlasScene extends AbstractScene {
+
+        AtlasScene(String name) {
+            super(name);
+        }
+
+        @Override
+        public ResourceManifest getManifest() {
+            return new ResourceManifest().addImage(ATLAS);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public boolean create(Application app) {
+            Resources.loadSubImage(ATLAS, 0, 0, 16, 16);
+            Resources.loadSubImage(ATLAS, 16, 0, 16, 16);
+            return true;
+        }
+
+        @Override
+        public void update(Application app, double elapsed) {
+        }
+
+        @Override
+        public void input(Application app) {
+        }
+    }
+
+    private static long regionsOf(String path) {
+        return Resources.getAtlas().getRegions().stream().filter(r -> r.path.equals(path)).count();
+    }
+
+    @Test
+    @DisplayName("Identical regions are extracted once and shared")
+    public void regionIsSharedTest() {
+        AtlasCache atlas = new AtlasCache();
+        BufferedImage r1 = atlas.get("/images/tiles01.png", 96, 0, 16, 16);
+        BufferedImage r2 = atlas.get("/images/tiles01.png", 96, 0, 16, 16);
+        BufferedImage r3 = atlas.get("/images/tiles01.png", 48, 16, 16, 16);
+        assertSame(r1, r2);
+        assertNotSame(r1, r3);
+        assertNull(r1.getRaster().getParent(), "a region must not be a view on the atlas image");
+        assertEquals(2, atlas.size());
+        assertEquals(2, atlas.getMisses());
+        assertEquals(1, atlas.getHits());
+    }
+
+    @Test
+    @DisplayName("The regions memory and hits are measured")
+    public void regionsDiagnosticsTest() {
+        AtlasCache atlas = new AtlasCache();
+        atlas.get("/images/tiles01.png", 0, 0, 16, 16);
+        for (int i = 0; i < 3; i++) {
+            atlas.get("/images/tiles01.png", 0, 16, 16, 16);
+        }
+        AtlasCache.Region mostUsed = atlas.getRegions().get(0);
+        assertEquals(16, mostUsed.y);
+        assertEquals(2, mostUsed.getHits());
+        assertEquals(16 * 16 * 4, mostUsed.bytes);
+        assertEquals(2 * 16 * 16 * 4, atlas.getBytes());
+    }
+
+    @Test
+    @DisplayName("The regions are charged to the cache budget and dropped when their source is released")
+    public void regionsFollowSourceTest() {
+        ResourceCache cache = new ResourceCache(0);
+        AtlasCache atlas = new AtlasCache(cache);
+        cache.retain("/images/tiles01.png");
+        atlas.get("/images/tiles01.png", 0, 0, 16, 16);
+        atlas.get("/images/tiles01.png", 16, 0, 16, 16);
+        assertEquals(2, atlas.size());
+        assertEquals(2 * 16 * 16 * 4, cache.getBytes());
+        assertTrue(cache.contains("/images/tiles01.png#0,0,16,16"));
+
+        // the regions of a retained source are never evicted.
+        cache.setBudget(1);
+        assertEquals(2, atlas.size());
+
+        cache.release("/images/tiles01.png");
+        assertEquals(0, atlas.size());
+        assertEquals(0, cache.getBytes());
+    }
+
+    @Test
+    @DisplayName("A scene switch frees the regions of the previous scene atlas")
+    public void sceneSwitchFreesRegionsTest() throws InterruptedException {
+        Application app = new Application(new String[]{}, "test-bench.properties");
+        app.initializeServices();
+        SceneManager sceneManager = app.getSceneManager();
+        sceneManager.loadScenes(app.getConfiguration().scenes.split(","));
+        sceneManager.addScene("atlas", new AtlasScene("atlas"));
+
+        app.switchScene("atlas");
+        sceneManager.awaitScene();
+        assertEquals(2, regionsOf(ATLAS));
+        assertEquals(1, Resources.getCache().getReferences(ATLAS));
+
+        app.switchScene(app.getConfiguration().defaultScene);
+        for (int i = 0; i < 1000 && sceneManager.isLoading(); i++) {
+            app.frame(16);
+            Thread.sleep(1);
+        }
+        assertFalse(sceneManager.isLoading());
+        assertEquals(0, Resources.getCache().getReferences(ATLAS));
+        assertEquals(0, regionsOf(ATLAS));
+        app.quit();
+    }
+}
@@ -0,0 +1,88 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.behavior.Behavior;
+import com.demoing.app.core.entity.Entity;
+import com.demoing.app.core.service.monitor.BehaviorStats;
+import com.demoing.app.core.service.monitor.BehaviorStatsWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.OpenDataException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BehaviorStatsTest {
+
+    private static class CollideBehavior implements Behavior {
+        @Override
+        public String filterOnEvent() {
+            return ON_COLLISION;
+        }
+
+        @Override
+        public void update(Application a, Entity e, double elapsed) {
+        }
+
+        @Override
+        public void update(Application a, double elapsed) {
+        }
+
+        @Override
+        public void onCollide(Application a, Entity e1, Entity e2) {
+        }
+    }
+
+    @Test
+    @DisplayName("The calls and times are accounted per Behavior class and event type")
+    public void accountingTest() throws OpenDataException {
+        BehaviorStats stats = new BehaviorStats();
+        Behavior b = new CollideBehavior();
+        stats.record(b, BehaviorStats.COLLISION, 1_000);
+        stats.record(new CollideBehavior(), BehaviorStats.COLLISION, 3_000);
+        stats.record(b, BehaviorStats.UPDATE_ENTITY, 500);
+
+        assertEquals(1, stats.getCount());
+        assertEquals(2, stats.getCalls(0, BehaviorStats.COLLISION));
+        assertEquals(4_500, stats.getTotalTime(0));
+        assertEquals(1, stats.getEventCalls(BehaviorStats.UPDATE_ENTITY));
+        assertEquals(4_000, stats.getEventTime(BehaviorStats.COLLISION));
+
+        CompositeData[] data = stats.toCompositeData();
+        assertEquals(2, data.length);
+        assertEquals("CollideBehavior", data[0].get("behavior"));
+        assertEquals(Behavior.ON_UPDATE_ENTITY, data[0].get("event"));
+        assertEquals(Behavior.ON_COLLISION, data[1].get("event"));
+        assertEquals(2L, data[1].get("calls"));
+        assertEquals(2_000L, data[1].get("meanTime"));
+
+        stats.reset();
+        assertEquals(0, stats.toCompositeData().length);
+        assertEquals(1, stats.getCount());
+    }
+
+    @Test
+    @DisplayName("The CSV dump contains the cumulated and interval counters")
+    public void csvDumpTest(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("stats/behaviors.csv");
+        BehaviorStats stats = new BehaviorStats();
+        BehaviorStatsWriter writer = new BehaviorStatsWriter(stats, file.toString(), 10_000);
+        Behavior b = new CollideBehavior();
+        stats.record(b, BehaviorStats.COLLISION, 1_000);
+        writer.dump();
+        stats.record(b, BehaviorStats.COLLISION, 2_000);
+        writer.dump();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        assertEquals(BehaviorStatsWriter.HEADER, lines.get(0));
+        assertEquals("CollideBehavior,onCollide,1,1000,1,1000", lines.get(1).substring(lines.get(1).indexOf(',') + 1));
+        assertEquals("CollideBehavior,onCollide,2,3000,1,2000", lines.get(2).substring(lines.get(2).indexOf(',') + 1));
+    }
+}
@@ -0,0 +1,63 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.entity.tilemap.TileMap;
+import com.demoing.app.core.service.monitor.BenchmarkRunner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BenchmarkRunnerTest {
+
+    @Test
+    @DisplayName("The nearest-rank percentiles of the sorted frame times")
+    public void percentileTest() {
+        long[] sorted = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        assertEquals(5, BenchmarkRunner.percentile(sorted, 50));
+        assertEquals(9, BenchmarkRunner.percentile(sorted, 90));
+        assertEquals(10, BenchmarkRunner.percentile(sorted, 99));
+        assertEquals(1, BenchmarkRunner.percentile(sorted, 0));
+    }
+
+    @Test
+    @DisplayName("The benchmark scenes are played headless at each number of entities, and reported as CSV and HTML")
+    public void runTest(@TempDir Path dir) throws IOException {
+        Application app = new Application(new String[]{}, "test-bench.properties");
+        app.initializeServices();
+        app.getSceneManager().loadScenes(app.getConfiguration().scenes.split(","));
+        BenchmarkRunner runner = new BenchmarkRunner(app);
+
+        List<BenchmarkRunner.Result> results = runner.runAll(new String[]{"bench-physic", "bench-tilemap"},
+                new int[]{10, 40});
+        assertEquals(4, results.size());
+        assertEquals(10, results.get(0).entities());
+        assertEquals(40, results.get(1).entities());
+        assertEquals(20, results.get(1).frames());
+        assertTrue(results.get(1).p50() <= results.get(1).p99());
+        assertTrue(results.get(1).p99() <= results.get(1).max());
+        // the previous scene entities are removed when switching scene.
+        assertEquals(1, results.get(3).entities());
+        TileMap tm = assertInstanceOf(TileMap.class, app.getEntity("bench_tilemap"));
+        assertEquals(49, tm.map.length);
+
+        BenchmarkRunner.writeCsv(dir.resolve("bench.csv"), results);
+        List<String> lines = Files.readAllLines(dir.resolve("bench.csv"));
+        assertEquals(5, lines.size());
+        assertEquals(BenchmarkRunner.HEADER, lines.get(0));
+        assertTrue(lines.get(2).startsWith("bench-physic,40,40,20,"));
+        BenchmarkRunner.writeHtml(dir.resolve("bench.html"), results);
+        String html = Files.readString(dir.resolve("bench.html"));
+        assertTrue(html.contains("<h2>bench-tilemap</h2>"));
+        assertTrue(html.contains("<polyline"));
+        app.quit();
+    }
+}
@@ -0,0 +1,51 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.config.Configuration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConfigurationArgsTest {
+
+    private static Configuration load() throws IOException {
+        return new Configuration(new ByteArrayInputStream(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("The long arguments names are matched whatever their case")
+    public void longNamesTest() throws IOException {
+        Configuration config = load().parseArgs(new String[]{
+                "profilerFrames=60", "resourceCacheBudget=64", "chunkSize=16", "logAsync=true", "WORLDGRAVITY=200.0"});
+        assertEquals(60, config.debugProfilerFrames);
+        assertEquals(64, config.resourceCacheBudget);
+        assertEquals(16, config.worldChunkSize);
+        assertTrue(config.logAsync);
+        assertEquals(200.0, config.worldGravity);
+    }
+
+    @Test
+    @DisplayName("The benchmark arguments are matched by their long names")
+    public void benchNamesTest() throws IOException {
+        Configuration config = load().parseArgs(new String[]{
+                "benchScenes=bench-physic", "benchCounts=10,20", "benchFrames=50", "benchWarmup=5",
+                "benchReport=target/report"});
+        assertEquals("bench-physic", config.benchScenes);
+        assertEquals("10,20", config.benchCounts);
+        assertEquals(50, config.benchFrames);
+        assertEquals(5, config.benchWarmup);
+        assertEquals("target/report", config.benchReport);
+    }
+
+    @Test
+    @DisplayName("The short arguments names are still matched")
+    public void shortNamesTest() throws IOException {
+        Configuration config = load().parseArgs(new String[]{"pf=30", "rcb=32"});
+        assertEquals(30, config.debugProfilerFrames);
+        assertEquals(32, config.resourceCacheBudget);
+    }
+}
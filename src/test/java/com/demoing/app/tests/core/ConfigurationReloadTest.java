@@ -0,0 +1,48 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.config.Configuration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConfigurationReloadTest {
+
+    private static Configuration load(String properties) throws IOException {
+        return new Configuration(new ByteArrayInputStream(properties.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Only the changed values of a reloaded Configuration are applied")
+    public void applyChangedValuesTest() throws IOException {
+        Configuration config = load("app.world.gravity=400.0\napp.world.area.width=640.0\n");
+        Configuration reloaded = load("app.world.gravity=200.0\napp.world.area.width=640.0\n");
+        List<String> changes = config.apply(reloaded);
+        assertEquals(List.of("worldGravity"), changes);
+        assertEquals(200.0, config.worldGravity);
+        assertEquals(640.0, config.worldWidth);
+    }
+
+    @Test
+    @DisplayName("The values read only at start are not applied, as they require a restart")
+    public void applyRestartRequiredValuesTest() throws IOException {
+        Configuration config = load("app.screen.width=320.0\napp.world.gravity=400.0\n");
+        Configuration reloaded = load("app.screen.width=640.0\napp.world.gravity=200.0\n");
+        assertEquals(List.of("worldGravity"), config.apply(reloaded));
+        assertEquals(320.0, config.screenWidth);
+        assertEquals(200.0, config.worldGravity);
+    }
+
+    @Test
+    @DisplayName("Applying the same Configuration changes nothing")
+    public void applySameValuesTest() throws IOException {
+        Configuration config = load("app.world.gravity=400.0\n");
+        assertTrue(config.apply(load("app.world.gravity=400.0\n")).isEmpty());
+    }
+}
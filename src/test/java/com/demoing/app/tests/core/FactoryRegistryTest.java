@@ -0,0 +1,75 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.behavior.Behavior;
+import com.demoing.app.core.entity.Entity;
+import com.demoing.app.core.scene.Scene;
+import com.demoing.app.core.utils.FactoryRegistry;
+import com.demoing.app.tests.scenes.TestScene;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FactoryRegistryTest {
+
+    public static class SceneBehavior implements Behavior {
+        public final Scene scene;
+
+        public SceneBehavior(Scene scene) {
+            this.scene = scene;
+        }
+
+        @Override
+        public String filterOnEvent() {
+            return ON_UPDATE_ENTITY;
+        }
+
+        @Override
+        public void update(Application a, Entity e, double elapsed) {
+        }
+
+        @Override
+        public void update(Application a, double elapsed) {
+        }
+
+        @Override
+        public void onCollide(Application a, Entity e1, Entity e2) {
+        }
+    }
+
+    @Test
+    @DisplayName("A class is resolved once and creates new instances with their argument")
+    public void createWithArgumentTest() {
+        FactoryRegistry.clear();
+        Entity e1 = FactoryRegistry.create(Entity.class.getName(), "e1");
+        Entity e2 = FactoryRegistry.create(Entity.class.getName(), "e2");
+        assertEquals("e1", e1.name);
+        assertEquals("e2", e2.name);
+        assertNotSame(e1, e2);
+        assertEquals(1, FactoryRegistry.size());
+    }
+
+    @Test
+    @DisplayName("The constructor accepting a sub-type argument or the no-argument constructor is used")
+    public void selectConstructorTest() {
+        TestScene scene = new TestScene("test");
+        SceneBehavior b = FactoryRegistry.create(SceneBehavior.class.getName(), scene);
+        assertSame(scene, b.scene);
+        Object list = FactoryRegistry.create(ArrayList.class.getName(), "ignored");
+        assertTrue(list instanceof ArrayList);
+    }
+
+    @Test
+    @DisplayName("An unknown class or constructor is rejected")
+    public void unknownClassTest() {
+        assertThrows(IllegalArgumentException.class, () -> FactoryRegistry.create("com.demoing.app.Unknown", "x"));
+        assertThrows(IllegalArgumentException.class, () -> FactoryRegistry.create(SceneBehavior.class.getName(), "x"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.service.monitor.FlightDataRecorder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FlightDataRecorderTest {
+
+    @Test
+    @DisplayName("The dump contains the last frames of the ring, from the oldest to the last one")
+    public void ringDumpTest(@TempDir Path dir) throws IOException {
+        FlightDataRecorder recorder = new FlightDataRecorder(3, 0, dir);
+        for (int frame = 1; frame <= 5; frame++) {
+            recorder.next(frame, frame * 1_000_000L);
+            recorder.set(FlightDataRecorder.ENTITIES, frame * 10L);
+        }
+        assertTrue(recorder.dump("request", true));
+        recorder.dispose();
+
+        assertEquals(1, recorder.getDumps());
+        Path file = Path.of(recorder.getLastDump());
+        assertTrue(file.getFileName().toString().endsWith("-request.csv"));
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(5, lines.size());
+        assertTrue(lines.get(0).startsWith("# reason=request, frames=3"));
+        assertEquals(String.join(",", FlightDataRecorder.COLUMNS), lines.get(1));
+        for (int i = 0; i < 3; i++) {
+            String[] values = lines.get(i + 2).split(",");
+            assertEquals(FlightDataRecorder.FIELDS, values.length);
+            assertEquals(String.valueOf(i + 3), values[FlightDataRecorder.FRAME]);
+            assertEquals(String.valueOf((i + 3) * 10), values[FlightDataRecorder.ENTITIES]);
+        }
+    }
+
+    @Test
+    @DisplayName("A frame longer than the hitch threshold triggers a single dump during the cooldown")
+    public void hitchTest(@TempDir Path dir) {
+        FlightDataRecorder recorder = new FlightDataRecorder(16, 50, dir);
+        recorder.next(1, 16_000_000L);
+        assertFalse(recorder.checkHitch());
+        recorder.next(2, 60_000_000L);
+        assertTrue(recorder.checkHitch());
+        recorder.next(3, 80_000_000L);
+        assertFalse(recorder.checkHitch());
+        recorder.dispose();
+        assertEquals(1, recorder.getDumps());
+    }
+}
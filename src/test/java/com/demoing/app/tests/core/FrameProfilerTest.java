@@ -0,0 +1,117 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.behavior.Behavior;
+import com.demoing.app.core.entity.Entity;
+import com.demoing.app.core.service.monitor.BehaviorStats;
+import com.demoing.app.core.service.monitor.FrameProfiler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FrameProfilerTest {
+
+    private static class TestBehavior implements Behavior {
+        @Override
+        public String filterOnEvent() {
+            return ON_UPDATE_ENTITY;
+        }
+
+        @Override
+        public void update(Application a, Entity e, double elapsed) {
+        }
+
+        @Override
+        public void update(Application a, double elapsed) {
+        }
+
+        @Override
+        public void onCollide(Application a, Entity e1, Entity e2) {
+        }
+    }
+
+    @Test
+    @DisplayName("The frames are only recorded when requested or displayed, into a ring of the last frames")
+    public void frameRingTest() {
+        FrameProfiler profiler = new FrameProfiler(3);
+        profiler.startFrame();
+        profiler.phase(FrameProfiler.INPUT, System.nanoTime() - 1_000);
+        assertFalse(profiler.isRecording());
+        assertEquals(0, profiler.getRecordedFrames());
+
+        profiler.toggleVisible();
+        assertTrue(profiler.isRecording());
+        for (int i = 1; i <= 4; i++) {
+            profiler.startFrame();
+            profiler.phase(FrameProfiler.RENDER, System.nanoTime() - i * 1_000_000L);
+            if (i == 2) {
+                profiler.phase(FrameProfiler.SCENE, System.nanoTime() - 1_000_000L);
+            }
+        }
+        assertEquals(4, profiler.getRecordedFrames());
+        // the last frame is the age 0, the first one has been overwritten.
+        assertTrue(profiler.getPhaseTime(0, FrameProfiler.RENDER) >= 4_000_000);
+        assertTrue(profiler.getPhaseTime(2, FrameProfiler.RENDER) >= 2_000_000);
+        assertTrue(profiler.getPhaseTime(2, FrameProfiler.SCENE) >= 1_000_000);
+        assertEquals(0, profiler.getPhaseTime(1, FrameProfiler.SCENE));
+        assertEquals(0, profiler.getPhaseTime(0, FrameProfiler.SCENE));
+        assertEquals(0, profiler.getPhaseTime(0, FrameProfiler.INPUT));
+    }
+
+    @Test
+    @DisplayName("The top behaviors and entities are sorted by cumulated time")
+    public void topTest() {
+        FrameProfiler profiler = new FrameProfiler(10).setRecording(true);
+        Behavior anonymous = new TestBehavior() {
+        };
+        Entity player = new Entity("player");
+        Entity enemy = new Entity("enemy");
+        Entity ball = new Entity("ball");
+        profiler.startFrame();
+        profiler.behavior(new TestBehavior(), BehaviorStats.UPDATE_ENTITY, 300);
+        profiler.behavior(anonymous, BehaviorStats.COLLISION, 500);
+        profiler.behavior(new TestBehavior(), BehaviorStats.COLLISION, 400);
+        profiler.entity(player, 100);
+        profiler.entity(enemy, 900);
+        profiler.entity(ball, 200);
+        profiler.entity(player, 150);
+
+        assertEquals(2, profiler.getBehaviorCount());
+        assertEquals(700, profiler.getBehaviorTime(0, 0));
+        String[] names = new String[2];
+        long[] times = new long[2];
+        assertEquals(2, profiler.getTopBehaviors(names, times));
+        assertArrayEquals(new String[]{"TestBehavior", "FrameProfilerTest$1"}, names);
+        assertArrayEquals(new long[]{700, 500}, times);
+
+        assertEquals(2, profiler.getTopEntities(names, times));
+        assertArrayEquals(new String[]{"enemy", "player"}, names);
+        assertArrayEquals(new long[]{900, 250}, times);
+    }
+
+    @Test
+    @DisplayName("The entities accounted are bounded, keep the most expensive ones, and are dropped when removed")
+    public void entitiesBoundedTest() {
+        FrameProfiler profiler = new FrameProfiler(10).setRecording(true);
+        Entity boss = new Entity("boss");
+        profiler.entity(boss, 1_000_000);
+        for (int i = 0; i < FrameProfiler.MAX_ENTITIES * 4; i++) {
+            profiler.entity(new Entity("bullet_" + i), 10);
+        }
+        assertEquals(FrameProfiler.MAX_ENTITIES, profiler.getEntityCount());
+        String[] names = new String[1];
+        long[] times = new long[1];
+        assertEquals(1, profiler.getTopEntities(names, times));
+        assertEquals("boss", names[0]);
+        assertEquals(1_000_000, times[0]);
+
+        profiler.remove(boss);
+        assertEquals(FrameProfiler.MAX_ENTITIES - 1, profiler.getEntityCount());
+        profiler.getTopEntities(names, times);
+        assertTrue(names[0].startsWith("bullet_"));
+    }
+}
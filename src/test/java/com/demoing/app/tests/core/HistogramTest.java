@@ -0,0 +1,74 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.service.monitor.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.OpenDataException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HistogramTest {
+
+    @Test
+    @DisplayName("A bucket contains all the values between its lowest and highest values")
+    public void bucketBoundsTest() {
+        for (long v : new long[]{0, 1, 31, 32, 33, 1_000, 16_666_666, 80_000_000, Long.MAX_VALUE}) {
+            int index = Histogram.indexOf(v);
+            assertTrue(Histogram.lowestValueOf(index) <= v, "lowest value of " + v);
+            assertTrue(Histogram.highestValueOf(index) >= v, "highest value of " + v);
+            // the relative precision is about 3%.
+            assertTrue(Histogram.highestValueOf(index) - Histogram.lowestValueOf(index) <= Math.max(0, v / 32));
+        }
+        assertEquals(Histogram.BUCKETS - 1, Histogram.indexOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("A single hitch is visible in the interval percentiles and max")
+    public void hitchTest() {
+        Histogram h = new Histogram("frame");
+        for (int i = 0; i < 999; i++) {
+            h.record(16_000_000);
+        }
+        h.record(80_000_000);
+        Histogram.Snapshot s = h.getIntervalSnapshot();
+        assertEquals(1000, s.count);
+        assertEquals(16_000_000, s.min);
+        assertEquals(80_000_000, s.max);
+        assertEquals(16_000_000, s.getPercentile(50), 16_000_000 / 32.0);
+        assertEquals(16_000_000, s.getPercentile(99), 16_000_000 / 32.0);
+        assertEquals(80_000_000, s.getPercentile(99.95));
+    }
+
+    @Test
+    @DisplayName("Reading an interval snapshot starts a new interval")
+    public void resetOnReadTest() throws OpenDataException {
+        Histogram h = new Histogram("update");
+        h.record(1_000);
+        h.record(2_000);
+        CompositeData data = h.getIntervalSnapshot().toCompositeData();
+        assertEquals(2L, data.get("count"));
+        assertEquals(2_000L, data.get("max"));
+        assertArrayEquals(new long[]{1, 1}, (long[]) data.get("bucketsCount"));
+        Histogram.Snapshot next = h.getIntervalSnapshot();
+        assertEquals(0, next.count);
+        assertEquals(0, next.getPercentile(99));
+    }
+
+    @Test
+    @DisplayName("The cumulated counts are not reset by the intervals")
+    public void totalCountsTest() {
+        Histogram h = new Histogram("render");
+        h.record(500_000);
+        h.getIntervalSnapshot();
+        h.record(3_000_000);
+        h.record(20_000_000);
+        long[] counts = h.getTotalCounts(new long[]{1_000_000, 4_000_000, 16_000_000}, new long[3]);
+        assertArrayEquals(new long[]{1, 2, 2}, counts);
+        assertEquals(3, h.getTotalCount());
+        assertEquals(23_500_000, h.getTotalSum());
+    }
+}
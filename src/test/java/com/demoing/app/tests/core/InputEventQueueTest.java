@@ -0,0 +1,72 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.io.InputEventQueue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InputEventQueueTest {
+
+    @Test
+    @DisplayName("Queued events are drained in order with their key code and modifiers")
+    public void eventsAreDrainedInOrderTest() {
+        InputEventQueue queue = new InputEventQueue(8);
+        queue.offer(InputEventQueue.KEY_PRESSED, 37, 0, 1000L);
+        queue.offer(InputEventQueue.KEY_RELEASED, 37, 64, 2000L);
+        List<String> received = new ArrayList<>();
+        int count = queue.drain((type, keyCode, modifiers, timestamp) ->
+                received.add(type + ":" + keyCode + ":" + modifiers + ":" + timestamp));
+        assertEquals(2, count);
+        assertEquals(List.of("1:37:0:1000", "2:37:64:2000"), received);
+        assertEquals(0, queue.size(), "The queue has not been emptied");
+    }
+
+    @Test
+    @DisplayName("A full queue drops the new events")
+    public void fullQueueDropsEventsTest() {
+        InputEventQueue queue = new InputEventQueue(4);
+        for (int i = 0; i < queue.capacity(); i++) {
+            assertTrue(queue.offer(InputEventQueue.KEY_PRESSED, i, 0, i));
+        }
+        assertFalse(queue.offer(InputEventQueue.KEY_PRESSED, 99, 0, 99), "The event has been queued in a full queue");
+        assertEquals(1, queue.getDroppedEvents());
+        queue.drain((type, keyCode, modifiers, timestamp) -> {
+        });
+        assertTrue(queue.offer(InputEventQueue.KEY_PRESSED, 99, 0, 99), "The drained slots have not been released");
+    }
+
+    @Test
+    @DisplayName("Events produced by another thread are all consumed in order")
+    public void producerThreadEventsAreConsumedTest() throws InterruptedException {
+        InputEventQueue queue = new InputEventQueue(64);
+        int total = 10_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                while (!queue.offer(InputEventQueue.KEY_PRESSED, i & 0xffff, i, System.nanoTime())) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+        int[] next = {0};
+        boolean[] ordered = {true};
+        while (next[0] < total) {
+            int drained = queue.drain((type, keyCode, modifiers, timestamp) -> {
+                ordered[0] &= modifiers == next[0];
+                next[0]++;
+            });
+            if (drained == 0) {
+                Thread.yield();
+            }
+        }
+        producer.join();
+        assertTrue(ordered[0], "Events have been consumed out of order");
+        assertEquals(total, next[0]);
+    }
+}
@@ -0,0 +1,46 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.config.Configuration;
+import com.demoing.app.core.entity.Entity;
+import com.demoing.app.core.entity.Light;
+import com.demoing.app.core.entity.helpers.LightType;
+import com.demoing.app.core.service.render.LightMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LightMapTest {
+
+    @Test
+    @DisplayName("A light animating its energy does not keep more than the maximum number of sprites")
+    public void spriteCacheIsBoundedTest() throws IOException {
+        Configuration config = new Configuration(new ByteArrayInputStream(
+                "app.screen.width=320.0\napp.screen.height=200.0\n".getBytes(StandardCharsets.UTF_8)));
+        LightMap lightMap = new LightMap(config);
+        BufferedImage buffer = new BufferedImage(320, 200, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = buffer.createGraphics();
+        Light light = new Light("light").setLightType(LightType.SPHERICAL);
+        light.setColor(new Color(0.9f, 0.7f, 0.2f, 0.6f))
+                .setPosition(100, 100)
+                .setSize(40.0, 40.0);
+        List<Entity> pipeline = List.of(light);
+        for (int i = 0; i < 255; i++) {
+            light.setEnergy(i / 255.0);
+            lightMap.render(g, pipeline, null);
+        }
+        g.dispose();
+        assertEquals(LightMap.MAX_SPRITES, lightMap.getSpriteCount());
+
+        lightMap.clear();
+        assertEquals(0, lightMap.getSpriteCount());
+    }
+}
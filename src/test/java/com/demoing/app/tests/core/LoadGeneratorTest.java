@@ -0,0 +1,109 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.entity.Entity;
+import com.demoing.app.core.entity.Light;
+import com.demoing.app.core.service.monitor.LoadGenerator;
+import com.demoing.app.core.service.physic.PhysicType;
+import com.demoing.app.core.service.physic.World;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadGeneratorTest {
+
+    /**
+     * A generator keeping its entities into a list, without Application.
+     */
+    private static class TestLoadGenerator extends LoadGenerator {
+        private final World world = new World().setArea(640, 400);
+        private final List<String> entities = new ArrayList<>();
+
+        TestLoadGenerator(int threshold) {
+            super(threshold);
+        }
+
+        @Override
+        protected World getWorld(Application app) {
+            return world;
+        }
+
+        @Override
+        protected void add(Application app, Entity e) {
+            entities.add(e.name);
+        }
+
+        @Override
+        protected void remove(Application app, String name) {
+            entities.remove(name);
+        }
+    }
+
+    private static void run(LoadGenerator generator, long frameTime) throws InterruptedException {
+        long end = System.currentTimeMillis() + 5_000;
+        while (generator.isRunning() && System.currentTimeMillis() < end) {
+            generator.update(null, frameTime);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("The archetypes are created at the same positions from one generator to another")
+    public void archetypesTest() {
+        World world = new World().setArea(640, 400);
+        LoadGenerator g1 = new LoadGenerator(50);
+        LoadGenerator g2 = new LoadGenerator(50);
+        Entity b1 = g1.create(LoadGenerator.Archetype.BALL, world);
+        Entity b2 = g2.create(LoadGenerator.Archetype.BALL, world);
+        assertEquals(b1.name, b2.name);
+        assertEquals(b1.pos.x, b2.pos.x);
+        assertEquals(b1.pos.y, b2.pos.y);
+        assertEquals(PhysicType.DYNAMIC, b1.physicType);
+        assertEquals(PhysicType.STATIC, g1.create(LoadGenerator.Archetype.PLATFORM, world).physicType);
+        assertInstanceOf(Light.class, g1.create(LoadGenerator.Archetype.LIGHT, world));
+    }
+
+    @Test
+    @DisplayName("A ramp adds the entities step by step up to the target, and an unload ramp removes them")
+    public void rampTest() throws InterruptedException {
+        TestLoadGenerator generator = new TestLoadGenerator(50);
+        generator.start(LoadGenerator.Archetype.PARTICLE, 25, 10, 100);
+        run(generator, 1_000_000L);
+
+        assertFalse(generator.isRunning());
+        assertTrue(generator.getStatus().startsWith("done"));
+        assertEquals(25, generator.getCount());
+        assertEquals(25, generator.entities.size());
+        List<LoadGenerator.Step> steps = generator.getSteps();
+        assertEquals(3, steps.size());
+        assertEquals(10, steps.get(0).entities());
+        assertEquals(25, steps.get(2).entities());
+        assertEquals(1.0, steps.get(2).meanFrameTime(), 0.001);
+        assertTrue(steps.get(2).fps() > 0);
+
+        generator.startUnload(20, 100);
+        run(generator, 1_000_000L);
+        assertEquals(0, generator.getCount());
+        assertTrue(generator.entities.isEmpty());
+    }
+
+    @Test
+    @DisplayName("A ramp stops when the mean frame time of a step exceeds the threshold")
+    public void thresholdTest() throws InterruptedException {
+        TestLoadGenerator generator = new TestLoadGenerator(50);
+        generator.start(LoadGenerator.Archetype.BALL, 1_000, 10, 100);
+        run(generator, 60_000_000L);
+
+        assertFalse(generator.isRunning());
+        assertTrue(generator.getStatus().startsWith("stopped"));
+        assertEquals(1, generator.getSteps().size());
+        assertEquals(10, generator.getCount());
+    }
+}
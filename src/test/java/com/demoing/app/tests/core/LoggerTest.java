@@ -0,0 +1,130 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.config.Configuration;
+import com.demoing.app.core.utils.LogBuffer;
+import com.demoing.app.core.utils.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoggerTest {
+
+    @AfterEach
+    public void resetLogger() throws IOException {
+        Logger.configure(new Configuration(new ByteArrayInputStream(
+                "app.logger.async=false".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    @DisplayName("The log records are drained in order, and dropped when the ring is full")
+    public void ringBufferTest() {
+        LogBuffer buffer = new LogBuffer(4);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(Logger.INFO, LoggerTest.class, "message %d", new Object[]{i});
+        }
+        assertEquals(1, buffer.getDropped());
+        List<Object> values = new ArrayList<>();
+        assertEquals(4, buffer.drain(r -> values.add(r.args[0])));
+        assertEquals(List.of(0, 1, 2, 3), values);
+        assertTrue(buffer.offer(Logger.INFO, LoggerTest.class, "message", new Object[0]));
+        assertEquals(1, buffer.drain(r -> {
+        }));
+    }
+
+    @Test
+    @DisplayName("The records published by several threads are all drained")
+    public void concurrentProducersTest() throws InterruptedException {
+        LogBuffer buffer = new LogBuffer(1024);
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    buffer.offer(Logger.DEBUG, LoggerTest.class, "message", new Object[0]);
+                }
+            });
+            producers[t].start();
+        }
+        for (Thread t : producers) {
+            t.join();
+        }
+        assertEquals(800, buffer.drain(r -> {
+        }));
+        assertEquals(0, buffer.getDropped());
+    }
+
+    @Test
+    @DisplayName("The logs are written as JSON lines by the background writer")
+    public void jsonLinesTest(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("app.log");
+        Logger.configure(new Configuration(new ByteArrayInputStream(("app.logger.level=1\n"
+                + "app.logger.format=json\n"
+                + "app.logger.async=true\n"
+                + "app.logger.file=" + file.toString().replace('\\', '/') + "\n").getBytes(StandardCharsets.UTF_8))));
+        assertTrue(Logger.isEnabled(Logger.INFO));
+        assertFalse(Logger.isEnabled(Logger.DEBUG));
+        Logger.log(Logger.INFO, LoggerTest.class, "map \"%s\" loaded", "level1");
+        Logger.log(Logger.DEBUG, LoggerTest.class, "not written");
+        Logger.shutdown();
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        String line = lines.get(0);
+        assertTrue(line.startsWith("{\"@timestamp\":\""));
+        assertTrue(line.contains("\"level\":\"INFO\""));
+        assertTrue(line.contains("\"logger\":\"com.demoing.app.tests.core.LoggerTest\""));
+        assertTrue(line.endsWith("\"message\":\"map \\\"level1\\\" loaded\"}"));
+    }
+
+    @Test
+    @DisplayName("The mutable arguments of an asynchronous log are formatted with their state at logging time")
+    public void argumentsSnapshotTest(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("app.log");
+        Logger.configure(asyncFileConfiguration(file, "true"));
+        StringBuilder state = new StringBuilder("before");
+        Logger.log(Logger.INFO, LoggerTest.class, "state %s, count %d", state, 3);
+        state.replace(0, state.length(), "after");
+        Logger.shutdown();
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).endsWith("state before, count 3"), lines.get(0));
+    }
+
+    @Test
+    @DisplayName("A reconfiguration does not wait for the background writer, which drains into its previous file")
+    public void reconfigureTest(@TempDir Path dir) throws IOException, InterruptedException {
+        Path first = dir.resolve("first.log");
+        Path second = dir.resolve("second.log");
+        Logger.configure(asyncFileConfiguration(first, "on"));
+        Logger.log(Logger.INFO, LoggerTest.class, "first");
+        Logger.configure(asyncFileConfiguration(second, "1"));
+        Logger.log(Logger.INFO, LoggerTest.class, "second");
+        Logger.shutdown();
+        for (int i = 0; i < 100 && Files.readAllLines(first).isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        List<String> firstLines = Files.readAllLines(first);
+        assertEquals(1, firstLines.size());
+        assertTrue(firstLines.get(0).endsWith("first"));
+        List<String> secondLines = Files.readAllLines(second);
+        assertEquals(1, secondLines.size());
+        assertTrue(secondLines.get(0).endsWith("second"));
+    }
+
+    private static Configuration asyncFileConfiguration(Path file, String async) throws IOException {
+        return new Configuration(new ByteArrayInputStream(("app.logger.level=1\n"
+                + "app.logger.async=" + async + "\n"
+                + "app.logger.file=" + file.toString().replace('\\', '/') + "\n").getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.service.monitor.AllocationMonitor;
+import com.demoing.app.core.service.monitor.MetricsExporter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetricsExporterTest {
+
+    private static long value(String line) {
+        return Long.parseLong(line.substring(line.lastIndexOf(' ') + 1));
+    }
+
+    @Test
+    @DisplayName("The metrics are rendered in the Prometheus text format, with cumulative histogram buckets")
+    public void renderTest() {
+        Application app = new Application(new String[]{}, "test-bench.properties");
+        app.initializeServices();
+        app.getSceneManager().loadScenes(app.getConfiguration().scenes.split(","));
+        for (int i = 0; i < 10; i++) {
+            app.frame(app.getConfiguration().frameTime);
+        }
+        MetricsExporter exporter = new MetricsExporter(app, 0);
+        int length = exporter.render();
+        String text = exporter.getText();
+        assertEquals(text.length(), length);
+        List<String> lines = text.lines().toList();
+
+        // each sample follows the HELP and TYPE headers of its metric.
+        Set<String> types = new HashSet<>();
+        for (String line : lines) {
+            if (line.startsWith("# TYPE ")) {
+                String[] type = line.split(" ");
+                assertTrue(Set.of("gauge", "counter", "histogram").contains(type[3]), line);
+                types.add(type[2]);
+            } else if (!line.startsWith("# HELP ")) {
+                String name = line.split("[{ ]")[0].replaceAll("_(bucket|sum|count)$", "");
+                assertTrue(types.contains(name), "no TYPE header for " + line);
+            }
+        }
+        assertTrue(types.containsAll(List.of("monoclass_fps", "monoclass_entities", "monoclass_entities_by_type",
+                "monoclass_frame_time_nanoseconds", "monoclass_update_time_nanoseconds",
+                "monoclass_resource_cache_hits_total", "jvm_gc_collections_total", "jvm_heap_used_bytes")));
+        assertTrue(lines.contains("# TYPE monoclass_frame_time_nanoseconds histogram"));
+        // the frames ran on this thread.
+        assertEquals(Thread.currentThread().getId(), app.getAllocationMonitor().getThreadId());
+        if (AllocationMonitor.isSupported()) {
+            assertTrue(types.contains("jvm_game_thread_allocated_bytes"));
+        }
+
+        // the buckets are cumulative, up to the +Inf one which is the count of frames.
+        List<String> buckets = lines.stream()
+                .filter(l -> l.startsWith("monoclass_frame_time_nanoseconds_bucket")).toList();
+        for (int i = 1; i < buckets.size(); i++) {
+            assertTrue(value(buckets.get(i - 1)) <= value(buckets.get(i)), buckets.get(i));
+        }
+        String inf = buckets.get(buckets.size() - 1);
+        assertTrue(inf.startsWith("monoclass_frame_time_nanoseconds_bucket{le=\"+Inf\"} "));
+        String count = lines.stream()
+                .filter(l -> l.startsWith("monoclass_frame_time_nanoseconds_count ")).findFirst().orElseThrow();
+        assertEquals(value(count), value(inf));
+        assertTrue(value(count) >= 10);
+        app.quit();
+    }
+}
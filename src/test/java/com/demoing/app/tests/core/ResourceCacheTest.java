@@ -0,0 +1,103 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.io.ResourceCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResourceCacheTest {
+
+    /**
+     * A 10x10 INT_ARGB image weighs 400 bytes.
+     */
+    private static BufferedImage image() {
+        return new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Test
+    @DisplayName("The least recently used resource is evicted when the budget is exceeded")
+    public void evictLeastRecentlyUsedTest() {
+        ResourceCache cache = new ResourceCache(1000);
+        cache.put("a", image());
+        cache.put("b", image());
+        assertEquals(800, cache.getBytes());
+        // "a" becomes the most recently used resource.
+        cache.get("a");
+        cache.put("c", image());
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+        assertEquals(800, cache.getBytes());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    @DisplayName("A retained resource is never evicted until released")
+    public void retainedResourceIsNotEvictedTest() {
+        ResourceCache cache = new ResourceCache(1000);
+        cache.put("a", image());
+        cache.retain("a");
+        cache.put("b", image());
+        cache.put("c", image());
+        // "a" is the least recently used resource, but "b" has been evicted.
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        // releasing "a" is its last use: "c" is evicted first.
+        cache.release("a");
+        cache.put("d", image());
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("c"));
+        cache.put("e", image());
+        assertFalse(cache.contains("a"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("A resource retained before being cached is protected as soon as it is put")
+    public void retainedBeforeLoadingTest() {
+        ResourceCache cache = new ResourceCache(1000);
+        cache.retain("a");
+        cache.put("a", image());
+        cache.put("b", image());
+        cache.put("c", image());
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertEquals(1, cache.getReferences("a"));
+    }
+
+    @Test
+    @DisplayName("A resource shared by two scenes is kept when the next scene is retained before the previous is released")
+    public void sharedResourceTest() {
+        ResourceCache cache = new ResourceCache(1000);
+        cache.retain("shared");
+        cache.put("shared", image());
+        // the next scene retains its resources, then loads them, then the previous scene is released.
+        cache.retain("shared");
+        cache.retain("b");
+        cache.put("b", image());
+        cache.put("c", image());
+        cache.release("shared");
+        assertTrue(cache.contains("shared"));
+        assertEquals(1, cache.getReferences("shared"));
+        assertFalse(cache.contains("c"));
+    }
+
+    @Test
+    @DisplayName("Hits and misses are counted")
+    public void hitsAndMissesTest() {
+        ResourceCache cache = new ResourceCache(0);
+        assertNull(cache.get("a"));
+        cache.put("a", image());
+        cache.get("a");
+        cache.get("a");
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+    }
+}
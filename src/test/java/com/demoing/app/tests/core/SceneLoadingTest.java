@@ -0,0 +1,84 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.entity.Entity;
+import com.demoing.app.core.io.ResourceManifest;
+import com.demoing.app.core.scene.AbstractScene;
+import com.demoing.app.core.service.scene.SceneManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SceneLoadingTest {
+
+    private static class LoadingScene extends AbstractScene {
+        private int created = 0;
+
+        LoadingScene(String name) {
+            super(name);
+        }
+
+        @Override
+        public ResourceManifest getManifest() {
+            return new ResourceManifest()
+                    .addImage("/images/tiles01.png")
+                    .addFont("/fonts/FreePixel.ttf");
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public boolean create(Application app) {
+            created++;
+            app.addEntity(new Entity("loaded").setSize(8, 8));
+            return true;
+        }
+
+        @Override
+        public void update(Application app, double elapsed) {
+        }
+
+        @Override
+        public void input(Application app) {
+        }
+    }
+
+    @Test
+    @DisplayName("A scene switch does not wait for the resources: the scene is created by a next frame once loaded")
+    public void switchWhileLoadingTest() throws InterruptedException {
+        Application app = new Application(new String[]{}, "test-bench.properties");
+        app.initializeServices();
+        SceneManager sceneManager = app.getSceneManager();
+        sceneManager.loadScenes(app.getConfiguration().scenes.split(","));
+        LoadingScene scene = new LoadingScene("loading");
+        sceneManager.addScene("loading", scene);
+
+        app.switchScene("loading");
+        // the previous scene entities are removed at once, the new scene is only created when loaded.
+        assertTrue(sceneManager.isLoading() || sceneManager.isSceneReady());
+        assertEquals(sceneManager.isLoading() ? 0 : 1, app.getEntities().size());
+        for (int i = 0; i < 1000 && sceneManager.isLoading(); i++) {
+            app.frame(16);
+            assertFalse(sceneManager.isLoading() && sceneManager.isSceneReady());
+            Thread.sleep(1);
+        }
+        assertFalse(sceneManager.isLoading());
+        assertTrue(sceneManager.isSceneReady());
+        assertSame(scene, sceneManager.getActiveScene());
+        assertEquals(1, scene.created);
+        assertTrue(sceneManager.getLoading().isDone());
+        assertTrue(app.getEntities().containsKey("loaded"));
+        app.quit();
+    }
+}
@@ -0,0 +1,57 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.config.Configuration;
+import com.demoing.app.core.service.render.ScreenPresenter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ScreenPresenterTest {
+
+    private static BufferedImage present(String mode, int width, int height) throws IOException {
+        Configuration config = new Configuration(new ByteArrayInputStream(
+                ("app.screen.width=320.0\napp.screen.height=200.0\napp.render.scaling.mode=" + mode + "\n")
+                        .getBytes(StandardCharsets.UTF_8)));
+        BufferedImage backBuffer = new BufferedImage(320, 200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D bg = backBuffer.createGraphics();
+        bg.setColor(Color.RED);
+        bg.fillRect(0, 0, 320, 200);
+        bg.dispose();
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        new ScreenPresenter(config).present(g, backBuffer, width, height);
+        g.dispose();
+        return target;
+    }
+
+    @Test
+    @DisplayName("The integer mode scales the buffer by the largest integer factor, centered")
+    public void integerScaleTest() throws IOException {
+        BufferedImage target = present("integer", 700, 450);
+        // scale 2: 640x400 at (30,25)
+        assertEquals(Color.BLACK.getRGB(), target.getRGB(29, 100));
+        assertEquals(Color.RED.getRGB(), target.getRGB(30, 25));
+        assertEquals(Color.RED.getRGB(), target.getRGB(669, 424));
+        assertEquals(Color.BLACK.getRGB(), target.getRGB(670, 424));
+    }
+
+    @Test
+    @DisplayName("The integer mode scales the buffer down to fit a window smaller than the buffer")
+    public void integerScaleFallbackTest() throws IOException {
+        BufferedImage target = present("integer", 200, 150);
+        // fit: 200x125 at (0,12), the whole buffer is visible and letterboxed.
+        assertEquals(Color.BLACK.getRGB(), target.getRGB(100, 5));
+        assertEquals(Color.RED.getRGB(), target.getRGB(199, 130));
+        assertEquals(Color.BLACK.getRGB(), target.getRGB(100, 140));
+    }
+}
@@ -0,0 +1,71 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.config.Configuration;
+import com.demoing.app.core.entity.Entity;
+import com.demoing.app.core.service.collision.CollisionDetector;
+import com.demoing.app.core.service.monitor.AllocationMonitor;
+import com.demoing.app.core.service.monitor.FrameProfiler;
+import com.demoing.app.core.service.monitor.Histogram;
+import com.demoing.app.core.service.physic.World;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(AllocationBudgetExtension.class)
+public class SteadyStateAllocationTest {
+
+    @Test
+    @AllocationBudget(bytesPerFrame = 64)
+    @DisplayName("A steady-state frame of entities update and collision detection does not allocate")
+    public void steadyStateFrameTest(AllocationBudgetExtension.FrameMeter meter) {
+        Configuration config = new Configuration("test-config.properties");
+        World world = new World().setArea(config.worldWidth, config.worldHeight);
+        CollisionDetector detector = new CollisionDetector(null, config, world);
+        List<Entity> entities = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            // entities on a grid, without overlap.
+            Entity e = new Entity("entity_" + i).setSize(8, 8).setPosition((i % 10) * 16, (i / 10) * 16);
+            entities.add(e);
+            detector.add(e);
+        }
+        Histogram frames = new Histogram("frame");
+        meter.measure(() -> {
+            long start = System.nanoTime();
+            for (Entity e : entities) {
+                e.update(16);
+            }
+            detector.update(16);
+            frames.record(System.nanoTime() - start);
+        });
+        assertEquals(50 * 49, detector.getTestedPairs());
+        assertEquals(0, detector.getCollidingPairs());
+    }
+
+    @Test
+    @DisplayName("The allocations are measured per phase and per frame")
+    public void allocationMonitorTest() {
+        AllocationMonitor monitor = new AllocationMonitor(true);
+        try {
+            monitor.startFrame();
+            byte[][] garbage = new byte[16][];
+            for (int i = 0; i < garbage.length; i++) {
+                garbage[i] = new byte[1024];
+            }
+            monitor.phase(FrameProfiler.PHYSIC);
+            monitor.phase(FrameProfiler.RENDER);
+            monitor.endFrame();
+            assertTrue(monitor.getLastPhaseBytes()[FrameProfiler.PHYSIC] >= 16 * 1024, "physic phase allocations");
+            assertTrue(monitor.getLastPhaseBytes()[FrameProfiler.RENDER] < 1024, "render phase allocations");
+            assertEquals(monitor.getLastFrameBytes(), monitor.getTotalBytes());
+            assertEquals(1, monitor.getFrames());
+        } finally {
+            monitor.dispose();
+        }
+    }
+}
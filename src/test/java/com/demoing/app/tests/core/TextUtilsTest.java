@@ -0,0 +1,65 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.entity.ValueEntity;
+import com.demoing.app.core.utils.TextUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class TextUtilsTest {
+
+    @Test
+    @DisplayName("Integer values are formatted like String.format")
+    public void appendIntMatchesStringFormatTest() {
+        StringBuilder sb = new StringBuilder();
+        int[] values = {0, 7, -7, 42, 999, 123456, -123456, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (int v : values) {
+            sb.setLength(0);
+            assertEquals(String.format("%06d", v), TextUtils.appendInt(sb, v, 6, '0').toString(), "%06d of " + v);
+            sb.setLength(0);
+            assertEquals(String.format("%3d", v), TextUtils.appendInt(sb, v, 3, ' ').toString(), "%3d of " + v);
+            sb.setLength(0);
+            assertEquals(String.format("%d", v), TextUtils.appendInt(sb, v, 0, ' ').toString(), "%d of " + v);
+        }
+    }
+
+    @Test
+    @DisplayName("Decimal values are formatted like String.format")
+    public void appendDecimalMatchesStringFormatTest() {
+        StringBuilder sb = new StringBuilder();
+        double[] values = {0.0, 0.5, 1.006, -0.001, 3.14159, -12.5, 640.0, 98765.4321};
+        for (double v : values) {
+            sb.setLength(0);
+            assertEquals(String.format(Locale.ROOT, "%03.2f", v),
+                    TextUtils.appendDecimal(sb, v, 3, 2, '0').toString(), "%03.2f of " + v);
+            sb.setLength(0);
+            assertEquals(String.format(Locale.ROOT, "%3.0f", v),
+                    TextUtils.appendDecimal(sb, v, 3, 0, ' ').toString(), "%3.0f of " + v);
+            sb.setLength(0);
+            assertEquals(String.format(Locale.ROOT, "%1.03f", v),
+                    TextUtils.appendDecimal(sb, v, 1, 3, ' ').toString(), "%1.03f of " + v);
+        }
+    }
+
+    @Test
+    @DisplayName("A ValueEntity rebuilds its text only when its value changes")
+    public void valueEntityTextOnlyChangesWithValueTest() {
+        ValueEntity ve = new ValueEntity("score").setFormat("%06d").setValue(1234);
+        ve.update(16);
+        String text = ve.valueTxt;
+        assertEquals("001234", text);
+        ve.setValue(1234);
+        ve.update(16);
+        assertSame(text, ve.valueTxt, "The text has been rebuilt without any value change");
+        ve.setValue(56);
+        ve.update(16);
+        assertEquals("000056", ve.valueTxt);
+        ve.setFormat("%3d");
+        ve.update(16);
+        assertEquals(" 56", ve.valueTxt);
+    }
+}
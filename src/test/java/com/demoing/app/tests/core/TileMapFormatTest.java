@@ -0,0 +1,137 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.io.TileMapData;
+import com.demoing.app.core.io.TileMapFormat;
+import com.demoing.app.core.io.TileMapLoader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TileMapFormatTest {
+
+    @Test
+    @DisplayName("A properties map is parsed with typed attributes")
+    public void readPropertiesMapTest() throws IOException {
+        TileMapData data = TileMapLoader.read("/maps/map_test.properties");
+        assertEquals("tm_02", data.name);
+        assertEquals(40 * 20, data.cells.length);
+        assertEquals(9, data.cells[3 * 40 + 2]);
+        assertEquals(2, data.background);
+        assertEquals("/images/tiles01.png", data.resources.get(1));
+        Map<String, Object> image = (Map<String, Object>) data.tiles.get(1).get("image");
+        assertEquals(96, image.get("x"));
+        Map<String, Object> attributes = (Map<String, Object>) data.tiles.get(5).get("attributes");
+        assertEquals(true, attributes.get("collectible"));
+        assertEquals(10, attributes.get("money"));
+    }
+
+    @Test
+    @DisplayName("The attributes and cells of a properties map are parsed as Integer.parseInt and Double.parseDouble")
+    public void numbersParsingTest() throws IOException {
+        TileMapData data = TileMapLoader.readProperties(map("-1,+2,3,\\\n 4,"));
+        assertArrayEquals(new int[]{-1, 2, 3, 4}, data.cells);
+        Map<String, Object> attributes = (Map<String, Object>) data.tiles.get(1).get("attributes");
+        assertEquals(5, attributes.get("plus"));
+        assertEquals(-3, attributes.get("minus"));
+        assertEquals(1e5, attributes.get("exponent"));
+        assertEquals(0.5, attributes.get("decimal"));
+        assertEquals(3e9, attributes.get("long"));
+        assertEquals(true, attributes.get("flag"));
+        assertEquals("tRue", attributes.get("text"));
+        assertEquals("1-2", attributes.get("range"));
+
+        assertThrows(IOException.class, () -> TileMapLoader.readProperties(map("1,x,3,4")));
+        assertThrows(IOException.class, () -> TileMapLoader.readProperties(map("1,,3,4")));
+        assertThrows(IOException.class, () -> TileMapLoader.readProperties(map("1,2,3,4,5")));
+    }
+
+    private static InputStream map(String cells) {
+        return new ByteArrayInputStream(("level.object.name=numbers\n"
+                + "level.map.width=2\n"
+                + "level.map.height=2\n"
+                + "level.map.tile.width=16\n"
+                + "level.map.tile.height=16\n"
+                + "level.tiles.1=name:tile;attributes:[plus=+5,minus=-3,exponent=1e5,decimal=.5,long=3000000000,"
+                + "flag=TRUE,text=tRue,range=1-2]\n"
+                + "level.map=" + cells + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("A compiled map is read back from a memory-mapped file as written")
+    public void compiledMapRoundTripTest(@TempDir Path dir) throws IOException {
+        TileMapData source = TileMapLoader.read("/maps/map_test.properties");
+        Path file = dir.resolve("map_test" + TileMapFormat.EXTENSION);
+        try (OutputStream os = Files.newOutputStream(file)) {
+            TileMapFormat.write(source, os);
+        }
+        TileMapData compiled = TileMapFormat.read(file);
+        assertEquals(source.name, compiled.name);
+        assertEquals(source.mapWidth, compiled.mapWidth);
+        assertEquals(source.mapHeight, compiled.mapHeight);
+        assertEquals(source.tileWidth, compiled.tileWidth);
+        assertEquals(source.tileHeight, compiled.tileHeight);
+        assertEquals(source.background, compiled.background);
+        assertEquals(source.resources, compiled.resources);
+        assertEquals(source.tiles, compiled.tiles);
+        assertEquals(source.objects, compiled.objects);
+        assertArrayEquals(source.cells, compiled.cells);
+    }
+
+    @Test
+    @DisplayName("A chunk region is read from a streamed compiled map as from the map cells")
+    public void streamedRegionTest(@TempDir Path dir) throws IOException {
+        TileMapData source = TileMapLoader.read("/maps/map_test.properties");
+        Path file = dir.resolve("map_test" + TileMapFormat.EXTENSION);
+        try (OutputStream os = Files.newOutputStream(file)) {
+            TileMapFormat.write(source, os);
+        }
+        TileMapData streamed = TileMapFormat.open(file);
+        assertNull(streamed.cells);
+        assertEquals(source.objects, streamed.objects);
+        int[] expected = new int[8 * 4];
+        int[] region = new int[8 * 4];
+        source.readRegion(32, 16, 8, 4, expected);
+        streamed.readRegion(32, 16, 8, 4, region);
+        assertArrayEquals(expected, region);
+        for (int iy = 0; iy < 4; iy++) {
+            for (int ix = 0; ix < 8; ix++) {
+                assertEquals(source.cells[32 + ix + (16 + iy) * source.mapWidth], region[ix + iy * 8]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Large cell values are packed on wider cells")
+    public void packedCellsTest() throws IOException {
+        TileMapData source = new TileMapData();
+        source.name = "cells";
+        source.mapWidth = 4;
+        source.mapHeight = 1;
+        source.objects.put(300, Map.of("ratio", 0.5, "name", "big", "attributes", Map.of("live", 10)));
+        for (int[] cells : new int[][]{{0, 1, 2, 255}, {0, 256, 300, 65535}, {0, 65536, -1, Integer.MAX_VALUE}}) {
+            source.cells = cells;
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            TileMapFormat.write(source, out);
+            TileMapData compiled = TileMapFormat.read(ByteBuffer.wrap(out.toByteArray()));
+            assertArrayEquals(cells, compiled.cells);
+            assertEquals(source.objects, compiled.objects);
+        }
+        assertThrows(IOException.class, () -> TileMapFormat.read(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6})));
+    }
+}
@@ -0,0 +1,75 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.entity.Entity;
+import com.demoing.app.core.entity.MapEntity;
+import com.demoing.app.core.entity.tilemap.TileMap;
+import com.demoing.app.core.io.TileMapData;
+import com.demoing.app.core.io.TileMapLoader;
+import com.demoing.app.core.scene.Scene;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TileMapReloadTest {
+    private static final String MAP = "/maps/map_reload_test.properties";
+    /**
+     * The player object cell (column 1, row 1) in the 4 cells wide map.
+     */
+    private static final int PLAYER_CELL = 4 + 1;
+
+    private static List<Entity> players(TileMap tm) {
+        return tm.getChild().stream().filter(e -> e.name.equals("player")).toList();
+    }
+
+    private static List<Entity> mappedPlayers(MapEntity map) {
+        return map.getCategories().get(0).dynamics;
+    }
+
+    @Test
+    @DisplayName("The objects replaced by a map reload are unregistered, and the new ones registered")
+    public void reloadReplacesObjectsTest() throws IOException {
+        Application app = new Application(new String[]{}, "test-bench.properties");
+        app.initializeServices();
+        app.getSceneManager().loadScenes(app.getConfiguration().scenes.split(","));
+        Scene scene = app.getSceneManager().getActiveScene();
+        MapEntity map = new MapEntity("minimap").setColorMapping(Map.of("player", Color.BLUE));
+        app.addEntity(map);
+        TileMap tm = TileMapLoader.load(app, scene, MAP);
+        app.addEntity(tm);
+        Entity player = players(tm).get(0);
+        assertSame(player, app.getCollisionDetector().colliders.get("player"));
+        assertEquals(List.of(player), mappedPlayers(map));
+
+        // the player is moved one cell to the right.
+        TileMapData data = TileMapLoader.read(MAP);
+        data.cells[PLAYER_CELL] = 0;
+        data.cells[PLAYER_CELL + 1] = 9;
+        assertEquals(2, TileMapLoader.reload(app, scene, tm, data));
+
+        assertEquals(1, players(tm).size());
+        Entity moved = players(tm).get(0);
+        assertEquals(32.0, moved.pos.x);
+        assertSame(moved, app.getCollisionDetector().colliders.get("player"));
+        assertEquals(List.of(moved), mappedPlayers(map));
+        assertSame(tm, app.getEntity(tm.name));
+
+        // the player is removed.
+        data = TileMapLoader.read(MAP);
+        data.cells[PLAYER_CELL] = 0;
+        assertEquals(1, TileMapLoader.reload(app, scene, tm, data));
+        assertTrue(players(tm).isEmpty());
+        assertFalse(app.getCollisionDetector().colliders.containsKey("player"));
+        assertTrue(mappedPlayers(map).isEmpty());
+        app.quit();
+    }
+}
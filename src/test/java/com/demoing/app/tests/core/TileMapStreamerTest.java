@@ -0,0 +1,152 @@
+package com.demoing.app.tests.core;
+
+import com.demoing.app.core.Application;
+import com.demoing.app.core.entity.Camera;
+import com.demoing.app.core.entity.tilemap.TileMap;
+import com.demoing.app.core.io.TileMapData;
+import com.demoing.app.core.io.TileMapFormat;
+import com.demoing.app.core.io.TileMapLoader;
+import com.demoing.app.core.io.TileMapStreamer;
+import com.demoing.app.core.scene.Scene;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TileMapStreamerTest {
+    /**
+     * A map of 5 x 3 chunks of 8 x 8 tiles of 16 pixels, with a coin object at the origin of each chunk.
+     * The 320 x 200 view covers 3 x 2 chunks, plus a margin of 1 chunk.
+     */
+    private static final int CHUNK = 8;
+    private static final int WIDTH = 5 * CHUNK;
+    private static final int HEIGHT = 3 * CHUNK;
+    private static final int COIN = 9;
+
+    private static TileMapData compile(Path dir, String name, int[] cells) throws IOException {
+        TileMapData data = TileMapLoader.read("/maps/map_reload_test.properties");
+        data.name = name;
+        data.mapWidth = WIDTH;
+        data.mapHeight = HEIGHT;
+        Map<String, Object> coin = new HashMap<>(data.objects.get(COIN));
+        coin.put("name", "coin_#");
+        data.objects.put(COIN, coin);
+        data.cells = cells;
+        Path file = dir.resolve(name + TileMapFormat.EXTENSION);
+        try (OutputStream os = Files.newOutputStream(file)) {
+            TileMapFormat.write(data, os);
+        }
+        return TileMapFormat.open(file);
+    }
+
+    private static int[] coins() {
+        int[] cells = new int[WIDTH * HEIGHT];
+        for (int cy = 0; cy < 3; cy++) {
+            for (int cx = 0; cx < 5; cx++) {
+                cells[cx * CHUNK + cy * CHUNK * WIDTH] = COIN;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Update the streamer until all the requested chunks are loaded and resident.
+     */
+    private static void settle(TileMapStreamer streamer, Camera camera) throws InterruptedException {
+        streamer.update(camera);
+        for (int i = 0; i < 500 && streamer.getLoadingChunks() > 0; i++) {
+            Thread.sleep(2);
+            streamer.update(camera);
+        }
+        assertEquals(0, streamer.getLoadingChunks());
+    }
+
+    private static long coinsAt(Application app, int cx, int cy) {
+        return app.getEntities().values().stream()
+                .filter(e -> e.name.startsWith("coin_")
+                        && e.pos.x == cx * CHUNK * 16 && e.pos.y == cy * CHUNK * 16)
+                .count();
+    }
+
+    private static long coins(Application app) {
+        return app.getEntities().keySet().stream().filter(n -> n.startsWith("coin_")).count();
+    }
+
+    @Test
+    @DisplayName("The chunks around the camera are made resident with their objects, and released one chunk away")
+    public void streamAroundCameraTest(@TempDir Path dir) throws IOException, InterruptedException {
+        Application app = new Application(new String[]{}, "test-bench.properties");
+        app.initializeServices();
+        app.getSceneManager().loadScenes(app.getConfiguration().scenes.split(","));
+        Scene scene = app.getSceneManager().getActiveScene();
+        TileMapData data = compile(dir, "tm_stream", coins());
+        TileMap tm = new TileMap("tm_stream")
+                .setMapSize(WIDTH, HEIGHT)
+                .setTileSize(16, 16)
+                .setChunkSize(CHUNK);
+        TileMapStreamer streamer = new TileMapStreamer(app, scene, tm, data);
+        tm.setStreamer(streamer);
+        Camera camera = new Camera("cam");
+
+        // view on chunks 0..2 x 0..1, plus the margin: chunks 0..3 x 0..2.
+        settle(streamer, camera);
+        assertEquals(12, streamer.getResidentChunks());
+        assertNotNull(tm.getChunk(3, 2));
+        assertNull(tm.getChunk(4, 0));
+        assertEquals(12, coins(app));
+
+        // 2 chunks to the right: chunks 1..4 are requested, the chunk 0 column is kept by the hysteresis.
+        camera.pos.x = 2 * CHUNK * 16;
+        settle(streamer, camera);
+        assertEquals(15, streamer.getResidentChunks());
+        assertNotNull(tm.getChunk(0, 0));
+        assertEquals(15, coins(app));
+
+        // one more chunk: the chunk 0 column is now 2 chunks away from the requested ones, and released.
+        camera.pos.x = 3 * CHUNK * 16;
+        settle(streamer, camera);
+        assertEquals(12, streamer.getResidentChunks());
+        assertNull(tm.getChunk(0, 0));
+        assertEquals(0, coinsAt(app, 0, 0));
+        assertEquals(12, coins(app));
+        assertEquals(3, streamer.getReleasedChunks());
+
+        // back to the start: the chunk 0 column is requested, and a reload cancels its loading.
+        int[] cells = coins();
+        cells[2 * CHUNK] = 0;
+        TileMapData reloaded = compile(dir, "tm_stream_2", cells);
+        camera.pos.x = 0;
+        streamer.update(camera);
+        assertEquals(3, streamer.getLoadingChunks());
+        // only the resident chunk whose cells changed is released.
+        assertEquals(1, streamer.reload(reloaded));
+        assertEquals(0, streamer.getLoadingChunks());
+        assertNull(tm.getChunk(2, 0));
+        assertEquals(0, coinsAt(app, 2, 0));
+        assertEquals(1, coinsAt(app, 2, 1));
+
+        settle(streamer, camera);
+        // the chunk 4 column is still kept by the hysteresis, the chunk (2, 0) has no more coin.
+        assertEquals(15, streamer.getResidentChunks());
+        assertNotNull(tm.getChunk(0, 0));
+        assertNotNull(tm.getChunk(2, 0));
+        assertEquals(1, coinsAt(app, 0, 0));
+        assertEquals(0, coinsAt(app, 2, 0));
+        assertEquals(14, coins(app));
+
+        streamer.dispose();
+        assertEquals(0, streamer.getResidentChunks());
+        assertEquals(0, coins(app));
+        app.quit();
+    }
+}